@@ -0,0 +1,687 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates a `XxxJsonReader` for every class annotated with `io.nats.jparse.bind.JsonReadable`.
+ * <p>
+ * The generated reader binds the class the way `JsonBinder` does, but as plain code: keys are found with a `switch`
+ * on the key length and, when several keys share a length, on the character that tells them apart, then confirmed
+ * with `CharSource.matchChars`. Values are read through `TokenValues`, which calls `getInt`, `getLong` and
+ * `getDouble` on the source directly. Unknown keys are skipped. There is no reflection at run time.
+ * Readers of classes with a no-argument constructor also get `fill` and `readInto`, which write into an existing
+ * instance and reuse its `StringBuilder`, `CharSequenceView` and nested object fields like `JsonBinder.fill` does.
+ * <p>
+ * Annotations are looked up by name so the processor does not depend on the jparse library.
+ */
+public class JsonReaderProcessor extends AbstractProcessor {
+
+    static final String JSON_READABLE = "io.nats.jparse.bind.JsonReadable";
+    static final String JSON_NAME = "io.nats.jparse.bind.JsonName";
+    static final String CONSTRUCTOR_PROPERTIES = "java.beans.ConstructorProperties";
+
+    private static final String TOKEN_VALUES = "io.nats.jparse.bind.TokenValues";
+    private static final String TOKENS = "java.util.List<io.nats.jparse.token.Token>";
+    private static final String TOKEN = "io.nats.jparse.token.Token";
+    private static final String CHAR_SOURCE = "io.nats.jparse.source.CharSource";
+
+    /**
+     * A field that could not be mapped, reported as a compile error on the element.
+     */
+    private static final class ReaderException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        /* Only reported within the round that threw, never serialized. */
+        final transient Element element;
+
+        ReaderException(final String message, final Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+
+    /**
+     * A bound field: its JSON key, its type, the statement prefix/suffix that stores a value into it, and the
+     * expression of its current value (`null` when it cannot be read) so builders, views and objects can be reused.
+     */
+    private static final class Property {
+        final VariableElement field;
+        final String key;
+        final TypeMirror type;
+        final String storePrefix;
+        final String storeSuffix;
+        final String current;
+
+        Property(final VariableElement field, final String key, final String storePrefix, final String storeSuffix,
+                 final String current) {
+            this.field = field;
+            this.key = key;
+            this.type = field.asType();
+            this.storePrefix = storePrefix;
+            this.storeSuffix = storeSuffix;
+            this.current = current;
+        }
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(JSON_READABLE);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                try {
+                    if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+                        throw new ReaderException("@JsonReadable needs a concrete class", element);
+                    }
+                    for (Element cls = element; cls instanceof TypeElement; cls = cls.getEnclosingElement()) {
+                        if (cls.getModifiers().contains(Modifier.PRIVATE)) {
+                            throw new ReaderException("@JsonReadable classes must not be private", element);
+                        }
+                    }
+                    generate((TypeElement) element);
+                } catch (ReaderException ex) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, ex.getMessage(), ex.element);
+                } catch (IOException ex) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "Cannot write the reader: " + ex.getMessage(), element);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(final TypeElement type) throws ReaderException, IOException {
+        final String packageName = packageOf(type).getQualifiedName().toString();
+        final String readerName = readerSimpleName(type);
+        final String typeName = type.getQualifiedName().toString();
+        final List<VariableElement> fields = fields(type);
+        final ReaderWriter out = new ReaderWriter();
+
+        final boolean setterMode = canFill(type);
+        final List<Property> properties = new ArrayList<>();
+        if (setterMode) {
+            for (VariableElement field : fields) {
+                if (!field.getModifiers().contains(Modifier.FINAL)) {
+                    properties.add(setterProperty(type, field));
+                }
+            }
+        } else {
+            final List<VariableElement> arguments = constructorArguments(type, fields);
+            if (arguments == null) {
+                throw new ReaderException("Cannot generate a reader for " + typeName + ", it needs a no-argument "
+                        + "constructor or a constructor whose parameters name every field", type);
+            }
+            for (int i = 0; i < arguments.size(); i++) {
+                properties.add(new Property(arguments.get(i), key(arguments.get(i)), "f" + i + " = ", ";", "null"));
+            }
+        }
+
+        if (!packageName.isEmpty()) {
+            out.line("package " + packageName + ";").line();
+        }
+        out.line("/**");
+        out.line(" * Reads `" + type.getSimpleName() + "` from JSON, generated from `@JsonReadable` by `JsonReaderProcessor`.");
+        out.line(" */");
+        out.open("public final class " + readerName + " {").line();
+        out.open("private " + readerName + "() {").close("}").line();
+
+        out.open("public static " + typeName + " read(final String json) {");
+        out.line("return read(io.nats.jparse.source.Sources.stringSource(json));").close("}").line();
+        out.open("public static " + typeName + " read(final " + CHAR_SOURCE + " source) {");
+        out.line("return read(io.nats.jparse.Json.toTokens(source), source, 0);").close("}").line();
+        out.open("public static " + typeName + " read(final io.nats.jparse.node.Node node) {");
+        out.line("return read(node.tokens(), node.charSource(), 0);").close("}").line();
+
+        out.open("public static java.util.List<" + typeName + "> readList(final " + TOKENS + " tokens, final "
+                + CHAR_SOURCE + " source, final int index) {");
+        out.line("if (" + TOKEN_VALUES + ".isNull(tokens.get(index))) {").line("    return null;").line("}");
+        out.line("final java.util.List<" + typeName + "> list = new java.util.ArrayList<>();");
+        out.open("for (int element = " + TOKEN_VALUES + ".firstElement(tokens, index, \"List\"); element != -1; element = "
+                + TOKEN_VALUES + ".nextElement(tokens, index, element)) {");
+        out.line("list.add(read(tokens, source, element));").close("}");
+        out.line("return list;").close("}").line();
+
+        final List<String> helpers = new ArrayList<>();
+        out.open("public static " + typeName + " read(final " + TOKENS + " tokens, final " + CHAR_SOURCE
+                + " source, final int index) {");
+        out.line("if (" + TOKEN_VALUES + ".isNull(tokens.get(index))) {").line("    return null;").line("}");
+        if (setterMode) {
+            out.line("final " + typeName + " target = new " + typeName + "();");
+            out.line("fill(target, tokens, source, index);");
+            out.line("return target;").close("}").line();
+            out.open("public static " + typeName + " readInto(final " + typeName + " current, final " + TOKENS
+                    + " tokens, final " + CHAR_SOURCE + " source, final int index) {");
+            out.line("if (current == null || " + TOKEN_VALUES + ".isNull(tokens.get(index))) {");
+            out.line("    return read(tokens, source, index);").line("}");
+            out.line("fill(current, tokens, source, index);");
+            out.line("return current;").close("}").line();
+            out.open("public static void fill(final " + typeName + " target, final " + TOKENS + " tokens, final "
+                    + CHAR_SOURCE + " source, final int index) {");
+            attributes(out, typeName, properties, helpers);
+            out.close("}");
+        } else {
+            final StringBuilder arguments = new StringBuilder();
+            for (int i = 0; i < properties.size(); i++) {
+                final TypeMirror fieldType = properties.get(i).type;
+                out.line(fieldType + " f" + i + " = " + defaultValue(fieldType) + ";");
+                arguments.append(i == 0 ? "" : ", ").append('f').append(i);
+            }
+            attributes(out, typeName, properties, helpers);
+            out.line("return new " + typeName + "(" + arguments + ");").close("}");
+        }
+        for (String helper : helpers) {
+            out.line().raw(helper);
+        }
+        out.close("}");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(
+                packageName.isEmpty() ? readerName : packageName + "." + readerName, type).openWriter()) {
+            writer.write(out.toString());
+        }
+    }
+
+    /**
+     * Writes the loop over the attributes of the object at `index` with the key dispatch.
+     */
+    private void attributes(final ReaderWriter out, final String typeName, final List<Property> properties,
+                            final List<String> helpers) throws ReaderException {
+        out.open("for (int attribute = " + TOKEN_VALUES + ".firstAttribute(tokens, index, \"" + typeName
+                + "\"); attribute != -1; attribute = " + TOKEN_VALUES + ".nextAttribute(tokens, index, attribute)) {");
+        if (properties.isEmpty()) {
+            out.close("}");
+            return;
+        }
+        out.line("final " + TOKEN + " key = tokens.get(attribute + 1);");
+        out.line("final int start = key.startIndex;");
+        out.line("final int end = key.endIndex;");
+        out.line("final int valueIndex = attribute + 3;");
+        out.line("final " + TOKEN + " value = tokens.get(valueIndex);");
+
+        final Map<Integer, List<Property>> byLength = new TreeMap<>();
+        for (Property property : properties) {
+            byLength.computeIfAbsent(property.key.length(), length -> new ArrayList<>()).add(property);
+        }
+        out.open("switch (end - start) {");
+        for (Map.Entry<Integer, List<Property>> entry : byLength.entrySet()) {
+            out.open("case " + entry.getKey() + ":");
+            final List<Property> group = entry.getValue();
+            final int position = distinguishingPosition(group);
+            if (position < 0) {
+                matches(out, group, helpers);
+            } else {
+                final Map<Character, List<Property>> byChar = new TreeMap<>();
+                for (Property property : group) {
+                    byChar.computeIfAbsent(property.key.charAt(position), c -> new ArrayList<>()).add(property);
+                }
+                out.open("switch (source.getChartAt(start" + (position == 0 ? "" : " + " + position) + ")) {");
+                for (Map.Entry<Character, List<Property>> charEntry : byChar.entrySet()) {
+                    out.open("case " + charLiteral(charEntry.getKey()) + ":");
+                    matches(out, charEntry.getValue(), helpers);
+                    out.line("break;").close("");
+                }
+                out.close("}");
+            }
+            out.line("break;").close("");
+        }
+        out.close("}");
+        out.close("}");
+    }
+
+    /**
+     * Writes the `matchChars` checks of keys that share a length (and a character), storing the value on a match.
+     */
+    private void matches(final ReaderWriter out, final List<Property> group, final List<String> helpers) throws ReaderException {
+        for (int i = 0; i < group.size(); i++) {
+            final Property property = group.get(i);
+            out.open((i == 0 ? "if" : "} else if") + " (source.matchChars(start, end, " + stringLiteral(property.key) + ")) {");
+            store(out, property, helpers);
+            out.indent(-1);
+        }
+        out.line("}");
+    }
+
+    private void store(final ReaderWriter out, final Property property, final List<String> helpers) throws ReaderException {
+        final String expression = read(property.type, "value", "valueIndex", property.current, property.field, helpers);
+        if (property.type.getKind().isPrimitive()) {
+            out.open("if (!" + TOKEN_VALUES + ".isNull(value)) {");
+            out.line(property.storePrefix + expression + property.storeSuffix).close("}");
+        } else {
+            out.line(property.storePrefix + expression + property.storeSuffix);
+        }
+    }
+
+    /**
+     * Returns the expression that reads a value of a type. Primitive values must be checked for `null` first.
+     *
+     * @param type    the type to read
+     * @param token   the expression of the first token of the value
+     * @param index   the expression of the index of that token
+     * @param current the expression of the current value to reuse, `null` if there is none
+     * @param field   the field, for error messages
+     * @param helpers the generated helper methods, a helper is added for each list
+     */
+    private String read(final TypeMirror type, final String token, final String index, final String current,
+                        final VariableElement field, final List<String> helpers) throws ReaderException {
+        switch (type.getKind()) {
+            case INT:
+                return TOKEN_VALUES + ".intValue(" + token + ", source)";
+            case LONG:
+                return TOKEN_VALUES + ".longValue(" + token + ", source)";
+            case DOUBLE:
+                return TOKEN_VALUES + ".doubleValue(" + token + ", source)";
+            case FLOAT:
+                return TOKEN_VALUES + ".floatValue(" + token + ", source)";
+            case BOOLEAN:
+                return TOKEN_VALUES + ".booleanValue(" + token + ", source)";
+            case ARRAY:
+                final TypeKind component = ((ArrayType) type).getComponentType().getKind();
+                if (component == TypeKind.INT || component == TypeKind.LONG || component == TypeKind.DOUBLE) {
+                    return TOKEN_VALUES + "." + component.name().toLowerCase() + "Array(tokens, source, " + index + ")";
+                }
+                break;
+            case DECLARED:
+                return readDeclared((DeclaredType) type, token, index, current, field, helpers);
+            default:
+                break;
+        }
+        throw new ReaderException("Unsupported type " + type + " of " + field.getSimpleName(), field);
+    }
+
+    private String readDeclared(final DeclaredType type, final String token, final String index, final String current,
+                                final VariableElement field, final List<String> helpers) throws ReaderException {
+        final TypeElement element = (TypeElement) type.asElement();
+        final String name = element.getQualifiedName().toString();
+        final String ifNotNull = TOKEN_VALUES + ".isNull(" + token + ") ? null : ";
+        switch (name) {
+            case "java.lang.String":
+            case "java.lang.CharSequence":
+                return ifNotNull + TOKEN_VALUES + ".stringValue(" + token + ", source, \"String\")";
+            case "java.lang.StringBuilder":
+                return TOKEN_VALUES + ".stringBuilderValue(" + token + ", source, " + current + ")";
+            case "io.nats.jparse.bind.CharSequenceView":
+                return TOKEN_VALUES + ".charSequenceViewValue(" + token + ", source, " + current + ")";
+            case "java.lang.Integer":
+                return ifNotNull + "Integer.valueOf(" + TOKEN_VALUES + ".intValue(" + token + ", source))";
+            case "java.lang.Long":
+                return ifNotNull + "Long.valueOf(" + TOKEN_VALUES + ".longValue(" + token + ", source))";
+            case "java.lang.Double":
+                return ifNotNull + "Double.valueOf(" + TOKEN_VALUES + ".doubleValue(" + token + ", source))";
+            case "java.lang.Float":
+                return ifNotNull + "Float.valueOf(" + TOKEN_VALUES + ".floatValue(" + token + ", source))";
+            case "java.lang.Boolean":
+                return ifNotNull + "Boolean.valueOf(" + TOKEN_VALUES + ".booleanValue(" + token + ", source))";
+            case "java.math.BigDecimal":
+                return ifNotNull + TOKEN_VALUES + ".bigDecimalValue(" + token + ", source)";
+            case "java.math.BigInteger":
+                return ifNotNull + TOKEN_VALUES + ".bigIntegerValue(" + token + ", source)";
+            case "java.util.List":
+            case "java.util.Collection":
+            case "java.util.ArrayList":
+                if (type.getTypeArguments().size() == 1 && type.getTypeArguments().get(0).getKind() == TypeKind.DECLARED) {
+                    return list((DeclaredType) type.getTypeArguments().get(0), index, field, helpers);
+                }
+                break;
+            default:
+                if (element.getKind() == ElementKind.ENUM) {
+                    return ifNotNull + name + ".valueOf(" + TOKEN_VALUES + ".stringValue(" + token + ", source, \""
+                            + element.getSimpleName() + "\"))";
+                }
+                if (annotation(element, JSON_READABLE) != null) {
+                    final String packageName = packageOf(element).getQualifiedName().toString();
+                    final String reader = (packageName.isEmpty() ? "" : packageName + ".") + readerSimpleName(element);
+                    if (!"null".equals(current) && canFill(element)) {
+                        return reader + ".readInto(" + current + ", tokens, source, " + index + ")";
+                    }
+                    return reader + ".read(tokens, source, " + index + ")";
+                }
+                throw new ReaderException("Unsupported type " + type + " of " + field.getSimpleName()
+                        + ", classes must be annotated with @JsonReadable", field);
+        }
+        throw new ReaderException("Unsupported type " + type + " of " + field.getSimpleName(), field);
+    }
+
+    /**
+     * Adds a helper method that reads a list and returns the expression that calls it.
+     */
+    private String list(final DeclaredType elementType, final String index, final VariableElement field,
+                        final List<String> helpers) throws ReaderException {
+        final String method = "readList" + helpers.size();
+        helpers.add(null);
+        final ReaderWriter out = new ReaderWriter();
+        out.indent(1);
+        out.open("private static java.util.ArrayList<" + elementType + "> " + method + "(final " + TOKENS
+                + " tokens, final " + CHAR_SOURCE + " source, final int index) {");
+        out.line("if (" + TOKEN_VALUES + ".isNull(tokens.get(index))) {").line("    return null;").line("}");
+        out.line("final java.util.ArrayList<" + elementType + "> list = new java.util.ArrayList<>();");
+        out.open("for (int element = " + TOKEN_VALUES + ".firstElement(tokens, index, \"List\"); element != -1; element = "
+                + TOKEN_VALUES + ".nextElement(tokens, index, element)) {");
+        out.line("list.add(" + read(elementType, "tokens.get(element)", "element", "null", field, helpers) + ");").close("}");
+        out.line("return list;").close("}");
+        helpers.set(helpers.indexOf(null), out.toString());
+        return method + "(tokens, source, " + index + ")";
+    }
+
+    private Property setterProperty(final TypeElement type, final VariableElement field) throws ReaderException {
+        final String name = field.getSimpleName().toString();
+        final String setter = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (TypeElement cls = type; cls != null; cls = superclass(cls)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(cls.getEnclosedElements())) {
+                if (method.getSimpleName().contentEquals(setter) && method.getParameters().size() == 1
+                        && !method.getModifiers().contains(Modifier.STATIC) && accessible(method, type)
+                        && processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), field.asType())) {
+                    return new Property(field, key(field), "target." + setter + "(", ");",
+                            accessible(field, type) ? "target." + name : "null");
+                }
+            }
+        }
+        if (accessible(field, type)) {
+            return new Property(field, key(field), "target." + name + " = ", ";", "target." + name);
+        }
+        throw new ReaderException("Field " + name + " of " + type.getQualifiedName()
+                + " needs a setter or must not be private", field);
+    }
+
+    /**
+     * Returns whether the reader of a class creates it with its no-argument constructor and can fill existing instances.
+     */
+    private boolean canFill(final TypeElement type) {
+        return constructorArguments(type, Collections.<VariableElement>emptyList()) != null;
+    }
+
+    /**
+     * Finds a constructor the reader can call that takes every field, and returns the field of each of its parameters.
+     * Like `BindPlan`, parameters are matched to fields by the names in `@ConstructorProperties`, else by their
+     * `@JsonName` or their own name, so same-typed fields cannot be swapped.
+     */
+    private List<VariableElement> constructorArguments(final TypeElement type, final List<VariableElement> fields) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            final List<? extends VariableElement> parameters = constructor.getParameters();
+            if (constructor.getModifiers().contains(Modifier.PRIVATE) || parameters.size() != fields.size()) {
+                continue;
+            }
+            final List<String> properties = constructorProperties(constructor);
+            final List<VariableElement> arguments = new ArrayList<>();
+            for (int i = 0; i < parameters.size(); i++) {
+                final VariableElement parameter = parameters.get(i);
+                final VariableElement field = field(fields, properties != null && properties.size() == parameters.size()
+                        ? properties.get(i) : key(parameter));
+                if (field == null || arguments.contains(field)
+                        || !processingEnv.getTypeUtils().isSameType(parameter.asType(), field.asType())) {
+                    break;
+                }
+                arguments.add(field);
+            }
+            if (arguments.size() == fields.size()) {
+                return arguments;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> constructorProperties(final ExecutableElement constructor) {
+        final AnnotationMirror properties = annotation(constructor, CONSTRUCTOR_PROPERTIES);
+        if (properties == null) {
+            return null;
+        }
+        final List<String> names = new ArrayList<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : properties.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value")) {
+                for (Object value : (List<?>) entry.getValue().getValue()) {
+                    names.add((String) ((AnnotationValue) value).getValue());
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Finds a field by its name, or else by its JSON key.
+     */
+    private VariableElement field(final List<VariableElement> fields, final String name) {
+        for (VariableElement field : fields) {
+            if (field.getSimpleName().contentEquals(name)) {
+                return field;
+            }
+        }
+        for (VariableElement field : fields) {
+            if (key(field).equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The bound fields of a class, superclass fields first, like `BindPlan` binds them.
+     */
+    private List<VariableElement> fields(final TypeElement type) {
+        final List<VariableElement> fields = new ArrayList<>();
+        for (TypeElement cls = type; cls != null; cls = superclass(cls)) {
+            final List<VariableElement> declared = new ArrayList<>();
+            for (VariableElement field : ElementFilter.fieldsIn(cls.getEnclosedElements())) {
+                final Set<Modifier> modifiers = field.getModifiers();
+                if (!modifiers.contains(Modifier.STATIC) && !modifiers.contains(Modifier.TRANSIENT)) {
+                    declared.add(field);
+                }
+            }
+            fields.addAll(0, declared);
+        }
+        return fields;
+    }
+
+    private TypeElement superclass(final TypeElement type) {
+        final TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        final TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private boolean accessible(final Element member, final TypeElement type) {
+        final Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !modifiers.contains(Modifier.PRIVATE) && !(member.getKind() == ElementKind.FIELD && modifiers.contains(Modifier.FINAL))
+                && packageOf(member).equals(packageOf(type));
+    }
+
+    private String key(final VariableElement field) {
+        final AnnotationMirror name = annotation(field, JSON_NAME);
+        if (name != null) {
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : name.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")) {
+                    return (String) entry.getValue().getValue();
+                }
+            }
+        }
+        return field.getSimpleName().toString();
+    }
+
+    private static AnnotationMirror annotation(final Element element, final String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private PackageElement packageOf(final Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element);
+    }
+
+    /**
+     * `Order` gets `OrderJsonReader`, a nested `Outer.Order` gets `Outer_OrderJsonReader`.
+     */
+    private static String readerSimpleName(final TypeElement type) {
+        final StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element outer = type.getEnclosingElement(); outer instanceof TypeElement; outer = outer.getEnclosingElement()) {
+            name.insert(0, '_').insert(0, outer.getSimpleName());
+        }
+        return name.append("JsonReader").toString();
+    }
+
+    /**
+     * Returns the first position at which the keys of a group differ the most, `-1` for a single key.
+     */
+    static int distinguishingPosition(final List<Property> group) {
+        if (group.size() < 2) {
+            return -1;
+        }
+        final int length = group.get(0).key.length();
+        int best = -1;
+        int bestCount = 1;
+        for (int position = 0; position < length; position++) {
+            final Set<Character> chars = new HashSet<>();
+            for (Property property : group) {
+                chars.add(property.key.charAt(position));
+            }
+            if (chars.size() > bestCount) {
+                best = position;
+                bestCount = chars.size();
+            }
+        }
+        return best;
+    }
+
+    private static String defaultValue(final TypeMirror type) {
+        switch (type.getKind()) {
+            case INT:
+                return "0";
+            case LONG:
+                return "0L";
+            case DOUBLE:
+                return "0.0";
+            case FLOAT:
+                return "0.0f";
+            case BOOLEAN:
+                return "false";
+            default:
+                return "null";
+        }
+    }
+
+    static String stringLiteral(final String value) {
+        final StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            escape(literal, value.charAt(i), '"');
+        }
+        return literal.append('"').toString();
+    }
+
+    static String charLiteral(final char value) {
+        return escape(new StringBuilder("'"), value, '\'').append('\'').toString();
+    }
+
+    private static StringBuilder escape(final StringBuilder literal, final char ch, final char quote) {
+        if (ch == quote || ch == '\\') {
+            literal.append('\\').append(ch);
+        } else if (ch < ' ' || ch > '~') {
+            literal.append(String.format("\\u%04x", (int) ch));
+        } else {
+            literal.append(ch);
+        }
+        return literal;
+    }
+
+    /**
+     * Writes indented lines of generated source.
+     */
+    private static final class ReaderWriter {
+        private final StringBuilder out = new StringBuilder();
+        private int indent;
+
+        ReaderWriter line() {
+            out.append('\n');
+            return this;
+        }
+
+        ReaderWriter line(final String line) {
+            for (int i = 0; i < indent; i++) {
+                out.append("    ");
+            }
+            out.append(line).append('\n');
+            return this;
+        }
+
+        ReaderWriter raw(final String text) {
+            out.append(text);
+            return this;
+        }
+
+        ReaderWriter open(final String line) {
+            line(line);
+            indent++;
+            return this;
+        }
+
+        ReaderWriter close(final String line) {
+            indent--;
+            if (!line.isEmpty()) {
+                line(line);
+            }
+            return this;
+        }
+
+        ReaderWriter indent(final int delta) {
+            indent += delta;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return out.toString();
+        }
+    }
+}
@@ -15,20 +15,46 @@
  */
 package io.nats.jparse;
 
+import io.nats.jparse.bind.CharSequenceView;
+import io.nats.jparse.bind.JsonBinder;
+import io.nats.jparse.node.ArrayNode;
+import io.nats.jparse.node.Columns;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.node.ObjectNode;
 import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.parser.JsonParserBuilder;
+import io.nats.jparse.parser.indexoverlay.JsonPredictiveParser;
+import io.nats.jparse.parser.indexoverlay.KeyOrder;
+import io.nats.jparse.path.CompiledPath;
+import io.nats.jparse.path.PathExpression;
+import io.nats.jparse.path.PathIndex;
+import io.nats.jparse.path.PathSet;
+import io.nats.jparse.path.PredicateIndex;
 import io.nats.jparse.source.Sources;
+import io.nats.jparse.source.support.EiselLemire;
+import io.nats.jparse.source.support.ParseDouble;
+import io.nats.jparse.source.support.ParseFloat;
+import io.nats.jparse.source.support.ParseInteger;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.writer.JsonWriter;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jsoniter.spi.TypeLiteral;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.infra.Blackhole;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 @State(value = Scope.Benchmark)
 public class BenchMark {
@@ -38,15 +64,37 @@ public class BenchMark {
 
     JsonParser strictParser = Json.builder().setStrict(true).build();
 
+    JsonParser iterativeParser = Json.builder().setIterative(true).build();
+
+    JsonParser webXmlProjectionParser = Json.builder().setProjectionPaths(webXmlObjectPath).build();
+
+    JsonParser glossaryProjectionParser = Json.builder().setProjectionPaths(glossaryObjectPath).build();
+
 
 
 
     final static String jsonData;
     final static String doublesJsonData;
+
+    /* The numbers of doubles.json as chars with their bounds, and as strings for the JDK parsers. */
+    final static char[] doublesChars;
+    final static int[] doublesStarts;
+    final static int[] doublesEnds;
+    final static String[] doublesStrings;
     final static String intsJsonData;
+
+    /* 13 digit epoch millisecond timestamps and 19 digit ids, as one char array with their bounds. */
+    final static char[] longsChars;
+    final static int[] timestampStarts;
+    final static int[] idStarts;
+    final static String[] timestampStrings;
+    final static String[] idStrings;
     final static String webXmlJsonData;
     final static String glossaryJsonData;
     final static String glossaryEvent;
+    final static String deptsJsonData;
+    final static String employeesJsonData;
+    final static String[] validationCorpus;
 
 
 
@@ -96,12 +144,54 @@ public class BenchMark {
 
             intsJsonData = Sources.fileSource(new File("./src/test/resources/json/ints.json")).toString().trim();
             doublesJsonData = Sources.fileSource(new File("./src/test/resources/json/doubles.json")).toString().trim();
+            doublesChars = doublesJsonData.toCharArray();
+            final List<Token> doubleTokens = Json.toArrayNode(doublesJsonData).tokens();
+            doublesStarts = new int[doubleTokens.size() - 1];
+            doublesEnds = new int[doublesStarts.length];
+            doublesStrings = new String[doublesStarts.length];
+            for (int i = 0; i < doublesStarts.length; i++) {
+                final Token token = doubleTokens.get(i + 1);
+                doublesStarts[i] = token.startIndex;
+                doublesEnds[i] = token.endIndex;
+                doublesStrings[i] = doublesJsonData.substring(token.startIndex, token.endIndex);
+            }
+            final Random random = new Random(33);
+            final StringBuilder longs = new StringBuilder();
+            timestampStarts = new int[1000];
+            idStarts = new int[1000];
+            timestampStrings = new String[1000];
+            idStrings = new String[1000];
+            for (int i = 0; i < 1000; i++) {
+                timestampStrings[i] = Long.toString(1_600_000_000_000L + (long) (random.nextDouble() * 100_000_000_000L));
+                idStrings[i] = Long.toString(1_000_000_000_000_000_000L + (random.nextLong() >>> 1) % 8_000_000_000_000_000_000L);
+                timestampStarts[i] = longs.length();
+                longs.append(timestampStrings[i]).append(',');
+                idStarts[i] = longs.length();
+                longs.append(idStrings[i]).append(',');
+            }
+            longsChars = longs.toString().toCharArray();
+
+            final StringBuilder employees = new StringBuilder("[");
+            for (int i = 0; i < 1000; i++) {
+                employees.append(i == 0 ? "" : ",").append("{\"firstName\": \"Name").append(i)
+                        .append("\", \"manager\": ").append(i % 7 == 0).append(", \"id\": ").append(i)
+                        .append(", \"managerId\": ").append(i / 7).append(", \"salary\": ").append(50_000.5 + i).append('}');
+            }
+            employeesJsonData = employees.append(']').toString();
+
             glossaryJsonData = Sources.fileSource(new File("./src/test/resources/json/glossary.json")).toString().trim();
             glossaryEvent = Sources.fileSource(new File("./src/test/resources/cloudevents/glossaryEvent.json")).toString().trim();
 
             webXmlJsonData = Sources.fileSource(new File("./src/test/resources/json/webxml.json")).toString().trim();
+            deptsJsonData = Sources.fileSource(new File("./src/test/resources/json/depts.json")).toString().trim();
             jsonData = webXmlJsonData;
 
+            final File[] validationFiles = new File("./src/test/resources/validation").listFiles();
+            validationCorpus = new String[validationFiles.length];
+            for (int i = 0; i < validationFiles.length; i++) {
+                validationCorpus[i] = Sources.fileSource(validationFiles[i]).toString();
+            }
+
         } catch (Exception ex) {
             throw new IllegalStateException(ex);
         }
@@ -763,4 +853,550 @@ public class BenchMark {
 //    public void simpleFullSmallDeserializeJJson(Blackhole bh) {
 //        bh.consume(new JsonParser().parse(jsonData).asCompleteObjectSmall());
 //    }
+
+    @Benchmark
+    public void readWebXmlPathJParseFast(Blackhole bh) {
+        bh.consume(Path.atPath(webXmlObjectPath, fastParser.parse(webXmlJsonData).getNode()));
+    }
+
+    @Benchmark
+    public void readWebXmlPathJParseProjection(Blackhole bh) {
+        bh.consume(Path.atPath(webXmlObjectPath, webXmlProjectionParser.parse(webXmlJsonData).getNode()));
+    }
+
+    @Benchmark
+    public void extractWebXmlPath(Blackhole bh) {
+        bh.consume(Path.extract(webXmlObjectPath, webXmlJsonData));
+    }
+
+    @Benchmark
+    public void readGlossaryPathJParseFast(Blackhole bh) {
+        bh.consume(Path.atPath(glossaryObjectPath, fastParser.parse(glossaryJsonData).getNode()));
+    }
+
+    @Benchmark
+    public void readGlossaryPathJParseProjection(Blackhole bh) {
+        bh.consume(Path.atPath(glossaryObjectPath, glossaryProjectionParser.parse(glossaryJsonData).getNode()));
+    }
+
+    final Node webXmlRoot = fastParser.parse(webXmlJsonData).getNode();
+
+    @Benchmark
+    public void lookupWebXmlPathParsed(Blackhole bh) {
+        bh.consume(Path.atPath(Path.toPath(webXmlObjectPath), webXmlRoot));
+    }
+
+    @Benchmark
+    public void lookupWebXmlPathCompiled(Blackhole bh) {
+        bh.consume(Path.atPath(webXmlObjectPath, webXmlRoot));
+    }
+
+    final static CompiledPath webXmlMissingPath = Path.compile("['web-app'].servlet[0]['init-param'].missing.value");
+
+    @Benchmark
+    public void missingWebXmlPathAtPath(Blackhole bh) {
+        try {
+            bh.consume(Path.atPath(webXmlMissingPath, webXmlRoot));
+        } catch (IllegalStateException ex) {
+            bh.consume(ex);
+        }
+    }
+
+    @Benchmark
+    public void missingWebXmlPathFind(Blackhole bh) {
+        bh.consume(Path.find(webXmlMissingPath, webXmlRoot));
+    }
+
+    final static CompiledPath webXmlCompiledPath = Path.compile(webXmlObjectPath);
+    final PathIndex webXmlIndex = PathIndex.of(webXmlRoot);
+
+    @Benchmark
+    public void findWebXmlPath(Blackhole bh) {
+        bh.consume(Path.find(webXmlCompiledPath, webXmlRoot));
+    }
+
+    @Benchmark
+    public void findWebXmlPathIndexed(Blackhole bh) {
+        bh.consume(webXmlIndex.find(webXmlCompiledPath));
+    }
+
+    @Benchmark
+    public void missingWebXmlPathIndexed(Blackhole bh) {
+        bh.consume(webXmlIndex.exists(webXmlMissingPath));
+    }
+
+    @Benchmark
+    public void routeMessagePredicateIndex(Subscriptions subscriptions, Blackhole bh) {
+        bh.consume(subscriptions.matcher.match(subscriptions.message));
+    }
+
+    @Benchmark
+    public void routeMessageEachPredicate(Subscriptions subscriptions, Blackhole bh) {
+        final Node message = subscriptions.message;
+        int count = 0;
+        for (String[] subscription : subscriptions.values) {
+            final Node type = Path.find(Subscriptions.TYPE, message);
+            if (type == null || !type.toString().equals(subscription[0])) {
+                continue;
+            }
+            final Node region = Path.find(Subscriptions.REGION, message);
+            if (region == null || !(region.toString().equals(subscription[1]) || region.toString().equals(subscription[2]))) {
+                continue;
+            }
+            if (subscription[3] != null) {
+                final Node customer = Path.find(Subscriptions.CUSTOMER, message);
+                if (customer == null || !customer.toString().equals(subscription[3])) {
+                    continue;
+                }
+            }
+            count++;
+        }
+        bh.consume(count);
+    }
+
+    final static String[] glossaryEventPaths = {"id", "type", "subject", "aNumber", "data.glossary.title",
+            "data.glossary.GlossDiv.GlossList.GlossEntry.ID", "data.glossary.GlossDiv.GlossList.GlossEntry.GlossTerm",
+            "data.glossary.GlossDiv.GlossList.GlossEntry.Abbrev", "data.glossary.GlossDiv.GlossList.GlossEntry.GlossDef.para",
+            "data.glossary.GlossDiv.GlossList.GlossEntry.GlossDef.lines", "data.glossary.GlossDiv.GlossList.GlossEntry.missing"};
+    final static PathSet glossaryEventPathSet = PathSet.of(glossaryEventPaths);
+    final Node glossaryEventRoot = fastParser.parse(glossaryEvent);
+
+    @Benchmark
+    public void extractGlossaryEventPathsFind(Blackhole bh) {
+        for (String path : glossaryEventPaths) {
+            bh.consume(Path.find(Path.compile(path), glossaryEventRoot));
+        }
+    }
+
+    @Benchmark
+    public void extractGlossaryEventPathSet(Blackhole bh) {
+        bh.consume(glossaryEventPathSet.find(glossaryEventRoot));
+    }
+
+    final static String glossarySelect = "$..GlossEntry[?(@.SortAs == 'SGML')].GlossTerm";
+    final static String webXmlSelect = "$['web-app'].servlet[?(@.init-param.useJSP == false)].servlet-name";
+    final static String deptsSelect = "$..employees[?(@.manager == true)].firstName";
+    final static PathExpression glossarySelectExpression = PathExpression.compile(glossarySelect);
+    final static PathExpression webXmlSelectExpression = PathExpression.compile(webXmlSelect);
+    final static PathExpression deptsSelectExpression = PathExpression.compile(deptsSelect);
+    final static com.jayway.jsonpath.JsonPath glossarySelectJayway = com.jayway.jsonpath.JsonPath.compile(glossarySelect);
+    final static com.jayway.jsonpath.JsonPath webXmlSelectJayway = com.jayway.jsonpath.JsonPath.compile(webXmlSelect);
+    final static com.jayway.jsonpath.JsonPath deptsSelectJayway = com.jayway.jsonpath.JsonPath.compile(deptsSelect);
+
+    /* Parse and select, reading every selected value so the lazy jParse nodes are created like Jayway's. */
+    private void selectAll(final PathExpression expression, final String json, final Blackhole bh) {
+        final List<Node> nodes = expression.select(fastParser.parse(json));
+        for (int i = 0; i < nodes.size(); i++) {
+            bh.consume(nodes.get(i));
+        }
+    }
+
+    @Benchmark
+    public void selectGlossaryJParse(Blackhole bh) {
+        selectAll(glossarySelectExpression, glossaryJsonData, bh);
+    }
+
+    @Benchmark
+    public void selectGlossaryJayway(Blackhole bh) {
+        bh.consume((Object) glossarySelectJayway.read(glossaryJsonData));
+    }
+
+    @Benchmark
+    public void selectWebXmlJParse(Blackhole bh) {
+        selectAll(webXmlSelectExpression, webXmlJsonData, bh);
+    }
+
+    @Benchmark
+    public void selectWebXmlJayway(Blackhole bh) {
+        bh.consume((Object) webXmlSelectJayway.read(webXmlJsonData));
+    }
+
+    @Benchmark
+    public void selectDeptsJParse(Blackhole bh) {
+        selectAll(deptsSelectExpression, deptsJsonData, bh);
+    }
+
+    @Benchmark
+    public void selectDeptsJayway(Blackhole bh) {
+        bh.consume((Object) deptsSelectJayway.read(deptsJsonData));
+    }
+
+    @Benchmark
+    public void validateCorpusJParseStrict(Blackhole bh) {
+        for (String json : validationCorpus) {
+            try {
+                bh.consume(strictParser.parse(json));
+            } catch (Exception ex) {
+                bh.consume(ex);
+            }
+        }
+    }
+
+    @Benchmark
+    public void validateCorpusJParseValidate(Blackhole bh) {
+        for (String json : validationCorpus) {
+            bh.consume(strictParser.validate(json));
+        }
+    }
+
+    @Benchmark
+    public void readWebXmlJParseFast(Blackhole bh) {
+        bh.consume(fastParser.parse(webXmlJsonData));
+    }
+
+    @Benchmark
+    public void readWebXmlJParseIterative(Blackhole bh) {
+        bh.consume(iterativeParser.parse(webXmlJsonData));
+    }
+
+    @Benchmark
+    public void readWebXmlJParseStrict(Blackhole bh) {
+        bh.consume(strictParser.parse(webXmlJsonData));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void readWebXmlJParseSharedParserThreads(Blackhole bh) {
+        bh.consume(Json.toRootNode(webXmlJsonData));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void readWebXmlJParseNewParserThreads(Blackhole bh) {
+        bh.consume(new JsonParserBuilder().build().parse(webXmlJsonData));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void readWebXmlJParseSharedStrictParserThreads(Blackhole bh) {
+        bh.consume(Json.parser(true, false).parse(webXmlJsonData));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void readWebXmlJParseNewStrictParserThreads(Blackhole bh) {
+        bh.consume(new JsonParserBuilder().setStrict(true).build().parse(webXmlJsonData));
+    }
+
+    @Benchmark
+    public void parseDoublesJdk(Blackhole bh) {
+        for (String number : doublesStrings) {
+            bh.consume(Double.parseDouble(number));
+        }
+    }
+
+    @Benchmark
+    public void parseDoublesParseDouble(Blackhole bh) {
+        for (int i = 0; i < doublesStarts.length; i++) {
+            bh.consume(ParseDouble.parseDouble(doublesChars, doublesStarts[i], doublesEnds[i]));
+        }
+    }
+
+    @Benchmark
+    public void parseDoublesEiselLemire(Blackhole bh) {
+        for (int i = 0; i < doublesStarts.length; i++) {
+            bh.consume(EiselLemire.parseDouble(doublesChars, doublesStarts[i], doublesEnds[i]));
+        }
+    }
+
+    @Benchmark
+    public void parseFloatsJdk(Blackhole bh) {
+        for (String number : doublesStrings) {
+            bh.consume(Float.parseFloat(number));
+        }
+    }
+
+    @Benchmark
+    public void parseFloatsParseFloat(Blackhole bh) {
+        for (int i = 0; i < doublesStarts.length; i++) {
+            bh.consume(ParseFloat.parseFloat(doublesChars, doublesStarts[i], doublesEnds[i]));
+        }
+    }
+
+    @Benchmark
+    public void parseFloatsEiselLemire(Blackhole bh) {
+        for (int i = 0; i < doublesStarts.length; i++) {
+            bh.consume(EiselLemire.parseFloat(doublesChars, doublesStarts[i], doublesEnds[i]));
+        }
+    }
+
+    @Benchmark
+    public void parseTimestampsJdk(Blackhole bh) {
+        for (String number : timestampStrings) {
+            bh.consume(Long.parseLong(number));
+        }
+    }
+
+    @Benchmark
+    public void parseTimestampsDigitLoop(Blackhole bh) {
+        for (int start : timestampStarts) {
+            bh.consume(digitLoop(longsChars, start, start + 13));
+        }
+    }
+
+    @Benchmark
+    public void parseTimestampsParseInteger(Blackhole bh) {
+        for (int start : timestampStarts) {
+            bh.consume(ParseInteger.parseLong(longsChars, start, start + 13));
+        }
+    }
+
+    @Benchmark
+    public void parseIdsJdk(Blackhole bh) {
+        for (String number : idStrings) {
+            bh.consume(Long.parseLong(number));
+        }
+    }
+
+    @Benchmark
+    public void parseIdsDigitLoop(Blackhole bh) {
+        for (int start : idStarts) {
+            bh.consume(digitLoop(longsChars, start, start + 19));
+        }
+    }
+
+    @Benchmark
+    public void parseIdsParseInteger(Blackhole bh) {
+        for (int start : idStarts) {
+            bh.consume(ParseInteger.parseLong(longsChars, start, start + 19));
+        }
+    }
+
+    @Benchmark
+    public void employeesToColumns(Blackhole bh) {
+        final Columns columns = fastParser.parse(employeesJsonData).asArray().toColumns("id", "managerId", "salary", "manager");
+        bh.consume(columns.column(0).ints());
+        bh.consume(columns.column(1).ints());
+        bh.consume(columns.column(2).doubles());
+        bh.consume(columns.column(3).booleans());
+    }
+
+    @Benchmark
+    public void employeesObjectNodes(Blackhole bh) {
+        final ArrayNode rows = fastParser.parse(employeesJsonData).asArray();
+        final int size = rows.size();
+        final int[] ids = new int[size];
+        final int[] managerIds = new int[size];
+        final double[] salaries = new double[size];
+        final boolean[] managers = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            final ObjectNode row = rows.getObjectNode(i);
+            ids[i] = row.getInt("id");
+            managerIds[i] = row.getInt("managerId");
+            salaries[i] = row.getDouble("salary");
+            managers[i] = row.getBoolean("manager");
+        }
+        bh.consume(ids);
+        bh.consume(managerIds);
+        bh.consume(salaries);
+        bh.consume(managers);
+    }
+
+    /**
+     * Subscriptions on order events, a quarter of them on the type of the benchmark message, with two regions each
+     * and, for two thirds of them, a customer.
+     */
+    @State(value = Scope.Benchmark)
+    public static class Subscriptions {
+        static final CompiledPath TYPE = Path.compile("type");
+        static final CompiledPath REGION = Path.compile("payload.region");
+        static final CompiledPath CUSTOMER = Path.compile("payload.customer");
+        static final String[] REGIONS = {"eu", "us", "apac", "latam", "mea"};
+
+        @Param({"10", "1000", "100000"})
+        public int count;
+
+        String[][] values;
+        PredicateIndex.Matcher matcher;
+        final Node message = Json.toRootNode(Json.niceJson(
+                "{'type': 'order.created', 'id': 'x1', 'payload': {'region': 'eu', 'customer': 'c42', 'total': 10.5}}"));
+
+        @Setup
+        public void setup() {
+            final PredicateIndex.Builder builder = PredicateIndex.builder();
+            values = new String[count][];
+            for (int i = 0; i < count; i++) {
+                final String type = i % 4 == 0 ? "order.created" : "order.t" + i % 50;
+                final String customer = i % 3 == 0 ? null : "c" + i % 1000;
+                values[i] = new String[]{type, REGIONS[i % 5], REGIONS[(i + 1) % 5], customer};
+                builder.add("type == '" + type + "' && payload.region in ['" + values[i][1] + "', '" + values[i][2] + "']"
+                        + (customer == null ? "" : " && payload.customer == '" + customer + "'"));
+            }
+            matcher = builder.build().matcher();
+        }
+    }
+
+    public static class EmployeeRow {
+        public String firstName;
+        public boolean manager;
+        public int id;
+        public int managerId;
+        public double salary;
+    }
+
+    public static class GlossaryDocument {
+        public Glossary glossary;
+    }
+
+    public static class Glossary {
+        public String title;
+        public GlossDiv GlossDiv;
+    }
+
+    public static class GlossDiv {
+        public String title;
+        public GlossList GlossList;
+    }
+
+    public static class GlossList {
+        public GlossEntry GlossEntry;
+    }
+
+    public static class GlossEntry {
+        public String ID;
+        public String SortAs;
+        public String GlossTerm;
+        public String Acronym;
+        public String Abbrev;
+        public GlossDef GlossDef;
+        public String GlossSee;
+    }
+
+    public static class GlossDef {
+        public String para;
+        public List<String> GlossSeeAlso;
+        public boolean published;
+        public int lines;
+        public double score;
+    }
+
+    public static class StreamMessage {
+        public long sequence;
+        public int size;
+        public double price;
+        public StringBuilder subject = new StringBuilder();
+        public CharSequenceView reply;
+    }
+
+    final static char[] streamMessageChars = ("{\"sequence\": 123456, \"size\": 10, \"price\": 10.25, " +
+            "\"subject\": \"orders.new\", \"reply\": \"_INBOX.abc\"}").toCharArray();
+
+    final StreamMessage streamMessage = new StreamMessage();
+
+    /* Benchmark-only key prediction, see JsonPredictiveParser: it measured at par with fastParser, not faster. */
+    final JsonParser glossaryEventPredictiveParser = new JsonPredictiveParser(false, KeyOrder.of(glossaryEvent));
+
+    @Benchmark
+    public void scanGlossaryEventFast(Blackhole bh) {
+        bh.consume(fastParser.scan(glossaryEvent));
+    }
+
+    @Benchmark
+    public void scanGlossaryEventPredictive(Blackhole bh) {
+        bh.consume(glossaryEventPredictiveParser.scan(glossaryEvent));
+    }
+
+    @Benchmark
+    public void bindStreamMessage(Blackhole bh) {
+        bh.consume(JsonBinder.bind(StreamMessage.class, Sources.charSource(streamMessageChars)));
+    }
+
+    @Benchmark
+    public void fillStreamMessage(Blackhole bh) {
+        bh.consume(JsonBinder.fill(streamMessage, Sources.charSource(streamMessageChars)));
+    }
+
+    @Benchmark
+    public void bindGlossaryJParse(Blackhole bh) {
+        bh.consume(JsonBinder.bind(GlossaryDocument.class, glossaryJsonData));
+    }
+
+    @Benchmark
+    public void bindGlossaryJackson(Blackhole bh) throws Exception {
+        bh.consume(mapper.readValue(glossaryJsonData, GlossaryDocument.class));
+    }
+
+    @Benchmark
+    public void bindEmployeesJParse(Blackhole bh) {
+        bh.consume(JsonBinder.bindList(EmployeeRow.class, employeesJsonData));
+    }
+
+    @Benchmark
+    public void bindEmployeesJackson(Blackhole bh) throws Exception {
+        bh.consume(mapper.readValue(employeesJsonData, EmployeeRow[].class));
+    }
+
+    final static double[] responsePrices = new Random(5).doubles(50, 0, 10_000).toArray();
+    final static Node responseServlet = Path.atPath("['web-app'].servlet[0]", Json.toRootNode(webXmlJsonData));
+    final static Map<String, Object> responseMap = responseMap();
+
+    final JsonWriter responseWriter = new JsonWriter();
+    final StringBuilder responseBuilder = new StringBuilder();
+
+    @Benchmark
+    public void writeResponseJsonWriter(Blackhole bh) {
+        final JsonWriter writer = responseWriter;
+        writer.reset();
+        writer.startObject().key("id").value(123456789L).key("subject").value("orders.new\tbatch");
+        writer.key("prices").startArray();
+        for (double price : responsePrices) {
+            writer.value(price);
+        }
+        writer.endArray().key("servlet").value(responseServlet).endObject();
+        bh.consume(writer.toString());
+    }
+
+    @Benchmark
+    public void writeResponseJackson(Blackhole bh) throws Exception {
+        bh.consume(mapper.writeValueAsString(responseMap));
+    }
+
+    @Benchmark
+    public void writeDoublesJsonWriter(Blackhole bh) {
+        final JsonWriter writer = responseWriter;
+        writer.reset();
+        writer.startArray();
+        for (double price : responsePrices) {
+            writer.value(price);
+        }
+        bh.consume(writer.endArray().length());
+    }
+
+    @Benchmark
+    public void writeDoublesToString(Blackhole bh) {
+        final StringBuilder builder = responseBuilder;
+        builder.setLength(0);
+        builder.append('[');
+        for (double price : responsePrices) {
+            builder.append(price).append(',');
+        }
+        builder.setCharAt(builder.length() - 1, ']');
+        bh.consume(builder.length());
+    }
+
+    private static Map<String, Object> responseMap() {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", 123456789L);
+        map.put("subject", "orders.new\tbatch");
+        final List<Double> prices = new ArrayList<>();
+        for (double price : responsePrices) {
+            prices.add(price);
+        }
+        map.put("prices", prices);
+        try {
+            map.put("servlet", mapper.readValue(responseServlet.toString(), mapTypeRef));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return map;
+    }
+
+    /* The one digit at a time conversion CharSource.getLong used before ParseInteger, without overflow checks. */
+    private static long digitLoop(final char[] chars, int index, final int endIndex) {
+        long value = 0;
+        for (; index < endIndex; index++) {
+            value = value * 10 + (chars[index] - '0');
+        }
+        return value;
+    }
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser.indexoverlay;
+
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.node.support.TokenList;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.util.List;
+
+/**
+ * The `JsonPredictiveParser` class scans documents of a message type whose key order is known, see `KeyOrder`, and
+ * produces the tokens `JsonFastParser` produces for valid documents.
+ * <p>
+ * It is benchmark code only, kept so the `scanGlossaryEvent*` benchmarks can re-check that key prediction does not
+ * beat the generic scan: measured predictive/fast was 1.025 on glossaryEvent.json, 1.022 on webxml.json and 1.093
+ * on depts.json, so it was not added to the parsers `JsonParserBuilder` builds.
+ * <p>
+ * At each key the parser predicts the next key of the object and verifies it with
+ * `CharSource.findEndStringIfMatches`, a single comparison that also finds the closing quote. On a miss the key is
+ * scanned like `JsonFastParser` does and looked up among the predicted keys, so an inserted or reordered key only
+ * costs one search before prediction resumes after it. Values of keys that are not predicted are parsed without
+ * predictions.
+ * <p>
+ * When the key order has not been learned yet, the first document is parsed without predictions and recorded.
+ */
+public class JsonPredictiveParser implements JsonParser {
+
+    private static final String[] NO_KEYS = new String[0];
+
+    private final boolean objectsKeysCanBeEncoded;
+    private final KeyOrder keyOrder;
+    private final JsonFastParser fastParser;
+
+    /**
+     * Create a new `JsonPredictiveParser` instance.
+     *
+     * @param objectsKeysCanBeEncoded If `true`, then object keys can be encoded (e.g. `{"key\n\t": "value"}`).
+     * @param keyOrder                The key order of the message type, shared by every parse.
+     */
+    public JsonPredictiveParser(final boolean objectsKeysCanBeEncoded, final KeyOrder keyOrder) {
+        this.objectsKeysCanBeEncoded = objectsKeysCanBeEncoded;
+        this.keyOrder = keyOrder;
+        this.fastParser = new JsonFastParser(objectsKeysCanBeEncoded);
+    }
+
+    /**
+     * Scan a character source and return a list of tokens representing the JSON string.
+     *
+     * @param source The character source to scan
+     * @return A list of tokens representing the JSON
+     */
+    @Override
+    public List<Token> scan(final CharSource source) {
+        final TokenList tokens = new TokenList();
+        final KeyPrediction root = keyOrder.root();
+        parseElement(source.nextSkipWhiteSpace(), source, tokens, root);
+        if (root == null) {
+            keyOrder.learn(tokens, source);
+        }
+        return tokens;
+    }
+
+    /**
+     * Parse a character source and return a root node representing the parsed JSON.
+     *
+     * @param source The character source to parse
+     * @return A root node representing the parsed JSON
+     */
+    @Override
+    public RootNode parse(final CharSource source) {
+        return new RootNode((TokenList) scan(source), source, objectsKeysCanBeEncoded);
+    }
+
+    private void parseElement(final int ch, final CharSource source, final TokenList tokens, final KeyPrediction prediction) {
+        switch (ch) {
+            case OBJECT_START_TOKEN:
+                parseObject(source, tokens, prediction);
+                break;
+            case ARRAY_START_TOKEN:
+                parseArray(source, tokens, prediction);
+                break;
+            default:
+                fastParser.parseElement(ch, source, tokens);
+        }
+    }
+
+    private void parseObject(final CharSource source, final TokenList tokens, final KeyPrediction prediction) {
+        final int startSourceIndex = source.getIndex();
+        final int tokenListIndex = tokens.getIndex();
+        tokens.placeHolder();
+
+        KeyPrediction expected = prediction;
+        String[] keys = prediction == null ? NO_KEYS : prediction.keys;
+        int attribute = 0;
+        int ch = source.nextSkipWhiteSpace();
+
+        if (ch == OBJECT_END_TOKEN) {
+            source.next();
+        } else {
+            while (true) {
+                if (ch != STRING_START_TOKEN) {
+                    throw new UnexpectedCharacterException("Parsing key", "Unexpected character found", source);
+                }
+                final int keyStartIndex = source.getIndex();
+                final String predictedKey = attribute < keys.length ? keys[attribute] : null;
+                int keyEndIndex = predictedKey == null ? -1 : source.findEndStringIfMatches(predictedKey);
+                if (keyEndIndex < 0) {
+                    keyEndIndex = objectsKeysCanBeEncoded ? source.findEndOfEncodedString() : source.findEndString();
+                    attribute = expected == null ? -1 : expected.indexOf(source, keyStartIndex + 1, keyEndIndex);
+                    if (attribute < 0) {
+                        /* The object does not have the predicted shape, scan the rest of its keys. */
+                        expected = null;
+                        keys = NO_KEYS;
+                    }
+                }
+                final KeyPrediction valuePrediction = attribute < 0 ? null : expected.values[attribute];
+                attribute++;
+
+                if (source.findObjectEndOrAttributeSep()) {
+                    throw new UnexpectedCharacterException("Parsing key", "Not found", source);
+                }
+                tokens.add(new Token(keyStartIndex, source.getIndex(), TokenTypes.ATTRIBUTE_KEY_TOKEN));
+                tokens.add(new Token(keyStartIndex + 1, keyEndIndex, TokenTypes.STRING_TOKEN));
+
+                ch = source.nextSkipWhiteSpace();
+                final int valueStartIndex = source.getIndex();
+                final int valueTokenIndex = tokens.getIndex();
+                tokens.placeHolder();
+                parseElement(ch, source, tokens, valuePrediction);
+
+                ch = source.skipWhiteSpace();
+                tokens.set(valueTokenIndex, new Token(valueStartIndex, source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
+                if (ch == OBJECT_END_TOKEN) {
+                    source.next();
+                    break;
+                }
+                if (ch != OBJECT_ATTRIBUTE_SEP) {
+                    throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, ch);
+                }
+                ch = source.nextSkipWhiteSpace();
+            }
+        }
+        tokens.set(tokenListIndex, new Token(startSourceIndex, source.getIndex(), TokenTypes.OBJECT_TOKEN));
+    }
+
+    private void parseArray(final CharSource source, final TokenList tokens, final KeyPrediction prediction) {
+        final int startSourceIndex = source.getIndex();
+        final int tokenListIndex = tokens.getIndex();
+        tokens.placeHolder();
+
+        final KeyPrediction items = prediction == null ? null : prediction.items;
+        int ch = source.nextSkipWhiteSpace();
+
+        if (ch == ARRAY_END_TOKEN) {
+            source.next();
+        } else {
+            while (true) {
+                parseElement(ch, source, tokens, items);
+
+                ch = source.skipWhiteSpace();
+                if (ch == ARRAY_END_TOKEN) {
+                    source.next();
+                    break;
+                }
+                if (ch != ARRAY_SEP) {
+                    throw new UnexpectedCharacterException("Parsing Array Item", "Unexpected character", source, (char) ch);
+                }
+                ch = source.nextSkipWhiteSpace();
+            }
+        }
+        tokens.set(tokenListIndex, new Token(startSourceIndex, source.getIndex(), TokenTypes.ARRAY_TOKEN));
+    }
+}
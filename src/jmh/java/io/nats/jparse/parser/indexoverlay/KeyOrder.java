@@ -0,0 +1,92 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser.indexoverlay;
+
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.token.Token;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The expected key order of a message type, used by `JsonPredictiveParser` to verify each key with a single
+ * comparison instead of scanning for its closing quote.
+ * <p>
+ * A key order is either given by a sample document, see `of(String)`, or learned from the first document parsed
+ * with it. Either way it records, for every object of the document, its keys in order, and for every array the shape
+ * of its first object or array item. A key order is thread safe and is meant to be shared by every parse of a
+ * message type.
+ * <p>
+ * Benchmark code only, see `JsonPredictiveParser`.
+ */
+public final class KeyOrder {
+
+    private final AtomicReference<KeyPrediction> root = new AtomicReference<>();
+
+    /**
+     * Creates a key order that is learned from the first document parsed with it.
+     */
+    public KeyOrder() {
+    }
+
+    /**
+     * Creates a key order from a sample document.
+     *
+     * @param sample a document of the message type
+     * @return the key order of the sample
+     */
+    public static KeyOrder of(final String sample) {
+        return of(Sources.stringSource(sample));
+    }
+
+    /**
+     * Creates a key order from a sample document.
+     *
+     * @param sample a document of the message type
+     * @return the key order of the sample
+     */
+    public static KeyOrder of(final CharSource sample) {
+        final KeyOrder order = new KeyOrder();
+        order.learn(new JsonFastParser(false).scan(sample), sample);
+        return order;
+    }
+
+    /**
+     * Checks whether the key order has been given or learned yet.
+     *
+     * @return `true` once a document has been recorded
+     */
+    public boolean isLearned() {
+        return root.get() != null;
+    }
+
+    KeyPrediction root() {
+        return root.get();
+    }
+
+    /**
+     * Records the key order of a document unless one has been recorded already.
+     *
+     * @param tokens the tokens of the document
+     * @param source the source of the document
+     */
+    void learn(final List<Token> tokens, final CharSource source) {
+        if (!tokens.isEmpty()) {
+            root.compareAndSet(null, KeyPrediction.of(tokens, source, 0));
+        }
+    }
+}
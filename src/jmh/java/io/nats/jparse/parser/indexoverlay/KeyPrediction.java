@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser.indexoverlay;
+
+import io.nats.jparse.node.support.ParseConstants;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The predicted shape of one JSON value used by `JsonPredictiveParser`: for an object, its keys in the expected
+ * order and a prediction for each attribute value; for an array, a prediction for its items.
+ * <p>
+ * Predictions are immutable once built so one instance can be shared by every parse. Benchmark code only.
+ */
+final class KeyPrediction {
+
+    private static final String[] NO_KEYS = new String[0];
+    private static final KeyPrediction[] NO_VALUES = new KeyPrediction[0];
+
+    /**
+     * The expected keys of an object in order. A key holding escapes is null, it is never predicted.
+     */
+    final String[] keys;
+    /**
+     * The prediction for each attribute value, null for values that are not objects or arrays.
+     */
+    final KeyPrediction[] values;
+    /**
+     * The prediction for the items of an array, null if the items are not objects or arrays.
+     */
+    final KeyPrediction items;
+
+    private KeyPrediction(final String[] keys, final KeyPrediction[] values, final KeyPrediction items) {
+        this.keys = keys;
+        this.values = values;
+        this.items = items;
+    }
+
+    /**
+     * Builds the prediction for a value from the tokens of a sample.
+     *
+     * @param tokens the tokens of the sample
+     * @param source the source of the sample
+     * @param index  the index of the value's token
+     * @return the prediction, or null if the value is not an object or an array
+     */
+    static KeyPrediction of(final List<Token> tokens, final CharSource source, final int index) {
+        final Token token = tokens.get(index);
+        if (token.type == TokenTypes.OBJECT_TOKEN) {
+            final List<String> keys = new ArrayList<>();
+            final List<KeyPrediction> values = new ArrayList<>();
+            for (int attribute = index + 1; attribute < tokens.size() && tokens.get(attribute).startIndex < token.endIndex; ) {
+                final Token key = tokens.get(attribute + 1);
+                final String chars = source.getString(key.startIndex, key.endIndex);
+                keys.add(chars.indexOf(ParseConstants.CONTROL_ESCAPE_TOKEN) >= 0 ? null : chars);
+                values.add(of(tokens, source, attribute + 3));
+                attribute = skip(tokens, attribute + 3);
+            }
+            return new KeyPrediction(keys.toArray(NO_KEYS), values.toArray(NO_VALUES), null);
+        } else if (token.type == TokenTypes.ARRAY_TOKEN) {
+            KeyPrediction items = null;
+            for (int item = index + 1; items == null && item < tokens.size() && tokens.get(item).startIndex < token.endIndex; ) {
+                items = of(tokens, source, item);
+                item = skip(tokens, item);
+            }
+            return new KeyPrediction(NO_KEYS, NO_VALUES, items);
+        }
+        return null;
+    }
+
+    private static int skip(final List<Token> tokens, final int index) {
+        final int endIndex = tokens.get(index).endIndex;
+        int next = index + 1;
+        while (next < tokens.size() && tokens.get(next).startIndex < endIndex) {
+            next++;
+        }
+        return next;
+    }
+
+    /**
+     * Finds the attribute of a key that was not where it was predicted, so prediction resumes after it.
+     *
+     * @param source     the source holding the key
+     * @param startIndex start of the key chars
+     * @param endIndex   end of the key chars
+     * @return the attribute of the key, or -1 if the key is not predicted at all
+     */
+    int indexOf(final CharSource source, final int startIndex, final int endIndex) {
+        final String[] keys = this.keys;
+        final int length = endIndex - startIndex;
+        for (int i = 0; i < keys.length; i++) {
+            final String key = keys[i];
+            if (key != null && key.length() == length && source.matchChars(startIndex, endIndex, key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -34,9 +34,43 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class Json {
 
+    /*
+     * Parsers built by `JsonParserBuilder` are stateless, so one instance per configuration is shared
+     * by every static method and every thread.
+     */
+    private static final JsonParser FAST_PARSER = new JsonParserBuilder().build();
+    private static final JsonParser FAST_ENCODED_KEYS_PARSER = new JsonParserBuilder().setObjectsKeysCanBeEncoded(true).build();
+    private static final JsonParser STRICT_PARSER = new JsonParserBuilder().setStrict(true).build();
+    private static final JsonParser STRICT_ENCODED_KEYS_PARSER = new JsonParserBuilder().setStrict(true).setObjectsKeysCanBeEncoded(true).build();
+
     private Json() {
     }
 
+    /**
+     * Returns the shared default `JsonParser`, the one the static parse methods of this class use.
+     *
+     * @return the shared fast parser that does not decode object keys
+     */
+    public static JsonParser parser() {
+        return FAST_PARSER;
+    }
+
+    /**
+     * Returns a shared `JsonParser` for the given configuration. The parser is thread-safe and can be
+     * used concurrently instead of building a new parser per call.
+     *
+     * @param strict                  `true` for a parser that validates the document
+     * @param objectsKeysCanBeEncoded `true` for a parser that allows encoded object keys
+     * @return the shared parser for the configuration
+     */
+    public static JsonParser parser(final boolean strict, final boolean objectsKeysCanBeEncoded) {
+        if (strict) {
+            return objectsKeysCanBeEncoded ? STRICT_ENCODED_KEYS_PARSER : STRICT_PARSER;
+        } else {
+            return objectsKeysCanBeEncoded ? FAST_ENCODED_KEYS_PARSER : FAST_PARSER;
+        }
+    }
+
     /**
      * Returns a new `JsonParserBuilder` instance, which can be used to configure and create `JsonParser` instances.
      *
@@ -74,7 +108,7 @@ public class Json {
      * @return An `ArrayNode` representing the parsed JSON data
      */
     public static ArrayNode toArrayNode(final String json) {
-        return new JsonParserBuilder().build().parse(json).getArrayNode();
+        return FAST_PARSER.parse(json).getArrayNode();
     }
 
     /**
@@ -84,7 +118,7 @@ public class Json {
      * @return An `ObjectNode` representing the parsed JSON data
      */
     public static ObjectNode toObjectNode(final String json) {
-        return new JsonParserBuilder().build().parse(json).getObjectNode();
+        return FAST_PARSER.parse(json).getObjectNode();
     }
 
     /**
@@ -94,7 +128,7 @@ public class Json {
      * @return A `RootNode` representing the parsed JSON data
      */
     public static RootNode toRootNode(final String json) {
-        return new JsonParserBuilder().build().parse(json);
+        return FAST_PARSER.parse(json);
     }
 
     /**
@@ -124,7 +158,7 @@ public class Json {
      * @return A `List` of `Token`s representing the scanned JSON data
      */
     public static List<Token> toTokens(final String json) {
-        return new JsonParserBuilder().build().scan(json);
+        return FAST_PARSER.scan(json);
     }
 
     /**
@@ -134,7 +168,7 @@ public class Json {
      * @return An `ArrayNode` representing the parsed JSON data
      */
     public static ArrayNode toArrayNode(final CharSource json) {
-        return new JsonParserBuilder().build().parse(json).getArrayNode();
+        return FAST_PARSER.parse(json).getArrayNode();
     }
 
     /**
@@ -144,7 +178,7 @@ public class Json {
      * @return An `ObjectNode` representing the parsed JSON data
      */
     public static ObjectNode toObjectNode(final CharSource json) {
-        return new JsonParserBuilder().build().parse(json).getObjectNode();
+        return FAST_PARSER.parse(json).getObjectNode();
     }
 
     /**
@@ -154,7 +188,7 @@ public class Json {
      * @return A `RootNode` representing the parsed JSON data
      */
     public static RootNode toRootNode(final CharSource json) {
-        return new JsonParserBuilder().build().parse(json);
+        return FAST_PARSER.parse(json);
     }
 
     /**
@@ -164,7 +198,7 @@ public class Json {
      * @return A `List` of `Object`s representing the parsed JSON data
      */
     public static List<Object> toList(final CharSource json) {
-        return (List<Object>) (Object) new JsonParserBuilder().build().parse(json).getArrayNode();
+        return (List<Object>) (Object) FAST_PARSER.parse(json).getArrayNode();
     }
 
     /**
@@ -174,7 +208,7 @@ public class Json {
      * @return A `Map` of `String`s to `Object`s representing the parsed JSON data
      */
     public static Map<String, Object> toMap(final CharSource json) {
-        return (Map<String, Object>) (Object) new JsonParserBuilder().build().parse(json).getObjectNode();
+        return (Map<String, Object>) (Object) FAST_PARSER.parse(json).getObjectNode();
     }
 
     /**
@@ -184,7 +218,7 @@ public class Json {
      * @return A `List` of `Token`s representing the scanned JSON data
      */
     public static List<Token> toTokens(final CharSource json) {
-        return new JsonParserBuilder().build().scan(json);
+        return FAST_PARSER.scan(json);
     }
 
 
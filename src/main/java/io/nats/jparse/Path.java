@@ -15,20 +15,39 @@
  */
 package io.nats.jparse;
 
+import io.nats.jparse.bind.TokenValues;
 import io.nats.jparse.node.ArrayNode;
+import io.nats.jparse.node.CollectionNode;
 import io.nats.jparse.node.Node;
 import io.nats.jparse.node.ObjectNode;
+import io.nats.jparse.parser.indexoverlay.JsonProjectionParser;
+import io.nats.jparse.path.CompiledPath;
 import io.nats.jparse.path.PathElement;
+import io.nats.jparse.path.PathExpression;
 import io.nats.jparse.path.PathNode;
 import io.nats.jparse.path.PathParser;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
 import io.nats.jparse.source.support.PathException;
+import io.nats.jparse.token.Token;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
  * The `Path` class provides utility methods for working with JSON paths. It includes methods for parsing
  * JSON paths, looking up nodes at specified paths, and converting paths to `PathNode` objects.
+ * <p>
+ * Path strings are compiled once into `CompiledPath`s, which are kept in a cache of at most `PATH_CACHE_SIZE`
+ * paths shared by all threads, so looking up the same paths again does not parse them again. The cache is a
+ * `ConcurrentHashMap`, so lookups do not lock; once it is full, the least recently used quarter of the paths
+ * is evicted.
  *
  * @see Node
  * @see Json
@@ -36,6 +55,28 @@ import java.util.Iterator;
  */
 public class Path {
 
+    /**
+     * The number of compiled paths kept by `compile(String)`.
+     */
+    public static final int PATH_CACHE_SIZE = 4096;
+
+    /**
+     * The number of compiled paths left in the cache when it is full and a path is added.
+     */
+    private static final int RETAINED_SIZE = PATH_CACHE_SIZE * 3 / 4;
+
+    private static final Map<String, CachedPath> compiledPaths = new ConcurrentHashMap<>(64);
+
+    /**
+     * Held to add paths to the cache, so it never holds more than `PATH_CACHE_SIZE` paths. Cache hits do not lock.
+     */
+    private static final Object cacheLock = new Object();
+
+    /**
+     * Counts the paths added to the cache; it is the clock the cache uses to tell which paths were used recently.
+     */
+    private static final AtomicLong compiledCount = new AtomicLong();
+
     private Path(){}
 
     /**
@@ -57,7 +98,133 @@ public class Path {
      * @return The node at the specified path
      */
     public static Node atPath(final String path, final Node rootNode) {
-        return atPath(toPath(path), rootNode);
+        return atPath(compile(path), rootNode);
+    }
+
+    /**
+     * Finds the node at the specified compiled path in the input `Node`.
+     *
+     * @param path     The compiled path to search for
+     * @param rootNode The input `Node`
+     * @return The node at the specified path
+     * @see #compile(String)
+     */
+    public static Node atPath(final CompiledPath path, final Node rootNode) {
+        Node node = rootNode;
+        int step = 0;
+        try {
+            for (; step < path.size(); step++) {
+                switch (node.type()) {
+                    case OBJECT:
+                        node = ((ObjectNode) node).getNode(key(path, step));
+                        break;
+                    case ARRAY:
+                        node = ((ArrayNode) node).getNodeAt(index(path, step));
+                        break;
+                    default:
+                        if (node.isCollection()) {
+                            node = node.asCollection().getNode(path.value(step));
+                        } else {
+                            throw new PathException("Looking up Path", "Path not found at " + path + " path element key " + path.value(step),
+                                    node.charSource(), node.rootElementToken().startIndex);
+                        }
+                }
+            }
+        } catch (Exception ex) {
+            throw new IllegalStateException("Path not found at " + path + " path element index " + path.value(step));
+        }
+        return node;
+    }
+
+    /**
+     * Extracts the value at the specified path straight from a character source, without tokenizing the rest of
+     * the document.
+     * <p>
+     * The source is scanned with a `JsonProjectionParser` for the single path: only the keys and indexes on the
+     * path are descended into, sibling values are skipped with `CharSource.findEndOfValue()`, and scanning stops as
+     * soon as the value at the path ends. The cost depends on where the value is in the document, not on the size of
+     * the document.
+     *
+     * @param path   The path to extract
+     * @param source The JSON document
+     * @return The node at the specified path, or null if the path does not exist
+     * @see #find(CompiledPath, Node)
+     */
+    public static Node extract(final String path, final CharSource source) {
+        final JsonProjectionParser parser = new JsonProjectionParser(false, Collections.singletonList(toPath(path)));
+        return find(compile(path), parser.parse(source));
+    }
+
+    /**
+     * Extracts the value at the specified path straight from a JSON string, see `extract(String, CharSource)`.
+     *
+     * @param path The path to extract
+     * @param json The JSON document
+     * @return The node at the specified path, or null if the path does not exist
+     */
+    public static Node extract(final String path, final String json) {
+        return extract(path, Sources.stringSource(json));
+    }
+
+    /**
+     * Finds the node at the specified compiled path in the input `Node`, or null if there is none.
+     * <p>
+     * Unlike `atPath`, a missing path is not an error: the path is followed on the token tape of the input node
+     * without creating intermediate nodes, and a miss returns null without throwing or allocating. A key step on a
+     * value that is not an object, or an index step on a value that is not an array, is a miss. Keys are compared
+     * with the raw key chars of the source.
+     *
+     * @param path     The compiled path to search for
+     * @param rootNode The input `Node`
+     * @return The node at the specified path, or null if the path does not exist
+     */
+    public static Node find(final CompiledPath path, final Node rootNode) {
+        final List<Token> tokens = rootNode.tokens();
+        final int index = path.locate(tokens, rootNode.charSource(), 0);
+        if (index <= 0) {
+            return index == 0 ? rootNode : null;
+        }
+        /* Only a collection has values below it, so the root is one here. */
+        return ((CollectionNode) rootNode).valueNode(index, TokenValues.skip(tokens, index));
+    }
+
+    /**
+     * Checks whether the specified compiled path exists in the input `Node`, without creating any node.
+     *
+     * @param path     The compiled path to search for
+     * @param rootNode The input `Node`
+     * @return `true` if there is a value at the path, `false` otherwise
+     * @see #find(CompiledPath, Node)
+     */
+    public static boolean exists(final CompiledPath path, final Node rootNode) {
+        return path.locate(rootNode.tokens(), rootNode.charSource(), 0) >= 0;
+    }
+
+    /**
+     * Selects the values matching a JSONPath expression such as `$..employees[?(@.manager == true)].firstName`.
+     * Compile the expression once with `PathExpression.compile` when it is evaluated often.
+     *
+     * @param expression The JSONPath expression
+     * @param rootNode   The input `Node`
+     * @return The selected values
+     * @see PathExpression
+     */
+    public static List<Node> select(final String expression, final Node rootNode) {
+        return PathExpression.compile(expression).select(rootNode);
+    }
+
+    private static String key(final CompiledPath path, final int step) {
+        if (path.isIndex(step)) {
+            throw new IllegalArgumentException("Path element " + path.value(step) + " is not a key");
+        }
+        return path.key(step);
+    }
+
+    private static int index(final CompiledPath path, final int step) {
+        if (!path.isIndex(step)) {
+            throw new IllegalArgumentException("Path element " + path.value(step) + " is not an index");
+        }
+        return path.index(step);
     }
 
     /**
@@ -115,4 +282,78 @@ public class Path {
         final PathParser pathParser = new PathParser();
         return pathParser.parse(path).getPathNode();
     }
+
+    /**
+     * Compiles the input path string, returning the cached `CompiledPath` if the path was compiled recently.
+     *
+     * @param path The input path string
+     * @return The compiled path
+     */
+    public static CompiledPath compile(final String path) {
+        final CachedPath cached = compiledPaths.get(path);
+        if (cached != null) {
+            cached.touch(compiledCount.get());
+            return cached.path;
+        }
+        final CompiledPath compiled = CompiledPath.compile(path);
+        synchronized (cacheLock) {
+            final CachedPath existing = compiledPaths.get(path);
+            if (existing != null) {
+                return existing.path;
+            }
+            if (compiledPaths.size() >= PATH_CACHE_SIZE) {
+                evictOldest();
+            }
+            compiledPaths.put(path, new CachedPath(compiled, compiledCount.incrementAndGet()));
+        }
+        return compiled;
+    }
+
+    /**
+     * Evicts the least recently used paths down to `RETAINED_SIZE`, so the next `PATH_CACHE_SIZE - RETAINED_SIZE`
+     * paths are added without looking at the cache again. Called holding `cacheLock`.
+     */
+    @SuppressWarnings("unchecked")
+    private static void evictOldest() {
+        final Map.Entry<String, CachedPath>[] entries = compiledPaths.entrySet().toArray(new Map.Entry[0]);
+        final long[] used = new long[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            used[i] = entries[i].getValue().used;
+        }
+        final Integer[] order = new Integer[entries.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(used[a], used[b]));
+        for (int i = 0; i < order.length - RETAINED_SIZE; i++) {
+            compiledPaths.remove(entries[order[i]].getKey());
+        }
+    }
+
+    /**
+     * The number of compiled paths in the cache.
+     */
+    static int cachedPathCount() {
+        return compiledPaths.size();
+    }
+
+    /**
+     * A cached compiled path and the value of `compiledCount` when it was last used.
+     */
+    private static final class CachedPath {
+        private final CompiledPath path;
+        private volatile long used;
+
+        private CachedPath(final CompiledPath path, final long used) {
+            this.path = path;
+            this.used = used;
+        }
+
+        private void touch(final long now) {
+            /* Only write when the clock moved, so hot paths read by many threads do not bounce the cache line. */
+            if (used != now) {
+                used = now;
+            }
+        }
+    }
 }
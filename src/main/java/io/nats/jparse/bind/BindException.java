@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+/**
+ * Thrown when a class cannot be bound, or when a JSON value cannot be bound to a field.
+ */
+public class BindException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new BindException.
+     *
+     * @param message the error message
+     */
+    public BindException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new BindException with a cause.
+     *
+     * @param message the error message
+     * @param cause   the cause
+     */
+    public BindException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
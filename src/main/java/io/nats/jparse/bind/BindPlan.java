@@ -0,0 +1,488 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.beans.ConstructorProperties;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The compiled plan for binding JSON objects to one class: a slot per bound field, with the JSON key, how the value
+ * is read and how it is stored.
+ * <p>
+ * A class with a no-argument constructor is created with it and its non-final fields are set through their public
+ * `setXxx` method, or directly when there is none. Any other class needs a constructor that takes every field (like
+ * `Employee` in the examples, or a record); the values are collected into its arguments. Parameters are matched to
+ * fields by name, taken from `@JsonName` on the parameter, from `@ConstructorProperties` or from the class file when
+ * compiled with `-parameters`. Without names a constructor is only used if its parameter types are the field types in
+ * declaration order and no two fields have the same type, since such fields could not be told apart.
+ * Reflection is only used while compiling: constructors, setters and fields are turned into `MethodHandle`s whose
+ * types are normalized so primitives are stored with `invokeExact` and never boxed in setter mode.
+ * <p>
+ * In setter mode the current value of an object field is handed to its reader, so `fill` can write into existing
+ * `StringBuilder`s, `CharSequenceView`s and nested objects instead of replacing them.
+ * <p>
+ * Binding walks the attributes of an object on the token tape, so no `Node` is created. Keys are matched as written
+ * in the source, trying the slot after the previously matched one first since keys usually come in the same order.
+ * Unknown keys and their values are skipped.
+ *
+ * @param <T> the bound class
+ */
+final class BindPlan<T> implements ValueReader {
+
+    private static final int KIND_INT = 0;
+    private static final int KIND_LONG = 1;
+    private static final int KIND_DOUBLE = 2;
+    private static final int KIND_FLOAT = 3;
+    private static final int KIND_BOOLEAN = 4;
+    private static final int KIND_SHORT = 5;
+    private static final int KIND_BYTE = 6;
+    private static final int KIND_CHAR = 7;
+    private static final int KIND_OBJECT = 8;
+
+    private final Class<T> type;
+    private final Slot[] slots;
+    private final MethodHandle constructor;
+    /* The constructor arguments for missing keys, `null` when the class is filled through setters. */
+    private final Object[] defaultArguments;
+
+    private static final class Slot {
+        final String key;
+        final String where;
+        final int kind;
+        final ValueReader reader;
+        final MethodHandle setter;
+        /* Reads the current value of an object field so it can be reused, `null` in constructor mode. */
+        final MethodHandle getter;
+        final int argument;
+
+        Slot(final String key, final String where, final int kind, final ValueReader reader,
+             final MethodHandle setter, final MethodHandle getter, final int argument) {
+            this.key = key;
+            this.where = where;
+            this.kind = kind;
+            this.reader = reader;
+            this.setter = setter;
+            this.getter = getter;
+            this.argument = argument;
+        }
+    }
+
+    private BindPlan(final Class<T> type, final Slot[] slots, final MethodHandle constructor, final Object[] defaultArguments) {
+        this.type = type;
+        this.slots = slots;
+        this.constructor = constructor;
+        this.defaultArguments = defaultArguments;
+    }
+
+    /**
+     * Compiles the plan for a class.
+     *
+     * @param type the class
+     * @param <T>  the class
+     * @return the plan
+     * @throws BindException if the class or one of its field types cannot be bound
+     */
+    static <T> BindPlan<T> compile(final Class<T> type) {
+        if (type.isInterface() || type.isPrimitive() || type.isArray() || Modifier.isAbstract(type.getModifiers())) {
+            throw new BindException("Cannot bind " + type.getName());
+        }
+        final List<Field> fields = fields(type);
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            for (Constructor<?> candidate : type.getDeclaredConstructors()) {
+                if (candidate.getParameterCount() == 0) {
+                    candidate.setAccessible(true);
+                    final MethodHandle constructor = lookup.unreflectConstructor(candidate).asType(MethodType.methodType(Object.class));
+                    final List<Slot> slots = new ArrayList<>();
+                    for (Field field : fields) {
+                        if (!Modifier.isFinal(field.getModifiers())) {
+                            final int kind = kind(field.getType());
+                            slots.add(new Slot(key(field), where(field), kind, ValueReaders.forType(field.getGenericType(), where(field)),
+                                    setter(lookup, type, field, kind), kind == KIND_OBJECT ? getter(lookup, field) : null, -1));
+                        }
+                    }
+                    return new BindPlan<>(type, slots.toArray(new Slot[0]), constructor, null);
+                }
+            }
+
+            Constructor<?> constructor = null;
+            Field[] arguments = null;
+            for (Constructor<?> candidate : type.getDeclaredConstructors()) {
+                final Field[] candidateArguments = arguments(type, candidate, fields);
+                if (candidateArguments != null) {
+                    if (constructor != null) {
+                        throw new BindException("Cannot bind " + type.getName() + ", more than one constructor takes every field");
+                    }
+                    constructor = candidate;
+                    arguments = candidateArguments;
+                }
+            }
+            if (constructor != null) {
+                constructor.setAccessible(true);
+                final MethodHandle handle = lookup.unreflectConstructor(constructor)
+                        .asSpreader(Object[].class, arguments.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+                final Slot[] slots = new Slot[arguments.length];
+                final Object[] defaultArguments = new Object[arguments.length];
+                for (int i = 0; i < slots.length; i++) {
+                    final Field field = arguments[i];
+                    slots[i] = new Slot(key(field), where(field), kind(field.getType()),
+                            ValueReaders.forType(field.getGenericType(), where(field)), null, null, i);
+                    defaultArguments[i] = defaultValue(field.getType());
+                }
+                return new BindPlan<>(type, slots, handle, defaultArguments);
+            }
+        } catch (IllegalAccessException | RuntimeException ex) {
+            if (ex instanceof BindException) {
+                throw (BindException) ex;
+            }
+            throw new BindException("Cannot bind " + type.getName(), ex);
+        }
+        throw new BindException("Cannot bind " + type.getName()
+                + ", it needs a no-argument constructor or a constructor that takes every field");
+    }
+
+    /**
+     * Returns the field each parameter of a constructor is bound to, or `null` if the constructor does not take
+     * every field.
+     *
+     * @throws BindException if the parameters are named but do not name the fields, or are not named and two
+     *                       fields have the same type
+     */
+    private static Field[] arguments(final Class<?> type, final Constructor<?> constructor, final List<Field> fields) {
+        final Parameter[] parameters = constructor.getParameters();
+        if (parameters.length != fields.size() || parameters.length == 0) {
+            return null;
+        }
+        final Field[] arguments = new Field[parameters.length];
+        final String[] names = parameterNames(constructor, parameters);
+        if (names == null) {
+            for (int i = 0; i < parameters.length; i++) {
+                if (parameters[i].getType() != fields.get(i).getType()) {
+                    return null;
+                }
+                for (int j = 0; j < i; j++) {
+                    if (parameters[j].getType() == parameters[i].getType()) {
+                        throw new BindException("Cannot bind " + type.getName() + ", fields " + fields.get(j).getName()
+                                + " and " + fields.get(i).getName() + " have the same type, name the constructor parameters"
+                                + " with @ConstructorProperties or @JsonName, or compile with -parameters");
+                    }
+                }
+                arguments[i] = fields.get(i);
+            }
+            return arguments;
+        }
+        for (int i = 0; i < parameters.length; i++) {
+            final Field field = field(fields, names[i]);
+            if (field == null || field.getType() != parameters[i].getType() || Arrays.asList(arguments).contains(field)) {
+                /* Names given explicitly must match, a constructor whose compiled names do not is just not used. */
+                if (constructor.isAnnotationPresent(ConstructorProperties.class) || parameters[i].isAnnotationPresent(JsonName.class)) {
+                    throw new BindException("Cannot bind " + type.getName() + ", constructor parameter " + names[i]
+                            + " does not name a field of type " + parameters[i].getType().getName());
+                }
+                return null;
+            }
+            arguments[i] = field;
+        }
+        return arguments;
+    }
+
+    /**
+     * Returns the names of the parameters of a constructor, or `null` if they are not known.
+     */
+    private static String[] parameterNames(final Constructor<?> constructor, final Parameter[] parameters) {
+        final ConstructorProperties properties = constructor.getAnnotation(ConstructorProperties.class);
+        if (properties != null && properties.value().length == parameters.length) {
+            return properties.value();
+        }
+        final String[] names = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            final JsonName name = parameters[i].getAnnotation(JsonName.class);
+            if (name != null) {
+                names[i] = name.value();
+            } else if (parameters[i].isNamePresent()) {
+                names[i] = parameters[i].getName();
+            } else {
+                return null;
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Finds a field by its name, or else by its JSON key.
+     */
+    private static Field field(final List<Field> fields, final String name) {
+        for (Field field : fields) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
+        }
+        for (Field field : fields) {
+            if (key(field).equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the object that starts at `index` into a new instance.
+     *
+     * @param tokens the token tape
+     * @param source the source of the tokens
+     * @param index  the index of the object token
+     * @return the new instance
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T read(final List<Token> tokens, final CharSource source, final int index) {
+        try {
+            if (defaultArguments == null) {
+                final Object target = (Object) constructor.invokeExact();
+                fill(target, null, tokens, source, index);
+                return (T) target;
+            }
+            final Object[] arguments = defaultArguments.clone();
+            fill(null, arguments, tokens, source, index);
+            return (T) (Object) constructor.invokeExact(arguments);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new BindException("Cannot create " + type.getName(), ex);
+        }
+    }
+
+    /**
+     * Returns whether existing instances can be filled, which needs a class created through its no-argument constructor.
+     */
+    boolean canFill() {
+        return defaultArguments == null;
+    }
+
+    /**
+     * Stores the attributes of the object that starts at `index` into an existing instance.
+     *
+     * @param target the instance to fill
+     * @param tokens the token tape
+     * @param source the source of the tokens
+     * @param index  the index of the object token
+     * @return the target
+     * @throws BindException if the class has no no-argument constructor or the JSON does not match it
+     */
+    T fill(final Object target, final List<Token> tokens, final CharSource source, final int index) {
+        if (!canFill()) {
+            throw new BindException("Cannot fill " + type.getName() + ", it has no no-argument constructor");
+        }
+        try {
+            fill(target, null, tokens, source, index);
+            return type.cast(target);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new BindException("Cannot fill " + type.getName(), ex);
+        }
+    }
+
+    /**
+     * Stores the attributes of the object that starts at `index` into a target, or into constructor arguments.
+     */
+    private void fill(final Object target, final Object[] arguments, final List<Token> tokens, final CharSource source,
+                      final int index) throws Throwable {
+        final Token object = tokens.get(index);
+        if (object.type != TokenTypes.OBJECT_TOKEN) {
+            throw TokenValues.unexpected(object, type.getName());
+        }
+        final Slot[] slots = this.slots;
+        final int size = tokens.size();
+        int next = 0;
+        int attribute = index + 1;
+        while (attribute < size && tokens.get(attribute).startIndex < object.endIndex) {
+            /* The attribute key, the key string, the attribute value, then the tokens of the value. */
+            final int valueIndex = attribute + 3;
+            final int slotIndex = slotIndex(tokens.get(attribute + 1), source, next);
+            if (slotIndex >= 0) {
+                next = slotIndex + 1;
+                final Slot slot = slots[slotIndex];
+                final Token value = tokens.get(valueIndex);
+                if (arguments != null) {
+                    if (value.type != TokenTypes.NULL_TOKEN || slot.kind == KIND_OBJECT) {
+                        arguments[slot.argument] = slot.reader.read(tokens, source, valueIndex);
+                    }
+                } else {
+                    store(target, slot, tokens, source, valueIndex, value);
+                }
+            }
+            attribute = TokenValues.skip(tokens, attribute + 2);
+        }
+    }
+
+    private static void store(final Object target, final Slot slot, final List<Token> tokens, final CharSource source,
+                              final int valueIndex, final Token value) throws Throwable {
+        if (slot.kind != KIND_OBJECT && value.type == TokenTypes.NULL_TOKEN) {
+            return;
+        }
+        switch (slot.kind) {
+            case KIND_INT:
+                slot.setter.invokeExact(target, TokenValues.intValue(value, source));
+                break;
+            case KIND_LONG:
+                slot.setter.invokeExact(target, TokenValues.longValue(value, source));
+                break;
+            case KIND_DOUBLE:
+                slot.setter.invokeExact(target, TokenValues.doubleValue(value, source));
+                break;
+            case KIND_FLOAT:
+                slot.setter.invokeExact(target, TokenValues.floatValue(value, source));
+                break;
+            case KIND_BOOLEAN:
+                slot.setter.invokeExact(target, TokenValues.booleanValue(value, source));
+                break;
+            case KIND_SHORT:
+                slot.setter.invokeExact(target, TokenValues.shortValue(value, source));
+                break;
+            case KIND_BYTE:
+                slot.setter.invokeExact(target, TokenValues.byteValue(value, source));
+                break;
+            case KIND_CHAR:
+                slot.setter.invokeExact(target, TokenValues.charValue(value, source));
+                break;
+            default:
+                final Object current = (Object) slot.getter.invokeExact(target);
+                final Object read = slot.reader.readInto(current, tokens, source, valueIndex);
+                if (read != current) {
+                    slot.setter.invokeExact(target, read);
+                }
+        }
+    }
+
+    private int slotIndex(final Token key, final CharSource source, final int next) {
+        final Slot[] slots = this.slots;
+        final int length = key.endIndex - key.startIndex;
+        for (int n = 0, i = next; n < slots.length; n++, i++) {
+            if (i == slots.length) {
+                i = 0;
+            }
+            final String slotKey = slots[i].key;
+            if (slotKey.length() == length && source.matchChars(key.startIndex, key.endIndex, slotKey)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<Field> fields(final Class<?> type) {
+        final List<Field> fields = new ArrayList<>();
+        for (Class<?> cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+            final List<Field> declared = new ArrayList<>();
+            for (Field field : cls.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    declared.add(field);
+                }
+            }
+            fields.addAll(0, declared);
+        }
+        return fields;
+    }
+
+    private static String key(final Field field) {
+        final JsonName name = field.getAnnotation(JsonName.class);
+        return name == null ? field.getName() : name.value();
+    }
+
+    private static String where(final Field field) {
+        return field.getDeclaringClass().getName() + "." + field.getName();
+    }
+
+    private static int kind(final Class<?> type) {
+        if (type == int.class) {
+            return KIND_INT;
+        } else if (type == long.class) {
+            return KIND_LONG;
+        } else if (type == double.class) {
+            return KIND_DOUBLE;
+        } else if (type == float.class) {
+            return KIND_FLOAT;
+        } else if (type == boolean.class) {
+            return KIND_BOOLEAN;
+        } else if (type == short.class) {
+            return KIND_SHORT;
+        } else if (type == byte.class) {
+            return KIND_BYTE;
+        } else if (type == char.class) {
+            return KIND_CHAR;
+        }
+        return KIND_OBJECT;
+    }
+
+    private static Object defaultValue(final Class<?> type) {
+        if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == double.class) {
+            return 0.0;
+        } else if (type == float.class) {
+            return 0.0f;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == char.class) {
+            return (char) 0;
+        }
+        return null;
+    }
+
+    private static MethodHandle getter(final MethodHandles.Lookup lookup, final Field field) throws IllegalAccessException {
+        field.setAccessible(true);
+        return lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+    }
+
+    /**
+     * Finds the public `setXxx` method of a field, or falls back to the field itself, as a handle of type
+     * `(Object, int|long|double|float|boolean|short|byte|char|Object)void`.
+     */
+    private static MethodHandle setter(final MethodHandles.Lookup lookup, final Class<?> type, final Field field,
+                                       final int kind) throws IllegalAccessException {
+        final String name = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        MethodHandle setter;
+        try {
+            setter = lookup.unreflect(type.getMethod(name, field.getType()));
+        } catch (NoSuchMethodException ex) {
+            field.setAccessible(true);
+            setter = lookup.unreflectSetter(field);
+        }
+        final Class<?> valueType = kind == KIND_OBJECT ? Object.class : field.getType();
+        return setter.asType(MethodType.methodType(void.class, Object.class, valueType));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.source.CharSource;
+
+/**
+ * A reusable `CharSequence` over a JSON string in a `CharSource`.
+ * <p>
+ * `JsonBinder.fill` points the view of a `CharSequenceView` field at the string of each new message instead of
+ * creating a `String`. A string without escapes is read straight from the source; a string with escapes is decoded
+ * into a buffer the view keeps and reuses. The view is only valid while the source it points at is unchanged, call
+ * `toString` to keep the value.
+ */
+public final class CharSequenceView implements CharSequence {
+
+    private final StringBuilder decoded = new StringBuilder();
+    private CharSource source;
+    private int startIndex;
+    private int length;
+    private boolean isDecoded;
+
+    /**
+     * Points the view at the characters of a JSON string, decoding escapes if there are any. The string is scanned
+     * for a backslash; use `set(CharSource, int, int, boolean)` when the scanner already knows.
+     *
+     * @param source     the source holding the string
+     * @param startIndex the index of the first character after the opening quote
+     * @param endIndex   the index of the closing quote
+     * @return this view
+     */
+    public CharSequenceView set(final CharSource source, final int startIndex, final int endIndex) {
+        boolean hasEscapes = false;
+        for (int index = startIndex; index < endIndex; index++) {
+            if (source.getChartAt(index) == '\\') {
+                hasEscapes = true;
+                break;
+            }
+        }
+        return set(source, startIndex, endIndex, hasEscapes);
+    }
+
+    /**
+     * Points the view at the characters of a JSON string.
+     *
+     * @param source     the source holding the string
+     * @param startIndex the index of the first character after the opening quote
+     * @param endIndex   the index of the closing quote
+     * @param hasEscapes whether the string has escapes to decode, as recorded by `StringToken.hasEscapes`
+     * @return this view
+     */
+    public CharSequenceView set(final CharSource source, final int startIndex, final int endIndex, final boolean hasEscapes) {
+        this.source = source;
+        this.startIndex = startIndex;
+        if (hasEscapes) {
+            decoded.setLength(0);
+            source.appendEncodedString(startIndex, endIndex, decoded);
+            this.length = decoded.length();
+        } else {
+            this.length = endIndex - startIndex;
+        }
+        this.isDecoded = hasEscapes;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " length " + length);
+        }
+        return isDecoded ? decoded.charAt(index) : source.getChartAt(startIndex + index);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        return toString().subSequence(start, end);
+    }
+
+    /**
+     * Compares the characters of this view with a char sequence without creating a `String`.
+     *
+     * @param other the char sequence to compare to
+     * @return `true` if both hold the same characters
+     */
+    public boolean contentEquals(final CharSequence other) {
+        if (other.length() != length) {
+            return false;
+        }
+        for (int index = 0; index < length; index++) {
+            if (charAt(index) != other.charAt(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return isDecoded ? decoded.toString() : source == null ? "" : source.getString(startIndex, startIndex + length);
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.token.Token;
+
+import java.util.List;
+
+/**
+ * Binds JSON objects to Java objects straight from the token tape, without creating intermediate `Node`s.
+ * <p>
+ * Each class is compiled once into a plan of field slots (@see BindPlan) that is cached per class and shared
+ * by all threads. Supported field types are the primitives and their boxes (a `char` is read from a one-character
+ * string), `String`/`CharSequence`, `BigDecimal`, `BigInteger`, enums, `int[]`, `long[]`, `double[]`,
+ * `List`/`Collection`/`ArrayList` of a supported type, and other classes that can be bound themselves.
+ * `StringBuilder` and `CharSequenceView` fields are reused by `fill`, see `fill(Object, CharSource)`.
+ * Use `@JsonName` when a key differs from the field name.
+ * <pre>
+ * Employee employee = JsonBinder.bind(Employee.class, json);
+ * List&lt;Employee&gt; employees = JsonBinder.bindList(Employee.class, Path.atPath("departments[0].employees", root));
+ * </pre>
+ */
+public final class JsonBinder {
+
+    private static final ClassValue<BindPlan<?>> PLANS = new ClassValue<BindPlan<?>>() {
+        @Override
+        protected BindPlan<?> computeValue(final Class<?> type) {
+            return BindPlan.compile(type);
+        }
+    };
+
+    private JsonBinder() {
+    }
+
+    /**
+     * Binds a JSON object.
+     *
+     * @param type the class to bind to
+     * @param json the JSON object
+     * @param <T>  the class to bind to
+     * @return a new instance of `type`
+     * @throws BindException if the class cannot be bound or the JSON does not match it
+     */
+    public static <T> T bind(final Class<T> type, final String json) {
+        return bind(type, Sources.stringSource(json));
+    }
+
+    /**
+     * Binds a JSON object.
+     *
+     * @param type   the class to bind to
+     * @param source the JSON object
+     * @param <T>    the class to bind to
+     * @return a new instance of `type`
+     * @throws BindException if the class cannot be bound or the JSON does not match it
+     */
+    public static <T> T bind(final Class<T> type, final CharSource source) {
+        return plan(type).read(Json.toTokens(source), source, 0);
+    }
+
+    /**
+     * Binds an object node (or a root node holding an object) using its tokens.
+     *
+     * @param type the class to bind to
+     * @param node the node
+     * @param <T>  the class to bind to
+     * @return a new instance of `type`
+     * @throws BindException if the class cannot be bound or the node does not match it
+     */
+    public static <T> T bind(final Class<T> type, final Node node) {
+        return plan(type).read(node.tokens(), node.charSource(), 0);
+    }
+
+    /**
+     * Binds a JSON array of objects.
+     *
+     * @param type the class of the elements
+     * @param json the JSON array
+     * @param <T>  the class of the elements
+     * @return a list of new instances of `type`
+     * @throws BindException if the class cannot be bound or the JSON does not match it
+     */
+    public static <T> List<T> bindList(final Class<T> type, final String json) {
+        return bindList(type, Sources.stringSource(json));
+    }
+
+    /**
+     * Binds a JSON array of objects.
+     *
+     * @param type   the class of the elements
+     * @param source the JSON array
+     * @param <T>    the class of the elements
+     * @return a list of new instances of `type`
+     * @throws BindException if the class cannot be bound or the JSON does not match it
+     */
+    public static <T> List<T> bindList(final Class<T> type, final CharSource source) {
+        return readList(type, Json.toTokens(source), source);
+    }
+
+    /**
+     * Binds an array node (or a root node holding an array) using its tokens.
+     *
+     * @param type the class of the elements
+     * @param node the node
+     * @param <T>  the class of the elements
+     * @return a list of new instances of `type`
+     * @throws BindException if the class cannot be bound or the node does not match it
+     */
+    public static <T> List<T> bindList(final Class<T> type, final Node node) {
+        return readList(type, node.tokens(), node.charSource());
+    }
+
+    /**
+     * Fills an existing object from a JSON object instead of creating a new one.
+     * <p>
+     * Only keys present in the JSON are stored, other fields keep their values. `StringBuilder` fields are cleared
+     * and written into, `CharSequenceView` fields are pointed at the string in the source, and nested objects are
+     * filled in place, so a consumer can reuse one target for a stream of messages without creating objects
+     * for its fields. `String`, `List` and array fields still get new values.
+     *
+     * @param target the object to fill, its class needs a no-argument constructor
+     * @param source the JSON object
+     * @param <T>    the class of the target
+     * @return the target
+     * @throws BindException if the class cannot be filled or the JSON does not match it
+     */
+    public static <T> T fill(final T target, final CharSource source) {
+        return fill(target, Json.toTokens(source), source, 0);
+    }
+
+    /**
+     * Fills an existing object from an object node (or a root node holding an object) using its tokens.
+     *
+     * @param target the object to fill, its class needs a no-argument constructor
+     * @param node   the node
+     * @param <T>    the class of the target
+     * @return the target
+     * @throws BindException if the class cannot be filled or the node does not match it
+     * @see #fill(Object, CharSource)
+     */
+    public static <T> T fill(final T target, final Node node) {
+        return fill(target, node.tokens(), node.charSource(), 0);
+    }
+
+    /**
+     * Fills an existing object from the object that starts at `index` on a token tape.
+     *
+     * @param target the object to fill, its class needs a no-argument constructor
+     * @param tokens the token tape
+     * @param source the source of the tokens
+     * @param index  the index of the object token
+     * @param <T>    the class of the target
+     * @return the target
+     * @throws BindException if the class cannot be filled or the JSON does not match it
+     * @see #fill(Object, CharSource)
+     */
+    public static <T> T fill(final T target, final List<Token> tokens, final CharSource source, final int index) {
+        plan(target.getClass()).fill(target, tokens, source, index);
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> readList(final Class<T> type, final List<Token> tokens, final CharSource source) {
+        return (List<T>) ValueReaders.listOf(type).read(tokens, source, 0);
+    }
+
+    /**
+     * Returns the cached plan of a class, compiling it on first use.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> BindPlan<T> plan(final Class<T> type) {
+        return (BindPlan<T>) PLANS.get(type);
+    }
+}
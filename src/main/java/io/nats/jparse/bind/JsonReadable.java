@@ -0,0 +1,37 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class for which the `jparse-processor` annotation processor generates a reader at compile time.
+ * <p>
+ * For a class `Order` the processor writes `OrderJsonReader` into the same package (`Outer_OrderJsonReader` for a
+ * nested class). The reader matches keys with `CharSource.matchChars`, switching on the key length and characters,
+ * reads values with `TokenValues`, and skips unknown keys. It uses no reflection, so it also works where
+ * `JsonBinder` cannot, for example in native images. Fields are bound like `JsonBinder` binds them, see `JsonName`,
+ * except that every field must be reachable from the package: non-private fields, setters, or a constructor.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface JsonReadable {
+}
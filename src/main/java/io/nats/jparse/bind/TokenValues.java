@@ -0,0 +1,321 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.node.NodeType;
+import io.nats.jparse.node.support.NodeUtils;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.StringToken;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads values from the token tape of a parsed document.
+ * <p>
+ * These are the conversions `JsonBinder` uses, made public for the readers generated for `@JsonReadable` classes.
+ * A value is addressed by the index of its first token. Scalar conversions throw a `BindException` when the token
+ * has the wrong type, and do not check for `null`, use `isNull` first.
+ */
+public final class TokenValues {
+
+    private TokenValues() {
+    }
+
+    /**
+     * Returns the index of the first token after the value that starts at `index`.
+     *
+     * @param tokens the token tape
+     * @param index  the index of the first token of the value
+     * @return the index of the token after the value and its nested tokens
+     */
+    public static int skip(final List<Token> tokens, final int index) {
+        final int endIndex = tokens.get(index).endIndex;
+        final int size = tokens.size();
+        int next = index + 1;
+        while (next < size && tokens.get(next).startIndex < endIndex) {
+            next++;
+        }
+        return next;
+    }
+
+    /**
+     * Returns the index of the first attribute key of an object.
+     *
+     * @param tokens   the token tape
+     * @param index    the index of the object token
+     * @param expected the bound type, for error messages
+     * @return the index of the first attribute key, `-1` if the object is empty
+     * @throws BindException if the value is not an object
+     */
+    public static int firstAttribute(final List<Token> tokens, final int index, final String expected) {
+        final Token object = tokens.get(index);
+        if (object.type != TokenTypes.OBJECT_TOKEN) {
+            throw unexpected(object, expected);
+        }
+        return index + 1 < tokens.size() && tokens.get(index + 1).startIndex < object.endIndex ? index + 1 : -1;
+    }
+
+    /**
+     * Returns the index of the attribute key after the attribute at `attribute`.
+     *
+     * @param tokens    the token tape
+     * @param index     the index of the object token
+     * @param attribute the index of the current attribute key
+     * @return the index of the next attribute key, `-1` at the end of the object
+     */
+    public static int nextAttribute(final List<Token> tokens, final int index, final int attribute) {
+        final int next = skip(tokens, attribute + 2);
+        return next < tokens.size() && tokens.get(next).startIndex < tokens.get(index).endIndex ? next : -1;
+    }
+
+    /**
+     * Returns the index of the first element of an array.
+     *
+     * @param tokens   the token tape
+     * @param index    the index of the array token
+     * @param expected the bound type, for error messages
+     * @return the index of the first element, `-1` if the array is empty
+     * @throws BindException if the value is not an array
+     */
+    public static int firstElement(final List<Token> tokens, final int index, final String expected) {
+        final Token array = tokens.get(index);
+        if (array.type != TokenTypes.ARRAY_TOKEN) {
+            throw unexpected(array, expected);
+        }
+        return index + 1 < tokens.size() && tokens.get(index + 1).startIndex < array.endIndex ? index + 1 : -1;
+    }
+
+    /**
+     * Returns the index of the element after the element at `element`.
+     *
+     * @param tokens  the token tape
+     * @param index   the index of the array token
+     * @param element the index of the current element
+     * @return the index of the next element, `-1` at the end of the array
+     */
+    public static int nextElement(final List<Token> tokens, final int index, final int element) {
+        final int next = skip(tokens, element);
+        return next < tokens.size() && tokens.get(next).startIndex < tokens.get(index).endIndex ? next : -1;
+    }
+
+    public static boolean isNull(final Token token) {
+        return token.type == TokenTypes.NULL_TOKEN;
+    }
+
+    public static int intValue(final Token token, final CharSource source) {
+        if (token.type == TokenTypes.INT_TOKEN) {
+            return source.getInt(token.startIndex, token.endIndex);
+        }
+        return (int) source.getDouble(number(token, "int").startIndex, token.endIndex);
+    }
+
+    public static long longValue(final Token token, final CharSource source) {
+        if (token.type == TokenTypes.INT_TOKEN) {
+            return source.getLong(token.startIndex, token.endIndex);
+        }
+        return (long) source.getDouble(number(token, "long").startIndex, token.endIndex);
+    }
+
+    public static short shortValue(final Token token, final CharSource source) {
+        final int value = intValue(token, source);
+        if (value != (short) value) {
+            throw new BindException("Cannot bind " + value + " at " + token.startIndex + " to short");
+        }
+        return (short) value;
+    }
+
+    public static byte byteValue(final Token token, final CharSource source) {
+        final int value = intValue(token, source);
+        if (value != (byte) value) {
+            throw new BindException("Cannot bind " + value + " at " + token.startIndex + " to byte");
+        }
+        return (byte) value;
+    }
+
+    public static char charValue(final Token token, final CharSource source) {
+        final String value = stringValue(token, source, "char");
+        if (value.length() != 1) {
+            throw new BindException("Cannot bind a string of length " + value.length() + " at " + token.startIndex + " to char");
+        }
+        return value.charAt(0);
+    }
+
+    public static double doubleValue(final Token token, final CharSource source) {
+        return NodeUtils.doubleValue(number(token, "double"), source);
+    }
+
+    public static float floatValue(final Token token, final CharSource source) {
+        return source.getFloat(number(token, "float").startIndex, token.endIndex);
+    }
+
+    public static boolean booleanValue(final Token token, final CharSource source) {
+        if (token.type != TokenTypes.BOOLEAN_TOKEN) {
+            throw unexpected(token, "boolean");
+        }
+        return source.getChartAt(token.startIndex) == 't';
+    }
+
+    public static String stringValue(final Token token, final CharSource source, final String expected) {
+        if (token.type != TokenTypes.STRING_TOKEN) {
+            throw unexpected(token, expected);
+        }
+        return source.toEncodedStringIfNeeded(token.startIndex, token.endIndex);
+    }
+
+    public static BigDecimal bigDecimalValue(final Token token, final CharSource source) {
+        return source.getBigDecimal(number(token, "BigDecimal").startIndex, token.endIndex);
+    }
+
+    public static BigInteger bigIntegerValue(final Token token, final CharSource source) {
+        return source.getBigInteger(number(token, "BigInteger").startIndex, token.endIndex);
+    }
+
+    /**
+     * Writes a string into a builder, reusing `reuse` when it is not null.
+     *
+     * @param token  the string token
+     * @param source the source of the tokens
+     * @param reuse  the builder to clear and write into, or null to create one
+     * @return the builder holding the decoded string, or null if the value is `null`
+     */
+    public static StringBuilder stringBuilderValue(final Token token, final CharSource source, final StringBuilder reuse) {
+        if (isNull(token)) {
+            return null;
+        }
+        if (token.type != TokenTypes.STRING_TOKEN) {
+            throw unexpected(token, "StringBuilder");
+        }
+        final StringBuilder builder = reuse == null ? new StringBuilder(token.endIndex - token.startIndex) : reuse;
+        builder.setLength(0);
+        source.appendEncodedString(token.startIndex, token.endIndex, builder);
+        return builder;
+    }
+
+    /**
+     * Points a view at a string, reusing `reuse` when it is not null.
+     *
+     * @param token  the string token
+     * @param source the source of the tokens
+     * @param reuse  the view to point at the string, or null to create one
+     * @return the view of the string, or null if the value is `null`
+     */
+    public static CharSequenceView charSequenceViewValue(final Token token, final CharSource source, final CharSequenceView reuse) {
+        if (isNull(token)) {
+            return null;
+        }
+        if (token.type != TokenTypes.STRING_TOKEN) {
+            throw unexpected(token, "CharSequenceView");
+        }
+        final CharSequenceView view = reuse == null ? new CharSequenceView() : reuse;
+        if (token instanceof StringToken) {
+            return view.set(source, token.startIndex, token.endIndex, ((StringToken) token).hasEscapes);
+        }
+        return view.set(source, token.startIndex, token.endIndex);
+    }
+
+    /**
+     * Reads an array of numbers.
+     *
+     * @param tokens the token tape
+     * @param source the source of the tokens
+     * @param index  the index of the array token
+     * @return the numbers, or null if the value is `null`
+     */
+    public static int[] intArray(final List<Token> tokens, final CharSource source, final int index) {
+        if (isNull(tokens.get(index))) {
+            return null;
+        }
+        int[] values = new int[8];
+        int size = 0;
+        for (int element = firstElement(tokens, index, "int[]"); element != -1; element = nextElement(tokens, index, element)) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = intValue(tokens.get(element), source);
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Reads an array of numbers.
+     *
+     * @param tokens the token tape
+     * @param source the source of the tokens
+     * @param index  the index of the array token
+     * @return the numbers, or null if the value is `null`
+     */
+    public static long[] longArray(final List<Token> tokens, final CharSource source, final int index) {
+        if (isNull(tokens.get(index))) {
+            return null;
+        }
+        long[] values = new long[8];
+        int size = 0;
+        for (int element = firstElement(tokens, index, "long[]"); element != -1; element = nextElement(tokens, index, element)) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = longValue(tokens.get(element), source);
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Reads an array of numbers.
+     *
+     * @param tokens the token tape
+     * @param source the source of the tokens
+     * @param index  the index of the array token
+     * @return the numbers, or null if the value is `null`
+     */
+    public static double[] doubleArray(final List<Token> tokens, final CharSource source, final int index) {
+        if (isNull(tokens.get(index))) {
+            return null;
+        }
+        double[] values = new double[8];
+        int size = 0;
+        for (int element = firstElement(tokens, index, "double[]"); element != -1; element = nextElement(tokens, index, element)) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = doubleValue(tokens.get(element), source);
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Creates the exception for a value that cannot be bound to a type.
+     *
+     * @param token    the first token of the value
+     * @param expected the bound type
+     * @return the exception to throw
+     */
+    public static BindException unexpected(final Token token, final String expected) {
+        return new BindException("Cannot bind " + NodeType.tokenTypeToElement(token.type) + " at " + token.startIndex
+                + " to " + expected);
+    }
+
+    private static Token number(final Token token, final String expected) {
+        if (token.type != TokenTypes.INT_TOKEN && token.type != TokenTypes.FLOAT_TOKEN) {
+            throw unexpected(token, expected);
+        }
+        return token;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+
+import java.util.List;
+
+/**
+ * Reads the JSON value starting at a token into a Java object.
+ */
+interface ValueReader {
+
+    /**
+     * Reads a value.
+     *
+     * @param tokens the token tape
+     * @param source the source of the tokens
+     * @param index  the index of the first token of the value
+     * @return the value, `null` for a JSON `null`
+     */
+    Object read(List<Token> tokens, CharSource source, int index);
+
+    /**
+     * Reads a value, reusing the current value of the field when the reader can write into it.
+     *
+     * @param current the current value of the field, may be `null`
+     * @param tokens  the token tape
+     * @param source  the source of the tokens
+     * @param index   the index of the first token of the value
+     * @return `current` if it was reused, otherwise the new value
+     */
+    default Object readInto(final Object current, final List<Token> tokens, final CharSource source, final int index) {
+        return read(tokens, source, index);
+    }
+}
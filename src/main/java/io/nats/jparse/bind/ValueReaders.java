@@ -0,0 +1,248 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The `ValueReader`s for the field types a `BindPlan` supports.
+ */
+final class ValueReaders {
+
+    private ValueReaders() {
+    }
+
+    private static final ValueReader STRING = (tokens, source, index) -> {
+        final Token token = tokens.get(index);
+        return TokenValues.isNull(token) ? null : TokenValues.stringValue(token, source, "String");
+    };
+
+    private static final ValueReader INTEGER = (tokens, source, index) -> {
+        final Token token = tokens.get(index);
+        return TokenValues.isNull(token) ? null : TokenValues.intValue(token, source);
+    };
+
+    private static final ValueReader LONG = (tokens, source, index) -> {
+        final Token token = tokens.get(index);
+        return TokenValues.isNull(token) ? null : TokenValues.longValue(token, source);
+    };
+
+    private static final ValueReader SHORT = (tokens, source, index) -> {
+        final Token token = tokens.get(index);
+        return TokenValues.isNull(token) ? null : TokenValues.shortValue(token, source);
+    };
+
+    private static final ValueReader BYTE = (tokens, source, index) -> {
+        final Token token = tokens.get(index);
+        return TokenValues.isNull(token) ? null : TokenValues.byteValue(token, source);
+    };
+
+    private static final ValueReader CHARACTER = (tokens, source, index) -> {
+        final Token token = tokens.get(index);
+        return TokenValues.isNull(token) ? null : TokenValues.charValue(token, source);
+    };
+
+    private static final ValueReader DOUBLE = (tokens, source, index) -> {
+        final Token token = tokens.get(index);
+        return TokenValues.isNull(token) ? null : TokenValues.doubleValue(token, source);
+    };
+
+    private static final ValueReader FLOAT = (tokens, source, index) -> {
+        final Token token = tokens.get(index);
+        return TokenValues.isNull(token) ? null : TokenValues.floatValue(token, source);
+    };
+
+    private static final ValueReader BOOLEAN = (tokens, source, index) -> {
+        final Token token = tokens.get(index);
+        return TokenValues.isNull(token) ? null : TokenValues.booleanValue(token, source);
+    };
+
+    private static final ValueReader BIG_DECIMAL = (tokens, source, index) -> {
+        final Token token = tokens.get(index);
+        return TokenValues.isNull(token) ? null : TokenValues.bigDecimalValue(token, source);
+    };
+
+    private static final ValueReader BIG_INTEGER = (tokens, source, index) -> {
+        final Token token = tokens.get(index);
+        return TokenValues.isNull(token) ? null : TokenValues.bigIntegerValue(token, source);
+    };
+
+    private static final ValueReader STRING_BUILDER = new ValueReader() {
+        @Override
+        public Object read(final List<Token> tokens, final CharSource source, final int index) {
+            return readInto(null, tokens, source, index);
+        }
+
+        @Override
+        public Object readInto(final Object current, final List<Token> tokens, final CharSource source, final int index) {
+            return TokenValues.stringBuilderValue(tokens.get(index), source, (StringBuilder) current);
+        }
+    };
+
+    private static final ValueReader CHAR_SEQUENCE_VIEW = new ValueReader() {
+        @Override
+        public Object read(final List<Token> tokens, final CharSource source, final int index) {
+            return readInto(null, tokens, source, index);
+        }
+
+        @Override
+        public Object readInto(final Object current, final List<Token> tokens, final CharSource source, final int index) {
+            return TokenValues.charSequenceViewValue(tokens.get(index), source, (CharSequenceView) current);
+        }
+    };
+
+    private static final ValueReader INT_ARRAY = TokenValues::intArray;
+
+    private static final ValueReader LONG_ARRAY = TokenValues::longArray;
+
+    private static final ValueReader DOUBLE_ARRAY = TokenValues::doubleArray;
+
+    /**
+     * Returns the reader for a field type.
+     *
+     * @param type  the generic type of the field
+     * @param where the field, for error messages
+     * @return the reader
+     * @throws BindException if the type is not supported
+     */
+    static ValueReader forType(final Type type, final String where) {
+        if (type instanceof ParameterizedType) {
+            final ParameterizedType parameterized = (ParameterizedType) type;
+            final Class<?> raw = (Class<?>) parameterized.getRawType();
+            if (raw == List.class || raw == Collection.class || raw == ArrayList.class) {
+                return list(forType(parameterized.getActualTypeArguments()[0], where + " element"));
+            }
+            throw new BindException("Unsupported type " + type + " of " + where);
+        }
+        if (!(type instanceof Class)) {
+            throw new BindException("Unsupported type " + type + " of " + where);
+        }
+        final Class<?> cls = (Class<?>) type;
+        if (cls == String.class || cls == CharSequence.class) {
+            return STRING;
+        } else if (cls == StringBuilder.class) {
+            return STRING_BUILDER;
+        } else if (cls == CharSequenceView.class) {
+            return CHAR_SEQUENCE_VIEW;
+        } else if (cls == Integer.class || cls == int.class) {
+            return INTEGER;
+        } else if (cls == Long.class || cls == long.class) {
+            return LONG;
+        } else if (cls == Short.class || cls == short.class) {
+            return SHORT;
+        } else if (cls == Byte.class || cls == byte.class) {
+            return BYTE;
+        } else if (cls == Character.class || cls == char.class) {
+            return CHARACTER;
+        } else if (cls == Double.class || cls == double.class) {
+            return DOUBLE;
+        } else if (cls == Float.class || cls == float.class) {
+            return FLOAT;
+        } else if (cls == Boolean.class || cls == boolean.class) {
+            return BOOLEAN;
+        } else if (cls == BigDecimal.class) {
+            return BIG_DECIMAL;
+        } else if (cls == BigInteger.class) {
+            return BIG_INTEGER;
+        } else if (cls == int[].class) {
+            return INT_ARRAY;
+        } else if (cls == long[].class) {
+            return LONG_ARRAY;
+        } else if (cls == double[].class) {
+            return DOUBLE_ARRAY;
+        } else if (cls.isEnum()) {
+            return enumeration(cls);
+        } else if (cls.isPrimitive() || cls.isArray() || cls.isInterface() || cls == Object.class
+                || cls.getName().startsWith("java.")) {
+            throw new BindException("Unsupported type " + cls.getName() + " of " + where);
+        }
+        return object(cls);
+    }
+
+    /**
+     * Returns a reader for an array of bound objects.
+     *
+     * @param type the class of the elements
+     * @return the reader
+     */
+    static ValueReader listOf(final Class<?> type) {
+        return list(object(type));
+    }
+
+    private static ValueReader list(final ValueReader elementReader) {
+        return (tokens, source, index) -> {
+            final Token array = tokens.get(index);
+            if (TokenValues.isNull(array)) {
+                return null;
+            }
+            final List<Object> list = new ArrayList<>();
+            for (int element = TokenValues.firstElement(tokens, index, "List"); element != -1; element = TokenValues.nextElement(tokens, index, element)) {
+                list.add(elementReader.read(tokens, source, element));
+            }
+            return list;
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ValueReader enumeration(final Class<?> type) {
+        return (tokens, source, index) -> {
+            final Token token = tokens.get(index);
+            return TokenValues.isNull(token) ? null : Enum.valueOf((Class<? extends Enum>) type, TokenValues.stringValue(token, source, type.getSimpleName()));
+        };
+    }
+
+    /**
+     * Reads nested objects through the plan of their class, looked up on first use so classes can refer to themselves.
+     */
+    private static ValueReader object(final Class<?> type) {
+        return new ValueReader() {
+            private BindPlan<?> plan;
+
+            @Override
+            public Object read(final List<Token> tokens, final CharSource source, final int index) {
+                if (TokenValues.isNull(tokens.get(index))) {
+                    return null;
+                }
+                BindPlan<?> plan = this.plan;
+                if (plan == null) {
+                    plan = this.plan = JsonBinder.plan(type);
+                }
+                return plan.read(tokens, source, index);
+            }
+
+            @Override
+            public Object readInto(final Object current, final List<Token> tokens, final CharSource source, final int index) {
+                if (current == null || TokenValues.isNull(tokens.get(index))) {
+                    return read(tokens, source, index);
+                }
+                BindPlan<?> plan = this.plan;
+                if (plan == null) {
+                    plan = this.plan = JsonBinder.plan(type);
+                }
+                return plan.canFill() ? plan.fill(current, tokens, source, index) : plan.read(tokens, source, index);
+            }
+        };
+    }
+}
@@ -31,12 +31,18 @@
 package io.nats.jparse.node;
 
 import io.nats.jparse.node.support.NodeUtils;
+import io.nats.jparse.node.support.NumberArrayCopy;
 import io.nats.jparse.node.support.TokenSubList;
+import io.nats.jparse.node.support.UnexpectedElementException;
 import io.nats.jparse.source.CharSource;
 import io.nats.jparse.token.Token;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -53,6 +59,7 @@ public class ArrayNode extends AbstractList<Node> implements CollectionNode {
     private final CharSource source;
     private final Token rootToken;
     private final boolean objectsKeysCanBeEncoded;
+    private final ShapeCache shapes;
     private int hashCode;
     private List<List<Token>> childrenTokens;
     private Node[] elements;
@@ -66,10 +73,24 @@ public class ArrayNode extends AbstractList<Node> implements CollectionNode {
      * @param objectsKeysCanBeEncoded flag indicating if object keys can be encoded
      */
     public ArrayNode(final TokenSubList tokens, final CharSource source, boolean objectsKeysCanBeEncoded) {
+        this(tokens, source, objectsKeysCanBeEncoded, null);
+    }
+
+    /**
+     * Constructs an ArrayNode whose object elements look up keys through the shapes of a shape cache.
+     *
+     * @param tokens                  the sublist of tokens representing the array node
+     * @param source                  the character source containing the array node
+     * @param objectsKeysCanBeEncoded flag indicating if object keys can be encoded
+     * @param shapes                  the shape cache passed on to the elements, or null
+     */
+    public ArrayNode(final TokenSubList tokens, final CharSource source, boolean objectsKeysCanBeEncoded,
+                     final ShapeCache shapes) {
         this.tokens = tokens;
         this.rootToken = tokens.get(0);
         this.source = source;
         this.objectsKeysCanBeEncoded = objectsKeysCanBeEncoded;
+        this.shapes = shapes;
     }
 
     /**
@@ -115,7 +136,7 @@ public class ArrayNode extends AbstractList<Node> implements CollectionNode {
         Node element = elements()[index];
         if (element == null) {
             List<Token> tokens = childrenTokens().get(index);
-            elements()[index] = NodeUtils.createNode(tokens, source, objectsKeysCanBeEncoded);
+            elements()[index] = NodeUtils.createNode(tokens, source, objectsKeysCanBeEncoded, shapes);
         }
         return elements()[index];
     }
@@ -135,9 +156,10 @@ public class ArrayNode extends AbstractList<Node> implements CollectionNode {
      *
      * @param index the index of the node to retrieve
      * @return the long value of the node at the specified index
+     * @throws ArithmeticException if the value does not fit in a long
      */
     public long getLong(int index) {
-        return getNumberNode(index).longValue();
+        return getNumberNode(index).longValueExact();
     }
 
     /**
@@ -154,14 +176,11 @@ public class ArrayNode extends AbstractList<Node> implements CollectionNode {
      * Returns an array containing the double values of the nodes in the array node.
      *
      * @return an array containing the double values of the nodes in the array node
+     * @throws UnexpectedElementException if an element is not a number
      */
     public double[] getDoubleArray() {
-        int length = length();
-        double[] array = new double[length];
-        for (int i = 0; i < length; i++) {
-            final Token token = tokens.get(i + 1);
-            array[i] = source.getDouble(token.startIndex, token.endIndex);
-        }
+        double[] array = new double[tokens.size() - 1];
+        copyDoubles(0, array, 0, array.length);
         return array;
     }
 
@@ -169,17 +188,13 @@ public class ArrayNode extends AbstractList<Node> implements CollectionNode {
      * Returns an array containing the float values of the nodes in the array node.
      *
      * @return an array containing the float values of the nodes in the array node
+     * @throws UnexpectedElementException if an element is not a number
      */
     public float[] getFloatArray() {
-        int length = length();
-        float[] array = new float[length];
-        for (int i = 0; i < length; i++) {
-            final Token token = tokens.get(i + 1);
-            array[i] = source.getFloat(token.startIndex, token.endIndex);
-        }
+        float[] array = new float[tokens.size() - 1];
+        copyFloats(0, array, 0, array.length);
         return array;
     }
-
     /**
      * Returns an array containing the BigDecimal values of the nodes in the array node.
      *
@@ -214,14 +229,12 @@ public class ArrayNode extends AbstractList<Node> implements CollectionNode {
      * Returns an array containing the int values of the nodes in the array node.
      *
      * @return an array containing the int values of the nodes in the array node
+     * @throws UnexpectedElementException if an element is not an integer
+     * @throws ArithmeticException        if a value does not fit in an int
      */
     public int[] getIntArray() {
-        int length = length();
-        int[] array = new int[length];
-        for (int i = 0; i < length; i++) {
-            final Token token = tokens.get(i + 1);
-            array[i] = source.getInt(token.startIndex, token.endIndex);
-        }
+        int[] array = new int[tokens.size() - 1];
+        copyInts(0, array, 0, array.length);
         return array;
     }
 
@@ -229,25 +242,153 @@ public class ArrayNode extends AbstractList<Node> implements CollectionNode {
      * Returns an array containing the long values of the nodes in the array node.
      *
      * @return an array containing the long values of the nodes in the array node
+     * @throws UnexpectedElementException if an element is not an integer
+     * @throws ArithmeticException        if a value does not fit in a long
      */
     public long[] getLongArray() {
-        int length = length();
-        long[] array = new long[length];
-        for (int i = 0; i < length; i++) {
-            final Token token = tokens.get(i + 1);
-            array[i] = source.getLong(token.startIndex, token.endIndex);
-        }
+        long[] array = new long[tokens.size() - 1];
+        copyLongs(0, array, 0, array.length);
         return array;
     }
 
+    /**
+     * Copies int values of the array node into a caller owned array.
+     * Copies of at least `NumberArrayCopy.PARALLEL_THRESHOLD` elements are split across the common fork-join pool.
+     *
+     * @param fromIndex the index of the first element to copy
+     * @param target    the array to copy into
+     * @param offset    the index in `target` of the first copied element
+     * @param length    the maximum number of elements to copy
+     * @return the number of elements copied, less than `length` if the array node has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not an integer
+     * @throws ArithmeticException        if a value does not fit in an int
+     */
+    public int copyInts(int fromIndex, int[] target, int offset, int length) {
+        return NumberArrayCopy.copy(tokens, source, fromIndex, target, offset, length);
+    }
+
+    /**
+     * Copies long values of the array node into a caller owned array.
+     * Copies of at least `NumberArrayCopy.PARALLEL_THRESHOLD` elements are split across the common fork-join pool.
+     *
+     * @param fromIndex the index of the first element to copy
+     * @param target    the array to copy into
+     * @param offset    the index in `target` of the first copied element
+     * @param length    the maximum number of elements to copy
+     * @return the number of elements copied, less than `length` if the array node has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not an integer
+     * @throws ArithmeticException        if a value does not fit in a long
+     */
+    public int copyLongs(int fromIndex, long[] target, int offset, int length) {
+        return NumberArrayCopy.copy(tokens, source, fromIndex, target, offset, length);
+    }
+
+    /**
+     * Copies float values of the array node into a caller owned array.
+     * Copies of at least `NumberArrayCopy.PARALLEL_THRESHOLD` elements are split across the common fork-join pool.
+     *
+     * @param fromIndex the index of the first element to copy
+     * @param target    the array to copy into
+     * @param offset    the index in `target` of the first copied element
+     * @param length    the maximum number of elements to copy
+     * @return the number of elements copied, less than `length` if the array node has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not a number
+     */
+    public int copyFloats(int fromIndex, float[] target, int offset, int length) {
+        return NumberArrayCopy.copy(tokens, source, fromIndex, target, offset, length);
+    }
+
+    /**
+     * Copies double values of the array node into a caller owned array.
+     * Copies of at least `NumberArrayCopy.PARALLEL_THRESHOLD` elements are split across the common fork-join pool.
+     *
+     * @param fromIndex the index of the first element to copy
+     * @param target    the array to copy into
+     * @param offset    the index in `target` of the first copied element
+     * @param length    the maximum number of elements to copy
+     * @return the number of elements copied, less than `length` if the array node has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not a number
+     */
+    public int copyDoubles(int fromIndex, double[] target, int offset, int length) {
+        return NumberArrayCopy.copy(tokens, source, fromIndex, target, offset, length);
+    }
+
+    /**
+     * Copies int values of the array node into a buffer, heap or direct, starting at its position.
+     * The position is advanced past the copied elements.
+     *
+     * @param fromIndex the index of the first element to copy
+     * @param target    the buffer to copy into
+     * @return the number of elements copied, less than `target.remaining()` if the array node has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not an integer
+     * @throws ArithmeticException        if a value does not fit in an int
+     */
+    public int copyInts(int fromIndex, IntBuffer target) {
+        return NumberArrayCopy.copy(tokens, source, fromIndex, target, target.position(), target.remaining());
+    }
+
+    /**
+     * Copies long values of the array node into a buffer, heap or direct, starting at its position.
+     * The position is advanced past the copied elements.
+     *
+     * @param fromIndex the index of the first element to copy
+     * @param target    the buffer to copy into
+     * @return the number of elements copied, less than `target.remaining()` if the array node has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not an integer
+     * @throws ArithmeticException        if a value does not fit in a long
+     */
+    public int copyLongs(int fromIndex, LongBuffer target) {
+        return NumberArrayCopy.copy(tokens, source, fromIndex, target, target.position(), target.remaining());
+    }
+
+    /**
+     * Copies float values of the array node into a buffer, heap or direct, starting at its position.
+     * The position is advanced past the copied elements.
+     *
+     * @param fromIndex the index of the first element to copy
+     * @param target    the buffer to copy into
+     * @return the number of elements copied, less than `target.remaining()` if the array node has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not a number
+     */
+    public int copyFloats(int fromIndex, FloatBuffer target) {
+        return NumberArrayCopy.copy(tokens, source, fromIndex, target, target.position(), target.remaining());
+    }
+
+    /**
+     * Copies double values of the array node into a buffer, heap or direct, starting at its position.
+     * The position is advanced past the copied elements.
+     *
+     * @param fromIndex the index of the first element to copy
+     * @param target    the buffer to copy into
+     * @return the number of elements copied, less than `target.remaining()` if the array node has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not a number
+     */
+    public int copyDoubles(int fromIndex, DoubleBuffer target) {
+        return NumberArrayCopy.copy(tokens, source, fromIndex, target, target.position(), target.remaining());
+    }
+
+    /**
+     * Extracts fields of an array of objects into columns, one per field, without creating an `ObjectNode` per row.
+     * The column types are picked from the token classes of the values (@see Column.Type). Rows where a field is
+     * `null` or missing are marked in the null bitmap of its column.
+     *
+     * @param fields the fields to extract
+     * @return the columns, in the order of `fields`
+     * @throws UnexpectedElementException if an element is not an object
+     */
+    public Columns toColumns(String... fields) {
+        return Columns.extract(tokens, source, objectsKeysCanBeEncoded, fields);
+    }
+
     /**
      * Returns the null node at the specified index in the array node.
      *
      * @param index the index of the null node to retrieve
      * @return the null node at the specified index
+     * @throws ArithmeticException if the value does not fit in an int
      */
     public int getInt(int index) {
-        return getNumberNode(index).intValue();
+        return getNumberNode(index).intValueExact();
     }
 
     /**
@@ -389,6 +530,18 @@ public class ArrayNode extends AbstractList<Node> implements CollectionNode {
         return tokens;
     }
 
+    /**
+     * Creates the node for a value in the tokens of this array, with its key encoding and shape cache.
+     *
+     * @param start the index in `tokens()` of the first token of the value
+     * @param end   the index in `tokens()` after the last token of the value
+     * @return the node for the value
+     */
+    @Override
+    public Node valueNode(final int start, final int end) {
+        return NodeUtils.createNode(tokens.subList(start, end), source, objectsKeysCanBeEncoded, shapes);
+    }
+
     /**
      * Returns the root token of the array.
      *
@@ -30,6 +30,7 @@
  */
 package io.nats.jparse.node;
 
+import io.nats.jparse.node.support.NodeUtils;
 import io.nats.jparse.token.Token;
 
 import java.util.List;
@@ -91,6 +92,19 @@ public interface CollectionNode extends Node {
      */
     List<List<Token>> childrenTokens();
 
+    /**
+     * Creates the node for a value located on the token tape of this collection, given the range of its tokens.
+     * Objects and arrays get the key encoding and shape cache of this collection, so they read the same as the
+     * nodes reached through `getNode`.
+     *
+     * @param start the index in `tokens()` of the first token of the value
+     * @param end   the index in `tokens()` after the last token of the value
+     * @return the node for the value
+     */
+    default Node valueNode(int start, int end) {
+        return NodeUtils.createNode(tokens().subList(start, end), charSource(), false);
+    }
+
     /**
      * Returns the collection node as an array node.
      * This method should be implemented by the ArrayNode class.
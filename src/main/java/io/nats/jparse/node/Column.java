@@ -0,0 +1,201 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.node;
+
+/**
+ * One column of `Columns`: the values of one field across the rows of an array of objects.
+ * <p>
+ * The values are held in a primitive array picked from the token classes of the field (@see Type).
+ * Rows where the field is `null` or missing are marked in the null bitmap and hold `0`, `false` or `null`
+ * in the values array.
+ */
+public final class Column {
+
+    /**
+     * The type of the values of a column.
+     */
+    public enum Type {
+        /**
+         * Every row is `null` or missing the field.
+         */
+        NULL,
+        /**
+         * Every value is an integer that fits in an int, see `ints()`.
+         */
+        INT,
+        /**
+         * Every value is an integer that fits in a long, see `longs()`.
+         */
+        LONG,
+        /**
+         * Every value is a number and at least one is a floating point number or does not fit in a long,
+         * see `doubles()`.
+         */
+        DOUBLE,
+        /**
+         * Every value is a boolean, see `booleans()`.
+         */
+        BOOLEAN,
+        /**
+         * Every value is a string, or the values have mixed types, see `strings()`. Mixed values other than
+         * strings are held as their JSON text.
+         */
+        STRING
+    }
+
+    private final String name;
+    private final Type type;
+    private final int size;
+    private final long[] nulls;
+    private final Object values;
+
+    Column(final String name, final Type type, final int size, final long[] nulls, final Object values) {
+        this.name = name;
+        this.type = type;
+        this.size = size;
+        this.nulls = nulls;
+        this.values = values;
+    }
+
+    /**
+     * Returns the name of the field of this column.
+     *
+     * @return the field name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the type of the values of this column.
+     *
+     * @return the column type
+     */
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the field is `null` or missing in a row.
+     *
+     * @param row the row index
+     * @return `true` if the row has no value
+     */
+    public boolean isNull(final int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + ", size " + size);
+        }
+        return (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Returns the null bitmap: bit `row % 64` of word `row / 64` is set when the field is `null` or missing in `row`.
+     *
+     * @return the null bitmap, not copied
+     */
+    public long[] nullBitmap() {
+        return nulls;
+    }
+
+    /**
+     * Returns the number of rows where the field is `null` or missing.
+     *
+     * @return the null count
+     */
+    public int nullCount() {
+        int count = 0;
+        for (long word : nulls) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the values of an `INT` column.
+     *
+     * @return the values, not copied
+     * @throws IllegalStateException if the column is not an `INT` column
+     */
+    public int[] ints() {
+        return (int[]) values(Type.INT);
+    }
+
+    /**
+     * Returns the values of a `LONG` column.
+     *
+     * @return the values, not copied
+     * @throws IllegalStateException if the column is not a `LONG` column
+     */
+    public long[] longs() {
+        return (long[]) values(Type.LONG);
+    }
+
+    /**
+     * Returns the values of a `DOUBLE` column.
+     *
+     * @return the values, not copied
+     * @throws IllegalStateException if the column is not a `DOUBLE` column
+     */
+    public double[] doubles() {
+        return (double[]) values(Type.DOUBLE);
+    }
+
+    /**
+     * Returns the values of a `BOOLEAN` column.
+     *
+     * @return the values, not copied
+     * @throws IllegalStateException if the column is not a `BOOLEAN` column
+     */
+    public boolean[] booleans() {
+        return (boolean[]) values(Type.BOOLEAN);
+    }
+
+    /**
+     * Returns the values of a `STRING` column.
+     *
+     * @return the values, not copied
+     * @throws IllegalStateException if the column is not a `STRING` column
+     */
+    public CharSequence[] strings() {
+        return (CharSequence[]) values(Type.STRING);
+    }
+
+    private Object values(final Type expected) {
+        if (type != expected) {
+            throw new IllegalStateException("Column " + name + " is " + type + " not " + expected);
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "Column{" +
+                "name='" + name + '\'' +
+                ", type=" + type +
+                ", size=" + size +
+                ", nullCount=" + nullCount() +
+                '}';
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.node;
+
+import io.nats.jparse.node.support.CharArrayUtils;
+import io.nats.jparse.node.support.NodeUtils;
+import io.nats.jparse.node.support.UnexpectedElementException;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.NumberToken;
+import io.nats.jparse.token.NumberTypes;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The fields of an array of objects extracted into one `Column` per field (@see ArrayNode#toColumns).
+ * <p>
+ * The token tape of the array is walked once. For each row and requested field the index of the value token
+ * is recorded along with the kinds of values seen, no `ObjectNode` is created. The column types are then picked
+ * from the kinds and the values are converted straight from the recorded tokens.
+ */
+public final class Columns {
+
+    private static final int KIND_INT = 1;
+    private static final int KIND_LONG = 2;
+    private static final int KIND_DOUBLE = 4;
+    private static final int KIND_BOOLEAN = 8;
+    private static final int KIND_STRING = 16;
+    private static final int KIND_OTHER = 32;
+    private static final int KIND_NUMBER = KIND_INT | KIND_LONG | KIND_DOUBLE;
+
+    private static final int MISSING = -1;
+
+    private final Column[] columns;
+    private final int rows;
+
+    private Columns(final Column[] columns, final int rows) {
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * Returns the number of rows, which is the number of objects in the array.
+     *
+     * @return the number of rows
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns, which is the number of requested fields.
+     *
+     * @return the number of columns
+     */
+    public int size() {
+        return columns.length;
+    }
+
+    /**
+     * Returns a column by its position in the requested fields.
+     *
+     * @param index the position of the field
+     * @return the column
+     */
+    public Column column(final int index) {
+        return columns[index];
+    }
+
+    /**
+     * Returns a column by its field name.
+     *
+     * @param field the field name
+     * @return the column
+     * @throws IllegalArgumentException if the field was not requested
+     */
+    public Column column(final String field) {
+        for (Column column : columns) {
+            if (column.name().equals(field)) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Field " + field + " was not requested");
+    }
+
+    /**
+     * Extracts columns from the tokens of an array of objects.
+     *
+     * @param tokens                  the tokens of the array, starting with the array token
+     * @param source                  the source of the array
+     * @param objectsKeysCanBeEncoded whether object keys can be encoded
+     * @param fields                  the fields to extract
+     * @return the columns
+     * @throws UnexpectedElementException if an element of the array is not an object
+     */
+    static Columns extract(final List<Token> tokens, final CharSource source, final boolean objectsKeysCanBeEncoded,
+                           final String... fields) {
+        final int fieldCount = fields.length;
+        final int[] kinds = new int[fieldCount];
+        final int[][] valueTokens = new int[fieldCount][16];
+        int capacity = 16;
+        int rows = 0;
+
+        final int tokenCount = tokens.size();
+        int index = 1;
+        while (index < tokenCount) {
+            final Token object = tokens.get(index);
+            if (object.type != TokenTypes.OBJECT_TOKEN) {
+                throw new UnexpectedElementException(rows, object.type, "an object");
+            }
+            if (rows == capacity) {
+                capacity *= 2;
+                for (int field = 0; field < fieldCount; field++) {
+                    valueTokens[field] = Arrays.copyOf(valueTokens[field], capacity);
+                }
+            }
+            for (int field = 0; field < fieldCount; field++) {
+                valueTokens[field][rows] = MISSING;
+            }
+
+            /* Attributes are the key, key string, attribute value and value tokens, followed by any nested tokens. */
+            index++;
+            while (index < tokenCount && tokens.get(index).startIndex < object.endIndex) {
+                final Token key = tokens.get(index + 1);
+                final Token attributeValue = tokens.get(index + 2);
+                final int field = fieldIndex(fields, source, key, objectsKeysCanBeEncoded);
+                if (field >= 0) {
+                    final Token value = tokens.get(index + 3);
+                    valueTokens[field][rows] = index + 3;
+                    kinds[field] |= kind(value, source);
+                }
+                index += 4;
+                while (index < tokenCount && tokens.get(index).startIndex < attributeValue.endIndex) {
+                    index++;
+                }
+            }
+            rows++;
+        }
+
+        final Column[] columns = new Column[fieldCount];
+        for (int field = 0; field < fieldCount; field++) {
+            columns[field] = column(fields[field], kinds[field], valueTokens[field], rows, tokens, source);
+        }
+        return new Columns(columns, rows);
+    }
+
+    private static int fieldIndex(final String[] fields, final CharSource source, final Token key,
+                                  final boolean objectsKeysCanBeEncoded) {
+        final int length = key.endIndex - key.startIndex;
+        if (objectsKeysCanBeEncoded) {
+            final String name = source.toEncodedStringIfNeeded(key.startIndex, key.endIndex);
+            for (int field = 0; field < fields.length; field++) {
+                if (fields[field].equals(name)) {
+                    return field;
+                }
+            }
+        } else {
+            for (int field = 0; field < fields.length; field++) {
+                if (fields[field].length() == length && source.matchChars(key.startIndex, key.endIndex, fields[field])) {
+                    return field;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the kind of a value, `0` for null.
+     */
+    private static int kind(final Token value, final CharSource source) {
+        switch (value.type) {
+            case TokenTypes.INT_TOKEN:
+                final int numberType = value instanceof NumberToken ? ((NumberToken) value).numberType
+                        : CharArrayUtils.classifyInteger(source.getArray(value.startIndex, value.endIndex), 0,
+                        value.endIndex - value.startIndex);
+                switch (numberType) {
+                    case NumberTypes.FITS_INT:
+                        return KIND_INT;
+                    case NumberTypes.FITS_LONG:
+                        return KIND_LONG;
+                    default:
+                        return KIND_DOUBLE;
+                }
+            case TokenTypes.FLOAT_TOKEN:
+                return KIND_DOUBLE;
+            case TokenTypes.BOOLEAN_TOKEN:
+                return KIND_BOOLEAN;
+            case TokenTypes.STRING_TOKEN:
+                return KIND_STRING;
+            case TokenTypes.NULL_TOKEN:
+                return 0;
+            default:
+                return KIND_OTHER;
+        }
+    }
+
+    private static Column column(final String name, final int kinds, final int[] valueTokens, final int rows,
+                                 final List<Token> tokens, final CharSource source) {
+        final long[] nulls = new long[(rows + 63) >>> 6];
+        for (int row = 0; row < rows; row++) {
+            if (valueTokens[row] == MISSING || tokens.get(valueTokens[row]).type == TokenTypes.NULL_TOKEN) {
+                nulls[row >>> 6] |= 1L << row;
+                valueTokens[row] = MISSING;
+            }
+        }
+
+        final Column.Type type;
+        if (kinds == 0) {
+            type = Column.Type.NULL;
+        } else if ((kinds & ~KIND_NUMBER) == 0) {
+            type = (kinds & KIND_DOUBLE) != 0 ? Column.Type.DOUBLE : (kinds & KIND_LONG) != 0 ? Column.Type.LONG : Column.Type.INT;
+        } else if (kinds == KIND_BOOLEAN) {
+            type = Column.Type.BOOLEAN;
+        } else {
+            type = Column.Type.STRING;
+        }
+
+        final Object values;
+        switch (type) {
+            case INT: {
+                final int[] ints = new int[rows];
+                for (int row = 0; row < rows; row++) {
+                    if (valueTokens[row] != MISSING) {
+                        final Token token = tokens.get(valueTokens[row]);
+                        ints[row] = source.getInt(token.startIndex, token.endIndex);
+                    }
+                }
+                values = ints;
+                break;
+            }
+            case LONG: {
+                final long[] longs = new long[rows];
+                for (int row = 0; row < rows; row++) {
+                    if (valueTokens[row] != MISSING) {
+                        final Token token = tokens.get(valueTokens[row]);
+                        longs[row] = source.getLong(token.startIndex, token.endIndex);
+                    }
+                }
+                values = longs;
+                break;
+            }
+            case DOUBLE: {
+                final double[] doubles = new double[rows];
+                for (int row = 0; row < rows; row++) {
+                    if (valueTokens[row] != MISSING) {
+                        final Token token = tokens.get(valueTokens[row]);
+                        doubles[row] = NodeUtils.doubleValue(token, source);
+                    }
+                }
+                values = doubles;
+                break;
+            }
+            case BOOLEAN: {
+                final boolean[] booleans = new boolean[rows];
+                for (int row = 0; row < rows; row++) {
+                    if (valueTokens[row] != MISSING) {
+                        booleans[row] = source.getChartAt(tokens.get(valueTokens[row]).startIndex) == 't';
+                    }
+                }
+                values = booleans;
+                break;
+            }
+            case STRING: {
+                final CharSequence[] strings = new CharSequence[rows];
+                for (int row = 0; row < rows; row++) {
+                    if (valueTokens[row] != MISSING) {
+                        final Token token = tokens.get(valueTokens[row]);
+                        strings[row] = token.type == TokenTypes.STRING_TOKEN
+                                ? source.toEncodedStringIfNeeded(token.startIndex, token.endIndex)
+                                : source.getString(token.startIndex, token.endIndex);
+                    }
+                }
+                values = strings;
+                break;
+            }
+            default:
+                values = null;
+        }
+        return new Column(name, type, rows, nulls, values);
+    }
+}
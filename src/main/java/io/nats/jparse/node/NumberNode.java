@@ -15,8 +15,11 @@
  */
 package io.nats.jparse.node;
 
+import io.nats.jparse.node.support.CharArrayUtils;
 import io.nats.jparse.node.support.CharSequenceUtils;
 import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.NumberToken;
+import io.nats.jparse.token.NumberTypes;
 import io.nats.jparse.token.Token;
 
 import java.math.BigDecimal;
@@ -30,6 +33,9 @@ import java.util.List;
  * It implements the ScalarNode and CharSequence interfaces.
  * <p>
  * Number nodes can store integer, long, float, and double values.
+ * <p>
+ * The conversions use the class of the number (@see NumberTypes) recorded by the scanner in the `NumberToken`,
+ * so the digits are not rescanned to find out whether the value fits an `int` or a `long`.
  */
 public class NumberNode extends Number implements ScalarNode, CharSequence {
 
@@ -51,6 +57,11 @@ public class NumberNode extends Number implements ScalarNode, CharSequence {
      */
     private final NodeType elementType;
 
+    /**
+     * The class of the number (@see NumberTypes), taken from the token or classified on first use.
+     */
+    private int numberType;
+
     /**
      * Flag to indicate whether the hash code has been computed or not.
      * It helps to avoid recomputing the hash code for every call of hashCode() method.
@@ -75,26 +86,109 @@ public class NumberNode extends Number implements ScalarNode, CharSequence {
         this.token = token;
         this.source = source;
         this.elementType = elementType;
+        this.numberType = token instanceof NumberToken ? ((NumberToken) token).numberType : NumberTypes.UNCLASSIFIED;
+    }
+
+    /**
+     * Returns the class of the number.
+     *
+     * @return one of the `NumberTypes` constants other than `NumberTypes.UNCLASSIFIED`
+     */
+    public int numberType() {
+        int numberType = this.numberType;
+        if (numberType == NumberTypes.UNCLASSIFIED) {
+            numberType = CharArrayUtils.classifyNumber(source.getArray(token.startIndex, token.endIndex), 0, length());
+            this.numberType = numberType;
+        }
+        return numberType;
     }
 
     /**
-     * Returns the integer value of the number node.
+     * Returns the integer value of the number node. Like the primitive narrowing conversion, a value outside
+     * the `int` range keeps only its low-order 32 bits and a fraction is discarded.
      *
      * @return the integer value of the number node
+     * @see #intValueExact()
      */
     @Override
     public int intValue() {
-        return source.getInt(token.startIndex, token.endIndex);
+        switch (numberType()) {
+            case NumberTypes.FITS_INT:
+                return source.getInt(token.startIndex, token.endIndex);
+            case NumberTypes.FITS_LONG:
+                return (int) source.getLong(token.startIndex, token.endIndex);
+            case NumberTypes.BIG_INTEGER:
+                return bigIntegerValue().intValue();
+            default:
+                return (int) doubleValue();
+        }
     }
 
     /**
-     * Returns the long value of the number node.
+     * Returns the long value of the number node. Like the primitive narrowing conversion, a value outside
+     * the `long` range keeps only its low-order 64 bits and a fraction is discarded.
      *
      * @return the long value of the number node
+     * @see #longValueExact()
      */
     @Override
     public long longValue() {
-        return source.getLong(token.startIndex, token.endIndex);
+        switch (numberType()) {
+            case NumberTypes.FITS_INT:
+            case NumberTypes.FITS_LONG:
+                return source.getLong(token.startIndex, token.endIndex);
+            case NumberTypes.BIG_INTEGER:
+                return bigIntegerValue().longValue();
+            default:
+                return (long) doubleValue();
+        }
+    }
+
+    /**
+     * Returns the integer value of the number node, failing instead of overflowing.
+     * A fraction is discarded.
+     *
+     * @return the integer value of the number node
+     * @throws ArithmeticException if the value is outside the `int` range
+     */
+    public int intValueExact() {
+        switch (numberType()) {
+            case NumberTypes.FITS_INT:
+                return source.getInt(token.startIndex, token.endIndex);
+            case NumberTypes.FITS_LONG:
+            case NumberTypes.BIG_INTEGER:
+                throw new ArithmeticException("Number " + this + " does not fit in an int");
+            default:
+                final double value = doubleValue();
+                if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE || Double.isNaN(value)) {
+                    throw new ArithmeticException("Number " + this + " does not fit in an int");
+                }
+                return (int) value;
+        }
+    }
+
+    /**
+     * Returns the long value of the number node, failing instead of overflowing.
+     * A fraction is discarded.
+     *
+     * @return the long value of the number node
+     * @throws ArithmeticException if the value is outside the `long` range
+     */
+    public long longValueExact() {
+        switch (numberType()) {
+            case NumberTypes.FITS_INT:
+            case NumberTypes.FITS_LONG:
+                return source.getLong(token.startIndex, token.endIndex);
+            case NumberTypes.BIG_INTEGER:
+                throw new ArithmeticException("Number " + this + " does not fit in a long");
+            default:
+                final double value = doubleValue();
+                /* (double) Long.MAX_VALUE rounds up to 2^63, which is already out of range. */
+                if (value < Long.MIN_VALUE || value >= 0x1p63 || Double.isNaN(value)) {
+                    throw new ArithmeticException("Number " + this + " does not fit in a long");
+                }
+                return (long) value;
+        }
     }
 
     /**
@@ -114,7 +208,15 @@ public class NumberNode extends Number implements ScalarNode, CharSequence {
      */
     @Override
     public double doubleValue() {
-        return source.getDouble(token.startIndex, token.endIndex);
+        switch (numberType()) {
+            case NumberTypes.FITS_INT:
+            case NumberTypes.FITS_LONG:
+                return source.getLong(token.startIndex, token.endIndex);
+            case NumberTypes.SIMPLE_DECIMAL:
+                return source.getSimpleDecimal(token.startIndex, token.endIndex);
+            default:
+                return source.getDouble(token.startIndex, token.endIndex);
+        }
     }
 
     /**
@@ -132,25 +234,37 @@ public class NumberNode extends Number implements ScalarNode, CharSequence {
      * @return the BigInteger value of the number node
      */
     public BigInteger bigIntegerValue() {
-        return source.getBigInteger(token.startIndex, token.endIndex);
+        switch (numberType()) {
+            case NumberTypes.FITS_INT:
+            case NumberTypes.FITS_LONG:
+                return BigInteger.valueOf(source.getLong(token.startIndex, token.endIndex));
+            case NumberTypes.BIG_INTEGER:
+                return source.getBigInteger(token.startIndex, token.endIndex);
+            default:
+                return bigDecimalValue().toBigInteger();
+        }
     }
 
     /**
      * Returns the value of the number node as an Object.
      * If the number node represents an integer, an Integer object is returned.
      * If the number node represents a long, a Long object is returned.
+     * If the number node represents an integer too large for a long, a BigInteger object is returned.
      * Otherwise, a Double object is returned.
      *
      * @return the value of the number node as an Object
      */
     @Override
     public Object value() {
-        if (isInteger()) {
-            return intValue();
-        } else if (isLong()) {
-            return longValue();
-        } else {
-            return this.doubleValue();
+        switch (numberType()) {
+            case NumberTypes.FITS_INT:
+                return source.getInt(token.startIndex, token.endIndex);
+            case NumberTypes.FITS_LONG:
+                return source.getLong(token.startIndex, token.endIndex);
+            case NumberTypes.BIG_INTEGER:
+                return bigIntegerValue();
+            default:
+                return doubleValue();
         }
     }
 
@@ -297,26 +411,25 @@ public class NumberNode extends Number implements ScalarNode, CharSequence {
      * @return true if the number node represents an integer value, false otherwise
      */
     public boolean isInteger() {
-        switch (elementType) {
-            case INT:
-                return source.isInteger(this.token.startIndex, this.token.endIndex);
-            default:
-                return false;
-        }
+        return numberType() == NumberTypes.FITS_INT;
     }
 
     /**
-     * Checks if the number node represents a long value.
+     * Checks if the number node represents a long value that does not fit in an int.
      *
      * @return true if the number node represents a long value, false otherwise
      */
     public boolean isLong() {
-        switch (elementType) {
-            case INT:
-                return !source.isInteger(this.token.startIndex, this.token.endIndex);
-            default:
-                return false;
-        }
+        return numberType() == NumberTypes.FITS_LONG;
+    }
+
+    /**
+     * Checks if the number node represents an integer value that does not fit in a long.
+     *
+     * @return true if the number node represents a big integer value, false otherwise
+     */
+    public boolean isBigInteger() {
+        return numberType() == NumberTypes.BIG_INTEGER;
     }
 
     /**
@@ -18,6 +18,7 @@ package io.nats.jparse.node;
 import io.nats.jparse.node.support.NodeUtils;
 import io.nats.jparse.node.support.TokenSubList;
 import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.StringToken;
 import io.nats.jparse.token.Token;
 import io.nats.jparse.token.TokenTypes;
 
@@ -41,6 +42,10 @@ public class ObjectNode extends AbstractMap<CharSequence, Node> implements Colle
     private final CharSource source;
     private final Token rootToken;
     private final boolean objectsKeysCanBeEncoded;
+    private final ShapeCache shapes;
+    private ObjectShape shape;
+    private boolean shapeResolved;
+    private Node[] slotNodes;
     private List<List<Token>> childrenTokens;
     private Map<Object, Node> elementMap;
     private List<CharSequence> keys;
@@ -55,10 +60,23 @@ public class ObjectNode extends AbstractMap<CharSequence, Node> implements Colle
      * @param objectsKeysCanBeEncoded a flag indicating whether object keys can be encoded
      */
     public ObjectNode(TokenSubList tokens, CharSource source, boolean objectsKeysCanBeEncoded) {
+        this(tokens, source, objectsKeysCanBeEncoded, null);
+    }
+
+    /**
+     * Constructs an ObjectNode that looks up keys through the shapes of a shape cache.
+     *
+     * @param tokens                  the list of tokens representing the object node
+     * @param source                  the character source from which the tokens were parsed
+     * @param objectsKeysCanBeEncoded a flag indicating whether object keys can be encoded
+     * @param shapes                  the shape cache shared by nested objects, or null to compare keys
+     */
+    public ObjectNode(TokenSubList tokens, CharSource source, boolean objectsKeysCanBeEncoded, ShapeCache shapes) {
         this.tokens = tokens;
         this.source = source;
         this.rootToken = tokens.get(0);
         this.objectsKeysCanBeEncoded = objectsKeysCanBeEncoded;
+        this.shapes = objectsKeysCanBeEncoded ? null : shapes;
     }
 
     /**
@@ -125,6 +143,18 @@ public class ObjectNode extends AbstractMap<CharSequence, Node> implements Colle
         return tokens;
     }
 
+    /**
+     * Creates the node for a value in the tokens of this object node, with its key encoding and shape cache.
+     *
+     * @param start the index in `tokens()` of the first token of the value
+     * @param end   the index in `tokens()` after the last token of the value
+     * @return the node for the value
+     */
+    @Override
+    public Node valueNode(final int start, final int end) {
+        return NodeUtils.createNode(tokens.subList(start, end), source, objectsKeysCanBeEncoded, shapes);
+    }
+
     /**
      * Returns the root element token of the object node.
      *
@@ -367,9 +397,10 @@ public class ObjectNode extends AbstractMap<CharSequence, Node> implements Colle
      *
      * @param key the key to retrieve the associated long value
      * @return the long value associated with the specified key
+     * @throws ArithmeticException if the value does not fit in a long
      */
     public long getLong(CharSequence key) {
-        return ((NumberNode) getNode(key)).longValue();
+        return ((NumberNode) getNode(key)).longValueExact();
     }
 
     /**
@@ -389,9 +420,10 @@ public class ObjectNode extends AbstractMap<CharSequence, Node> implements Colle
      *
      * @param key the key to retrieve the associated integer value
      * @return the integer value associated with the specified key
+     * @throws ArithmeticException if the value does not fit in an int
      */
     public int getInt(CharSequence key) {
-        return ((NumberNode) getNode(key)).intValue();
+        return ((NumberNode) getNode(key)).intValueExact();
     }
 
     /**
@@ -503,7 +535,7 @@ public class ObjectNode extends AbstractMap<CharSequence, Node> implements Colle
         for (int index = 0; index < childrenTokens.size(); index += 2) {
             List<Token> itemKey = childrenTokens.get(index);
             if (keyMatch(itemKey, key)) {
-                node = NodeUtils.createNodeForObject(childrenTokens.get(index + 1), source, objectsKeysCanBeEncoded);
+                node = NodeUtils.createNodeForObject(childrenTokens.get(index + 1), source, objectsKeysCanBeEncoded, shapes);
                 break;
             }
         }
@@ -534,6 +566,19 @@ public class ObjectNode extends AbstractMap<CharSequence, Node> implements Colle
      * @return the node associated with the specified key, or null if no matching key is found
      */
     private Node lookupElement(final CharSequence key) {
+        if (key instanceof StringNode && ((StringNode) key).decodes()) {
+            /* The chars of a node for an escaped string are its raw chars, so look up the decoded string. */
+            return lookupElement(key.toString());
+        }
+        if (shapes != null) {
+            if (!shapeResolved) {
+                shape = shapes.shapeOf(childrenTokens(), source);
+                shapeResolved = true;
+            }
+            if (shape != null) {
+                return lookupSlot(shape.slot(key));
+            }
+        }
         if (elementMap == null) {
             elementMap = new HashMap<>();
         }
@@ -544,7 +589,7 @@ public class ObjectNode extends AbstractMap<CharSequence, Node> implements Colle
             for (int index = 0; index < childrenTokens.size(); index += 2) {
                 List<Token> itemKey = childrenTokens.get(index);
                 if (doesMatchKey(itemKey, key)) {
-                    node = NodeUtils.createNodeForObject(childrenTokens.get(index + 1), source, objectsKeysCanBeEncoded);
+                    node = NodeUtils.createNodeForObject(childrenTokens.get(index + 1), source, objectsKeysCanBeEncoded, shapes);
                     elementMap.put(key, node);
                     break;
                 }
@@ -553,6 +598,27 @@ public class ObjectNode extends AbstractMap<CharSequence, Node> implements Colle
         return node;
     }
 
+    /**
+     * Returns the node of an attribute by its slot in the object's shape, creating it on first use.
+     *
+     * @param slot the slot of the attribute, or -1 if the shape does not have the key
+     * @return the node of the attribute, or null if the shape does not have the key
+     */
+    private Node lookupSlot(final int slot) {
+        if (slot < 0) {
+            return null;
+        }
+        if (slotNodes == null) {
+            slotNodes = new Node[childrenTokens.size() / 2];
+        }
+        Node node = slotNodes[slot];
+        if (node == null) {
+            node = slotNodes[slot] = NodeUtils.createNodeForObject(childrenTokens.get(slot * 2 + 1), source,
+                    objectsKeysCanBeEncoded, shapes);
+        }
+        return node;
+    }
+
     /**
      * Checks if the given list of tokens matches the specified key.
      *
@@ -565,22 +631,11 @@ public class ObjectNode extends AbstractMap<CharSequence, Node> implements Colle
         final Token keyToken = itemKey.get(1);
 
         if (keyToken.type == TokenTypes.STRING_TOKEN) {
-            if (keyToken.length() != key.length()) {
-                return false;
-            }
-
-            if (objectsKeysCanBeEncoded) {
-                final StringNode stringNode = new StringNode(keyToken, source, objectsKeysCanBeEncoded);
-                final String string = stringNode.toString();
-                for (int index = 0; index < key.length(); index++) {
-                    if (string.charAt(index) != key.charAt(index)) {
-                        return false;
-                    }
-                }
-                return true;
-            } else {
-                return source.matchChars(keyToken.startIndex, keyToken.endIndex, key);
+            if (objectsKeysCanBeEncoded && !(keyToken instanceof StringToken && !((StringToken) keyToken).hasEscapes)) {
+                /* An escaped key is longer than the decoded key, so it is decoded while comparing. */
+                return keyToken.length() >= key.length() && source.matchEncodedChars(keyToken.startIndex, keyToken.endIndex, key);
             }
+            return keyToken.length() == key.length() && source.matchChars(keyToken.startIndex, keyToken.endIndex, key);
         }
         return false;
     }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.node;
+
+import io.nats.jparse.node.support.CharSequenceUtils;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+
+import java.util.List;
+
+/**
+ * The shape of an object: its keys in order, and the slot (attribute position) of each key.
+ * <p>
+ * Shapes are immutable and shared through a `ShapeCache` by every object with the same keys in the same order.
+ * Slots are found through a small open-addressing table keyed by the `String.hashCode` of the key, so a lookup with
+ * any `CharSequence` compares its characters in place without converting it to a `String` or boxing the slot.
+ */
+final class ObjectShape {
+
+    private final String[] keys;
+    /* The hash of the key of each slot, compared before the characters. */
+    private final int[] hashes;
+    /* Slot + 1 of each key at the position of its hash, linear probing, 0 for an empty entry. */
+    private final int[] table;
+    private final int mask;
+
+    private ObjectShape(final String[] keys) {
+        this.keys = keys;
+        this.hashes = new int[keys.length];
+        /* A power of two at least twice the key count, so probe sequences stay short. */
+        this.table = new int[Integer.highestOneBit(Math.max(keys.length, 1)) * 4];
+        this.mask = table.length - 1;
+        for (int slot = 0; slot < keys.length; slot++) {
+            hashes[slot] = keys[slot].hashCode();
+            if (slot(keys[slot]) == -1) {
+                int index = spread(hashes[slot]) & mask;
+                while (table[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = slot + 1;
+            }
+        }
+    }
+
+    /**
+     * Records the shape of an object.
+     *
+     * @param childrenTokens the key and value tokens of the object's attributes
+     * @param source         the source of the tokens
+     * @return the shape
+     */
+    static ObjectShape of(final List<List<Token>> childrenTokens, final CharSource source) {
+        final String[] keys = new String[childrenTokens.size() / 2];
+        for (int slot = 0; slot < keys.length; slot++) {
+            final Token key = childrenTokens.get(slot * 2).get(1);
+            keys[slot] = source.getString(key.startIndex, key.endIndex);
+        }
+        return new ObjectShape(keys);
+    }
+
+    /**
+     * Computes the fingerprint of the keys of an object from their lengths and characters.
+     *
+     * @param childrenTokens the key and value tokens of the object's attributes
+     * @param source         the source of the tokens
+     * @return the fingerprint
+     */
+    static long fingerprint(final List<List<Token>> childrenTokens, final CharSource source) {
+        long hash = childrenTokens.size();
+        for (int index = 0; index < childrenTokens.size(); index += 2) {
+            final Token key = childrenTokens.get(index).get(1);
+            hash = hash * 31 + (key.endIndex - key.startIndex);
+            for (int charIndex = key.startIndex; charIndex < key.endIndex; charIndex++) {
+                hash = hash * 31 + source.getChartAt(charIndex);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Checks that an object has exactly the keys of this shape, in the same order.
+     *
+     * @param childrenTokens the key and value tokens of the object's attributes
+     * @param source         the source of the tokens
+     * @return `true` if the object has this shape
+     */
+    boolean matches(final List<List<Token>> childrenTokens, final CharSource source) {
+        final String[] keys = this.keys;
+        if (childrenTokens.size() != keys.length * 2) {
+            return false;
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            final Token key = childrenTokens.get(slot * 2).get(1);
+            if (key.endIndex - key.startIndex != keys[slot].length()
+                    || !source.matchChars(key.startIndex, key.endIndex, keys[slot])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the slot of a key.
+     *
+     * @param key the key
+     * @return the slot of the first attribute with the key, `-1` if objects of this shape do not have the key
+     */
+    int slot(final CharSequence key) {
+        if (key instanceof String) {
+            return slot((String) key);
+        }
+        final int hash = CharSequenceUtils.hashCode(key);
+        final int[] table = this.table;
+        for (int index = spread(hash) & mask; ; index = (index + 1) & mask) {
+            final int entry = table[index];
+            if (entry == 0) {
+                return -1;
+            }
+            if (hashes[entry - 1] == hash && CharSequenceUtils.equals(keys[entry - 1], key)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private int slot(final String key) {
+        final int hash = key.hashCode();
+        final int[] table = this.table;
+        for (int index = spread(hash) & mask; ; index = (index + 1) & mask) {
+            final int entry = table[index];
+            if (entry == 0) {
+                return -1;
+            }
+            if (hashes[entry - 1] == hash && keys[entry - 1].equals(key)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
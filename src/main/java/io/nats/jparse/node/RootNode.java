@@ -44,6 +44,7 @@ public class RootNode implements CollectionNode {
     private final CharSource source;
     private final Token rootToken;
     private final boolean objectsKeysCanBeEncoded;
+    private final ShapeCache shapes;
 
     private Node root;
 
@@ -55,10 +56,23 @@ public class RootNode implements CollectionNode {
      * @param objectsKeysCanBeEncoded a flag indicating whether object keys can be encoded
      */
     public RootNode(TokenList tokens, CharSource source, boolean objectsKeysCanBeEncoded) {
+        this(tokens, source, objectsKeysCanBeEncoded, null);
+    }
+
+    /**
+     * Constructs a RootNode whose objects look up keys through the shapes of a shape cache.
+     *
+     * @param tokens                  the list of tokens representing the tree structure
+     * @param source                  the character source from which the tokens were parsed
+     * @param objectsKeysCanBeEncoded a flag indicating whether object keys can be encoded
+     * @param shapes                  the shape cache, or null to compare keys
+     */
+    public RootNode(TokenList tokens, CharSource source, boolean objectsKeysCanBeEncoded, ShapeCache shapes) {
         this.tokens = tokens;
         this.source = source;
         this.rootToken = tokens.get(0);
         this.objectsKeysCanBeEncoded = objectsKeysCanBeEncoded;
+        this.shapes = shapes;
     }
 
     /**
@@ -123,7 +137,7 @@ public class RootNode implements CollectionNode {
      */
     public Node getNode() {
         if (root == null) {
-            root = NodeUtils.createNode(new TokenSubList(tokens.getTokens(), 0, tokens.size()), source, objectsKeysCanBeEncoded);
+            root = NodeUtils.createNode(new TokenSubList(tokens.getTokens(), 0, tokens.size()), source, objectsKeysCanBeEncoded, shapes);
         }
         return root;
     }
@@ -195,9 +209,10 @@ public class RootNode implements CollectionNode {
      * This method assumes that the root node is a number node.
      *
      * @return the integer value of the root node
+     * @throws ArithmeticException if the value does not fit in an int
      */
     public int getInt() {
-        return getNumberNode().intValue();
+        return getNumberNode().intValueExact();
     }
 
     /**
@@ -215,9 +230,10 @@ public class RootNode implements CollectionNode {
      * This method assumes that the root node is a number node.
      *
      * @return the long value of the root node
+     * @throws ArithmeticException if the value does not fit in a long
      */
     public long getLong() {
-        return getNumberNode().longValue();
+        return getNumberNode().longValueExact();
     }
 
     /**
@@ -318,6 +334,18 @@ public class RootNode implements CollectionNode {
         return this.tokens;
     }
 
+    /**
+     * Creates the node for a value in the tokens of this root node, with its key encoding and shape cache.
+     *
+     * @param start the index in `tokens()` of the first token of the value
+     * @param end   the index in `tokens()` after the last token of the value
+     * @return the node for the value
+     */
+    @Override
+    public Node valueNode(final int start, final int end) {
+        return NodeUtils.createNode(tokens.subList(start, end), source, objectsKeysCanBeEncoded, shapes);
+    }
+
     /**
      * Returns the root element token of the root node.
      *
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.node;
+
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the shapes (keys in order) of the objects of repeated message schemas, like the hidden classes of
+ * JavaScript engines.
+ * <p>
+ * Parse with a shape cache, see `JsonParserBuilder.setShapeCache`, and the first object with a new set of keys
+ * records its shape. Later objects with the same keys in the same order share that shape: their keys are checked
+ * against it once, then every `getNode("field")` resolves to a fixed slot through a map lookup instead of comparing
+ * the key with each attribute. The shape that matched last is tried first, so a stream of messages of one schema
+ * does not even hash its keys. Objects that match no cached shape, once the cache is full, use the normal lookup.
+ * <p>
+ * A cache is thread safe and is meant to be shared by every parse of a message type. Shapes are only used when
+ * object keys are not encoded.
+ */
+public final class ShapeCache {
+
+    /**
+     * The number of shapes a cache created with the no-argument constructor holds.
+     */
+    public static final int DEFAULT_MAX_SHAPES = 256;
+
+    private final int maxShapes;
+    private final ConcurrentHashMap<Long, ObjectShape> shapes = new ConcurrentHashMap<>();
+    private volatile ObjectShape last;
+
+    /**
+     * Creates a cache that holds up to `DEFAULT_MAX_SHAPES` shapes.
+     */
+    public ShapeCache() {
+        this(DEFAULT_MAX_SHAPES);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxShapes the number of shapes to hold, objects of other shapes use the normal lookup
+     */
+    public ShapeCache(final int maxShapes) {
+        this.maxShapes = maxShapes;
+    }
+
+    /**
+     * Returns the number of shapes recorded.
+     *
+     * @return the number of shapes
+     */
+    public int size() {
+        return shapes.size();
+    }
+
+    /**
+     * Finds or records the shape of an object.
+     *
+     * @param childrenTokens the key and value tokens of the object's attributes
+     * @param source         the source of the tokens
+     * @return the shape, or null if the object matches no cached shape and the cache is full
+     */
+    ObjectShape shapeOf(final List<List<Token>> childrenTokens, final CharSource source) {
+        final ObjectShape last = this.last;
+        if (last != null && last.matches(childrenTokens, source)) {
+            return last;
+        }
+        final long fingerprint = ObjectShape.fingerprint(childrenTokens, source);
+        ObjectShape shape = shapes.get(fingerprint);
+        if (shape == null) {
+            if (shapes.size() >= maxShapes) {
+                return null;
+            }
+            final ObjectShape recorded = ObjectShape.of(childrenTokens, source);
+            shape = shapes.putIfAbsent(fingerprint, recorded);
+            if (shape == null) {
+                shape = recorded;
+            }
+        }
+        /* Different keys with the same fingerprint keep the shape recorded first. */
+        if (shape.matches(childrenTokens, source)) {
+            this.last = shape;
+            return shape;
+        }
+        return null;
+    }
+}
@@ -17,8 +17,12 @@ package io.nats.jparse.node;
 
 import io.nats.jparse.node.support.CharSequenceUtils;
 import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.StringToken;
 import io.nats.jparse.token.Token;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
 import java.util.Collections;
 import java.util.List;
 
@@ -35,6 +39,10 @@ import java.util.List;
  * <p>The StringNode implements the CharSequence interface and overrides the equals and hashCode methods
  * for proper comparison and hashing of the string value.
  *
+ * <p>The `String` returned by `toString` is created once and cached. `decodeTo` and `appendTo` write the same
+ * characters into a caller buffer without creating it. When the token is a `StringToken`, the scanner already
+ * recorded whether the string has escapes, so strings without escapes are never scanned again.
+ *
  * @see io.nats.jparse.node.ScalarNode
  * @see java.lang.CharSequence
  */
@@ -48,6 +56,7 @@ public class StringNode implements ScalarNode, CharSequence {
     private final boolean encodeStringByDefault;
     private int hashCode = 0;
     private boolean hashCodeSet = false;
+    private String value;
 
     @Override
     public NodeType type() {
@@ -134,13 +143,93 @@ public class StringNode implements ScalarNode, CharSequence {
     /**
      * Returns a String representation of the StringNode.
      * If encodeStringByDefault is true, the string will be encoded using the source's encoding if needed.
-     * Otherwise, the original string will be returned.
+     * Otherwise, the original string will be returned. The string is created on the first call and cached.
      *
      * @return a String representation of the StringNode
      */
     @Override
     public String toString() {
-        return encodeStringByDefault ? source.toEncodedStringIfNeeded(start, end) : source.getString(start, end);
+        String value = this.value;
+        if (value == null) {
+            if (!encodeStringByDefault) {
+                value = source.getString(start, end);
+            } else if (token instanceof StringToken) {
+                value = ((StringToken) token).hasEscapes ? source.getEncodedString(start, end) : source.getString(start, end);
+            } else {
+                value = source.toEncodedStringIfNeeded(start, end);
+            }
+            this.value = value;
+        }
+        return value;
+    }
+
+    /**
+     * Checks whether the raw characters of the string contain a `\` escape.
+     * Uses the flag recorded by the scanner when the token is a `StringToken`.
+     *
+     * @return {@code true} if the string has to be decoded
+     */
+    public boolean hasEscapes() {
+        if (token instanceof StringToken) {
+            return ((StringToken) token).hasEscapes;
+        }
+        for (int index = start; index < end; index++) {
+            if (source.getChartAt(index) == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copies the characters of `toString()` into a caller buffer, decoding escapes on the way, without creating
+     * a `String`. The copy is never longer than `length()`, the length of the raw characters.
+     *
+     * @param destination the buffer to copy to
+     * @param offset      the index in the buffer of the first character
+     * @return the number of characters copied
+     */
+    public int decodeTo(final char[] destination, final int offset) {
+        if (value != null) {
+            value.getChars(0, value.length(), destination, offset);
+            return value.length();
+        }
+        if (encodeStringByDefault || !hasEscapes()) {
+            /* Without escapes decoding is a bulk copy of the raw characters. */
+            return source.decodeEncodedString(start, end, destination, offset);
+        }
+        for (int index = start; index < end; index++) {
+            destination[offset + index - start] = source.getChartAt(index);
+        }
+        return length;
+    }
+
+    /**
+     * Appends the characters of `toString()` to an `Appendable`, decoding escapes on the way. A `StringBuilder`
+     * receives them without any intermediate `String`.
+     *
+     * @param appendable the `StringBuilder`, `Writer` or other `Appendable` to append to
+     * @param <A>        the type of the appendable
+     * @return the appendable
+     * @throws IOException if the appendable does
+     */
+    public <A extends Appendable> A appendTo(final A appendable) throws IOException {
+        if (value != null) {
+            appendable.append(value);
+        } else if (!encodeStringByDefault || !hasEscapes()) {
+            appendable.append(charSequence());
+        } else if (appendable instanceof StringBuilder) {
+            source.appendEncodedString(start, end, (StringBuilder) appendable);
+        } else {
+            final char[] chars = new char[length];
+            final int count = source.decodeEncodedString(start, end, chars, 0);
+            if (appendable instanceof Writer) {
+                ((Writer) appendable).write(chars, 0, count);
+            } else {
+                appendable.append(CharBuffer.wrap(chars, 0, count));
+            }
+        }
+        return appendable;
     }
 
     /**
@@ -163,9 +252,48 @@ public class StringNode implements ScalarNode, CharSequence {
         return source.getString(start, end);
     }
 
+    /**
+     * Checks whether the string starts with a prefix. Escapes are decoded while comparing when the string is
+     * encoded by default, without allocating.
+     *
+     * @param prefix the plain prefix
+     * @return {@code true} if the string starts with the prefix
+     */
+    public boolean startsWith(final CharSequence prefix) {
+        if (decodes()) {
+            return source.startsWithEncodedChars(start, end, prefix);
+        }
+        final int prefixLength = prefix.length();
+        return prefixLength <= length && (prefixLength == 0 || source.matchChars(start, start + prefixLength, prefix));
+    }
+
+    /**
+     * Compares the string with plain characters, ordered like `String.compareTo`. Escapes are decoded while
+     * comparing when the string is encoded by default, without allocating.
+     *
+     * @param other the plain characters to compare with
+     * @return a negative number, zero or a positive number as this string is less than, equal to or greater than
+     * the other characters
+     */
+    public int compareTo(final CharSequence other) {
+        if (decodes()) {
+            return source.compareEncodedChars(start, end, other);
+        }
+        final int common = Math.min(length, other.length());
+        for (int index = 0; index < common; index++) {
+            final int difference = source.getChartAt(start + index) - other.charAt(index);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - other.length();
+    }
+
     /**
      * Checks if the StringNode is equal to the specified object.
-     * The comparison is performed by comparing the content as a CharSequence.
+     * The comparison is performed by comparing the content as a CharSequence. When the string is encoded by default
+     * and has escapes, the decoded characters are compared, decoding while comparing; a string without escapes
+     * compares its raw characters.
      *
      * @param o the object to compare with
      * @return {@code true} if the StringNode is equal to the object, {@code false} otherwise
@@ -175,7 +303,10 @@ public class StringNode implements ScalarNode, CharSequence {
         if (this == o) return true;
         if (o instanceof CharSequence) {
             CharSequence other = (CharSequence) o;
-            return CharSequenceUtils.equals(this, other);
+            if (other instanceof StringNode && ((StringNode) other).decodes()) {
+                other = other.toString();
+            }
+            return decodes() ? source.matchEncodedChars(start, end, other) : CharSequenceUtils.equals(this, other);
         } else {
             return false;
         }
@@ -183,7 +314,8 @@ public class StringNode implements ScalarNode, CharSequence {
 
     /**
      * Returns the hash code value for the StringNode.
-     * The hash code is calculated based on the content as a CharSequence.
+     * The hash code is calculated based on the content as a CharSequence, decoded when the string is encoded by
+     * default, so it equals the hash code of the `String` the node is equal to.
      *
      * @return the hash code value for the StringNode
      */
@@ -192,8 +324,15 @@ public class StringNode implements ScalarNode, CharSequence {
         if (hashCodeSet) {
             return hashCode;
         }
-        hashCode = CharSequenceUtils.hashCode(this);
+        hashCode = decodes() ? source.hashCodeEncodedChars(start, end) : CharSequenceUtils.hashCode(this);
         hashCodeSet = true;
         return hashCode;
     }
+
+    /**
+     * Checks whether `toString` decodes the raw characters.
+     */
+    boolean decodes() {
+        return encodeStringByDefault && hasEscapes();
+    }
 }
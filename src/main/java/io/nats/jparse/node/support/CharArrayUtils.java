@@ -15,6 +15,8 @@
  */
 package io.nats.jparse.node.support;
 
+import io.nats.jparse.token.NumberTypes;
+
 /**
  * Utility class for working with character arrays.
  */
@@ -33,6 +35,12 @@ public class CharArrayUtils {
      * Escape character code.
      */
     static final int ESCAPE = '\\';
+
+    /**
+     * Marks a truncated unicode escape, which decodes to no character.
+     */
+    private static final int NO_CHAR = 0x10000;
+
     /**
      * Value of 10s place in hexadecimal.
      */
@@ -45,6 +53,15 @@ public class CharArrayUtils {
      * Value of 1000s place in hexadecimal.
      */
     private final static int HEX_1000s = 16 * 16 * 16;
+    /**
+     * Digits of the integer limits, without the sign.
+     */
+    private static final char[] MAX_INT_DIGITS = String.valueOf(Integer.MAX_VALUE).toCharArray();
+    private static final char[] MIN_INT_DIGITS = String.valueOf(Integer.MIN_VALUE).substring(1).toCharArray();
+    private static final char[] MAX_LONG_DIGITS = String.valueOf(Long.MAX_VALUE).toCharArray();
+    private static final char[] MIN_LONG_DIGITS = String.valueOf(Long.MIN_VALUE).substring(1).toCharArray();
+    private static final int INT_DIGITS = MAX_INT_DIGITS.length;
+    private static final int LONG_DIGITS = MAX_LONG_DIGITS.length;
 
     /**
 
@@ -133,6 +150,196 @@ public class CharArrayUtils {
 
     }
 
+    /**
+     * Decodes a JSON string from the specified character array within the specified range into a builder.
+     * Runs of characters without escapes are appended in bulk, so nothing is allocated while the builder has room.
+     *
+     * @param chars      the character array containing the JSON string
+     * @param startIndex the start index of the JSON string within the character array
+     * @param endIndex   the end index of the JSON string within the character array (exclusive)
+     * @param builder    the builder the decoded characters are appended to
+     */
+    public static void decodeJsonString(final char[] chars, final int startIndex, final int endIndex, final StringBuilder builder) {
+        int plain = startIndex;
+        int index = startIndex;
+        while (index < endIndex - 1) {
+            if (chars[index] != '\\') {
+                index++;
+                continue;
+            }
+            builder.append(chars, plain, index - plain);
+            final char c = chars[index + 1];
+            if (c != 'u') {
+                builder.append(c < controlMap.length ? controlMap[c] : c);
+                index += 2;
+            } else if (index + 5 < endIndex) {
+                builder.append(getUnicode(chars, index + 1));
+                index += 6;
+            } else {
+                index += 2;
+            }
+            plain = index;
+        }
+        builder.append(chars, plain, endIndex - plain);
+    }
+
+    /**
+     * Decodes a JSON string from the specified character array within the specified range into another array.
+     * Runs of characters without escapes are copied in bulk; the decoded string is never longer than the range.
+     *
+     * @param chars       the character array containing the JSON string
+     * @param startIndex  the start index of the JSON string within the character array
+     * @param endIndex    the end index of the JSON string within the character array (exclusive)
+     * @param destination the array the decoded characters are copied to
+     * @param offset      the index in the destination of the first decoded character
+     * @return the number of decoded characters
+     */
+    public static int decodeJsonString(final char[] chars, final int startIndex, final int endIndex,
+                                       final char[] destination, final int offset) {
+        int plain = startIndex;
+        int index = startIndex;
+        int written = offset;
+        while (index < endIndex - 1) {
+            if (chars[index] != '\\') {
+                index++;
+                continue;
+            }
+            System.arraycopy(chars, plain, destination, written, index - plain);
+            written += index - plain;
+            final char c = chars[index + 1];
+            if (c != 'u') {
+                destination[written++] = c < controlMap.length ? controlMap[c] : c;
+                index += 2;
+            } else if (index + 5 < endIndex) {
+                destination[written++] = getUnicode(chars, index + 1);
+                index += 6;
+            } else {
+                index += 2;
+            }
+            plain = index;
+        }
+        System.arraycopy(chars, plain, destination, written, endIndex - plain);
+        return written + endIndex - plain - offset;
+    }
+
+    /**
+     * Compares the decoded characters of a JSON string with a plain character sequence, decoding escapes on the fly
+     * without allocating.
+     *
+     * @param chars      the character array containing the JSON string
+     * @param startIndex the start index of the JSON string within the character array
+     * @param endIndex   the end index of the JSON string within the character array (exclusive)
+     * @param other      the plain characters to compare with
+     * @return a negative number, zero or a positive number as the decoded string is less than, equal to or greater
+     * than `other`, ordered like `String.compareTo`
+     */
+    public static int compareDecoded(final char[] chars, final int startIndex, final int endIndex, final CharSequence other) {
+        final int length = other.length();
+        int index = startIndex;
+        int position = 0;
+        while (index < endIndex) {
+            final long next = decodeNext(chars, index, endIndex);
+            index = (int) (next >>> 32);
+            final int c = (int) next;
+            if (c == NO_CHAR) {
+                continue;
+            }
+            if (position == length) {
+                return 1;
+            }
+            final int difference = c - other.charAt(position++);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return position - length;
+    }
+
+    /**
+     * Checks whether the decoded characters of a JSON string equal a plain character sequence, decoding escapes on
+     * the fly without allocating. A decoded string is never longer than its encoded characters.
+     *
+     * @param chars      the character array containing the JSON string
+     * @param startIndex the start index of the JSON string within the character array
+     * @param endIndex   the end index of the JSON string within the character array (exclusive)
+     * @param other      the plain characters to compare with
+     * @return true if the decoded string equals `other`
+     */
+    public static boolean equalsDecoded(final char[] chars, final int startIndex, final int endIndex, final CharSequence other) {
+        return other.length() <= endIndex - startIndex && compareDecoded(chars, startIndex, endIndex, other) == 0;
+    }
+
+    /**
+     * Checks whether the decoded characters of a JSON string start with a plain prefix, decoding escapes on the fly
+     * without allocating.
+     *
+     * @param chars      the character array containing the JSON string
+     * @param startIndex the start index of the JSON string within the character array
+     * @param endIndex   the end index of the JSON string within the character array (exclusive)
+     * @param prefix     the plain prefix
+     * @return true if the decoded string starts with `prefix`
+     */
+    public static boolean startsWithDecoded(final char[] chars, final int startIndex, final int endIndex, final CharSequence prefix) {
+        final int length = prefix.length();
+        int index = startIndex;
+        int position = 0;
+        while (position < length) {
+            if (index >= endIndex) {
+                return false;
+            }
+            final long next = decodeNext(chars, index, endIndex);
+            index = (int) (next >>> 32);
+            final int c = (int) next;
+            if (c != NO_CHAR && c != prefix.charAt(position++)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calculates the hash code of the decoded characters of a JSON string without allocating, equal to the
+     * `String.hashCode` of the decoded string.
+     *
+     * @param chars      the character array containing the JSON string
+     * @param startIndex the start index of the JSON string within the character array
+     * @param endIndex   the end index of the JSON string within the character array (exclusive)
+     * @return the hash code of the decoded string
+     */
+    public static int hashCodeDecoded(final char[] chars, final int startIndex, final int endIndex) {
+        int hash = 0;
+        int index = startIndex;
+        while (index < endIndex) {
+            final long next = decodeNext(chars, index, endIndex);
+            index = (int) (next >>> 32);
+            final int c = (int) next;
+            if (c != NO_CHAR) {
+                hash = 31 * hash + c;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Decodes the character at an index the way `decodeJsonString` does.
+     *
+     * @return the index after the character in the high 32 bits, the character or `NO_CHAR` in the low 32 bits
+     */
+    private static long decodeNext(final char[] chars, final int index, final int endIndex) {
+        final char c = chars[index];
+        if (c != '\\' || index >= endIndex - 1) {
+            return ((long) (index + 1) << 32) | c;
+        }
+        final char escaped = chars[index + 1];
+        if (escaped != 'u') {
+            return ((long) (index + 2) << 32) | (escaped < controlMap.length ? controlMap[escaped] : escaped);
+        }
+        if (index + 5 < endIndex) {
+            return ((long) (index + 6) << 32) | getUnicode(chars, index + 1);
+        }
+        return ((long) (index + 2) << 32) | NO_CHAR;
+    }
+
     /**
      * Retrieves the Unicode character from the specified character array at the given index.
      *
@@ -206,4 +413,81 @@ public class CharArrayUtils {
         }
         return false;
     }
+
+    /**
+     * Classifies an integer by its digit count, comparing the digits with the limits only when the
+     * count equals the number of digits of `Integer.MAX_VALUE` or `Long.MAX_VALUE`.
+     *
+     * @param chars      the character array holding the integer
+     * @param startIndex the start index of the integer, including any sign
+     * @param endIndex   the end index of the integer
+     * @return `NumberTypes.FITS_INT`, `NumberTypes.FITS_LONG` or `NumberTypes.BIG_INTEGER`
+     */
+    public static int classifyInteger(char[] chars, int startIndex, int endIndex) {
+        final char sign = chars[startIndex];
+        final boolean negative = sign == '-';
+        final int digitsStart = negative || sign == '+' ? startIndex + 1 : startIndex;
+        final int digits = endIndex - digitsStart;
+
+        if (digits < INT_DIGITS) {
+            return NumberTypes.FITS_INT;
+        } else if (digits == INT_DIGITS) {
+            return digitsAtMost(chars, digitsStart, negative ? MIN_INT_DIGITS : MAX_INT_DIGITS)
+                    ? NumberTypes.FITS_INT : NumberTypes.FITS_LONG;
+        } else if (digits < LONG_DIGITS) {
+            return NumberTypes.FITS_LONG;
+        } else if (digits == LONG_DIGITS) {
+            return digitsAtMost(chars, digitsStart, negative ? MIN_LONG_DIGITS : MAX_LONG_DIGITS)
+                    ? NumberTypes.FITS_LONG : NumberTypes.BIG_INTEGER;
+        } else {
+            return NumberTypes.BIG_INTEGER;
+        }
+    }
+
+    /**
+     * Classifies a number with a fraction and no exponent by its digit count.
+     *
+     * @param chars      the character array holding the number
+     * @param startIndex the start index of the number, including any sign
+     * @param endIndex   the end index of the number
+     * @return `NumberTypes.SIMPLE_DECIMAL` or `NumberTypes.FULL_FLOAT`
+     */
+    public static int classifyDecimal(char[] chars, int startIndex, int endIndex) {
+        final char sign = chars[startIndex];
+        /* Every character except the sign and the decimal point is a digit. */
+        final int digits = endIndex - startIndex - (sign == '-' || sign == '+' ? 2 : 1);
+        return digits <= NumberTypes.SIMPLE_DECIMAL_MAX_DIGITS ? NumberTypes.SIMPLE_DECIMAL : NumberTypes.FULL_FLOAT;
+    }
+
+    /**
+     * Classifies a number that was not classified by the scanner.
+     *
+     * @param chars      the character array holding the number
+     * @param startIndex the start index of the number, including any sign
+     * @param endIndex   the end index of the number
+     * @return one of the `NumberTypes` constants other than `NumberTypes.UNCLASSIFIED`
+     */
+    public static int classifyNumber(char[] chars, int startIndex, int endIndex) {
+        boolean decimal = false;
+        for (int index = startIndex; index < endIndex; index++) {
+            switch (chars[index]) {
+                case 'e':
+                case 'E':
+                    return NumberTypes.FULL_FLOAT;
+                case '.':
+                    decimal = true;
+            }
+        }
+        return decimal ? classifyDecimal(chars, startIndex, endIndex) : classifyInteger(chars, startIndex, endIndex);
+    }
+
+    private static boolean digitsAtMost(char[] chars, int startIndex, char[] limit) {
+        for (int i = 0; i < limit.length; i++) {
+            final int diff = chars[startIndex + i] - limit[i];
+            if (diff != 0) {
+                return diff < 0;
+            }
+        }
+        return true;
+    }
 }
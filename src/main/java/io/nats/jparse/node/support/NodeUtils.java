@@ -19,6 +19,8 @@ import io.nats.jparse.node.*;
 import io.nats.jparse.path.IndexPathNode;
 import io.nats.jparse.path.KeyPathNode;
 import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.NumberToken;
+import io.nats.jparse.token.NumberTypes;
 import io.nats.jparse.token.Token;
 
 import java.util.ArrayList;
@@ -74,17 +76,32 @@ public class NodeUtils {
      * @throws IllegalStateException if the NodeType is invalid
      */
     public static Node createNode(final List<Token> tokens, final CharSource source, boolean objectsKeysCanBeEncoded) {
+        return createNode(tokens, source, objectsKeysCanBeEncoded, null);
+    }
+
+    /**
+     * Creates a Node object based on the given tokens and source, passing a shape cache on to objects and arrays.
+     *
+     * @param tokens                  the List of tokens representing the node
+     * @param source                  the CharSource providing the character data
+     * @param objectsKeysCanBeEncoded whether object keys can be encoded
+     * @param shapes                  the shape cache for object key lookups, or null
+     * @return the created Node object
+     * @throws IllegalStateException if the NodeType is invalid
+     */
+    public static Node createNode(final List<Token> tokens, final CharSource source, boolean objectsKeysCanBeEncoded,
+                                  final ShapeCache shapes) {
         final NodeType nodeType = NodeType.tokenTypeToElement(tokens.get(0).type);
 
         switch (nodeType) {
             case ARRAY:
-                return new ArrayNode((TokenSubList) tokens, source, objectsKeysCanBeEncoded);
+                return new ArrayNode((TokenSubList) tokens, source, objectsKeysCanBeEncoded, shapes);
             case INT:
                 return new NumberNode(tokens.get(0), source, NodeType.INT);
             case FLOAT:
                 return new NumberNode(tokens.get(0), source, NodeType.FLOAT);
             case OBJECT:
-                return new ObjectNode((TokenSubList) tokens, source, objectsKeysCanBeEncoded);
+                return new ObjectNode((TokenSubList) tokens, source, objectsKeysCanBeEncoded, shapes);
             case STRING:
                 return new StringNode(tokens.get(0), source);
             case BOOLEAN:
@@ -110,19 +127,34 @@ public class NodeUtils {
      * @throws IllegalStateException if the NodeType is invalid
      */
     public static Node createNodeForObject(final List<Token> theTokens, final CharSource source, boolean objectsKeysCanBeEncoded) {
+        return createNodeForObject(theTokens, source, objectsKeysCanBeEncoded, null);
+    }
+
+    /**
+     * Creates a Node object for an object attribute, passing a shape cache on to objects and arrays.
+     *
+     * @param theTokens               the List of tokens representing the object
+     * @param source                  the CharSource providing the character data
+     * @param objectsKeysCanBeEncoded whether object keys can be encoded
+     * @param shapes                  the shape cache for object key lookups, or null
+     * @return the created Node object
+     * @throws IllegalStateException if the NodeType is invalid
+     */
+    public static Node createNodeForObject(final List<Token> theTokens, final CharSource source, boolean objectsKeysCanBeEncoded,
+                                           final ShapeCache shapes) {
         final Token rootToken = theTokens.get(1);
         final List<Token> tokens = theTokens.subList(1, theTokens.size());
         final NodeType nodeType = NodeType.tokenTypeToElement(rootToken.type);
 
         switch (nodeType) {
             case ARRAY:
-                return new ArrayNode((TokenSubList) tokens, source, objectsKeysCanBeEncoded);
+                return new ArrayNode((TokenSubList) tokens, source, objectsKeysCanBeEncoded, shapes);
             case INT:
                 return new NumberNode(tokens.get(0), source, NodeType.INT);
             case FLOAT:
                 return new NumberNode(tokens.get(0), source, NodeType.FLOAT);
             case OBJECT:
-                return new ObjectNode((TokenSubList) tokens, source, objectsKeysCanBeEncoded);
+                return new ObjectNode((TokenSubList) tokens, source, objectsKeysCanBeEncoded, shapes);
             case STRING:
                 return new StringNode(tokens.get(0), source);
             case BOOLEAN:
@@ -133,4 +165,19 @@ public class NodeUtils {
                 throw new IllegalStateException();
         }
     }
+
+    /**
+     * Returns the double value of a number token, using the faster conversion for numbers the scanner
+     * classified as `NumberTypes.SIMPLE_DECIMAL`.
+     *
+     * @param token  the number token
+     * @param source the CharSource providing the character data
+     * @return the double value of the number
+     */
+    public static double doubleValue(final Token token, final CharSource source) {
+        if (token instanceof NumberToken && ((NumberToken) token).numberType == NumberTypes.SIMPLE_DECIMAL) {
+            return source.getSimpleDecimal(token.startIndex, token.endIndex);
+        }
+        return source.getDouble(token.startIndex, token.endIndex);
+    }
 }
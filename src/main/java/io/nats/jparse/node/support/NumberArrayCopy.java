@@ -0,0 +1,335 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.node.support;
+
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.nio.Buffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Copies the numbers of an array into a caller owned `int[]`, `long[]`, `float[]` or `double[]`, or into an
+ * `IntBuffer`, `LongBuffer`, `FloatBuffer` or `DoubleBuffer` (heap or direct).
+ * <p>
+ * Every number element of an array is a single token, so element `i` is token `i + 1` of the array as long as
+ * every element before it is a number. Each copied element, and every element before the first copied one, is
+ * checked to be a number token; anything else raises an `UnexpectedElementException`. Copying into an integer
+ * target also rejects floating point numbers.
+ * <p>
+ * Copies of at least `PARALLEL_THRESHOLD` elements are split across the common fork-join pool. Each task writes
+ * a disjoint range of the target, buffers are written with absolute puts.
+ */
+public final class NumberArrayCopy {
+
+    /**
+     * The number of elements from which a copy is split across the common fork-join pool.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final int SPLIT_SIZE = PARALLEL_THRESHOLD / 2;
+
+    private NumberArrayCopy() {
+    }
+
+    /**
+     * Copies array elements into an `int[]`.
+     *
+     * @param tokens    the tokens of the array node, starting with the array token
+     * @param source    the source of the array node
+     * @param fromIndex the index of the first element to copy
+     * @param target    the array to copy into
+     * @param offset    the index in `target` of the first copied element
+     * @param length    the maximum number of elements to copy
+     * @return the number of elements copied, less than `length` if the array has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not a number of the target type
+     */
+    public static int copy(final List<Token> tokens, final CharSource source, final int fromIndex,
+                           final int[] target, final int offset, final int length) {
+        checkRange(offset, length, target.length);
+        return run(tokens, source, fromIndex, target, offset, length);
+    }
+
+    /**
+     * Copies array elements into an `long[]`.
+     *
+     * @param tokens    the tokens of the array node, starting with the array token
+     * @param source    the source of the array node
+     * @param fromIndex the index of the first element to copy
+     * @param target    the array to copy into
+     * @param offset    the index in `target` of the first copied element
+     * @param length    the maximum number of elements to copy
+     * @return the number of elements copied, less than `length` if the array has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not a number of the target type
+     */
+    public static int copy(final List<Token> tokens, final CharSource source, final int fromIndex,
+                           final long[] target, final int offset, final int length) {
+        checkRange(offset, length, target.length);
+        return run(tokens, source, fromIndex, target, offset, length);
+    }
+
+    /**
+     * Copies array elements into an `float[]`.
+     *
+     * @param tokens    the tokens of the array node, starting with the array token
+     * @param source    the source of the array node
+     * @param fromIndex the index of the first element to copy
+     * @param target    the array to copy into
+     * @param offset    the index in `target` of the first copied element
+     * @param length    the maximum number of elements to copy
+     * @return the number of elements copied, less than `length` if the array has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not a number of the target type
+     */
+    public static int copy(final List<Token> tokens, final CharSource source, final int fromIndex,
+                           final float[] target, final int offset, final int length) {
+        checkRange(offset, length, target.length);
+        return run(tokens, source, fromIndex, target, offset, length);
+    }
+
+    /**
+     * Copies array elements into an `double[]`.
+     *
+     * @param tokens    the tokens of the array node, starting with the array token
+     * @param source    the source of the array node
+     * @param fromIndex the index of the first element to copy
+     * @param target    the array to copy into
+     * @param offset    the index in `target` of the first copied element
+     * @param length    the maximum number of elements to copy
+     * @return the number of elements copied, less than `length` if the array has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not a number of the target type
+     */
+    public static int copy(final List<Token> tokens, final CharSource source, final int fromIndex,
+                           final double[] target, final int offset, final int length) {
+        checkRange(offset, length, target.length);
+        return run(tokens, source, fromIndex, target, offset, length);
+    }
+
+    /**
+     * Copies array elements into a `IntBuffer`, starting at its position. The position is advanced past the
+     * copied elements.
+     *
+     * @param tokens    the tokens of the array node, starting with the array token
+     * @param source    the source of the array node
+     * @param fromIndex the index of the first element to copy
+     * @param target    the buffer to copy into
+     * @param position  the position of `target`
+     * @param remaining the remaining elements of `target`
+     * @return the number of elements copied, less than `remaining` if the array has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not a number of the target type
+     */
+    public static int copy(final List<Token> tokens, final CharSource source, final int fromIndex,
+                           final IntBuffer target, final int position, final int remaining) {
+        return copyInto(tokens, source, fromIndex, target, position, remaining);
+    }
+
+    /**
+     * Copies array elements into a `LongBuffer`, starting at its position. The position is advanced past the
+     * copied elements.
+     *
+     * @param tokens    the tokens of the array node, starting with the array token
+     * @param source    the source of the array node
+     * @param fromIndex the index of the first element to copy
+     * @param target    the buffer to copy into
+     * @param position  the position of `target`
+     * @param remaining the remaining elements of `target`
+     * @return the number of elements copied, less than `remaining` if the array has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not a number of the target type
+     */
+    public static int copy(final List<Token> tokens, final CharSource source, final int fromIndex,
+                           final LongBuffer target, final int position, final int remaining) {
+        return copyInto(tokens, source, fromIndex, target, position, remaining);
+    }
+
+    /**
+     * Copies array elements into a `FloatBuffer`, starting at its position. The position is advanced past the
+     * copied elements.
+     *
+     * @param tokens    the tokens of the array node, starting with the array token
+     * @param source    the source of the array node
+     * @param fromIndex the index of the first element to copy
+     * @param target    the buffer to copy into
+     * @param position  the position of `target`
+     * @param remaining the remaining elements of `target`
+     * @return the number of elements copied, less than `remaining` if the array has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not a number of the target type
+     */
+    public static int copy(final List<Token> tokens, final CharSource source, final int fromIndex,
+                           final FloatBuffer target, final int position, final int remaining) {
+        return copyInto(tokens, source, fromIndex, target, position, remaining);
+    }
+
+    /**
+     * Copies array elements into a `DoubleBuffer`, starting at its position. The position is advanced past the
+     * copied elements.
+     *
+     * @param tokens    the tokens of the array node, starting with the array token
+     * @param source    the source of the array node
+     * @param fromIndex the index of the first element to copy
+     * @param target    the buffer to copy into
+     * @param position  the position of `target`
+     * @param remaining the remaining elements of `target`
+     * @return the number of elements copied, less than `remaining` if the array has fewer elements after `fromIndex`
+     * @throws UnexpectedElementException if an element is not a number of the target type
+     */
+    public static int copy(final List<Token> tokens, final CharSource source, final int fromIndex,
+                           final DoubleBuffer target, final int position, final int remaining) {
+        return copyInto(tokens, source, fromIndex, target, position, remaining);
+    }
+
+    private static void checkRange(final int offset, final int length, final int targetLength) {
+        if (offset < 0 || length < 0 || offset > targetLength - length) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", target length " + targetLength);
+        }
+    }
+
+    private static int copyInto(final List<Token> tokens, final CharSource source, final int fromIndex,
+                                final Buffer target, final int position, final int remaining) {
+        final int copied = run(tokens, source, fromIndex, target, position, remaining);
+        target.position(position + copied);
+        return copied;
+    }
+
+    private static int run(final List<Token> tokens, final CharSource source, final int fromIndex,
+                           final Object target, final int targetIndex, final int length) {
+        if (fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex " + fromIndex);
+        }
+        final boolean integers = isIntegerTarget(target);
+        for (int index = 0; index < fromIndex && index + 1 < tokens.size(); index++) {
+            checkElement(tokens.get(index + 1), index, integers);
+        }
+        final int count = Math.min(length, Math.max(tokens.size() - 1 - fromIndex, 0));
+        final CopyTask copy = new CopyTask(tokens, source, target, fromIndex, targetIndex, count);
+        if (count >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(copy);
+        } else {
+            copy.copyRange();
+        }
+        return count;
+    }
+
+    private static boolean isIntegerTarget(final Object target) {
+        return target instanceof int[] || target instanceof long[] || target instanceof IntBuffer || target instanceof LongBuffer;
+    }
+
+    private static Token checkElement(final Token token, final int elementIndex, final boolean integer) {
+        if (token.type != TokenTypes.INT_TOKEN && (integer || token.type != TokenTypes.FLOAT_TOKEN)) {
+            throw new UnexpectedElementException(elementIndex, token.type, integer ? "an integer" : "a number");
+        }
+        return token;
+    }
+
+    /**
+     * Copies a range of elements, splitting ranges larger than `SPLIT_SIZE` into two subtasks.
+     */
+    private static final class CopyTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Token> tokens;
+        private final CharSource source;
+        private final Object target;
+        private final int fromIndex;
+        private final int targetIndex;
+        private final int count;
+
+        private CopyTask(final List<Token> tokens, final CharSource source, final Object target,
+                         final int fromIndex, final int targetIndex, final int count) {
+            this.tokens = tokens;
+            this.source = source;
+            this.target = target;
+            this.fromIndex = fromIndex;
+            this.targetIndex = targetIndex;
+            this.count = count;
+        }
+
+        @Override
+        protected void compute() {
+            if (count <= SPLIT_SIZE) {
+                copyRange();
+            } else {
+                final int half = count >>> 1;
+                invokeAll(new CopyTask(tokens, source, target, fromIndex, targetIndex, half),
+                        new CopyTask(tokens, source, target, fromIndex + half, targetIndex + half, count - half));
+            }
+        }
+
+        private void copyRange() {
+            final List<Token> tokens = this.tokens;
+            final CharSource source = this.source;
+            final int fromIndex = this.fromIndex;
+            final int targetIndex = this.targetIndex;
+            final int count = this.count;
+
+            if (target instanceof int[]) {
+                final int[] array = (int[]) target;
+                for (int i = 0; i < count; i++) {
+                    final Token token = checkElement(tokens.get(fromIndex + i + 1), fromIndex + i, true);
+                    array[targetIndex + i] = source.getInt(token.startIndex, token.endIndex);
+                }
+            } else if (target instanceof long[]) {
+                final long[] array = (long[]) target;
+                for (int i = 0; i < count; i++) {
+                    final Token token = checkElement(tokens.get(fromIndex + i + 1), fromIndex + i, true);
+                    array[targetIndex + i] = source.getLong(token.startIndex, token.endIndex);
+                }
+            } else if (target instanceof float[]) {
+                final float[] array = (float[]) target;
+                for (int i = 0; i < count; i++) {
+                    final Token token = checkElement(tokens.get(fromIndex + i + 1), fromIndex + i, false);
+                    array[targetIndex + i] = source.getFloat(token.startIndex, token.endIndex);
+                }
+            } else if (target instanceof double[]) {
+                final double[] array = (double[]) target;
+                for (int i = 0; i < count; i++) {
+                    final Token token = checkElement(tokens.get(fromIndex + i + 1), fromIndex + i, false);
+                    array[targetIndex + i] = NodeUtils.doubleValue(token, source);
+                }
+            } else if (target instanceof IntBuffer) {
+                final IntBuffer buffer = (IntBuffer) target;
+                for (int i = 0; i < count; i++) {
+                    final Token token = checkElement(tokens.get(fromIndex + i + 1), fromIndex + i, true);
+                    buffer.put(targetIndex + i, source.getInt(token.startIndex, token.endIndex));
+                }
+            } else if (target instanceof LongBuffer) {
+                final LongBuffer buffer = (LongBuffer) target;
+                for (int i = 0; i < count; i++) {
+                    final Token token = checkElement(tokens.get(fromIndex + i + 1), fromIndex + i, true);
+                    buffer.put(targetIndex + i, source.getLong(token.startIndex, token.endIndex));
+                }
+            } else if (target instanceof FloatBuffer) {
+                final FloatBuffer buffer = (FloatBuffer) target;
+                for (int i = 0; i < count; i++) {
+                    final Token token = checkElement(tokens.get(fromIndex + i + 1), fromIndex + i, false);
+                    buffer.put(targetIndex + i, source.getFloat(token.startIndex, token.endIndex));
+                }
+            } else {
+                final DoubleBuffer buffer = (DoubleBuffer) target;
+                for (int i = 0; i < count; i++) {
+                    final Token token = checkElement(tokens.get(fromIndex + i + 1), fromIndex + i, false);
+                    buffer.put(targetIndex + i, NodeUtils.doubleValue(token, source));
+                }
+            }
+        }
+    }
+}
@@ -15,29 +15,45 @@
  */
 package io.nats.jparse.node.support;
 
+import io.nats.jparse.token.NumberTypes;
+
 import java.util.Objects;
 
 /**
  * Represents the result of a number parsing operation.
  * <p>
  * The NumberParseResult class represents the result of a number parsing operation.
- * It provides methods to access the end index of the parsed number and to check if the parsed number was a float.
+ * It provides methods to access the end index of the parsed number, to check if the parsed number was a float
+ * and to get the class of the number (@see NumberTypes).
  * The class also overrides the equals, hashCode, and toString methods for proper object comparison and string
  * representation.
  */
 public final class NumberParseResult {
     private final int endIndex;
     private final boolean wasFloat;
+    private final int numberType;
 
     /**
-     * Constructs a new NumberParseResult.
+     * Constructs a new NumberParseResult for a number that was not classified.
      *
      * @param endIndex the end index of the parsed number
      * @param wasFloat indicates whether the parsed number was a float
      */
     public NumberParseResult(int endIndex, boolean wasFloat) {
+        this(endIndex, wasFloat, NumberTypes.UNCLASSIFIED);
+    }
+
+    /**
+     * Constructs a new NumberParseResult.
+     *
+     * @param endIndex   the end index of the parsed number
+     * @param wasFloat   indicates whether the parsed number was a float
+     * @param numberType the class of the parsed number (@see NumberTypes)
+     */
+    public NumberParseResult(int endIndex, boolean wasFloat, int numberType) {
         this.endIndex = endIndex;
         this.wasFloat = wasFloat;
+        this.numberType = numberType;
     }
 
     /**
@@ -58,6 +74,15 @@ public final class NumberParseResult {
         return wasFloat;
     }
 
+    /**
+     * Returns the class of the parsed number.
+     *
+     * @return one of the `NumberTypes` constants
+     */
+    public int numberType() {
+        return numberType;
+    }
+
     /**
      * Checks if this NumberParseResult is equal to another object.
      *
@@ -70,7 +95,8 @@ public final class NumberParseResult {
         if (obj == null || obj.getClass() != this.getClass()) return false;
         final NumberParseResult that = (NumberParseResult) obj;
         return this.endIndex == that.endIndex &&
-                this.wasFloat == that.wasFloat;
+                this.wasFloat == that.wasFloat &&
+                this.numberType == that.numberType;
     }
 
     /**
@@ -80,7 +106,7 @@ public final class NumberParseResult {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(endIndex, wasFloat);
+        return Objects.hash(endIndex, wasFloat, numberType);
     }
 
     /**
@@ -92,6 +118,7 @@ public final class NumberParseResult {
     public String toString() {
         return "NumberParseResult[" +
                 "endIndex=" + endIndex + ", " +
-                "wasFloat=" + wasFloat + ']';
+                "wasFloat=" + wasFloat + ", " +
+                "numberType=" + NumberTypes.getTypeName(numberType) + ']';
     }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.node.support;
+
+import io.nats.jparse.node.NodeType;
+
+/**
+ * Thrown when an array element does not have the type a bulk operation expects, for example a string,
+ * a nested array or a floating point number while copying ints.
+ */
+public class UnexpectedElementException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int elementIndex;
+    private final NodeType nodeType;
+
+    /**
+     * Constructs a new UnexpectedElementException.
+     *
+     * @param elementIndex the index of the element in its array
+     * @param tokenType    the token type of the element
+     * @param expected     a description of the expected element type
+     */
+    public UnexpectedElementException(final int elementIndex, final int tokenType, final String expected) {
+        super(String.format("Unexpected element at index %d, expected %s but found %s",
+                elementIndex, expected, NodeType.tokenTypeToElement(tokenType)));
+        this.elementIndex = elementIndex;
+        this.nodeType = NodeType.tokenTypeToElement(tokenType);
+    }
+
+    /**
+     * Returns the index of the offending element in its array.
+     *
+     * @return the element index
+     */
+    public int elementIndex() {
+        return elementIndex;
+    }
+
+    /**
+     * Returns the type of the offending element.
+     *
+     * @return the node type of the element
+     */
+    public NodeType nodeType() {
+        return nodeType;
+    }
+}
@@ -29,6 +29,10 @@ import java.util.List;
  * and returning a root node representing the parsed JSON. The interface also includes default methods
  * for parsing and scanning strings,
  * and it extends the `ParseConstants` interface, which defines constants used for parsing JSON strings.
+ * <p>
+ * The parsers built by `JsonParserBuilder` hold only their configuration; all per-call state (the token list,
+ * the stack of open containers) is local to each call. A single parser can therefore be shared by any number
+ * of threads, see `Json.parser(boolean, boolean)`.
  */
 public interface JsonParser extends ParseConstants {
 
@@ -67,4 +71,25 @@ public interface JsonParser extends ParseConstants {
     default List<Token> scan(final String source) {
         return scan(Sources.stringSource(source));
     }
+
+    /**
+     * Validate a character source against the strict JSON grammar without recording any tokens.
+     * Malformed input does not throw, see `JsonValidator` for how to read the result.
+     *
+     * @param source The character source to validate
+     * @return `JsonValidator.VALID` or the packed error code and error index
+     */
+    default long validate(final CharSource source) {
+        return JsonValidator.validate(source);
+    }
+
+    /**
+     * Validate a string against the strict JSON grammar without recording any tokens.
+     *
+     * @param source The string to validate
+     * @return `JsonValidator.VALID` or the packed error code and error index
+     */
+    default long validate(final String source) {
+        return validate(Sources.stringSource(source));
+    }
 }
@@ -16,8 +16,19 @@
 package io.nats.jparse.parser;
 
 
+import io.nats.jparse.Path;
+import io.nats.jparse.node.ShapeCache;
+import io.nats.jparse.node.support.ParseConstants;
 import io.nats.jparse.parser.indexoverlay.JsonFastParser;
+import io.nats.jparse.parser.indexoverlay.JsonIterativeParser;
+import io.nats.jparse.parser.indexoverlay.JsonProjectionParser;
+import io.nats.jparse.parser.indexoverlay.JsonShapeParser;
 import io.nats.jparse.parser.indexoverlay.JsonStrictParser;
+import io.nats.jparse.path.PathNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 
 /**
@@ -38,6 +49,25 @@ public class JsonParserBuilder {
      */
     private boolean objectsKeysCanBeEncoded;
 
+    /**
+     * Paths to project when parsing JSON, empty to parse the whole document.
+     */
+    private List<PathNode> projectionPaths = Collections.emptyList();
+
+    /**
+     * Whether to use a parser that keeps open containers on an explicit stack instead of recursing.
+     */
+    private boolean iterative;
+
+    /**
+     * The maximum number of nested objects and arrays.
+     */
+    private int maxDepth = ParseConstants.NEST_LEVEL;
+
+    /**
+     * The shape cache object nodes use to look up keys, `null` to compare keys.
+     */
+    private ShapeCache shapeCache;
 
 
     /**
@@ -70,6 +100,7 @@ public class JsonParserBuilder {
 
     /**
      * Sets whether to use strict parsing when parsing JSON.
+     * Cannot be combined with `setIterative` or projection paths.
      *
      * @param strict `true` to use strict parsing, `false` otherwise
      * @return the modified builder
@@ -99,6 +130,106 @@ public class JsonParserBuilder {
         return this;
     }
 
+    /**
+     * Gets the paths that are projected when parsing JSON.
+     *
+     * @return the projected paths, empty if the whole document is parsed
+     */
+    public List<PathNode> projectionPaths() {
+        return projectionPaths;
+    }
+
+    /**
+     * Sets the paths to project when parsing JSON. When paths are set, the parser only tokenizes
+     * the values on those paths and skips everything else (see `JsonProjectionParser`).
+     * Cannot be combined with `setStrict` or `setIterative`.
+     *
+     * @param projectionPaths the paths to project, empty to parse the whole document
+     * @return the modified builder
+     */
+    public JsonParserBuilder setProjectionPaths(final List<PathNode> projectionPaths) {
+        this.projectionPaths = projectionPaths;
+        return this;
+    }
+
+    /**
+     * Sets the paths to project when parsing JSON using the `Path.toPath` syntax,
+     * for example `"glossary.GlossDiv.title"` or `"departments[0].employees"`.
+     *
+     * @param paths the paths to project
+     * @return the modified builder
+     */
+    public JsonParserBuilder setProjectionPaths(final String... paths) {
+        final List<PathNode> pathNodes = new ArrayList<>(paths.length);
+        for (String path : paths) {
+            pathNodes.add(Path.toPath(path));
+        }
+        return setProjectionPaths(pathNodes);
+    }
+
+    /**
+     * Gets whether to use a non-recursive parser.
+     *
+     * @return `true` if the iterative parser is used, `false` otherwise
+     */
+    public boolean iterative() {
+        return iterative;
+    }
+
+    /**
+     * Sets whether to use a non-recursive parser. The iterative parser keeps open objects and arrays on
+     * an explicit stack, so deeply nested documents cannot overflow the thread stack (see `JsonIterativeParser`).
+     * Cannot be combined with `setStrict` or projection paths.
+     *
+     * @param iterative `true` to use the iterative parser, `false` otherwise
+     * @return the modified builder
+     */
+    public JsonParserBuilder setIterative(boolean iterative) {
+        this.iterative = iterative;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of nested objects and arrays.
+     *
+     * @return the maximum depth
+     */
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Sets the maximum number of nested objects and arrays. Deeper documents are rejected.
+     *
+     * @param maxDepth the maximum depth
+     * @return the modified builder
+     */
+    public JsonParserBuilder setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+
+    /**
+     * Returns the shape cache object nodes use to look up keys.
+     *
+     * @return the shape cache, `null` if keys are compared
+     */
+    public ShapeCache shapeCache() {
+        return shapeCache;
+    }
+
+    /**
+     * Sets a shape cache, so objects with the keys of a previously parsed object resolve keys to fixed slots.
+     * Share one cache between the parses of a message type, see `ShapeCache`.
+     *
+     * @param shapeCache the shape cache, `null` to compare keys
+     * @return the modified builder
+     */
+    public JsonParserBuilder setShapeCache(ShapeCache shapeCache) {
+        this.shapeCache = shapeCache;
+        return this;
+    }
 
     /**
      * Returns a new instance of `JsonParser`.
@@ -131,9 +262,13 @@ public class JsonParserBuilder {
      * instance of `JsonFuncParser` with the table, default parse function, and
      * parse function for keys.
      * <p>
+     * If `projectionPaths()` is not empty, the function returns a new instance of
+     * `JsonProjectionParser` for those paths.
+     * <p>
      * If none of the above conditions are met but `strict()` is true, the function
      * returns a new instance of `JsonStrictParser`. If `strict()` is false, the
-     * function returns a new instance of `JsonFastParser`.
+     * function returns a new instance of `JsonIterativeParser` when `iterative()` is true
+     * and a new instance of `JsonFastParser` otherwise.
      * <p>
      * The `JsonParserBuilder.build()` function checks if any of the conditions for
      * setting up a parse function table are true. If so, it sets up an array of
@@ -164,16 +299,31 @@ public class JsonParserBuilder {
      * After setting up the parse function table, the function returns a new
      * instance of `JsonFuncParser` with the parse function table, default parse function, and
      * parse function for keys.
+     * <p>
+     * If `shapeCache()` is set, the parser is wrapped in a `JsonShapeParser` that uses it.
+     * <p>
+     * Projection paths, `strict()` and `iterative()` each pick a different parser, so setting more than one of them
+     * is rejected rather than silently dropping all but one.
      *
      * @return a new instance of `JsonParser`
+     * @throws IllegalStateException if more than one of projection paths, strict and iterative is set
      */
     public JsonParser build() {
-
-        if (strict()) {
-            return new JsonStrictParser(objectsKeysCanBeEncoded());
+        final int parserChoices = (projectionPaths().isEmpty() ? 0 : 1) + (strict() ? 1 : 0) + (iterative() ? 1 : 0);
+        if (parserChoices > 1) {
+            throw new IllegalStateException("Only one of projection paths, strict and iterative can be set");
+        }
+        final JsonParser parser;
+        if (!projectionPaths().isEmpty()) {
+            parser = new JsonProjectionParser(objectsKeysCanBeEncoded(), projectionPaths());
+        } else if (strict()) {
+            parser = new JsonStrictParser(objectsKeysCanBeEncoded(), maxDepth());
+        } else if (iterative()) {
+            parser = new JsonIterativeParser(objectsKeysCanBeEncoded(), maxDepth());
         } else {
-            return new JsonFastParser(objectsKeysCanBeEncoded());
+            parser = new JsonFastParser(objectsKeysCanBeEncoded());
         }
+        return shapeCache() == null ? parser : new JsonShapeParser(parser, objectsKeysCanBeEncoded(), shapeCache());
     }
 
 }
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser;
+
+import io.nats.jparse.node.support.ParseConstants;
+import io.nats.jparse.source.CharSource;
+
+/**
+ * The `JsonValidator` checks that a character source holds a single JSON value that strictly follows RFC 8259,
+ * the same grammar `JsonStrictParser` enforces, without recording any tokens.
+ * <p>
+ * Validation never throws for malformed input and allocates nothing. The result is packed into a `long`:
+ * `VALID` when the document is well-formed, otherwise an error code and the index at which the error was
+ * detected. Use `isValid`, `errorCode`, `errorIndex` and `errorName` to read the result.
+ *
+ * @see JsonParser#validate(CharSource)
+ */
+public final class JsonValidator implements ParseConstants {
+
+    /**
+     * The result of validating a well-formed document.
+     */
+    public static final long VALID = 0L;
+
+    /**
+     * No error.
+     */
+    public static final int ERROR_NONE = 0;
+
+    /**
+     * The document ended before the JSON value was complete.
+     */
+    public static final int ERROR_UNEXPECTED_END = 1;
+
+    /**
+     * A character was found where it is not allowed.
+     */
+    public static final int ERROR_UNEXPECTED_CHARACTER = 2;
+
+    /**
+     * A `true`, `false` or `null` literal is misspelled.
+     */
+    public static final int ERROR_INVALID_LITERAL = 3;
+
+    /**
+     * A number does not follow the JSON number grammar.
+     */
+    public static final int ERROR_INVALID_NUMBER = 4;
+
+    /**
+     * A string contains an invalid escape sequence.
+     */
+    public static final int ERROR_INVALID_ESCAPE = 5;
+
+    /**
+     * A string contains an unescaped control character.
+     */
+    public static final int ERROR_CONTROL_CHARACTER = 6;
+
+    /**
+     * An object or array has a comma after its last element.
+     */
+    public static final int ERROR_TRAILING_COMMA = 7;
+
+    /**
+     * An object key is not followed by a colon.
+     */
+    public static final int ERROR_MISSING_COLON = 8;
+
+    /**
+     * An object key is not a string.
+     */
+    public static final int ERROR_INVALID_KEY = 9;
+
+    /**
+     * Objects and arrays are nested more than `NEST_LEVEL` levels deep.
+     */
+    public static final int ERROR_NESTING_TOO_DEEP = 10;
+
+    /**
+     * There are characters after the JSON value.
+     */
+    public static final int ERROR_TRAILING_CHARACTERS = 11;
+
+    private JsonValidator() {
+    }
+
+    /**
+     * Validates the JSON held by a character source.
+     *
+     * @param source The character source to validate
+     * @return `VALID` or the packed error code and error index
+     */
+    public static long validate(final CharSource source) {
+        int ch = value(source, source.nextSkipWhiteSpace(), 0);
+        if (ch >= 0 && ch != ETX) {
+            ch = -ERROR_TRAILING_CHARACTERS;
+        }
+        /* A \u0003 in the source reads as ETX too, it only ends the document at the real end of the source. */
+        if ((ch == ETX || ch == -ERROR_UNEXPECTED_END) && source.getIndex() < source.length()) {
+            ch = -ERROR_UNEXPECTED_CHARACTER;
+        }
+        return ch == ETX ? VALID : ((long) -ch << 32) | (source.getIndex() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Checks whether a validation result denotes a well-formed document.
+     *
+     * @param result The result returned by `validate`
+     * @return `true` if the document is well-formed
+     */
+    public static boolean isValid(final long result) {
+        return result == VALID;
+    }
+
+    /**
+     * Returns the error code of a validation result.
+     *
+     * @param result The result returned by `validate`
+     * @return one of the `ERROR_` constants, `ERROR_NONE` if the document is well-formed
+     */
+    public static int errorCode(final long result) {
+        return (int) (result >>> 32);
+    }
+
+    /**
+     * Returns the index at which the error of a validation result was detected.
+     *
+     * @param result The result returned by `validate`
+     * @return the index of the error in the source, `-1` if the document is well-formed
+     */
+    public static int errorIndex(final long result) {
+        return result == VALID ? -1 : (int) result;
+    }
+
+    /**
+     * Returns a human-readable name for an error code.
+     *
+     * @param errorCode one of the `ERROR_` constants
+     * @return the name of the error
+     */
+    public static String errorName(final int errorCode) {
+        switch (errorCode) {
+            case ERROR_NONE:
+                return "None";
+            case ERROR_UNEXPECTED_END:
+                return "Unexpected end";
+            case ERROR_UNEXPECTED_CHARACTER:
+                return "Unexpected character";
+            case ERROR_INVALID_LITERAL:
+                return "Invalid literal";
+            case ERROR_INVALID_NUMBER:
+                return "Invalid number";
+            case ERROR_INVALID_ESCAPE:
+                return "Invalid escape";
+            case ERROR_CONTROL_CHARACTER:
+                return "Control character in string";
+            case ERROR_TRAILING_COMMA:
+                return "Trailing comma";
+            case ERROR_MISSING_COLON:
+                return "Missing colon";
+            case ERROR_INVALID_KEY:
+                return "Invalid key";
+            case ERROR_NESTING_TOO_DEEP:
+                return "Nesting too deep";
+            case ERROR_TRAILING_CHARACTERS:
+                return "Trailing characters";
+            default:
+                return String.valueOf(errorCode);
+        }
+    }
+
+    /*
+     * Each method below is called with the source on the first character of what it validates and returns
+     * the first non-whitespace character after it (ETX at the end), or a negated error code.
+     */
+
+    private static int value(final CharSource source, final int ch, final int depth) {
+        switch (ch) {
+            case OBJECT_START_TOKEN:
+                return object(source, depth + 1);
+            case ARRAY_START_TOKEN:
+                return array(source, depth + 1);
+            case STRING_START_TOKEN:
+                return string(source);
+            case TRUE_BOOLEAN_START:
+                return literal(source, source.next() == 'r' && source.next() == 'u' && source.next() == 'e');
+            case FALSE_BOOLEAN_START:
+                return literal(source, source.next() == 'a' && source.next() == 'l' && source.next() == 's' && source.next() == 'e');
+            case NULL_START:
+                return literal(source, source.next() == 'u' && source.next() == 'l' && source.next() == 'l');
+            case MINUS:
+            case NUM_0:
+            case NUM_1:
+            case NUM_2:
+            case NUM_3:
+            case NUM_4:
+            case NUM_5:
+            case NUM_6:
+            case NUM_7:
+            case NUM_8:
+            case NUM_9:
+                return number(source, ch);
+            case ETX:
+                return -ERROR_UNEXPECTED_END;
+            default:
+                return -ERROR_UNEXPECTED_CHARACTER;
+        }
+    }
+
+    private static int object(final CharSource source, final int depth) {
+        if (depth > NEST_LEVEL) {
+            return -ERROR_NESTING_TOO_DEEP;
+        }
+        int ch = source.nextSkipWhiteSpace();
+        if (ch == OBJECT_END_TOKEN) {
+            return source.nextSkipWhiteSpace();
+        }
+        while (true) {
+            if (ch != STRING_START_TOKEN) {
+                return ch == ETX ? -ERROR_UNEXPECTED_END : -ERROR_INVALID_KEY;
+            }
+            ch = string(source);
+            if (ch != ATTRIBUTE_SEP) {
+                return ch < 0 ? ch : ch == ETX ? -ERROR_UNEXPECTED_END : -ERROR_MISSING_COLON;
+            }
+            ch = value(source, source.nextSkipWhiteSpace(), depth);
+            switch (ch) {
+                case OBJECT_END_TOKEN:
+                    return source.nextSkipWhiteSpace();
+                case OBJECT_ATTRIBUTE_SEP:
+                    ch = source.nextSkipWhiteSpace();
+                    if (ch == OBJECT_END_TOKEN) {
+                        return -ERROR_TRAILING_COMMA;
+                    }
+                    break;
+                case ETX:
+                    return -ERROR_UNEXPECTED_END;
+                default:
+                    return ch < 0 ? ch : -ERROR_UNEXPECTED_CHARACTER;
+            }
+        }
+    }
+
+    private static int array(final CharSource source, final int depth) {
+        if (depth > NEST_LEVEL) {
+            return -ERROR_NESTING_TOO_DEEP;
+        }
+        int ch = source.nextSkipWhiteSpace();
+        if (ch == ARRAY_END_TOKEN) {
+            return source.nextSkipWhiteSpace();
+        }
+        while (true) {
+            ch = value(source, ch, depth);
+            switch (ch) {
+                case ARRAY_END_TOKEN:
+                    return source.nextSkipWhiteSpace();
+                case ARRAY_SEP:
+                    ch = source.nextSkipWhiteSpace();
+                    if (ch == ARRAY_END_TOKEN) {
+                        return -ERROR_TRAILING_COMMA;
+                    }
+                    break;
+                case ETX:
+                    return -ERROR_UNEXPECTED_END;
+                default:
+                    return ch < 0 ? ch : -ERROR_UNEXPECTED_CHARACTER;
+            }
+        }
+    }
+
+    private static int string(final CharSource source) {
+        while (true) {
+            int ch = source.next();
+            switch (ch) {
+                case STRING_END_TOKEN:
+                    return source.nextSkipWhiteSpace();
+                case CONTROL_ESCAPE_TOKEN:
+                    ch = source.next();
+                    switch (ch) {
+                        case STRING_END_TOKEN:
+                        case CONTROL_ESCAPE_TOKEN:
+                        case '/':
+                        case 'b':
+                        case 'f':
+                        case 'n':
+                        case 'r':
+                        case 't':
+                            break;
+                        case 'u':
+                            if (!isHex(source.next()) || !isHex(source.next()) || !isHex(source.next()) || !isHex(source.next())) {
+                                return -ERROR_INVALID_ESCAPE;
+                            }
+                            break;
+                        case ETX:
+                            return -ERROR_UNEXPECTED_END;
+                        default:
+                            return -ERROR_INVALID_ESCAPE;
+                    }
+                    break;
+                case ETX:
+                    return -ERROR_UNEXPECTED_END;
+                default:
+                    if (ch < SPACE_WS) {
+                        return -ERROR_CONTROL_CHARACTER;
+                    }
+            }
+        }
+    }
+
+    private static int number(final CharSource source, int ch) {
+        if (ch == MINUS) {
+            ch = source.next();
+        }
+        if (ch == NUM_0) {
+            ch = source.next();
+            if (isDigit(ch)) {
+                return -ERROR_INVALID_NUMBER;
+            }
+        } else if (isDigit(ch)) {
+            ch = digits(source);
+        } else {
+            return -ERROR_INVALID_NUMBER;
+        }
+        if (ch == DECIMAL_POINT) {
+            if (!isDigit(source.next())) {
+                return -ERROR_INVALID_NUMBER;
+            }
+            ch = digits(source);
+        }
+        if (ch == EXPONENT_MARKER || ch == EXPONENT_MARKER2) {
+            ch = source.next();
+            if (ch == MINUS || ch == PLUS) {
+                ch = source.next();
+            }
+            if (!isDigit(ch)) {
+                return -ERROR_INVALID_NUMBER;
+            }
+            ch = digits(source);
+        }
+        return afterScalar(source, ch);
+    }
+
+    private static int digits(final CharSource source) {
+        int ch;
+        do {
+            ch = source.next();
+        } while (isDigit(ch));
+        return ch;
+    }
+
+    private static int literal(final CharSource source, final boolean matched) {
+        if (!matched) {
+            return -ERROR_INVALID_LITERAL;
+        }
+        return afterScalar(source, source.next());
+    }
+
+    private static int afterScalar(final CharSource source, final int ch) {
+        switch (ch) {
+            case NEW_LINE_WS:
+            case CARRIAGE_RETURN_WS:
+            case TAB_WS:
+            case SPACE_WS:
+                return source.nextSkipWhiteSpace();
+            default:
+                return ch;
+        }
+    }
+
+    private static boolean isDigit(final int ch) {
+        return ch >= NUM_0 && ch <= NUM_9;
+    }
+
+    private static boolean isHex(final int ch) {
+        return (ch >= NUM_0 && ch <= NUM_9) || (ch >= 'a' && ch <= 'f') || (ch >= 'A' && ch <= 'F');
+    }
+}
@@ -21,6 +21,8 @@ import io.nats.jparse.node.support.TokenList;
 import io.nats.jparse.parser.JsonParser;
 import io.nats.jparse.source.CharSource;
 import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.NumberToken;
+import io.nats.jparse.token.StringToken;
 import io.nats.jparse.token.Token;
 import io.nats.jparse.token.TokenTypes;
 
@@ -71,7 +73,19 @@ public class JsonFastParser implements JsonParser {
 
     private List<Token> scan(final CharSource source, TokenList tokens) {
 
-        int ch = source.nextSkipWhiteSpace();
+        parseElement(source.nextSkipWhiteSpace(), source, tokens);
+
+        return tokens;
+    }
+
+    /**
+     * Tokenizes the JSON value that starts with the current character of the source.
+     *
+     * @param ch     The current character, which is the first character of the value
+     * @param source The character source positioned on the first character of the value
+     * @param tokens The token list that receives the tokens of the value
+     */
+    void parseElement(final int ch, final CharSource source, final TokenList tokens) {
 
         switch (ch) {
             case OBJECT_START_TOKEN:
@@ -117,8 +131,6 @@ public class JsonFastParser implements JsonParser {
                 throw new UnexpectedCharacterException("Scanning JSON", "Unexpected character", source, (char) ch);
 
         }
-
-        return tokens;
     }
 
     private void parseFalse(CharSource source, TokenList tokens) {
@@ -226,7 +238,8 @@ public class JsonFastParser implements JsonParser {
     private void parseNumber(final CharSource source, TokenList tokens) {
         final int startIndex = source.getIndex();
         final NumberParseResult numberParse = source.findEndOfNumberFast();
-        tokens.add(new Token(startIndex, numberParse.endIndex(), numberParse.wasFloat() ? TokenTypes.FLOAT_TOKEN : TokenTypes.INT_TOKEN));
+        tokens.add(new NumberToken(startIndex, numberParse.endIndex(),
+                numberParse.wasFloat() ? TokenTypes.FLOAT_TOKEN : TokenTypes.INT_TOKEN, numberParse.numberType()));
     }
 
 
@@ -242,13 +255,12 @@ public class JsonFastParser implements JsonParser {
 
             case STRING_START_TOKEN:
                 final int strStartIndex = startIndex + 1;
-                final int strEndIndex;
                 if (objectsKeysCanBeEncoded) {
-                    strEndIndex = source.findEndOfEncodedString();
+                    final int strEndIndex = source.findEndOfEncodedString();
+                    tokens.add(new StringToken(strStartIndex + 1, strEndIndex, source.lastStringHadEscape()));
                 } else {
-                    strEndIndex = source.findEndString();
+                    tokens.add(new Token(strStartIndex + 1, source.findEndString(), TokenTypes.STRING_TOKEN));
                 }
-                tokens.add(new Token(strStartIndex + 1, strEndIndex, TokenTypes.STRING_TOKEN));
                 found = true;
                 break;
 
@@ -352,7 +364,7 @@ public class JsonFastParser implements JsonParser {
     private void parseString(final CharSource source, TokenList tokens) {
         final int startIndex = source.getIndex();
         final int endIndex = source.findEndOfEncodedStringFast();
-        tokens.add(new Token(startIndex + 1, endIndex, TokenTypes.STRING_TOKEN));
+        tokens.add(new StringToken(startIndex + 1, endIndex, source.lastStringHadEscape()));
     }
 
 
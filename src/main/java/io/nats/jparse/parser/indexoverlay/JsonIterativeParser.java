@@ -0,0 +1,532 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser.indexoverlay;
+
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.node.support.NumberParseResult;
+import io.nats.jparse.node.support.TokenList;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.NumberToken;
+import io.nats.jparse.token.StringToken;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The `JsonIterativeParser` class produces the same tokens as `JsonFastParser` but never uses more than a small,
+ * fixed amount of thread stack, so deeply nested documents can never overflow it; nesting beyond the configured
+ * max depth is reported with an `UnexpectedCharacterException` instead.
+ * <p>
+ * The first `RECURSION_LIMIT` levels are parsed by recursive descent like `JsonFastParser` parses them, so normal
+ * documents are parsed at the same speed. A container deeper than that is parsed by a loop that keeps the
+ * containers around the one being parsed on an explicit `int[]` stack.
+ * <p>
+ * Each frame of that stack holds four ints: the token list index of the container, the source index where it
+ * starts, and for objects the token list index and source start index of the attribute value being parsed
+ * (arrays store `-1` as the attribute value token index). The frame of the innermost container is kept in
+ * local variables, so the stack is touched once per container rather than once per value.
+ */
+public class JsonIterativeParser implements JsonParser {
+
+    /**
+     * The number of nesting levels parsed by recursion before the explicit stack takes over.
+     */
+    static final int RECURSION_LIMIT = 64;
+
+    private static final int FRAME_SIZE = 4;
+    private static final int CONTAINER_TOKEN = 0;
+    private static final int CONTAINER_START = 1;
+    private static final int VALUE_TOKEN = 2;
+    private static final int VALUE_START = 3;
+    private static final int ARRAY_FRAME = -1;
+
+    private final boolean objectsKeysCanBeEncoded;
+    private final int maxDepth;
+
+    /**
+     * Create a new `JsonIterativeParser` instance that allows `NEST_LEVEL` levels of nesting.
+     *
+     * @param objectsKeysCanBeEncoded If `true`, then object keys can be encoded (e.g. `{"key\n\t": "value"}`).
+     */
+    public JsonIterativeParser(boolean objectsKeysCanBeEncoded) {
+        this(objectsKeysCanBeEncoded, NEST_LEVEL);
+    }
+
+    /**
+     * Create a new `JsonIterativeParser` instance.
+     *
+     * @param objectsKeysCanBeEncoded If `true`, then object keys can be encoded (e.g. `{"key\n\t": "value"}`).
+     * @param maxDepth                The maximum number of nested objects and arrays.
+     */
+    public JsonIterativeParser(boolean objectsKeysCanBeEncoded, int maxDepth) {
+        this.objectsKeysCanBeEncoded = objectsKeysCanBeEncoded;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Scan a character source and return a list of tokens representing the JSON string.
+     *
+     * @param source The character source to scan
+     * @return A list of tokens representing the JSON
+     */
+    @Override
+    public List<Token> scan(final CharSource source) {
+        return scan(source, new TokenList());
+    }
+
+    /**
+     * Parse a character source and return a root node representing the parsed JSON.
+     *
+     * @param source The character source to parse
+     * @return A root node representing the parsed JSON
+     */
+    @Override
+    public RootNode parse(CharSource source) {
+        return new RootNode((TokenList) scan(source), source, objectsKeysCanBeEncoded);
+    }
+
+    private List<Token> scan(final CharSource source, final TokenList tokens) {
+        parseValue(source.nextSkipWhiteSpace(), source, tokens);
+        return tokens;
+    }
+
+    /**
+     * Parses the root value, which starts with ch.
+     */
+    private void parseValue(final int ch, final CharSource source, final TokenList tokens) {
+        switch (ch) {
+            case OBJECT_START_TOKEN:
+                parseObject(source, tokens, 1);
+                break;
+
+            case ARRAY_START_TOKEN:
+                parseArray(source, tokens, 1);
+                break;
+
+            case TRUE_BOOLEAN_START:
+                parseTrue(source, tokens);
+                break;
+
+            case FALSE_BOOLEAN_START:
+                parseFalse(source, tokens);
+                break;
+
+            case NULL_START:
+                parseNull(source, tokens);
+                break;
+
+            case STRING_START_TOKEN:
+                parseString(source, tokens);
+                break;
+
+            case NUM_0:
+            case NUM_1:
+            case NUM_2:
+            case NUM_3:
+            case NUM_4:
+            case NUM_5:
+            case NUM_6:
+            case NUM_7:
+            case NUM_8:
+            case NUM_9:
+            case MINUS:
+            case PLUS:
+                parseNumber(source, tokens);
+                break;
+
+            default:
+                throw new UnexpectedCharacterException("Scanning JSON", "Unexpected character", source, (char) ch);
+        }
+    }
+
+    private void parseObject(final CharSource source, final TokenList tokens, final int level) {
+        if (level > maxDepth) {
+            throw new UnexpectedCharacterException("Next level violation", "Too many levels " + level, source);
+        }
+        if (level > RECURSION_LIMIT) {
+            scanNested(OBJECT_START_TOKEN, source, tokens, level - 1);
+            return;
+        }
+        final int startSourceIndex = source.getIndex();
+        final int tokenListIndex = tokens.getIndex();
+        tokens.placeHolder();
+
+        int ch = source.nextSkipWhiteSpace();
+        if (ch != OBJECT_END_TOKEN) {
+            while (parseAttribute(ch, source, tokens, level)) {
+                ch = source.nextSkipWhiteSpace();
+            }
+        }
+        source.next();
+        tokens.set(tokenListIndex, new Token(startSourceIndex, source.getIndex(), TokenTypes.OBJECT_TOKEN));
+    }
+
+    /**
+     * Parses one attribute of an object.
+     *
+     * @return true if another attribute follows
+     */
+    private boolean parseAttribute(final int ch, final CharSource source, final TokenList tokens, final int level) {
+        final int valueChar = parseKey(ch, source, tokens);
+        final int startIndex = source.getIndex();
+        final int tokenListIndex = tokens.getIndex();
+        tokens.placeHolder();
+        switch (valueChar) {
+            case OBJECT_START_TOKEN:
+                parseObject(source, tokens, level + 1);
+                break;
+
+            case ARRAY_START_TOKEN:
+                parseArray(source, tokens, level + 1);
+                break;
+
+            case TRUE_BOOLEAN_START:
+                parseTrue(source, tokens);
+                break;
+
+            case FALSE_BOOLEAN_START:
+                parseFalse(source, tokens);
+                break;
+
+            case NULL_START:
+                parseNull(source, tokens);
+                break;
+
+            case STRING_START_TOKEN:
+                parseString(source, tokens);
+                break;
+
+            case NUM_0:
+            case NUM_1:
+            case NUM_2:
+            case NUM_3:
+            case NUM_4:
+            case NUM_5:
+            case NUM_6:
+            case NUM_7:
+            case NUM_8:
+            case NUM_9:
+            case MINUS:
+            case PLUS:
+                parseNumber(source, tokens);
+                break;
+
+            default:
+                throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, valueChar);
+        }
+
+        final int next = source.skipWhiteSpace();
+        if (next != OBJECT_ATTRIBUTE_SEP && next != OBJECT_END_TOKEN) {
+            throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, next);
+        }
+        tokens.set(tokenListIndex, new Token(startIndex, source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
+        return next == OBJECT_ATTRIBUTE_SEP;
+    }
+
+    private void parseArray(final CharSource source, final TokenList tokens, final int level) {
+        if (level > maxDepth) {
+            throw new UnexpectedCharacterException("Next level violation", "Too many levels " + level, source);
+        }
+        if (level > RECURSION_LIMIT) {
+            scanNested(ARRAY_START_TOKEN, source, tokens, level - 1);
+            return;
+        }
+        final int startSourceIndex = source.getIndex();
+        final int tokenListIndex = tokens.getIndex();
+        tokens.placeHolder();
+
+        int ch = source.nextSkipWhiteSpace();
+        if (ch != ARRAY_END_TOKEN) {
+            while (parseArrayItem(ch, source, tokens, level)) {
+                ch = source.nextSkipWhiteSpace();
+            }
+        }
+        source.next();
+        tokens.set(tokenListIndex, new Token(startSourceIndex, source.getIndex(), TokenTypes.ARRAY_TOKEN));
+    }
+
+    /**
+     * Parses one item of an array.
+     *
+     * @return true if another item follows
+     */
+    private boolean parseArrayItem(final int ch, final CharSource source, final TokenList tokens, final int level) {
+        switch (ch) {
+            case OBJECT_START_TOKEN:
+                parseObject(source, tokens, level + 1);
+                break;
+
+            case ARRAY_START_TOKEN:
+                parseArray(source, tokens, level + 1);
+                break;
+
+            case TRUE_BOOLEAN_START:
+                parseTrue(source, tokens);
+                break;
+
+            case FALSE_BOOLEAN_START:
+                parseFalse(source, tokens);
+                break;
+
+            case NULL_START:
+                parseNull(source, tokens);
+                break;
+
+            case STRING_START_TOKEN:
+                parseString(source, tokens);
+                break;
+
+            case NUM_0:
+            case NUM_1:
+            case NUM_2:
+            case NUM_3:
+            case NUM_4:
+            case NUM_5:
+            case NUM_6:
+            case NUM_7:
+            case NUM_8:
+            case NUM_9:
+            case MINUS:
+            case PLUS:
+                parseNumber(source, tokens);
+                break;
+
+            default:
+                throw new UnexpectedCharacterException("Parsing Array Item", "Unexpected character", source, (char) ch);
+        }
+
+        final int next = source.skipWhiteSpace();
+        if (next != ARRAY_SEP && next != ARRAY_END_TOKEN) {
+            throw new UnexpectedCharacterException("Parsing Array Item", "Unexpected character", source, (char) next);
+        }
+        return next == ARRAY_SEP;
+    }
+
+    /**
+     * Parses the container that starts with ch without recursing.
+     *
+     * @param outerDepth the number of containers around it
+     */
+    private void scanNested(int ch, final CharSource source, final TokenList tokens, final int outerDepth) {
+
+        /* The frame of the innermost open container lives in locals, the frames around it on the stack. */
+        int[] stack = new int[FRAME_SIZE * 16];
+        int top = 0;
+        int depth = 0;
+        int containerToken = 0;
+        int containerStart = 0;
+        int valueToken = ARRAY_FRAME;
+        int valueStart = 0;
+
+        while (true) {
+
+            /* Parse the value that starts with ch, or open a container. */
+            switch (ch) {
+                case OBJECT_START_TOKEN:
+                case ARRAY_START_TOKEN:
+                    if (outerDepth + depth >= maxDepth) {
+                        throw new UnexpectedCharacterException("Next level violation", "Too many levels " + (outerDepth + depth + 1), source);
+                    }
+                    if (depth > 0) {
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, stack.length * 2);
+                        }
+                        stack[top + CONTAINER_TOKEN] = containerToken;
+                        stack[top + CONTAINER_START] = containerStart;
+                        stack[top + VALUE_TOKEN] = valueToken;
+                        stack[top + VALUE_START] = valueStart;
+                        top += FRAME_SIZE;
+                    }
+                    depth++;
+                    containerToken = tokens.getIndex();
+                    containerStart = source.getIndex();
+                    tokens.placeHolder();
+
+                    if (ch == OBJECT_START_TOKEN) {
+                        ch = source.nextSkipWhiteSpace();
+                        if (ch != OBJECT_END_TOKEN) {
+                            ch = parseKey(ch, source, tokens);
+                            valueToken = tokens.getIndex();
+                            valueStart = source.getIndex();
+                            tokens.placeHolder();
+                            continue;
+                        }
+                    } else {
+                        valueToken = ARRAY_FRAME;
+                        ch = source.nextSkipWhiteSpace();
+                        if (ch != ARRAY_END_TOKEN) {
+                            continue;
+                        }
+                    }
+                    /* Empty container, the source is on its closing character. */
+                    source.next();
+                    tokens.set(containerToken, new Token(containerStart, source.getIndex(),
+                            ch == OBJECT_END_TOKEN ? TokenTypes.OBJECT_TOKEN : TokenTypes.ARRAY_TOKEN));
+                    if (--depth > 0) {
+                        top -= FRAME_SIZE;
+                        containerToken = stack[top + CONTAINER_TOKEN];
+                        containerStart = stack[top + CONTAINER_START];
+                        valueToken = stack[top + VALUE_TOKEN];
+                        valueStart = stack[top + VALUE_START];
+                    }
+                    break;
+
+                default:
+                    parseScalar(ch, source, tokens);
+            }
+
+            /* A value is complete, close containers until one has another element. */
+            while (true) {
+                if (depth == 0) {
+                    return;
+                }
+
+                ch = source.skipWhiteSpace();
+
+                if (valueToken == ARRAY_FRAME) {
+                    if (ch == ARRAY_SEP) {
+                        ch = source.nextSkipWhiteSpace();
+                        break;
+                    } else if (ch != ARRAY_END_TOKEN) {
+                        throw new UnexpectedCharacterException("Parsing Array Item", "Unexpected character", source, (char) ch);
+                    }
+                    source.next();
+                    tokens.set(containerToken, new Token(containerStart, source.getIndex(), TokenTypes.ARRAY_TOKEN));
+                } else {
+                    if (ch == OBJECT_ATTRIBUTE_SEP) {
+                        tokens.set(valueToken, new Token(valueStart, source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
+                        ch = parseKey(source.nextSkipWhiteSpace(), source, tokens);
+                        valueToken = tokens.getIndex();
+                        valueStart = source.getIndex();
+                        tokens.placeHolder();
+                        break;
+                    } else if (ch != OBJECT_END_TOKEN) {
+                        throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, ch);
+                    }
+                    tokens.set(valueToken, new Token(valueStart, source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
+                    source.next();
+                    tokens.set(containerToken, new Token(containerStart, source.getIndex(), TokenTypes.OBJECT_TOKEN));
+                }
+                if (--depth > 0) {
+                    top -= FRAME_SIZE;
+                    containerToken = stack[top + CONTAINER_TOKEN];
+                    containerStart = stack[top + CONTAINER_START];
+                    valueToken = stack[top + VALUE_TOKEN];
+                    valueStart = stack[top + VALUE_START];
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses an attribute key and its separator.
+     *
+     * @return the first character of the attribute value
+     */
+    private int parseKey(final int ch, final CharSource source, final TokenList tokens) {
+        if (ch != STRING_START_TOKEN) {
+            throw new UnexpectedCharacterException("Parsing key", "Unexpected character found", source);
+        }
+        final int keyStartIndex = source.getIndex();
+        final int tokenListIndex = tokens.getIndex();
+        tokens.placeHolder();
+        if (objectsKeysCanBeEncoded) {
+            final int strEndIndex = source.findEndOfEncodedString();
+            tokens.add(new StringToken(keyStartIndex + 1, strEndIndex, source.lastStringHadEscape()));
+        } else {
+            tokens.add(new Token(keyStartIndex + 1, source.findEndString(), TokenTypes.STRING_TOKEN));
+        }
+
+        if (source.findObjectEndOrAttributeSep()) {
+            throw new UnexpectedCharacterException("Parsing key", "Not found", source);
+        }
+        tokens.set(tokenListIndex, new Token(keyStartIndex, source.getIndex(), TokenTypes.ATTRIBUTE_KEY_TOKEN));
+        return source.nextSkipWhiteSpace();
+    }
+
+    private void parseScalar(final int ch, final CharSource source, final TokenList tokens) {
+        switch (ch) {
+            case TRUE_BOOLEAN_START:
+                parseTrue(source, tokens);
+                break;
+
+            case FALSE_BOOLEAN_START:
+                parseFalse(source, tokens);
+                break;
+
+            case NULL_START:
+                parseNull(source, tokens);
+                break;
+
+            case STRING_START_TOKEN:
+                parseString(source, tokens);
+                break;
+
+            case NUM_0:
+            case NUM_1:
+            case NUM_2:
+            case NUM_3:
+            case NUM_4:
+            case NUM_5:
+            case NUM_6:
+            case NUM_7:
+            case NUM_8:
+            case NUM_9:
+            case MINUS:
+            case PLUS:
+                parseNumber(source, tokens);
+                break;
+
+            default:
+                throw new UnexpectedCharacterException("Scanning JSON", "Unexpected character", source, (char) ch);
+        }
+    }
+
+    private void parseFalse(CharSource source, TokenList tokens) {
+        int start = source.getIndex();
+        int end = source.findFalseEnd();
+        tokens.add(new Token(start, end, TokenTypes.BOOLEAN_TOKEN));
+    }
+
+    private void parseTrue(CharSource source, TokenList tokens) {
+        int start = source.getIndex();
+        int end = source.findTrueEnd();
+        tokens.add(new Token(start, end, TokenTypes.BOOLEAN_TOKEN));
+    }
+
+    private void parseNull(CharSource source, TokenList tokens) {
+        int start = source.getIndex();
+        int end = source.findNullEnd();
+        tokens.add(new Token(start, end, TokenTypes.NULL_TOKEN));
+    }
+
+    private void parseNumber(final CharSource source, TokenList tokens) {
+        final int startIndex = source.getIndex();
+        final NumberParseResult numberParse = source.findEndOfNumberFast();
+        tokens.add(new NumberToken(startIndex, numberParse.endIndex(),
+                numberParse.wasFloat() ? TokenTypes.FLOAT_TOKEN : TokenTypes.INT_TOKEN, numberParse.numberType()));
+    }
+
+    private void parseString(final CharSource source, TokenList tokens) {
+        final int startIndex = source.getIndex();
+        final int endIndex = source.findEndOfEncodedStringFast();
+        tokens.add(new StringToken(startIndex + 1, endIndex, source.lastStringHadEscape()));
+    }
+}
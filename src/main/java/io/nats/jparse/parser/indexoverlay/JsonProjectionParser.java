@@ -0,0 +1,220 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser.indexoverlay;
+
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.node.support.TokenList;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.path.PathNode;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.StringToken;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.util.List;
+
+/**
+ * The `JsonProjectionParser` class is a `JsonParser` that only tokenizes the parts of a document
+ * that lie on a set of requested paths (projection pushdown).
+ * <p>
+ * Values on a requested path are tokenized exactly like `JsonFastParser` does. Object attributes
+ * that are not on a requested path produce no tokens at all and are skipped with
+ * `CharSource.findEndOfValue()`. Array items before the last requested index keep their position
+ * as a single token (objects and arrays are not tokenized inside), so `[n]` path elements still work.
+ * Scanning stops as soon as every requested path has been resolved; the enclosing containers are
+ * closed at that point.
+ * <p>
+ * The resulting `RootNode` can be navigated with `Path.atPath` using the requested paths.
+ * Like `JsonFastParser`, this parser does not validate the document.
+ */
+public class JsonProjectionParser implements JsonParser {
+
+    private final boolean objectsKeysCanBeEncoded;
+    private final ProjectionNode root;
+    private final int[] leafCounts;
+    private final JsonFastParser fastParser;
+
+    /**
+     * Create a new `JsonProjectionParser` instance.
+     *
+     * @param objectsKeysCanBeEncoded If `true`, then object keys can be encoded (e.g. `{"key\n\t": "value"}`).
+     * @param paths                   The paths to project, see `Path.toPath`.
+     */
+    public JsonProjectionParser(final boolean objectsKeysCanBeEncoded, final List<PathNode> paths) {
+        this.objectsKeysCanBeEncoded = objectsKeysCanBeEncoded;
+        final ProjectionNode[] nodes = ProjectionNode.build(paths);
+        this.root = nodes[ProjectionNode.ROOT_ID];
+        this.leafCounts = ProjectionNode.leafCounts(nodes);
+        this.fastParser = new JsonFastParser(objectsKeysCanBeEncoded);
+    }
+
+    /**
+     * Scan a character source and return a list of tokens for the requested paths.
+     *
+     * @param source The character source to scan
+     * @return A list of tokens representing the projected JSON
+     */
+    @Override
+    public List<Token> scan(final CharSource source) {
+        final TokenList tokens = new TokenList();
+        final int[] remaining = leafCounts.clone();
+        final int ch = source.nextSkipWhiteSpace();
+        parseProjected(ch, source, tokens, root, remaining);
+        return tokens;
+    }
+
+    /**
+     * Parse a character source and return a root node representing the projected JSON.
+     *
+     * @param source The character source to parse
+     * @return A root node representing the projected JSON
+     */
+    @Override
+    public RootNode parse(final CharSource source) {
+        return new RootNode((TokenList) scan(source), source, objectsKeysCanBeEncoded);
+    }
+
+    private void parseProjected(final int ch, final CharSource source, final TokenList tokens,
+                                final ProjectionNode node, final int[] remaining) {
+        if (node.isLeaf()) {
+            fastParser.parseElement(ch, source, tokens);
+            node.resolve(remaining);
+            return;
+        }
+
+        if (ch == OBJECT_START_TOKEN && node.hasKeys()) {
+            parseObject(source, tokens, node, remaining);
+        } else if (ch == ARRAY_START_TOKEN && node.hasIndexes()) {
+            parseArray(source, tokens, node, remaining);
+        } else {
+            /* The value does not have the shape the paths expect, so nothing below it can resolve. */
+            skipElement(ch, source, tokens);
+            node.resolve(remaining);
+        }
+    }
+
+    private void skipElement(final int ch, final CharSource source, final TokenList tokens) {
+        final int startIndex = source.getIndex();
+        switch (ch) {
+            case OBJECT_START_TOKEN:
+                tokens.add(new Token(startIndex, source.findEndOfValue(), TokenTypes.OBJECT_TOKEN));
+                break;
+            case ARRAY_START_TOKEN:
+                tokens.add(new Token(startIndex, source.findEndOfValue(), TokenTypes.ARRAY_TOKEN));
+                break;
+            default:
+                fastParser.parseElement(ch, source, tokens);
+        }
+    }
+
+    private void parseObject(final CharSource source, final TokenList tokens,
+                             final ProjectionNode node, final int[] remaining) {
+        final int startSourceIndex = source.getIndex();
+        final int tokenListIndex = tokens.getIndex();
+        tokens.placeHolder();
+
+        int ch = source.nextSkipWhiteSpace();
+
+        if (ch == OBJECT_END_TOKEN) {
+            source.next();
+        } else {
+            while (true) {
+                if (ch != STRING_START_TOKEN) {
+                    throw new UnexpectedCharacterException("Parsing key", "Unexpected character found", source);
+                }
+                final int keyStartIndex = source.getIndex();
+                final int keyEndIndex = objectsKeysCanBeEncoded ? source.findEndOfEncodedString() : source.findEndString();
+                final boolean keyHadEscape = objectsKeysCanBeEncoded && source.lastStringHadEscape();
+                if (source.findObjectEndOrAttributeSep()) {
+                    throw new UnexpectedCharacterException("Parsing key", "Not found", source);
+                }
+                final int keySepIndex = source.getIndex();
+                final ProjectionNode child = node.lookupKey(source, keyStartIndex + 1, keyEndIndex, objectsKeysCanBeEncoded);
+
+                ch = source.nextSkipWhiteSpace();
+                final int valueStartIndex = source.getIndex();
+
+                if (child == null || remaining[child.id] == 0) {
+                    source.findEndOfValue();
+                } else {
+                    tokens.add(new Token(keyStartIndex, keySepIndex, TokenTypes.ATTRIBUTE_KEY_TOKEN));
+                    tokens.add(objectsKeysCanBeEncoded ? new StringToken(keyStartIndex + 1, keyEndIndex, keyHadEscape)
+                            : new Token(keyStartIndex + 1, keyEndIndex, TokenTypes.STRING_TOKEN));
+                    final int valueTokenIndex = tokens.getIndex();
+                    tokens.placeHolder();
+                    parseProjected(ch, source, tokens, child, remaining);
+                    if (remaining[ProjectionNode.ROOT_ID] == 0) {
+                        tokens.set(valueTokenIndex, new Token(valueStartIndex, source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
+                        break;
+                    }
+                    source.skipWhiteSpace();
+                    tokens.set(valueTokenIndex, new Token(valueStartIndex, source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
+                }
+
+                ch = source.skipWhiteSpace();
+                if (ch == OBJECT_END_TOKEN) {
+                    source.next();
+                    break;
+                }
+                if (ch != OBJECT_ATTRIBUTE_SEP) {
+                    throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, ch);
+                }
+                ch = source.nextSkipWhiteSpace();
+            }
+        }
+        tokens.set(tokenListIndex, new Token(startSourceIndex, source.getIndex(), TokenTypes.OBJECT_TOKEN));
+    }
+
+    private void parseArray(final CharSource source, final TokenList tokens,
+                            final ProjectionNode node, final int[] remaining) {
+        final int startSourceIndex = source.getIndex();
+        final int tokenListIndex = tokens.getIndex();
+        tokens.placeHolder();
+
+        int ch = source.nextSkipWhiteSpace();
+
+        if (ch == ARRAY_END_TOKEN) {
+            source.next();
+        } else {
+            final int maxIndex = node.maxIndex();
+            for (int index = 0; ; index++) {
+                final ProjectionNode child = node.lookupIndex(index);
+                if (child != null && remaining[child.id] != 0) {
+                    parseProjected(ch, source, tokens, child, remaining);
+                    if (remaining[ProjectionNode.ROOT_ID] == 0) {
+                        break;
+                    }
+                } else if (index < maxIndex) {
+                    skipElement(ch, source, tokens);
+                } else {
+                    source.findEndOfValue();
+                }
+
+                ch = source.skipWhiteSpace();
+                if (ch == ARRAY_END_TOKEN) {
+                    source.next();
+                    break;
+                }
+                if (ch != ARRAY_SEP) {
+                    throw new UnexpectedCharacterException("Parsing Array Item", "Unexpected character", source, (char) ch);
+                }
+                ch = source.nextSkipWhiteSpace();
+            }
+        }
+        tokens.set(tokenListIndex, new Token(startSourceIndex, source.getIndex(), TokenTypes.ARRAY_TOKEN));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser.indexoverlay;
+
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.node.ShapeCache;
+import io.nats.jparse.node.support.TokenList;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+
+import java.util.List;
+
+/**
+ * The `JsonShapeParser` class scans with another `JsonParser` and returns root nodes whose objects look up keys
+ * through the shapes of a `ShapeCache`, so repeated message schemas resolve keys to fixed slots.
+ */
+public class JsonShapeParser implements JsonParser {
+
+    private final JsonParser parser;
+    private final boolean objectsKeysCanBeEncoded;
+    private final ShapeCache shapes;
+
+    /**
+     * Create a new `JsonShapeParser` instance.
+     *
+     * @param parser                  The parser that scans the source.
+     * @param objectsKeysCanBeEncoded If `true`, then object keys can be encoded and shapes are not used.
+     * @param shapes                  The shape cache shared by every parse.
+     */
+    public JsonShapeParser(final JsonParser parser, final boolean objectsKeysCanBeEncoded, final ShapeCache shapes) {
+        this.parser = parser;
+        this.objectsKeysCanBeEncoded = objectsKeysCanBeEncoded;
+        this.shapes = shapes;
+    }
+
+    /**
+     * Scan a character source and return a list of tokens representing the JSON string.
+     *
+     * @param source The character source to scan
+     * @return A list of tokens representing the JSON
+     */
+    @Override
+    public List<Token> scan(final CharSource source) {
+        return parser.scan(source);
+    }
+
+    /**
+     * Parse a character source and return a root node whose objects use the shape cache.
+     *
+     * @param source The character source to parse
+     * @return A root node representing the parsed JSON
+     */
+    @Override
+    public RootNode parse(final CharSource source) {
+        return new RootNode((TokenList) parser.scan(source), source, objectsKeysCanBeEncoded, shapes);
+    }
+}
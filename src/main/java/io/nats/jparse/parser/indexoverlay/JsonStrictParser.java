@@ -21,29 +21,156 @@ import io.nats.jparse.node.support.TokenList;
 import io.nats.jparse.parser.JsonParser;
 import io.nats.jparse.source.CharSource;
 import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.NumberToken;
+import io.nats.jparse.token.StringToken;
 import io.nats.jparse.token.Token;
 import io.nats.jparse.token.TokenTypes;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * The `JsonStrictParser` class is an implementation of the `JsonParser` interface that uses a strict
  * JSON parsing algorithm. The parser does not accept JSON strings that are not strictly compliant
  * with the JSON RFC.
+ * <p>
+ * Strings, numbers and literals are validated by the strict `CharSource` scanning methods as they are
+ * tokenized, and the structure is checked as it is walked, so RFC 8259 validation happens in the same
+ * single pass that emits the tokens.
+ * <p>
+ * The structure is checked by a deterministic finite automaton that keeps the open containers on an explicit
+ * `int[]` stack, so the parser never overflows the thread stack and nesting is limited by the configured max
+ * depth only. The automaton maps every significant character to a character class with a 256-entry table, and
+ * the pair of current state and character class selects an action from a compact transition table.
  */
 public class JsonStrictParser implements JsonParser {
 
+    /* Character classes. */
+    private static final int C_OTHER = 0;
+    private static final int C_WS = 1;
+    private static final int C_OBJECT_START = 2;
+    private static final int C_OBJECT_END = 3;
+    private static final int C_ARRAY_START = 4;
+    private static final int C_ARRAY_END = 5;
+    private static final int C_COLON = 6;
+    private static final int C_COMMA = 7;
+    private static final int C_QUOTE = 8;
+    private static final int C_NUMBER = 9;
+    private static final int C_TRUE = 10;
+    private static final int C_FALSE = 11;
+    private static final int C_NULL = 12;
+    private static final int CLASS_COUNT = 13;
+
+    /* States. */
+    private static final int S_VALUE = 0;
+    private static final int S_ARRAY_FIRST = 1;
+    private static final int S_OBJECT_FIRST = 2;
+    private static final int S_KEY = 3;
+    private static final int S_COLON = 4;
+    private static final int S_OBJECT_NEXT = 5;
+    private static final int S_ARRAY_NEXT = 6;
+    private static final int STATE_COUNT = 7;
+
+    /* Actions. */
+    private static final byte A_ERROR = 0;
+    private static final byte A_SKIP = 1;
+    private static final byte A_OBJECT_START = 2;
+    private static final byte A_ARRAY_START = 3;
+    private static final byte A_STRING = 4;
+    private static final byte A_NUMBER = 5;
+    private static final byte A_TRUE = 6;
+    private static final byte A_FALSE = 7;
+    private static final byte A_NULL = 8;
+    private static final byte A_KEY = 9;
+    private static final byte A_COLON = 10;
+    private static final byte A_OBJECT_NEXT = 11;
+    private static final byte A_ARRAY_NEXT = 12;
+    private static final byte A_OBJECT_END = 13;
+    private static final byte A_EMPTY_OBJECT = 14;
+    private static final byte A_ARRAY_END = 15;
+
+    private static final byte[] CHAR_CLASS = new byte[256];
+    private static final byte[] TRANSITIONS = new byte[STATE_COUNT * CLASS_COUNT];
+    private static final String[] STATE_DESCRIPTIONS = {
+            "Parsing Value", "Parsing Array Item", "Parsing key", "Parsing key", "Parsing key separator",
+            "Parsing Object", "Parsing Array"};
+
+    static {
+        CHAR_CLASS[SPACE_WS] = C_WS;
+        CHAR_CLASS[TAB_WS] = C_WS;
+        CHAR_CLASS[NEW_LINE_WS] = C_WS;
+        CHAR_CLASS[CARRIAGE_RETURN_WS] = C_WS;
+        CHAR_CLASS[OBJECT_START_TOKEN] = C_OBJECT_START;
+        CHAR_CLASS[OBJECT_END_TOKEN] = C_OBJECT_END;
+        CHAR_CLASS[ARRAY_START_TOKEN] = C_ARRAY_START;
+        CHAR_CLASS[ARRAY_END_TOKEN] = C_ARRAY_END;
+        CHAR_CLASS[ATTRIBUTE_SEP] = C_COLON;
+        CHAR_CLASS[ARRAY_SEP] = C_COMMA;
+        CHAR_CLASS[STRING_START_TOKEN] = C_QUOTE;
+        CHAR_CLASS[MINUS] = C_NUMBER;
+        for (int ch = NUM_0; ch <= NUM_9; ch++) {
+            CHAR_CLASS[ch] = C_NUMBER;
+        }
+        CHAR_CLASS[TRUE_BOOLEAN_START] = C_TRUE;
+        CHAR_CLASS[FALSE_BOOLEAN_START] = C_FALSE;
+        CHAR_CLASS[NULL_START] = C_NULL;
+
+        for (int state = 0; state < STATE_COUNT; state++) {
+            transition(state, C_WS, A_SKIP);
+        }
+        for (int state : new int[]{S_VALUE, S_ARRAY_FIRST}) {
+            transition(state, C_OBJECT_START, A_OBJECT_START);
+            transition(state, C_ARRAY_START, A_ARRAY_START);
+            transition(state, C_QUOTE, A_STRING);
+            transition(state, C_NUMBER, A_NUMBER);
+            transition(state, C_TRUE, A_TRUE);
+            transition(state, C_FALSE, A_FALSE);
+            transition(state, C_NULL, A_NULL);
+        }
+        transition(S_ARRAY_FIRST, C_ARRAY_END, A_ARRAY_END);
+        transition(S_OBJECT_FIRST, C_QUOTE, A_KEY);
+        transition(S_OBJECT_FIRST, C_OBJECT_END, A_EMPTY_OBJECT);
+        transition(S_KEY, C_QUOTE, A_KEY);
+        transition(S_COLON, C_COLON, A_COLON);
+        transition(S_OBJECT_NEXT, C_COMMA, A_OBJECT_NEXT);
+        transition(S_OBJECT_NEXT, C_OBJECT_END, A_OBJECT_END);
+        transition(S_ARRAY_NEXT, C_COMMA, A_ARRAY_NEXT);
+        transition(S_ARRAY_NEXT, C_ARRAY_END, A_ARRAY_END);
+    }
+
+    private static void transition(final int state, final int charClass, final byte action) {
+        TRANSITIONS[state * CLASS_COUNT + charClass] = action;
+    }
+
+    private static final int FRAME_SIZE = 4;
+    private static final int CONTAINER_TOKEN = 0;
+    private static final int CONTAINER_START = 1;
+    private static final int VALUE_TOKEN = 2;
+    private static final int VALUE_START = 3;
+    private static final int ARRAY_FRAME = -1;
+
     private final boolean objectsKeysCanBeEncoded;
-    int nestLevel;
+    private final int maxDepth;
 
 
     /**
-     * Create a new `JsonStrictParser` instance.
+     * Create a new `JsonStrictParser` instance that allows `NEST_LEVEL` levels of nesting.
      *
      * @param objectsKeysCanBeEncoded If `true`, then object keys can be encoded (e.g. `{"key\n\t": "value"}`).
      */
     public JsonStrictParser(boolean objectsKeysCanBeEncoded) {
+        this(objectsKeysCanBeEncoded, NEST_LEVEL);
+    }
+
+    /**
+     * Create a new `JsonStrictParser` instance.
+     *
+     * @param objectsKeysCanBeEncoded If `true`, then object keys can be encoded (e.g. `{"key\n\t": "value"}`).
+     * @param maxDepth                The maximum number of nested objects and arrays.
+     */
+    public JsonStrictParser(boolean objectsKeysCanBeEncoded, int maxDepth) {
         this.objectsKeysCanBeEncoded = objectsKeysCanBeEncoded;
+        this.maxDepth = maxDepth;
     }
 
 
@@ -70,326 +197,197 @@ public class JsonStrictParser implements JsonParser {
         return new RootNode((TokenList) scan(source), source, objectsKeysCanBeEncoded);
     }
 
-    private List<Token> scan(final CharSource source, TokenList tokens) {
-        nestLevel = 0;
-
-        int ch = source.nextSkipWhiteSpace();
-
-        switch (ch) {
-            case OBJECT_START_TOKEN:
-                parseObject(source, tokens);
-                break;
-
-            case ARRAY_START_TOKEN:
-                parseArray(source, tokens);
-                break;
-
-            case TRUE_BOOLEAN_START:
-                parseTrue(source, tokens);
-                break;
-
-            case FALSE_BOOLEAN_START:
-                parseFalse(source, tokens);
-                break;
-
-            case NULL_START:
-                parseNull(source, tokens);
-                break;
-
-            case STRING_START_TOKEN:
-                parseString(source, tokens);
-                break;
-
-            case NUM_0:
-            case NUM_1:
-            case NUM_2:
-            case NUM_3:
-            case NUM_4:
-            case NUM_5:
-            case NUM_6:
-            case NUM_7:
-            case NUM_8:
-            case NUM_9:
-            case MINUS:
-            case PLUS:
-                parseNumber(source, tokens);
-                break;
-
-            default:
-                throw new UnexpectedCharacterException("Scanning JSON", "Unexpected character", source, (char) ch);
+    private List<Token> scan(final CharSource source, final TokenList tokens) {
+        source.nextSkipWhiteSpace();
+        scanValue(source, tokens);
 
+        /* A \u0003 in the source reads as ETX too, it only ends the document at the real end of the source. */
+        final int next = source.skipWhiteSpace();
+        if (next != ETX || source.getIndex() < source.length()) {
+            throw new UnexpectedCharacterException("Checking for junk", "Unexpected character", source, (char) next);
         }
-
-        source.checkForJunk();
-
         return tokens;
     }
 
-    private void parseFalse(CharSource source, TokenList tokens) {
-        int start = source.getIndex();
-        int end = source.findFalseEnd();
-        tokens.add(new Token(start, end, TokenTypes.BOOLEAN_TOKEN));
-    }
-
-    private void parseTrue(CharSource source, TokenList tokens) {
-        int start = source.getIndex();
-        int end = source.findTrueEnd();
-        tokens.add(new Token(start, end, TokenTypes.BOOLEAN_TOKEN));
-    }
-
-    private void parseNull(CharSource source, TokenList tokens) {
-        int start = source.getIndex();
-        int end = source.findNullEnd();
-        tokens.add(new Token(start, end, TokenTypes.NULL_TOKEN));
-    }
-
-    private void parseArray(final CharSource source, final TokenList tokens) {
-        levelCheck(source);
-        final int startSourceIndex = source.getIndex();
-        final int tokenListIndex = tokens.getIndex();
-        tokens.placeHolder();
-
-        boolean done = false;
-        while (!done) {
-            done = parseArrayItem(source, tokens);
-
-            if (!done) {
-                done = source.findCommaOrEndForArray();
+    /**
+     * Runs the automaton over the value the source is on, up to the first character after it.
+     */
+    private void scanValue(final CharSource source, final TokenList tokens) {
+        final byte[] charClass = CHAR_CLASS;
+        final byte[] transitions = TRANSITIONS;
+        int[] stack = new int[FRAME_SIZE * 16];
+        int top = -FRAME_SIZE;
+        int state = S_VALUE;
+        int ch = source.getCurrentChar();
+
+        while (true) {
+            if (ch == ETX) {
+                throw new UnexpectedCharacterException(STATE_DESCRIPTIONS[state], "Unexpected end of JSON", source);
             }
-        }
-
-        final Token arrayToken = new Token(startSourceIndex, source.getIndex(), TokenTypes.ARRAY_TOKEN);
-        tokens.set(tokenListIndex, arrayToken);
-    }
 
+            final int action = transitions[state * CLASS_COUNT + (ch < 256 ? charClass[ch] : C_OTHER)];
 
-    private boolean parseArrayItem(CharSource source, TokenList tokens) {
-        char startChar = source.getCurrentChar();
-        int ch = source.nextSkipWhiteSpace();
+            switch (action) {
+                case A_SKIP:
+                    ch = source.nextSkipWhiteSpace();
+                    continue;
 
-        switch (ch) {
-            case OBJECT_START_TOKEN:
-                parseObject(source, tokens);
-                break;
-
-            case ARRAY_START_TOKEN:
-                parseArray(source, tokens);
-                break;
-
-            case TRUE_BOOLEAN_START:
-                parseTrue(source, tokens);
-                break;
-
-            case FALSE_BOOLEAN_START:
-                parseFalse(source, tokens);
-                break;
-
-
-            case NULL_START:
-                parseNull(source, tokens);
-                break;
-
-            case STRING_START_TOKEN:
-                parseString(source, tokens);
-                break;
-
-            case NUM_0:
-            case NUM_1:
-            case NUM_2:
-            case NUM_3:
-            case NUM_4:
-            case NUM_5:
-            case NUM_6:
-            case NUM_7:
-            case NUM_8:
-            case NUM_9:
-            case MINUS:
-            case PLUS:
-                parseNumber(source, tokens);
-                if (source.getCurrentChar() == ARRAY_END_TOKEN || source.getCurrentChar() == ARRAY_SEP) {
-                    if (source.getCurrentChar() == ARRAY_END_TOKEN) {
-                        source.next();
-                        return true;
+                case A_OBJECT_START:
+                case A_ARRAY_START:
+                    top += FRAME_SIZE;
+                    if (top / FRAME_SIZE >= maxDepth) {
+                        throw new UnexpectedCharacterException("Next level violation", "Too many levels " + (top / FRAME_SIZE + 1), source);
                     }
-                }
-                break;
-
-            case ARRAY_END_TOKEN:
-                if (startChar == ARRAY_SEP) {
-                    throw new UnexpectedCharacterException("Parsing Array Item", "Trailing comma", source, (char) ch);
-                }
-                source.next();
-                return true;
-
-
-            default:
-                throw new UnexpectedCharacterException("Parsing Array Item", "Unexpected character", source, (char) ch);
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[top + CONTAINER_TOKEN] = tokens.getIndex();
+                    stack[top + CONTAINER_START] = source.getIndex();
+                    tokens.placeHolder();
+                    if (action == A_OBJECT_START) {
+                        state = S_OBJECT_FIRST;
+                    } else {
+                        stack[top + VALUE_TOKEN] = ARRAY_FRAME;
+                        state = S_ARRAY_FIRST;
+                    }
+                    ch = source.nextSkipWhiteSpace();
+                    continue;
+
+                case A_OBJECT_NEXT:
+                    tokens.set(stack[top + VALUE_TOKEN], new Token(stack[top + VALUE_START], source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
+                    ch = source.nextSkipWhiteSpace();
+                    state = S_KEY;
+                    continue;
+
+                case A_KEY:
+                    ch = parseFrameKey(source, tokens, stack, top);
+                    if (ch == ATTRIBUTE_SEP) {
+                        /* Common case, take the A_COLON transition right away. */
+                        ch = parseFrameColon(source, tokens, stack, top);
+                        state = S_VALUE;
+                    } else {
+                        state = S_COLON;
+                    }
+                    continue;
+
+                case A_COLON:
+                    ch = parseFrameColon(source, tokens, stack, top);
+                    state = S_VALUE;
+                    continue;
+
+                case A_ARRAY_NEXT:
+                    ch = source.nextSkipWhiteSpace();
+                    state = S_VALUE;
+                    continue;
+
+                case A_STRING:
+                    parseString(source, tokens);
+                    break;
+
+                case A_NUMBER:
+                    parseNumber(source, tokens);
+                    break;
+
+                case A_TRUE:
+                case A_FALSE:
+                case A_NULL:
+                    parseLiteral(action, source, tokens);
+                    break;
+
+                case A_OBJECT_END:
+                    tokens.set(stack[top + VALUE_TOKEN], new Token(stack[top + VALUE_START], source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
+                    source.next();
+                    tokens.set(stack[top + CONTAINER_TOKEN], new Token(stack[top + CONTAINER_START], source.getIndex(), TokenTypes.OBJECT_TOKEN));
+                    top -= FRAME_SIZE;
+                    break;
+
+                case A_EMPTY_OBJECT:
+                    source.next();
+                    tokens.set(stack[top + CONTAINER_TOKEN], new Token(stack[top + CONTAINER_START], source.getIndex(), TokenTypes.OBJECT_TOKEN));
+                    top -= FRAME_SIZE;
+                    break;
+
+                case A_ARRAY_END:
+                    source.next();
+                    tokens.set(stack[top + CONTAINER_TOKEN], new Token(stack[top + CONTAINER_START], source.getIndex(), TokenTypes.ARRAY_TOKEN));
+                    top -= FRAME_SIZE;
+                    break;
+
+                default:
+                    if (ch == OBJECT_END_TOKEN && state == S_KEY || ch == ARRAY_END_TOKEN && state == S_VALUE && top >= 0
+                            && stack[top + VALUE_TOKEN] == ARRAY_FRAME) {
+                        throw new UnexpectedCharacterException(STATE_DESCRIPTIONS[state], "Trailing comma", source, (char) ch);
+                    }
+                    throw new UnexpectedCharacterException(STATE_DESCRIPTIONS[state], "Unexpected character", source, (char) ch);
+            }
 
+            /* A value is complete, the source is on the first character after it. */
+            if (top < 0) {
+                return;
+            }
+            state = stack[top + VALUE_TOKEN] == ARRAY_FRAME ? S_ARRAY_NEXT : S_OBJECT_NEXT;
+            ch = source.skipWhiteSpace();
         }
-
-        return false;
     }
 
-    private void parseNumber(final CharSource source, TokenList tokens) {
+    private static void parseString(final CharSource source, final TokenList tokens) {
         final int startIndex = source.getIndex();
-        final NumberParseResult numberParse = source.findEndOfNumber();
-        tokens.add(new Token(startIndex, numberParse.endIndex(), numberParse.wasFloat() ? TokenTypes.FLOAT_TOKEN : TokenTypes.INT_TOKEN));
+        final int endIndex = source.findEndOfEncodedString();
+        tokens.add(new StringToken(startIndex + 1, endIndex, source.lastStringHadEscape()));
     }
 
-
-    private boolean parseKey(final CharSource source, final TokenList tokens) {
-        final char startChar = source.getCurrentChar();
-
-        int ch = source.nextSkipWhiteSpace();
-        final int startIndex = source.getIndex() - 1;
-        final int tokenListIndex = tokens.getIndex();
-        tokens.placeHolder();
-        boolean found = false;
-
-        switch (ch) {
-
-            case STRING_START_TOKEN:
-                final int strStartIndex = startIndex + 1;
-                final int strEndIndex;
-                if (objectsKeysCanBeEncoded) {
-                    strEndIndex = source.findEndOfEncodedString();
-                } else {
-                    strEndIndex = source.findEndString();
-                }
-                tokens.add(new Token(strStartIndex + 1, strEndIndex, TokenTypes.STRING_TOKEN));
-                found = true;
-                break;
-
-            case OBJECT_END_TOKEN:
-
-                if (startChar == OBJECT_ATTRIBUTE_SEP) {
-                    throw new UnexpectedCharacterException("Parsing key", "Unexpected character found", source);
-                }
-                tokens.undoPlaceholder();
-                return true;
-
-            default:
-                throw new UnexpectedCharacterException("Parsing key", "Unexpected character found", source);
-        }
-
-
-        boolean done = source.findObjectEndOrAttributeSep();
-
-        if (!done && found) {
-            tokens.set(tokenListIndex, new Token(startIndex + 1, source.getIndex(), TokenTypes.ATTRIBUTE_KEY_TOKEN));
-        } else if (found && done) {
-
-            throw new UnexpectedCharacterException("Parsing key", "Not found", source);
-
-        }
-
-        return done;
-
+    private static void parseNumber(final CharSource source, final TokenList tokens) {
+        final int startIndex = source.getIndex();
+        final NumberParseResult numberParse = source.findEndOfNumber();
+        tokens.add(new NumberToken(startIndex, numberParse.endIndex(),
+                numberParse.wasFloat() ? TokenTypes.FLOAT_TOKEN : TokenTypes.INT_TOKEN, numberParse.numberType()));
     }
 
-
-    private boolean parseValue(final CharSource source, TokenList tokens) {
-        int ch = source.nextSkipWhiteSpace();
+    private static void parseLiteral(final int action, final CharSource source, final TokenList tokens) {
         final int startIndex = source.getIndex();
-        final int tokenListIndex = tokens.getIndex();
-        tokens.placeHolder();
-
-        switch (ch) {
-            case OBJECT_START_TOKEN:
-                parseObject(source, tokens);
-                break;
-
-            case ARRAY_START_TOKEN:
-                parseArray(source, tokens);
+        switch (action) {
+            case A_TRUE:
+                tokens.add(new Token(startIndex, source.findTrueEnd(), TokenTypes.BOOLEAN_TOKEN));
                 break;
-
-            case TRUE_BOOLEAN_START:
-                parseTrue(source, tokens);
+            case A_FALSE:
+                tokens.add(new Token(startIndex, source.findFalseEnd(), TokenTypes.BOOLEAN_TOKEN));
                 break;
-
-            case FALSE_BOOLEAN_START:
-                parseFalse(source, tokens);
-                break;
-
-            case NULL_START:
-                parseNull(source, tokens);
-                break;
-
-            case STRING_START_TOKEN:
-                parseString(source, tokens);
-                break;
-
-            case NUM_0:
-            case NUM_1:
-            case NUM_2:
-            case NUM_3:
-            case NUM_4:
-            case NUM_5:
-            case NUM_6:
-            case NUM_7:
-            case NUM_8:
-            case NUM_9:
-            case MINUS:
-            case PLUS:
-                parseNumber(source, tokens);
-                break;
-
-            default:
-                throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, ch);
-        }
-
-        source.skipWhiteSpace();
-
-        switch (source.getCurrentChar()) {
-            case OBJECT_END_TOKEN:
-                if (source.getIndex() == tokenListIndex) {
-                    throw new UnexpectedCharacterException("Parsing Value", "Key separator before value", source);
-                }
-                tokens.set(tokenListIndex, new Token(startIndex, source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
-                return true;
-            case OBJECT_ATTRIBUTE_SEP:
-                if (source.getIndex() == tokenListIndex) {
-                    throw new UnexpectedCharacterException("Parsing Value", "Key separator before value", source);
-                }
-                tokens.set(tokenListIndex, new Token(startIndex, source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
-                return false;
-
             default:
-                throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, source.getCurrentChar());
-
+                tokens.add(new Token(startIndex, source.findNullEnd(), TokenTypes.NULL_TOKEN));
         }
-
     }
 
-    private void parseString(final CharSource source, TokenList tokens) {
-        final int startIndex = source.getIndex();
-        final int endIndex = source.findEndOfEncodedString();
-        tokens.add(new Token(startIndex + 1, endIndex, TokenTypes.STRING_TOKEN));
-    }
-
-
-    private void parseObject(final CharSource source, TokenList tokens) {
-        levelCheck(source);
-        final int startSourceIndex = source.getIndex();
-        final int tokenListIndex = tokens.getIndex();
+    /**
+     * Tokenizes an attribute key for the automaton, the source is on its opening quote.
+     *
+     * @return the first non-whitespace character after the key
+     */
+    private int parseFrameKey(final CharSource source, final TokenList tokens, final int[] stack, final int top) {
+        final int keyStartIndex = source.getIndex();
+        stack[top + VALUE_TOKEN] = tokens.getIndex();
+        stack[top + VALUE_START] = keyStartIndex;
         tokens.placeHolder();
-
-        boolean done = false;
-        while (!done) {
-            done = parseKey(source, tokens);
-            if (!done)
-                done = parseValue(source, tokens);
+        if (objectsKeysCanBeEncoded) {
+            final int keyEndIndex = source.findEndOfEncodedString();
+            tokens.add(new StringToken(keyStartIndex + 1, keyEndIndex, source.lastStringHadEscape()));
+            return source.skipWhiteSpace();
+        } else {
+            tokens.add(new Token(keyStartIndex + 1, source.findEndString(), TokenTypes.STRING_TOKEN));
+            return source.nextSkipWhiteSpace();
         }
-        source.next();
-        tokens.set(tokenListIndex, new Token(startSourceIndex, source.getIndex(), TokenTypes.OBJECT_TOKEN));
     }
 
-    private void levelCheck(CharSource source) {
-        nestLevel++;
-        if (nestLevel > NEST_LEVEL) {
-            throw new UnexpectedCharacterException("Next level violation", "Too many levels " + nestLevel, source);
-        }
+    /**
+     * Closes the attribute key token and reserves the attribute value token, the source is on the colon.
+     *
+     * @return the first character of the attribute value
+     */
+    private static int parseFrameColon(final CharSource source, final TokenList tokens, final int[] stack, final int top) {
+        tokens.set(stack[top + VALUE_TOKEN], new Token(stack[top + VALUE_START], source.getIndex(), TokenTypes.ATTRIBUTE_KEY_TOKEN));
+        final int ch = source.nextSkipWhiteSpace();
+        stack[top + VALUE_TOKEN] = tokens.getIndex();
+        stack[top + VALUE_START] = source.getIndex();
+        tokens.placeHolder();
+        return ch;
     }
-
-
 }
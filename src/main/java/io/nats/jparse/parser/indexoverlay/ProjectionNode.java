@@ -0,0 +1,205 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser.indexoverlay;
+
+import io.nats.jparse.path.PathElement;
+import io.nats.jparse.path.PathNode;
+import io.nats.jparse.source.CharSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A node in the trie of requested paths used by `JsonProjectionParser`.
+ * Each node knows the keys and indexes that lead further down a requested path,
+ * whether a requested path ends here, and how many requested paths end at or below it.
+ * <p>
+ * The trie is immutable once built so one instance can be shared by every parse.
+ * Per parse state (which paths are already resolved) is kept in an `int[]` indexed by `id`.
+ */
+final class ProjectionNode {
+
+    /**
+     * Id of the root node of a projection trie.
+     */
+    static final int ROOT_ID = 0;
+
+    final int id;
+    final ProjectionNode parent;
+    private String[] keys = new String[0];
+    private ProjectionNode[] keyChildren = new ProjectionNode[0];
+    private int[] indexes = new int[0];
+    private ProjectionNode[] indexChildren = new ProjectionNode[0];
+    private int maxIndex = -1;
+    private boolean leaf;
+    private int leafCount;
+
+    private ProjectionNode(final int id, final ProjectionNode parent) {
+        this.id = id;
+        this.parent = parent;
+    }
+
+    /**
+     * Builds the trie for the given paths.
+     *
+     * @param paths the requested paths
+     * @return the nodes of the trie indexed by id, the root is at `ROOT_ID`
+     */
+    static ProjectionNode[] build(final List<PathNode> paths) {
+        final List<ProjectionNode> nodes = new ArrayList<>();
+        final ProjectionNode root = new ProjectionNode(ROOT_ID, null);
+        nodes.add(root);
+        for (PathNode path : paths) {
+            ProjectionNode node = root;
+            for (PathElement element : path) {
+                node = element.isIndex() ? node.indexChild(element.asIndex().intValue(), nodes)
+                        : node.keyChild(element.asKey().toString(), nodes);
+            }
+            if (!node.leaf) {
+                node.leaf = true;
+                for (ProjectionNode p = node; p != null; p = p.parent) {
+                    p.leafCount++;
+                }
+            }
+        }
+        return nodes.toArray(new ProjectionNode[0]);
+    }
+
+    /**
+     * Creates the per parse counters of unresolved paths for a trie.
+     *
+     * @param nodes the nodes of the trie
+     * @return the number of requested paths that end at or below each node, indexed by id
+     */
+    static int[] leafCounts(final ProjectionNode[] nodes) {
+        final int[] counts = new int[nodes.length];
+        for (ProjectionNode node : nodes) {
+            counts[node.id] = node.leafCount;
+        }
+        return counts;
+    }
+
+    private ProjectionNode keyChild(final String key, final List<ProjectionNode> nodes) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return keyChildren[i];
+            }
+        }
+        final ProjectionNode child = new ProjectionNode(nodes.size(), this);
+        nodes.add(child);
+        keys = Arrays.copyOf(keys, keys.length + 1);
+        keyChildren = Arrays.copyOf(keyChildren, keyChildren.length + 1);
+        keys[keys.length - 1] = key;
+        keyChildren[keyChildren.length - 1] = child;
+        return child;
+    }
+
+    private ProjectionNode indexChild(final int index, final List<ProjectionNode> nodes) {
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] == index) {
+                return indexChildren[i];
+            }
+        }
+        final ProjectionNode child = new ProjectionNode(nodes.size(), this);
+        nodes.add(child);
+        indexes = Arrays.copyOf(indexes, indexes.length + 1);
+        indexChildren = Arrays.copyOf(indexChildren, indexChildren.length + 1);
+        indexes[indexes.length - 1] = index;
+        indexChildren[indexChildren.length - 1] = child;
+        maxIndex = Math.max(maxIndex, index);
+        return child;
+    }
+
+    /**
+     * Finds the child for an object key.
+     *
+     * @param source            the source holding the key
+     * @param startIndex        start of the key chars
+     * @param endIndex          end of the key chars
+     * @param keysCanBeEncoded  whether the key chars may contain escapes
+     * @return the child or null if no requested path goes through the key
+     */
+    ProjectionNode lookupKey(final CharSource source, final int startIndex, final int endIndex, final boolean keysCanBeEncoded) {
+        final String[] keys = this.keys;
+        if (keys.length == 0) {
+            return null;
+        }
+        if (keysCanBeEncoded) {
+            final String key = source.getEncodedString(startIndex, endIndex);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) {
+                    return keyChildren[i];
+                }
+            }
+        } else {
+            final int length = endIndex - startIndex;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].length() == length && source.matchChars(startIndex, endIndex, keys[i])) {
+                    return keyChildren[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the child for an array index.
+     *
+     * @param index the array index
+     * @return the child or null if no requested path goes through the index
+     */
+    ProjectionNode lookupIndex(final int index) {
+        final int[] indexes = this.indexes;
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] == index) {
+                return indexChildren[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Marks every requested path at or below this node as resolved.
+     *
+     * @param remaining the per parse counters of unresolved paths
+     */
+    void resolve(final int[] remaining) {
+        final int count = remaining[id];
+        if (count == 0) {
+            return;
+        }
+        for (ProjectionNode node = this; node != null; node = node.parent) {
+            remaining[node.id] -= count;
+        }
+    }
+
+    boolean isLeaf() {
+        return leaf;
+    }
+
+    boolean hasKeys() {
+        return keys.length > 0;
+    }
+
+    boolean hasIndexes() {
+        return indexes.length > 0;
+    }
+
+    int maxIndex() {
+        return maxIndex;
+    }
+}
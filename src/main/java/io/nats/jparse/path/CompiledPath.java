@@ -0,0 +1,225 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.path;
+
+import io.nats.jparse.bind.TokenValues;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A path whose elements are resolved once into keys and indexes, so it can be looked up again and again without
+ * parsing the path string or creating a key per step.
+ * <p>
+ * Each step is either a key, held as a `String` so its chars and hash code are computed once, or an array index.
+ * Compiled paths are immutable and can be shared by threads. `Path.compile` keeps the most recently used compiled
+ * paths in a cache.
+ *
+ * @see io.nats.jparse.Path#compile(String)
+ */
+public final class CompiledPath {
+
+    private final String path;
+    private final String[] keys;
+    private final int[] indexes;
+    private final long indexHash;
+
+    private CompiledPath(final String path, final String[] keys, final int[] indexes) {
+        this.path = path;
+        this.keys = keys;
+        this.indexes = indexes;
+        long hash = PathIndex.ROOT_HASH;
+        for (int step = 0; step < keys.length; step++) {
+            hash = keys[step] == null ? PathIndex.indexHash(hash, indexes[step]) : PathIndex.keyHash(hash, keys[step]);
+        }
+        this.indexHash = hash;
+    }
+
+    /**
+     * Compiles a path string, see `Path.toPath` for the syntax.
+     *
+     * @param path the path string
+     * @return the compiled path
+     */
+    public static CompiledPath compile(final String path) {
+        return of(path, new PathParser().parse(path).getPathNode());
+    }
+
+    /**
+     * Compiles a parsed path.
+     *
+     * @param path     the path string, used in messages
+     * @param pathNode the parsed path
+     * @return the compiled path
+     */
+    public static CompiledPath of(final String path, final PathNode pathNode) {
+        final int size = pathNode.size();
+        final String[] keys = new String[size];
+        final int[] indexes = new int[size];
+        for (int step = 0; step < size; step++) {
+            final PathElement element = pathNode.get(step);
+            if (element.isIndex()) {
+                indexes[step] = element.asIndex().intValue();
+            } else {
+                keys[step] = element.asKey().toString();
+                indexes[step] = -1;
+            }
+        }
+        return new CompiledPath(path, keys, indexes);
+    }
+
+    /**
+     * Returns the number of steps.
+     *
+     * @return the number of keys and indexes in the path
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Checks whether a step is an array index.
+     *
+     * @param step the step
+     * @return `true` if the step is an index, `false` if it is a key
+     */
+    public boolean isIndex(final int step) {
+        return keys[step] == null;
+    }
+
+    /**
+     * Returns the key of a step.
+     *
+     * @param step the step
+     * @return the key, null if the step is an index
+     */
+    public String key(final int step) {
+        return keys[step];
+    }
+
+    /**
+     * Returns the array index of a step.
+     *
+     * @param step the step
+     * @return the index, -1 if the step is a key
+     */
+    public int index(final int step) {
+        return indexes[step];
+    }
+
+    /**
+     * Returns the hash of the whole path that `PathIndex` probes with.
+     *
+     * @return the path hash
+     */
+    long indexHash() {
+        return indexHash;
+    }
+
+    /**
+     * Follows the path on a token tape without creating nodes, allocating or throwing when the path is missing.
+     * A key step on a value that is not an object, or an index step on a value that is not an array, is a miss.
+     * Keys are compared with the raw key chars of the source.
+     *
+     * @param tokens the token tape
+     * @param source the source of the tokens
+     * @param index  the index of the first token of the value the path starts at
+     * @return the index of the first token of the value at the path, -1 if there is none
+     */
+    public int locate(final List<Token> tokens, final CharSource source, final int index) {
+        int current = index;
+        for (int step = 0; step < keys.length; step++) {
+            final int type = tokens.get(current).type;
+            final String key = keys[step];
+            if (key == null) {
+                if (type != TokenTypes.ARRAY_TOKEN || indexes[step] < 0) {
+                    return -1;
+                }
+                int element = TokenValues.firstElement(tokens, current, null);
+                for (int item = indexes[step]; item > 0 && element >= 0; item--) {
+                    element = TokenValues.nextElement(tokens, current, element);
+                }
+                if (element < 0) {
+                    return -1;
+                }
+                current = element;
+            } else {
+                if (type != TokenTypes.OBJECT_TOKEN) {
+                    return -1;
+                }
+                int attribute = TokenValues.firstAttribute(tokens, current, null);
+                while (attribute >= 0 && !keyEquals(tokens.get(attribute + 1), source, key)) {
+                    attribute = TokenValues.nextAttribute(tokens, current, attribute);
+                }
+                if (attribute < 0) {
+                    return -1;
+                }
+                current = attribute + 3;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Checks whether the raw chars of a string token are the chars of a key, comparing the lengths first.
+     *
+     * @param token  the key string token
+     * @param source the source of the token
+     * @param key    the key
+     * @return `true` if the token holds exactly the key
+     */
+    static boolean keyEquals(final Token token, final CharSource source, final CharSequence key) {
+        final int length = key.length();
+        return token.endIndex - token.startIndex == length
+                && (length == 0 || source.matchChars(token.startIndex, token.endIndex, key));
+    }
+
+    /**
+     * Returns the value of a step for messages.
+     *
+     * @param step the step
+     * @return the key or the boxed index
+     */
+    public Object value(final int step) {
+        return keys[step] != null ? keys[step] : (Object) indexes[step];
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CompiledPath)) return false;
+        final CompiledPath that = (CompiledPath) o;
+        return Arrays.equals(keys, that.keys) && Arrays.equals(indexes, that.indexes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(keys) + Arrays.hashCode(indexes);
+    }
+
+    /**
+     * Returns the path string.
+     *
+     * @return the path string
+     */
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,642 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.path;
+
+import io.nats.jparse.bind.TokenValues;
+import io.nats.jparse.node.CollectionNode;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A JSONPath expression that can select many values, evaluated directly on the token tape of a document.
+ * <p>
+ * Besides the keys and indexes `Path` understands, an expression can hold
+ * <ul>
+ *     <li>`$` for the document itself, optional at the start</li>
+ *     <li>`*` and `[*]` for every attribute value of an object or every item of an array</li>
+ *     <li>`..key`, `..*` and `..[...]` for the step applied to the value and all values nested in it</li>
+ *     <li>`['a','b']` and `[0,2]` for several keys or indexes, negative indexes count from the end</li>
+ *     <li>`[start:end:step]` for a slice of an array, each part optional and negative start and end counting
+ *     from the end</li>
+ *     <li>`[?(@.field)]` and `[?(@.field op value)]` to keep the items of an array (or an object itself) whose
+ *     field exists or compares to a number, a quoted string, `true`, `false` or `null`, with `op` one of
+ *     `==`, `!=`, `&lt;`, `&lt;=`, `&gt;` and `&gt;=`</li>
+ * </ul>
+ * Evaluation walks token indexes only; no `Map` or `List` of values is built and nodes are only created when the
+ * selected values are read. Keys and string values are compared with the raw chars of the source.
+ * <pre>
+ * PathExpression titles = PathExpression.compile("$..GlossEntry[?(@.SortAs == 'SGML')].GlossTerm");
+ * List&lt;Node&gt; nodes = titles.select(root);
+ * </pre>
+ * Compiled expressions are immutable and can be shared by threads.
+ */
+public final class PathExpression {
+
+    private static final int KEYS = 0;
+    private static final int WILDCARD = 1;
+    private static final int INDEXES = 2;
+    private static final int SLICE = 3;
+    private static final int FILTER = 4;
+
+    private static final int EXISTS = 0;
+    private static final int EQ = 1;
+    private static final int NE = 2;
+    private static final int LT = 3;
+    private static final int LE = 4;
+    private static final int GT = 5;
+    private static final int GE = 6;
+
+    private static final int NO_BOUND = Integer.MIN_VALUE;
+
+    private final String expression;
+    private final Segment[] segments;
+
+    private PathExpression(final String expression, final Segment[] segments) {
+        this.expression = expression;
+        this.segments = segments;
+    }
+
+    /**
+     * Compiles a JSONPath expression.
+     *
+     * @param expression the expression
+     * @return the compiled expression
+     * @throws UnexpectedCharacterException if the expression is not valid
+     */
+    public static PathExpression compile(final String expression) {
+        return new Compiler(expression).compile();
+    }
+
+    /**
+     * Selects the values matching the expression.
+     *
+     * @param rootNode the document
+     * @return the selected values in document order per step, created as they are read
+     */
+    public List<Node> select(final Node rootNode) {
+        final List<Token> tokens = rootNode.tokens();
+        final CharSource source = rootNode.charSource();
+        Matches current = new Matches();
+        current.add(0);
+        for (Segment segment : segments) {
+            final Matches next = new Matches();
+            for (int i = 0; i < current.size; i++) {
+                if (segment.descendants) {
+                    selectDescendants(segment, tokens, source, current.values[i], next);
+                } else {
+                    segment.select(tokens, source, current.values[i], next);
+                }
+            }
+            if (segment.descendants) {
+                /* An array item is reached both from the array and by itself, so a filter can match it twice. */
+                next.removeDuplicates(tokens.size());
+            }
+            current = next;
+        }
+        return new Selection(rootNode, tokens, current);
+    }
+
+    private static void selectDescendants(final Segment segment, final List<Token> tokens, final CharSource source,
+                                          final int index, final Matches matches) {
+        segment.select(tokens, source, index, matches);
+        final int type = tokens.get(index).type;
+        if (type == TokenTypes.OBJECT_TOKEN) {
+            for (int attribute = TokenValues.firstAttribute(tokens, index, null); attribute >= 0;
+                 attribute = TokenValues.nextAttribute(tokens, index, attribute)) {
+                selectDescendants(segment, tokens, source, attribute + 3, matches);
+            }
+        } else if (type == TokenTypes.ARRAY_TOKEN) {
+            for (int element = TokenValues.firstElement(tokens, index, null); element >= 0;
+                 element = TokenValues.nextElement(tokens, index, element)) {
+                selectDescendants(segment, tokens, source, element, matches);
+            }
+        }
+    }
+
+    /**
+     * Returns the expression.
+     *
+     * @return the expression string
+     */
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * A growable list of token indexes.
+     */
+    private static final class Matches {
+        private int[] values = new int[8];
+        private int size;
+
+        private void add(final int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void removeDuplicates(final int tokenCount) {
+            final BitSet seen = new BitSet(tokenCount);
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!seen.get(values[i])) {
+                    seen.set(values[i]);
+                    values[kept++] = values[i];
+                }
+            }
+            size = kept;
+        }
+    }
+
+    /**
+     * The selected values, nodes are created the first time they are read.
+     */
+    private static final class Selection extends AbstractList<Node> {
+        private final Node rootNode;
+        private final List<Token> tokens;
+        private final Matches matches;
+        private final Node[] nodes;
+
+        private Selection(final Node rootNode, final List<Token> tokens, final Matches matches) {
+            this.rootNode = rootNode;
+            this.tokens = tokens;
+            this.matches = matches;
+            this.nodes = new Node[matches.size];
+        }
+
+        @Override
+        public Node get(final int index) {
+            if (index < 0 || index >= matches.size) {
+                throw new IndexOutOfBoundsException("Index " + index + " size " + matches.size);
+            }
+            Node node = nodes[index];
+            if (node == null) {
+                final int tokenIndex = matches.values[index];
+                node = nodes[index] = tokenIndex == 0 ? rootNode
+                        : ((CollectionNode) rootNode).valueNode(tokenIndex, TokenValues.skip(tokens, tokenIndex));
+            }
+            return node;
+        }
+
+        @Override
+        public int size() {
+            return matches.size;
+        }
+    }
+
+    /**
+     * One step of an expression.
+     */
+    private static final class Segment {
+        private final int kind;
+        private final boolean descendants;
+        private final String[] keys;
+        private final int[] indexes;
+        private final Filter filter;
+
+        private Segment(final int kind, final boolean descendants, final String[] keys, final int[] indexes, final Filter filter) {
+            this.kind = kind;
+            this.descendants = descendants;
+            this.keys = keys;
+            this.indexes = indexes;
+            this.filter = filter;
+        }
+
+        private void select(final List<Token> tokens, final CharSource source, final int index, final Matches matches) {
+            final int type = tokens.get(index).type;
+            switch (kind) {
+                case KEYS:
+                    if (type == TokenTypes.OBJECT_TOKEN) {
+                        for (String key : keys) {
+                            final int value = value(tokens, source, index, key);
+                            if (value >= 0) {
+                                matches.add(value);
+                            }
+                        }
+                    }
+                    break;
+                case WILDCARD:
+                    if (type == TokenTypes.OBJECT_TOKEN) {
+                        for (int attribute = TokenValues.firstAttribute(tokens, index, null); attribute >= 0;
+                             attribute = TokenValues.nextAttribute(tokens, index, attribute)) {
+                            matches.add(attribute + 3);
+                        }
+                    } else if (type == TokenTypes.ARRAY_TOKEN) {
+                        for (int element = TokenValues.firstElement(tokens, index, null); element >= 0;
+                             element = TokenValues.nextElement(tokens, index, element)) {
+                            matches.add(element);
+                        }
+                    }
+                    break;
+                case INDEXES:
+                    if (type == TokenTypes.ARRAY_TOKEN) {
+                        final Matches elements = elements(tokens, index);
+                        for (int item : indexes) {
+                            final int position = item < 0 ? elements.size + item : item;
+                            if (position >= 0 && position < elements.size) {
+                                matches.add(elements.values[position]);
+                            }
+                        }
+                    }
+                    break;
+                case SLICE:
+                    if (type == TokenTypes.ARRAY_TOKEN) {
+                        final Matches elements = elements(tokens, index);
+                        final int start = bound(indexes[0], 0, elements.size);
+                        final int end = bound(indexes[1], elements.size, elements.size);
+                        for (int position = start; position < end; position += indexes[2]) {
+                            matches.add(elements.values[position]);
+                        }
+                    }
+                    break;
+                default:
+                    if (type == TokenTypes.ARRAY_TOKEN) {
+                        for (int element = TokenValues.firstElement(tokens, index, null); element >= 0;
+                             element = TokenValues.nextElement(tokens, index, element)) {
+                            if (filter.test(tokens, source, element)) {
+                                matches.add(element);
+                            }
+                        }
+                    } else if (type == TokenTypes.OBJECT_TOKEN && filter.test(tokens, source, index)) {
+                        matches.add(index);
+                    }
+            }
+        }
+
+        /**
+         * Resolves a single key or index step, used by filters.
+         *
+         * @return the token index of the value or -1 if there is none
+         */
+        private int child(final List<Token> tokens, final CharSource source, final int index) {
+            final int type = tokens.get(index).type;
+            if (kind == KEYS) {
+                return type == TokenTypes.OBJECT_TOKEN ? value(tokens, source, index, keys[0]) : -1;
+            }
+            if (type != TokenTypes.ARRAY_TOKEN) {
+                return -1;
+            }
+            final Matches elements = elements(tokens, index);
+            final int position = indexes[0] < 0 ? elements.size + indexes[0] : indexes[0];
+            return position >= 0 && position < elements.size ? elements.values[position] : -1;
+        }
+
+        private static int value(final List<Token> tokens, final CharSource source, final int index, final String key) {
+            for (int attribute = TokenValues.firstAttribute(tokens, index, null); attribute >= 0;
+                 attribute = TokenValues.nextAttribute(tokens, index, attribute)) {
+                if (CompiledPath.keyEquals(tokens.get(attribute + 1), source, key)) {
+                    return attribute + 3;
+                }
+            }
+            return -1;
+        }
+
+        private static Matches elements(final List<Token> tokens, final int index) {
+            final Matches elements = new Matches();
+            for (int element = TokenValues.firstElement(tokens, index, null); element >= 0;
+                 element = TokenValues.nextElement(tokens, index, element)) {
+                elements.add(element);
+            }
+            return elements;
+        }
+
+        private static int bound(final int value, final int missing, final int size) {
+            if (value == NO_BOUND) {
+                return missing;
+            }
+            return value < 0 ? Math.max(0, size + value) : Math.min(value, size);
+        }
+    }
+
+    /**
+     * A `[?(@.field op value)]` filter.
+     */
+    private static final class Filter {
+        private final Segment[] field;
+        private final int op;
+        private final int literalType;
+        private final String string;
+        private final double number;
+
+        private Filter(final Segment[] field, final int op, final int literalType, final String string, final double number) {
+            this.field = field;
+            this.op = op;
+            this.literalType = literalType;
+            this.string = string;
+            this.number = number;
+        }
+
+        private boolean test(final List<Token> tokens, final CharSource source, final int index) {
+            int value = index;
+            for (int step = 0; step < field.length && value >= 0; step++) {
+                value = field[step].child(tokens, source, value);
+            }
+            if (value < 0) {
+                return false;
+            }
+            if (op == EXISTS) {
+                return true;
+            }
+            final Token token = tokens.get(value);
+            final int type = token.type == TokenTypes.FLOAT_TOKEN ? TokenTypes.INT_TOKEN : token.type;
+            if (type != literalType) {
+                return op == NE;
+            }
+            final int comparison;
+            switch (literalType) {
+                case TokenTypes.INT_TOKEN:
+                    comparison = Double.compare(source.getDouble(token.startIndex, token.endIndex), number);
+                    break;
+                case TokenTypes.STRING_TOKEN:
+                    comparison = compareChars(source, token, string);
+                    break;
+                case TokenTypes.BOOLEAN_TOKEN:
+                    final boolean equal = (source.getChartAt(token.startIndex) == 't') == string.equals("true");
+                    return op == EQ ? equal : op == NE && !equal;
+                default:
+                    return op == EQ;
+            }
+            switch (op) {
+                case EQ:
+                    return comparison == 0;
+                case NE:
+                    return comparison != 0;
+                case LT:
+                    return comparison < 0;
+                case LE:
+                    return comparison <= 0;
+                case GT:
+                    return comparison > 0;
+                default:
+                    return comparison >= 0;
+            }
+        }
+
+        private static int compareChars(final CharSource source, final Token token, final String string) {
+            final int length = token.endIndex - token.startIndex;
+            final int common = Math.min(length, string.length());
+            for (int i = 0; i < common; i++) {
+                final int difference = source.getChartAt(token.startIndex + i) - string.charAt(i);
+                if (difference != 0) {
+                    return difference;
+                }
+            }
+            return length - string.length();
+        }
+    }
+
+    /**
+     * Compiles an expression string into segments.
+     */
+    private static final class Compiler {
+        private final String expression;
+        private int position;
+
+        private Compiler(final String expression) {
+            this.expression = expression;
+        }
+
+        private PathExpression compile() {
+            final List<Segment> segments = new ArrayList<>();
+            if (peek() == '$') {
+                position++;
+            } else if (position < expression.length() && peek() != '.' && peek() != '[') {
+                segments.add(new Segment(KEYS, false, new String[]{name()}, null, null));
+            }
+            while (position < expression.length()) {
+                final char ch = expression.charAt(position);
+                if (ch == '.') {
+                    position++;
+                    boolean descendants = false;
+                    if (peek() == '.') {
+                        position++;
+                        descendants = true;
+                        if (peek() == '[') {
+                            segments.add(bracket(true));
+                            continue;
+                        }
+                    }
+                    if (peek() == '*') {
+                        position++;
+                        segments.add(new Segment(WILDCARD, descendants, null, null, null));
+                    } else {
+                        segments.add(new Segment(KEYS, descendants, new String[]{name()}, null, null));
+                    }
+                } else if (ch == '[') {
+                    segments.add(bracket(false));
+                } else {
+                    throw error("Expected '.' or '['");
+                }
+            }
+            return new PathExpression(expression, segments.toArray(new Segment[0]));
+        }
+
+        private Segment bracket(final boolean descendants) {
+            expect('[');
+            skipSpaces();
+            final Segment segment;
+            final char ch = peek();
+            if (ch == '*') {
+                position++;
+                segment = new Segment(WILDCARD, descendants, null, null, null);
+            } else if (ch == '\'' || ch == '"') {
+                final List<String> keys = new ArrayList<>();
+                do {
+                    skipSpaces();
+                    keys.add(quoted());
+                    skipSpaces();
+                } while (accept(','));
+                segment = new Segment(KEYS, descendants, keys.toArray(new String[0]), null, null);
+            } else if (ch == '?') {
+                position++;
+                expect('(');
+                segment = new Segment(FILTER, descendants, null, null, filter());
+                expect(')');
+            } else {
+                final int first = peek() == ':' ? NO_BOUND : integer();
+                skipSpaces();
+                if (accept(':')) {
+                    skipSpaces();
+                    final int end = peek() == ':' || peek() == ']' ? NO_BOUND : integer();
+                    skipSpaces();
+                    int step = 1;
+                    if (accept(':')) {
+                        skipSpaces();
+                        step = peek() == ']' ? 1 : integer();
+                        if (step <= 0) {
+                            throw error("Slice step must be positive");
+                        }
+                    }
+                    segment = new Segment(SLICE, descendants, null, new int[]{first, end, step}, null);
+                } else {
+                    int[] indexes = {first};
+                    while (accept(',')) {
+                        skipSpaces();
+                        indexes = Arrays.copyOf(indexes, indexes.length + 1);
+                        indexes[indexes.length - 1] = integer();
+                        skipSpaces();
+                    }
+                    segment = new Segment(INDEXES, descendants, null, indexes, null);
+                }
+            }
+            skipSpaces();
+            expect(']');
+            return segment;
+        }
+
+        private Filter filter() {
+            skipSpaces();
+            expect('@');
+            final List<Segment> field = new ArrayList<>();
+            while (peek() == '.' || peek() == '[') {
+                if (accept('.')) {
+                    field.add(new Segment(KEYS, false, new String[]{name()}, null, null));
+                } else {
+                    position++;
+                    skipSpaces();
+                    field.add(peek() == '\'' || peek() == '"' ? new Segment(KEYS, false, new String[]{quoted()}, null, null)
+                            : new Segment(INDEXES, false, null, new int[]{integer()}, null));
+                    skipSpaces();
+                    expect(']');
+                }
+            }
+            final Segment[] fieldPath = field.toArray(new Segment[0]);
+            skipSpaces();
+            final int op;
+            if (accept('=')) {
+                expect('=');
+                op = EQ;
+            } else if (accept('!')) {
+                expect('=');
+                op = NE;
+            } else if (accept('<')) {
+                op = accept('=') ? LE : LT;
+            } else if (accept('>')) {
+                op = accept('=') ? GE : GT;
+            } else {
+                return new Filter(fieldPath, EXISTS, 0, null, 0);
+            }
+            skipSpaces();
+            final char ch = peek();
+            final Filter filter;
+            if (ch == '\'' || ch == '"') {
+                filter = new Filter(fieldPath, op, TokenTypes.STRING_TOKEN, quoted(), 0);
+            } else if (expression.startsWith("true", position) || expression.startsWith("false", position)) {
+                final String literal = name();
+                filter = new Filter(fieldPath, op, TokenTypes.BOOLEAN_TOKEN, literal, 0);
+            } else if (expression.startsWith("null", position)) {
+                position += 4;
+                filter = new Filter(fieldPath, op, TokenTypes.NULL_TOKEN, null, 0);
+            } else {
+                final int start2 = position;
+                while (position < expression.length() && "+-.eE0123456789".indexOf(expression.charAt(position)) >= 0) {
+                    position++;
+                }
+                try {
+                    filter = new Filter(fieldPath, op, TokenTypes.INT_TOKEN, null,
+                            Double.parseDouble(expression.substring(start2, position)));
+                } catch (NumberFormatException ex) {
+                    position = start2;
+                    throw error("Expected a number, a quoted string, true, false or null");
+                }
+            }
+            skipSpaces();
+            return filter;
+        }
+
+        private String name() {
+            final int start = position;
+            while (position < expression.length() && ".[]()=!<> ".indexOf(expression.charAt(position)) < 0) {
+                position++;
+            }
+            if (start == position) {
+                throw error("Expected a key");
+            }
+            return expression.substring(start, position);
+        }
+
+        private String quoted() {
+            final char quote = peek();
+            if (quote != '\'' && quote != '"') {
+                throw error("Expected a quoted key");
+            }
+            final int end = expression.indexOf(quote, position + 1);
+            if (end < 0) {
+                throw error("Missing closing quote");
+            }
+            final String key = expression.substring(position + 1, end);
+            position = end + 1;
+            return key;
+        }
+
+        private int integer() {
+            final int start = position;
+            if (peek() == '-') {
+                position++;
+            }
+            while (position < expression.length() && Character.isDigit(expression.charAt(position))) {
+                position++;
+            }
+            try {
+                return Integer.parseInt(expression.substring(start, position));
+            } catch (NumberFormatException ex) {
+                position = start;
+                throw error("Expected an index");
+            }
+        }
+
+        private char peek() {
+            return position < expression.length() ? expression.charAt(position) : 0;
+        }
+
+        private boolean accept(final char ch) {
+            if (peek() == ch) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(final char ch) {
+            if (!accept(ch)) {
+                throw error("Expected '" + ch + "'");
+            }
+        }
+
+        private void skipSpaces() {
+            while (peek() == ' ') {
+                position++;
+            }
+        }
+
+        private UnexpectedCharacterException error(final String message) {
+            return new UnexpectedCharacterException("Compiling path expression", message,
+                    Sources.stringSource(expression), peek(), Math.min(position, Math.max(0, expression.length() - 1)));
+        }
+    }
+}
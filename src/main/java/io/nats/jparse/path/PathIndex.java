@@ -0,0 +1,279 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.path;
+
+import io.nats.jparse.Path;
+import io.nats.jparse.bind.TokenValues;
+import io.nats.jparse.node.CollectionNode;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An index from every path of a document to the token index of its value, for documents that are parsed once and
+ * queried many times, such as feature flags or routing tables.
+ * <p>
+ * The index is built in one walk of the token tape. Each value gets a slot in an open addressing table of primitive
+ * arrays keyed by a 64-bit hash of its full path, so a lookup is one hash probe instead of a walk of every step. A
+ * probe hit is verified against the document (the key chars and array positions up the parent chain), so hash
+ * collisions never return a wrong value. Keys are compared with the raw key chars of the source, like
+ * `Path.find`; for duplicate keys the first one wins.
+ * <p>
+ * The index costs `memoryBytes()` on top of the document: 24 bytes per slot and between two and four slots per value,
+ * so 48 to 96 bytes per value. A `PathIndex` is immutable once built and can be shared by threads.
+ * <pre>
+ * PathIndex index = PathIndex.of(Json.toRootNode(flags));
+ * Node enabled = index.find("features.search.enabled");
+ * </pre>
+ */
+public final class PathIndex {
+
+    static final long ROOT_HASH = 0x6A09E667F3BCC909L;
+
+    private static final int EMPTY = -1;
+    private static final int KEY_POSITION = -1;
+
+    private final Node rootNode;
+    private final List<Token> tokens;
+    private final CharSource source;
+    private final int mask;
+    private final long[] hashes;
+    private final int[] valueTokens;
+    private final int[] endTokens;
+    private final int[] parents;
+    private final int[] positions;
+    private int size;
+
+    private PathIndex(final Node rootNode, final int capacity) {
+        this.rootNode = rootNode;
+        this.tokens = rootNode.tokens();
+        this.source = rootNode.charSource();
+        this.mask = capacity - 1;
+        this.hashes = new long[capacity];
+        this.valueTokens = new int[capacity];
+        this.endTokens = new int[capacity];
+        this.parents = new int[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(valueTokens, EMPTY);
+    }
+
+    /**
+     * Builds the index of a document.
+     *
+     * @param rootNode the document
+     * @return the index of every path of the document
+     */
+    public static PathIndex of(final Node rootNode) {
+        final List<Token> tokens = rootNode.tokens();
+        int values = tokens.size();
+        for (Token token : tokens) {
+            if (token.type == TokenTypes.ATTRIBUTE_KEY_TOKEN) {
+                /* The key token, its string and the attribute value token are not values. */
+                values -= 3;
+            }
+        }
+        /* The smallest power of two that keeps the table at most half full. */
+        final int capacity = Integer.highestOneBit(Math.max(1, 2 * values - 1)) << 1;
+        final PathIndex index = new PathIndex(rootNode, capacity);
+        index.add(0, ROOT_HASH, EMPTY, KEY_POSITION);
+        return index;
+    }
+
+    /**
+     * Finds the value at a path.
+     *
+     * @param path the compiled path
+     * @return the node at the path, the root node for an empty path, or null if the path does not exist
+     */
+    public Node find(final CompiledPath path) {
+        final int slot = slot(path);
+        if (slot < 0) {
+            return null;
+        }
+        final int tokenIndex = valueTokens[slot];
+        if (tokenIndex == 0) {
+            return rootNode;
+        }
+        return ((CollectionNode) rootNode).valueNode(tokenIndex, endTokens[slot]);
+    }
+
+    /**
+     * Finds the value at a path, compiling the path with `Path.compile`.
+     *
+     * @param path the path string
+     * @return the node at the path, the root node for an empty path, or null if the path does not exist
+     */
+    public Node find(final String path) {
+        return find(Path.compile(path));
+    }
+
+    /**
+     * Checks whether a path exists, without creating any node.
+     *
+     * @param path the compiled path
+     * @return `true` if there is a value at the path
+     */
+    public boolean exists(final CompiledPath path) {
+        return slot(path) >= 0;
+    }
+
+    /**
+     * Returns the token index of the value at a path, the same index `CompiledPath.locate` returns.
+     *
+     * @param path the compiled path
+     * @return the index of the first token of the value, -1 if the path does not exist
+     */
+    public int tokenIndex(final CompiledPath path) {
+        final int slot = slot(path);
+        return slot < 0 ? -1 : valueTokens[slot];
+    }
+
+    /**
+     * Returns the number of indexed paths, including the empty path of the root.
+     *
+     * @return the number of values of the document
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns an estimate of the memory the index adds to the document: the five slot arrays and their headers.
+     *
+     * @return the size of the index in bytes
+     */
+    public long memoryBytes() {
+        return 5 * 16L + (long) hashes.length * (8 + 4 * 4);
+    }
+
+    private int slot(final CompiledPath path) {
+        final long hash = path.indexHash();
+        for (int slot = (int) hash & mask; valueTokens[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && matches(slot, path)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matches(int slot, final CompiledPath path) {
+        for (int step = path.size() - 1; step >= 0; step--) {
+            if (parents[slot] == EMPTY) {
+                return false;
+            }
+            if (path.isIndex(step)) {
+                if (positions[slot] != path.index(step)) {
+                    return false;
+                }
+            } else if (positions[slot] != KEY_POSITION || !keyMatches(valueTokens[slot], path.key(step))) {
+                return false;
+            }
+            slot = parents[slot];
+        }
+        return parents[slot] == EMPTY;
+    }
+
+    private boolean keyMatches(final int valueToken, final CharSequence key) {
+        /* The value follows the attribute key token, the key string and the attribute value token. */
+        return CompiledPath.keyEquals(tokens.get(valueToken - 2), source, key);
+    }
+
+    private boolean sameStep(final int slot, final int parent, final int position, final int valueToken) {
+        if (parents[slot] != parent || positions[slot] != position) {
+            return false;
+        }
+        if (position != KEY_POSITION) {
+            return true;
+        }
+        final Token keyToken = tokens.get(valueToken - 2);
+        final Token otherKey = tokens.get(valueTokens[slot] - 2);
+        final int length = keyToken.endIndex - keyToken.startIndex;
+        if (otherKey.endIndex - otherKey.startIndex != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (source.getChartAt(keyToken.startIndex + i) != source.getChartAt(otherKey.startIndex + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a value and everything nested in it in one pass over the tape.
+     *
+     * @return the index of the token after the value
+     */
+    private int add(final int valueToken, final long hash, final int parent, final int position) {
+        int slot = (int) hash & mask;
+        for (; valueTokens[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && sameStep(slot, parent, position, valueToken)) {
+                /* A duplicate key, the first one wins like it does for Path.find. */
+                return TokenValues.skip(tokens, valueToken);
+            }
+        }
+        hashes[slot] = hash;
+        valueTokens[slot] = valueToken;
+        parents[slot] = parent;
+        positions[slot] = position;
+        size++;
+
+        final Token token = tokens.get(valueToken);
+        final int size = tokens.size();
+        int next = valueToken + 1;
+        if (token.type == TokenTypes.OBJECT_TOKEN) {
+            while (next < size && tokens.get(next).startIndex < token.endIndex) {
+                final Token key = tokens.get(next + 1);
+                next = add(next + 3, keyHash(hash, source, key.startIndex, key.endIndex), slot, KEY_POSITION);
+            }
+        } else if (token.type == TokenTypes.ARRAY_TOKEN) {
+            for (int item = 0; next < size && tokens.get(next).startIndex < token.endIndex; item++) {
+                next = add(next, indexHash(hash, item), slot, item);
+            }
+        }
+        endTokens[slot] = next;
+        return next;
+    }
+
+    static long keyHash(final long hash, final CharSequence key) {
+        long keyHash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            keyHash = (keyHash ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(hash, keyHash);
+    }
+
+    private static long keyHash(final long hash, final CharSource source, final int startIndex, final int endIndex) {
+        long keyHash = 0xCBF29CE484222325L;
+        for (int i = startIndex; i < endIndex; i++) {
+            keyHash = (keyHash ^ source.getChartAt(i)) * 0x100000001B3L;
+        }
+        return mix(hash, keyHash);
+    }
+
+    static long indexHash(final long hash, final int index) {
+        return mix(hash, ~(long) index);
+    }
+
+    private static long mix(final long hash, final long step) {
+        long h = (hash ^ step) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+}
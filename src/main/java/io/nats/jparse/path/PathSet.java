@@ -0,0 +1,230 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.path;
+
+import io.nats.jparse.Path;
+import io.nats.jparse.bind.TokenValues;
+import io.nats.jparse.node.CollectionNode;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A set of compiled paths that are all looked up in a single walk of a document.
+ * <p>
+ * The paths are kept in a trie, so a prefix shared by several paths, like `glossary.GlossDiv`, is resolved once.
+ * The walk follows the token tape of the document: each object on a path is scanned once for all the keys the
+ * paths need below it, values that are not on any path are skipped without creating nodes, and the scan of an
+ * object or array stops as soon as every path through it has been found. The result is an array indexed by path id,
+ * the position of the path in the set.
+ * <pre>
+ * PathSet paths = PathSet.of("id", "data.glossary.title", "data.glossary.GlossDiv.title");
+ * Node[] values = paths.find(root);
+ * </pre>
+ * A path set is immutable and can be shared by threads.
+ *
+ * @see Path#find(CompiledPath, Node)
+ */
+public final class PathSet {
+
+    private final CompiledPath[] paths;
+    private final Branch root = new Branch();
+
+    private PathSet(final CompiledPath[] paths) {
+        this.paths = paths;
+        for (int id = 0; id < paths.length; id++) {
+            final CompiledPath path = paths[id];
+            Branch branch = root;
+            for (int step = 0; step < path.size(); step++) {
+                branch = path.isIndex(step) ? branch.indexChild(path.index(step)) : branch.keyChild(path.key(step));
+            }
+            branch.ids = Arrays.copyOf(branch.ids, branch.ids.length + 1);
+            branch.ids[branch.ids.length - 1] = id;
+        }
+    }
+
+    /**
+     * Creates a path set, see `Path.toPath` for the syntax.
+     *
+     * @param paths the path strings, their positions are the path ids
+     * @return the path set
+     */
+    public static PathSet of(final String... paths) {
+        final CompiledPath[] compiled = new CompiledPath[paths.length];
+        for (int id = 0; id < paths.length; id++) {
+            compiled[id] = CompiledPath.compile(paths[id]);
+        }
+        return new PathSet(compiled);
+    }
+
+    /**
+     * Creates a path set.
+     *
+     * @param paths the compiled paths, their positions are the path ids
+     * @return the path set
+     */
+    public static PathSet of(final List<CompiledPath> paths) {
+        return new PathSet(paths.toArray(new CompiledPath[0]));
+    }
+
+    /**
+     * Returns the number of paths.
+     *
+     * @return the number of paths
+     */
+    public int size() {
+        return paths.length;
+    }
+
+    /**
+     * Returns a path by id.
+     *
+     * @param id the path id
+     * @return the compiled path
+     */
+    public CompiledPath path(final int id) {
+        return paths[id];
+    }
+
+    /**
+     * Finds the node at every path.
+     *
+     * @param rootNode the document
+     * @return the node at each path indexed by path id, null where a path does not exist
+     */
+    public Node[] find(final Node rootNode) {
+        final Node[] results = new Node[paths.length];
+        find(rootNode, results);
+        return results;
+    }
+
+    /**
+     * Finds the node at every path into a caller owned array.
+     *
+     * @param rootNode the document
+     * @param results  the array receiving the node at each path indexed by path id, null where a path does not exist
+     * @return the number of paths found
+     */
+    public int find(final Node rootNode, final Node[] results) {
+        Arrays.fill(results, 0, paths.length, null);
+        return walk(root, 0, rootNode, rootNode.tokens(), rootNode.charSource(), results);
+    }
+
+    private int walk(final Branch branch, final int index, final Node rootNode, final List<Token> tokens,
+                     final CharSource source, final Node[] results) {
+        int found = 0;
+        final Token token = tokens.get(index);
+        if (branch.ids.length > 0) {
+            /* The value is created once for all the paths ending here, with the key encoding and shapes of the root. */
+            final Node node = index == 0 ? rootNode
+                    : ((CollectionNode) rootNode).valueNode(index, TokenValues.skip(tokens, index));
+            for (int id : branch.ids) {
+                results[id] = node;
+                found++;
+            }
+        }
+
+        if (token.type == TokenTypes.OBJECT_TOKEN && branch.keys.length > 0) {
+            final boolean[] seen = new boolean[branch.keys.length];
+            int remaining = branch.keys.length;
+            for (int attribute = TokenValues.firstAttribute(tokens, index, null); attribute >= 0 && remaining > 0;
+                 attribute = TokenValues.nextAttribute(tokens, index, attribute)) {
+                final int child = branch.lookupKey(tokens.get(attribute + 1), source);
+                if (child >= 0 && !seen[child]) {
+                    seen[child] = true;
+                    remaining--;
+                    found += walk(branch.keyChildren[child], attribute + 3, rootNode, tokens, source, results);
+                }
+            }
+        } else if (token.type == TokenTypes.ARRAY_TOKEN && branch.indexes.length > 0) {
+            int remaining = branch.indexes.length;
+            int position = 0;
+            for (int element = TokenValues.firstElement(tokens, index, null); element >= 0 && remaining > 0;
+                 element = TokenValues.nextElement(tokens, index, element), position++) {
+                final int child = branch.lookupIndex(position);
+                if (child >= 0) {
+                    remaining--;
+                    found += walk(branch.indexChildren[child], element, rootNode, tokens, source, results);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * A node of the trie: the ids of the paths that end here and the keys and indexes that lead further down.
+     */
+    private static final class Branch {
+
+        private int[] ids = new int[0];
+        private String[] keys = new String[0];
+        private Branch[] keyChildren = new Branch[0];
+        private int[] indexes = new int[0];
+        private Branch[] indexChildren = new Branch[0];
+
+        private Branch keyChild(final String key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) {
+                    return keyChildren[i];
+                }
+            }
+            final Branch child = new Branch();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            keyChildren = Arrays.copyOf(keyChildren, keyChildren.length + 1);
+            keys[keys.length - 1] = key;
+            keyChildren[keyChildren.length - 1] = child;
+            return child;
+        }
+
+        private Branch indexChild(final int index) {
+            for (int i = 0; i < indexes.length; i++) {
+                if (indexes[i] == index) {
+                    return indexChildren[i];
+                }
+            }
+            final Branch child = new Branch();
+            indexes = Arrays.copyOf(indexes, indexes.length + 1);
+            indexChildren = Arrays.copyOf(indexChildren, indexChildren.length + 1);
+            indexes[indexes.length - 1] = index;
+            indexChildren[indexChildren.length - 1] = child;
+            return child;
+        }
+
+        private int lookupKey(final Token keyToken, final CharSource source) {
+            final String[] keys = this.keys;
+            for (int i = 0; i < keys.length; i++) {
+                if (CompiledPath.keyEquals(keyToken, source, keys[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int lookupIndex(final int index) {
+            final int[] indexes = this.indexes;
+            for (int i = 0; i < indexes.length; i++) {
+                if (indexes[i] == index) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
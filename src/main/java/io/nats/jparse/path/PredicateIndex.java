@@ -0,0 +1,438 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.path;
+
+import io.nats.jparse.Path;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Matches a document against many predicates at once, for routing a message to the subscribers whose filters it
+ * satisfies.
+ * <p>
+ * A predicate is a conjunction of clauses on paths, each clause either `path == literal` or
+ * `path in [literal, ...]`, for example `type == 'order.created' &amp;&amp; payload.region in ['eu', 'us']`.
+ * Literals are quoted strings, numbers, `true`, `false` and `null`. Paths use the `Path.compile` syntax.
+ * <p>
+ * All predicates are compiled into one structure grouped by path: each distinct path has a hash table from value
+ * to the predicates that accept it. A document is matched by locating each distinct path once on its token tape
+ * and counting, per predicate, how many of its clauses were satisfied; the cost grows with the number of distinct
+ * paths and of satisfied clauses, not with the number of predicates. Values are compared with the raw chars of the
+ * source, so strings are not unescaped and numbers must be written the same way (`1` does not match `1.0`).
+ * <pre>
+ * PredicateIndex.Builder builder = PredicateIndex.builder();
+ * int orders = builder.add("type == 'order.created' &amp;&amp; payload.region in ['eu', 'us']");
+ * PredicateIndex index = builder.build();
+ * PredicateIndex.Matcher matcher = index.matcher();
+ * int count = matcher.match(Json.toRootNode(message));
+ * </pre>
+ * A `PredicateIndex` is immutable and can be shared by threads; a `Matcher` holds the per match state and is used
+ * by one thread at a time.
+ */
+public final class PredicateIndex {
+
+    private static final byte STRING = 0;
+    private static final byte NUMBER = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte NULL = 3;
+
+    private final PathValues[] paths;
+    private final int[] clauseCounts;
+
+    private PredicateIndex(final PathValues[] paths, final int[] clauseCounts) {
+        this.paths = paths;
+        this.clauseCounts = clauseCounts;
+    }
+
+    /**
+     * Creates a builder to register predicates with.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the number of registered predicates.
+     *
+     * @return the number of predicates, the ids are `0` to `size() - 1`
+     */
+    public int size() {
+        return clauseCounts.length;
+    }
+
+    /**
+     * Returns the number of distinct paths a match looks up.
+     *
+     * @return the number of distinct paths of all predicates
+     */
+    public int pathCount() {
+        return paths.length;
+    }
+
+    /**
+     * Creates a matcher, one per thread.
+     *
+     * @return a new matcher for this index
+     */
+    public Matcher matcher() {
+        return new Matcher(this);
+    }
+
+    /**
+     * Registers predicates and compiles them into a `PredicateIndex`.
+     */
+    public static final class Builder {
+
+        private final Map<String, Map<String, List<Integer>>> pathValues = new LinkedHashMap<>();
+        private final List<Integer> clauseCounts = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Registers a predicate.
+         *
+         * @param predicate the predicate, see `PredicateIndex`
+         * @return the id of the predicate, reported by `Matcher.matches` when it matches
+         * @throws UnexpectedCharacterException if the predicate is not valid
+         */
+        public int add(final String predicate) {
+            final int id = clauseCounts.size();
+            final Map<String, Set<String>> clauses = new PredicateCompiler(predicate).compile();
+            int clauseCount = clauses.size();
+            for (Map.Entry<String, Set<String>> clause : clauses.entrySet()) {
+                if (clause.getValue().isEmpty()) {
+                    /* Two clauses on one path with no common value, the predicate can never match. */
+                    clauseCount = Integer.MAX_VALUE;
+                }
+                final Map<String, List<Integer>> values = pathValues.computeIfAbsent(clause.getKey(), k -> new LinkedHashMap<>());
+                for (String value : clause.getValue()) {
+                    values.computeIfAbsent(value, k -> new ArrayList<>()).add(id);
+                }
+            }
+            clauseCounts.add(clauseCount);
+            return id;
+        }
+
+        /**
+         * Compiles the registered predicates.
+         *
+         * @return the predicate index
+         */
+        public PredicateIndex build() {
+            final PathValues[] paths = new PathValues[pathValues.size()];
+            int i = 0;
+            for (Map.Entry<String, Map<String, List<Integer>>> entry : pathValues.entrySet()) {
+                paths[i++] = new PathValues(Path.compile(entry.getKey()), entry.getValue());
+            }
+            final int[] counts = new int[clauseCounts.size()];
+            for (int id = 0; id < counts.length; id++) {
+                counts[id] = clauseCounts.get(id);
+            }
+            return new PredicateIndex(paths, counts);
+        }
+    }
+
+    /**
+     * Matches documents against the predicates of an index, reusing its state between matches.
+     */
+    public static final class Matcher {
+
+        private final PredicateIndex index;
+        private final int[] stamps;
+        private final int[] counts;
+        private int[] matches = new int[16];
+        private int epoch;
+
+        private Matcher(final PredicateIndex index) {
+            this.index = index;
+            this.stamps = new int[index.clauseCounts.length];
+            this.counts = new int[index.clauseCounts.length];
+        }
+
+        /**
+         * Finds the predicates a document matches.
+         *
+         * @param rootNode the document
+         * @return the number of matching predicates, their ids are the first entries of `matches()`
+         */
+        public int match(final Node rootNode) {
+            if (++epoch == 0) {
+                Arrays.fill(stamps, 0);
+                epoch = 1;
+            }
+            final List<Token> tokens = rootNode.tokens();
+            final CharSource source = rootNode.charSource();
+            final int[] clauseCounts = index.clauseCounts;
+            int size = 0;
+            for (PathValues path : index.paths) {
+                final int tokenIndex = path.path.locate(tokens, source, 0);
+                if (tokenIndex < 0) {
+                    continue;
+                }
+                final int[] owners = path.owners(tokens.get(tokenIndex), source);
+                if (owners == null) {
+                    continue;
+                }
+                for (int id : owners) {
+                    final int count;
+                    if (stamps[id] != epoch) {
+                        stamps[id] = epoch;
+                        count = counts[id] = 1;
+                    } else {
+                        count = ++counts[id];
+                    }
+                    if (count == clauseCounts[id]) {
+                        if (size == matches.length) {
+                            matches = Arrays.copyOf(matches, size * 2);
+                        }
+                        matches[size++] = id;
+                    }
+                }
+            }
+            return size;
+        }
+
+        /**
+         * Returns the ids of the predicates found by the last `match`, in no particular order.
+         *
+         * @return an array whose first `match` result entries are the matching ids, reused by the next match
+         */
+        public int[] matches() {
+            return matches;
+        }
+    }
+
+    /**
+     * The values accepted at one path, in an open addressing table keyed by the hash of the value chars.
+     */
+    private static final class PathValues {
+        private final CompiledPath path;
+        private final int mask;
+        private final byte[] kinds;
+        private final String[] texts;
+        private final int[] hashes;
+        private final int[][] owners;
+
+        private PathValues(final CompiledPath path, final Map<String, List<Integer>> values) {
+            this.path = path;
+            final int capacity = Integer.highestOneBit(Math.max(1, 2 * values.size() - 1)) << 1;
+            this.mask = capacity - 1;
+            this.kinds = new byte[capacity];
+            this.texts = new String[capacity];
+            this.hashes = new int[capacity];
+            this.owners = new int[capacity][];
+            for (Map.Entry<String, List<Integer>> entry : values.entrySet()) {
+                final String text = entry.getKey().substring(1);
+                final int hash = text.hashCode();
+                int slot = hash & mask;
+                while (texts[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                kinds[slot] = (byte) (entry.getKey().charAt(0) - '0');
+                texts[slot] = text;
+                hashes[slot] = hash;
+                final List<Integer> ids = entry.getValue();
+                owners[slot] = new int[ids.size()];
+                for (int i = 0; i < ids.size(); i++) {
+                    owners[slot][i] = ids.get(i);
+                }
+            }
+        }
+
+        private int[] owners(final Token token, final CharSource source) {
+            final byte kind;
+            switch (token.type) {
+                case TokenTypes.STRING_TOKEN:
+                    kind = STRING;
+                    break;
+                case TokenTypes.INT_TOKEN:
+                case TokenTypes.FLOAT_TOKEN:
+                    kind = NUMBER;
+                    break;
+                case TokenTypes.BOOLEAN_TOKEN:
+                    kind = BOOLEAN;
+                    break;
+                case TokenTypes.NULL_TOKEN:
+                    kind = NULL;
+                    break;
+                default:
+                    return null;
+            }
+            final int start = token.startIndex;
+            final int length = token.endIndex - start;
+            int hash = 0;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + source.getChartAt(start + i);
+            }
+            for (int slot = hash & mask; texts[slot] != null; slot = (slot + 1) & mask) {
+                if (hashes[slot] == hash && kinds[slot] == kind && texts[slot].length() == length
+                        && (length == 0 || source.matchChars(start, token.endIndex, texts[slot]))) {
+                    return owners[slot];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Compiles a predicate string into the accepted values per path, each value prefixed with its kind.
+     */
+    private static final class PredicateCompiler {
+        private final String predicate;
+        private int position;
+
+        private PredicateCompiler(final String predicate) {
+            this.predicate = predicate;
+        }
+
+        private Map<String, Set<String>> compile() {
+            final Map<String, Set<String>> clauses = new LinkedHashMap<>();
+            do {
+                skipSpaces();
+                final String path = path();
+                skipSpaces();
+                final Set<String> values = new LinkedHashSet<>();
+                if (predicate.startsWith("==", position)) {
+                    position += 2;
+                    skipSpaces();
+                    values.add(literal());
+                } else if (predicate.startsWith("in", position)) {
+                    position += 2;
+                    skipSpaces();
+                    expect('[');
+                    do {
+                        skipSpaces();
+                        values.add(literal());
+                        skipSpaces();
+                    } while (accept(','));
+                    expect(']');
+                } else {
+                    throw error("Expected '==' or 'in'");
+                }
+                final Set<String> existing = clauses.get(path);
+                if (existing == null) {
+                    clauses.put(path, values);
+                } else {
+                    existing.retainAll(values);
+                }
+                skipSpaces();
+            } while (acceptAnd());
+            if (position < predicate.length()) {
+                throw error("Expected '&&'");
+            }
+            return clauses;
+        }
+
+        private String path() {
+            final int start = position;
+            while (position < predicate.length() && " =".indexOf(predicate.charAt(position)) < 0) {
+                position++;
+            }
+            if (start == position) {
+                throw error("Expected a path");
+            }
+            final String path = predicate.substring(start, position);
+            /* Reports a bad path here rather than when the index is built. */
+            Path.compile(path);
+            return path;
+        }
+
+        private String literal() {
+            final char ch = peek();
+            if (ch == '\'' || ch == '"') {
+                final int end = predicate.indexOf(ch, position + 1);
+                if (end < 0) {
+                    throw error("Missing closing quote");
+                }
+                final String text = predicate.substring(position + 1, end);
+                position = end + 1;
+                return (char) ('0' + STRING) + text;
+            }
+            final int start = position;
+            while (position < predicate.length() && " ,]&".indexOf(predicate.charAt(position)) < 0) {
+                position++;
+            }
+            final String text = predicate.substring(start, position);
+            switch (text) {
+                case "true":
+                case "false":
+                    return (char) ('0' + BOOLEAN) + text;
+                case "null":
+                    return (char) ('0' + NULL) + text;
+                default:
+                    try {
+                        Double.parseDouble(text);
+                    } catch (NumberFormatException ex) {
+                        position = start;
+                        throw error("Expected a quoted string, a number, true, false or null");
+                    }
+                    return (char) ('0' + NUMBER) + text;
+            }
+        }
+
+        private boolean acceptAnd() {
+            if (predicate.startsWith("&&", position)) {
+                position += 2;
+                return true;
+            }
+            return false;
+        }
+
+        private char peek() {
+            return position < predicate.length() ? predicate.charAt(position) : 0;
+        }
+
+        private boolean accept(final char ch) {
+            if (peek() == ch) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(final char ch) {
+            if (!accept(ch)) {
+                throw error("Expected '" + ch + "'");
+            }
+        }
+
+        private void skipSpaces() {
+            while (peek() == ' ') {
+                position++;
+            }
+        }
+
+        private UnexpectedCharacterException error(final String message) {
+            return new UnexpectedCharacterException("Compiling predicate", message,
+                    Sources.stringSource(predicate), peek(), Math.min(position, Math.max(0, predicate.length() - 1)));
+        }
+    }
+}
@@ -19,9 +19,10 @@ import io.nats.jparse.node.support.CharArrayUtils;
 import io.nats.jparse.node.support.NumberParseResult;
 import io.nats.jparse.node.support.ParseConstants;
 import io.nats.jparse.source.support.CharArraySegment;
-import io.nats.jparse.source.support.ParseDouble;
-import io.nats.jparse.source.support.ParseFloat;
+import io.nats.jparse.source.support.EiselLemire;
+import io.nats.jparse.source.support.ParseInteger;
 import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.NumberTypes;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -60,6 +61,9 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
     /** The index into the data. */
     private int index;
 
+    /** Whether the last string whose end was found had an escape. */
+    private boolean lastStringHadEscape;
+
 
     /**
      * Construct it
@@ -179,7 +183,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
             }
         }
         this.index = index;
-        return data[index];
+        return index == length ? (char) ETX : data[index];
     }
 
     @Override
@@ -187,6 +191,11 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
         return index;
     }
 
+    @Override
+    public int length() {
+        return data.length;
+    }
+
     @Override
     public char getCurrentChar() {
         return data[index];
@@ -223,6 +232,11 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
         return array;
     }
 
+    @Override
+    public void copyChars(final int startIndex, final int endIndex, final char[] destination, final int offset) {
+        System.arraycopy(data, startIndex, destination, offset, endIndex - startIndex);
+    }
+
     @Override
     public BigDecimal getBigDecimal(int startIndex, int endIndex) {
         return new BigDecimal(data, startIndex, endIndex - startIndex);
@@ -230,12 +244,10 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
 
     @Override
     public BigInteger getBigInteger(int startIndex, int endIndex) {
-        final int len = endIndex - startIndex;
-        if (len > MAX_LONG_STR_LENGTH) {
-            return getBigDecimal(startIndex, endIndex).toBigInteger();
+        if (NumberTypes.isInteger(CharArrayUtils.classifyNumber(data, startIndex, endIndex))) {
+            return ParseInteger.parseBigInteger(data, startIndex, endIndex);
         } else {
-            long value = getLong(startIndex, endIndex);
-            return BigInteger.valueOf(value);
+            return getBigDecimal(startIndex, endIndex).toBigInteger();
         }
     }
 
@@ -253,6 +265,41 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
         }
     }
 
+    @Override
+    public void appendEncodedString(int start, int end, StringBuilder builder) {
+        CharArrayUtils.decodeJsonString(data, start, end, builder);
+    }
+
+    @Override
+    public int decodeEncodedString(int start, int end, char[] destination, int offset) {
+        return CharArrayUtils.decodeJsonString(data, start, end, destination, offset);
+    }
+
+    @Override
+    public boolean matchEncodedChars(int start, int end, CharSequence key) {
+        return CharArrayUtils.equalsDecoded(data, start, end, key);
+    }
+
+    @Override
+    public int compareEncodedChars(int start, int end, CharSequence other) {
+        return CharArrayUtils.compareDecoded(data, start, end, other);
+    }
+
+    @Override
+    public boolean startsWithEncodedChars(int start, int end, CharSequence prefix) {
+        return CharArrayUtils.startsWithDecoded(data, start, end, prefix);
+    }
+
+    @Override
+    public int hashCodeEncodedChars(int start, int end) {
+        return CharArrayUtils.hashCodeDecoded(data, start, end);
+    }
+
+    @Override
+    public boolean lastStringHadEscape() {
+        return lastStringHadEscape;
+    }
+
     @Override
     public String toString() {
         return new String(data);
@@ -261,7 +308,8 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
     @Override
     public NumberParseResult findEndOfNumberFast() {
 
-
+        /* The number starts at the current char, or at the first char when nothing was read yet. */
+        final int startIndex = Math.max(index, 0);
         int i = index + 1;
         char ch = 0;
         final char[] data = this.data;
@@ -281,7 +329,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i, false);
+                    return new NumberParseResult(i, false, CharArrayUtils.classifyInteger(data, startIndex, i));
 
                 case NUM_0:
                 case NUM_1:
@@ -297,7 +345,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
 
                 case DECIMAL_POINT:
                     index = i;
-                    return findEndOfFloatFast();
+                    return findEndOfFloatFast(startIndex);
 
 
                 case EXPONENT_MARKER:
@@ -314,11 +362,11 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
         }
 
         index = i;
-        return new NumberParseResult(i, false);
+        return new NumberParseResult(i, false, CharArrayUtils.classifyInteger(data, startIndex, i));
 
     }
 
-    private NumberParseResult findEndOfFloatFast() {
+    private NumberParseResult findEndOfFloatFast(final int startIndex) {
 
 
         int i = index + 1;
@@ -339,7 +387,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i, true);
+                    return new NumberParseResult(i, true, CharArrayUtils.classifyDecimal(data, startIndex, i));
 
                 case NUM_0:
                 case NUM_1:
@@ -368,7 +416,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
 
 
         index = i;
-        return new NumberParseResult(i, true);
+        return new NumberParseResult(i, true, CharArrayUtils.classifyDecimal(data, startIndex, i));
 
     }
 
@@ -393,7 +441,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i, true);
+                    return new NumberParseResult(i, true, NumberTypes.FULL_FLOAT);
 
                 case MINUS:
                 case PLUS:
@@ -425,7 +473,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
 
 
         index = i;
-        return new NumberParseResult(i, true);
+        return new NumberParseResult(i, true, NumberTypes.FULL_FLOAT);
 
     }
 
@@ -435,15 +483,18 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
         final char[] data = this.data;
         final int length = data.length;
         boolean controlChar = false;
+        boolean escape = false;
         for (; i < length; i++) {
             char ch = data[i];
             switch (ch) {
                 case CONTROL_ESCAPE_TOKEN:
                     controlChar = !controlChar;
+                    escape = true;
                     continue;
                 case STRING_END_TOKEN:
                     if (!controlChar) {
                         index = i + 1;
+                        lastStringHadEscape = escape;
                         return i;
                     }
                     controlChar = false;
@@ -491,14 +542,17 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
         final char[] data = this.data;
         final int length = data.length;
         char ch = 0;
+        boolean escape = false;
         for (; i < length; i++) {
             ch = data[i];
             switch (ch) {
                 case CONTROL_ESCAPE_TOKEN:
                     i = findEndOfStringControlEncode(i + 1);
+                    escape = true;
                     continue;
                 case STRING_END_TOKEN:
                     index = i + 1;
+                    lastStringHadEscape = escape;
                     return i;
                 default:
                     if (ch >= SPACE_WS) {
@@ -577,6 +631,67 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
         return index;
     }
 
+    @Override
+    public int findEndOfValue() {
+        int i = index;
+        final char[] data = this.data;
+        final int length = data.length;
+
+        switch (data[i]) {
+            case STRING_START_TOKEN:
+                findEndOfEncodedStringFast();
+                return index;
+
+            case OBJECT_START_TOKEN:
+            case ARRAY_START_TOKEN:
+                int depth = 0;
+                for (; i < length; i++) {
+                    switch (data[i]) {
+                        case OBJECT_START_TOKEN:
+                        case ARRAY_START_TOKEN:
+                            depth++;
+                            break;
+                        case OBJECT_END_TOKEN:
+                        case ARRAY_END_TOKEN:
+                            depth--;
+                            if (depth == 0) {
+                                index = i + 1;
+                                return index;
+                            }
+                            break;
+                        case STRING_START_TOKEN:
+                            for (i++; i < length; i++) {
+                                final char ch = data[i];
+                                if (ch == CONTROL_ESCAPE_TOKEN) {
+                                    i++;
+                                } else if (ch == STRING_END_TOKEN) {
+                                    break;
+                                }
+                            }
+                            break;
+                    }
+                }
+                throw new UnexpectedCharacterException("Skipping JSON value", "Unable to find closing for object or array", this);
+
+            default:
+                loop:
+                for (; i < length; i++) {
+                    switch (data[i]) {
+                        case NEW_LINE_WS:
+                        case CARRIAGE_RETURN_WS:
+                        case TAB_WS:
+                        case SPACE_WS:
+                        case ARRAY_SEP:
+                        case OBJECT_END_TOKEN:
+                        case ARRAY_END_TOKEN:
+                            break loop;
+                    }
+                }
+                index = i;
+                return index;
+        }
+    }
+
     @Override
     public boolean findChar(char c) {
         int index = this.index;
@@ -592,6 +707,23 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
         return false;
     }
 
+    @Override
+    public int findEndStringIfMatches(final CharSequence expected) {
+        final char[] data = this.data;
+        final int start = index + 1;
+        final int end = start + expected.length();
+        if (end >= data.length || data[end] != STRING_END_TOKEN) {
+            return -1;
+        }
+        for (int i = start, k = 0; i < end; i++, k++) {
+            if (data[i] != expected.charAt(k)) {
+                return -1;
+            }
+        }
+        index = end;
+        return end;
+    }
+
     @Override
     public int findEndString() {
 
@@ -667,7 +799,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                         }
                     }
                     index = i;
-                    return findEndOfFloat();
+                    return findEndOfFloat(startIndex);
 
 
                 case EXPONENT_MARKER:
@@ -712,10 +844,10 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                         }
                 }
         }
-        return new NumberParseResult(i, false);
+        return new NumberParseResult(i, false, CharArrayUtils.classifyInteger(data, startIndex, i));
     }
 
-    private NumberParseResult findEndOfFloat() {
+    private NumberParseResult findEndOfFloat(final int startIndex) {
 
         int i = index + 1;
         char ch = (char) next();
@@ -739,7 +871,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i, true);
+                    return new NumberParseResult(i, true, CharArrayUtils.classifyDecimal(data, startIndex, i));
 
                 case NUM_0:
                 case NUM_1:
@@ -768,7 +900,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
 
 
         index = i;
-        return new NumberParseResult(i, true);
+        return new NumberParseResult(i, true, CharArrayUtils.classifyDecimal(data, startIndex, i));
 
     }
 
@@ -821,7 +953,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i, true);
+                    return new NumberParseResult(i, true, NumberTypes.FULL_FLOAT);
 
                 case NUM_0:
                 case NUM_1:
@@ -841,7 +973,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
             }
         }
         index = i;
-        return new NumberParseResult(i, true);
+        return new NumberParseResult(i, true, NumberTypes.FULL_FLOAT);
     }
 
     private boolean isNumberOrSign(char ch) {
@@ -1106,74 +1238,27 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
 
     @Override
     public double getDouble(int from, int to) {
-        return ParseDouble.parseDouble(data, from, to);
+        return EiselLemire.parseDouble(data, from, to);
     }
 
     @Override
-    public float getFloat(int from, int to) {
-        return ParseFloat.parseFloat(data, from, to);
+    public double getSimpleDecimal(int from, int to) {
+        return EiselLemire.parseSimpleDecimal(data, from, to);
     }
 
     @Override
-    public int getInt(int offset, int to) {
-
-
-        final char[] digitChars = data;
-
-        int num;
-        boolean negative = false;
-        char c = digitChars[offset];
-        if (c == '-') {
-            offset++;
-            negative = true;
-        } else if (c == '+') {
-            offset++;
-            negative = false;
-        }
-
-        c = digitChars[offset];
-        num = (c - '0');
-        offset++;
-
-        int digit;
-
-        for (; offset < to; offset++) {
-            c = digitChars[offset];
-            digit = (c - '0');
-            num = (num * 10) + digit;
-        }
-
-        return negative ? num * -1 : num;
-
+    public float getFloat(int from, int to) {
+        return EiselLemire.parseFloat(data, from, to);
     }
 
     @Override
-    public long getLong(int offset, int to) {
-
-        final char[] digitChars = data;
-
-        long num;
-        boolean negative = false;
-        char c = digitChars[offset];
-        if (c == '-') {
-            offset++;
-            negative = true;
-        }
-
-        c = digitChars[offset];
-        num = (c - '0');
-        offset++;
-
-        long digit;
-
-        for (; offset < to; offset++) {
-            c = digitChars[offset];
-            digit = (c - '0');
-            num = (num * 10) + digit;
-        }
-
-        return negative ? num * -1 : num;
+    public int getInt(int from, int to) {
+        return ParseInteger.parseInt(data, from, to);
+    }
 
+    @Override
+    public long getLong(int from, int to) {
+        return ParseInteger.parseLong(data, from, to);
     }
 
     @Override
@@ -19,9 +19,10 @@ import io.nats.jparse.node.support.CharArrayUtils;
 import io.nats.jparse.node.support.NumberParseResult;
 import io.nats.jparse.node.support.ParseConstants;
 import io.nats.jparse.source.support.CharArraySegment;
-import io.nats.jparse.source.support.ParseDouble;
-import io.nats.jparse.source.support.ParseFloat;
+import io.nats.jparse.source.support.EiselLemire;
+import io.nats.jparse.source.support.ParseInteger;
 import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.NumberTypes;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -43,6 +44,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
     private final int sourceEndIndex;
     private final int length;
     private int index;
+    private boolean lastStringHadEscape;
 
     /**
      * Create char source from offset into array
@@ -113,6 +115,67 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
         return index;
     }
 
+    @Override
+    public int findEndOfValue() {
+        int i = index;
+        final char[] data = this.data;
+        final int length = sourceEndIndex;
+
+        switch (data[i]) {
+            case STRING_START_TOKEN:
+                findEndOfEncodedStringFast();
+                return index - sourceStartIndex;
+
+            case OBJECT_START_TOKEN:
+            case ARRAY_START_TOKEN:
+                int depth = 0;
+                for (; i < length; i++) {
+                    switch (data[i]) {
+                        case OBJECT_START_TOKEN:
+                        case ARRAY_START_TOKEN:
+                            depth++;
+                            break;
+                        case OBJECT_END_TOKEN:
+                        case ARRAY_END_TOKEN:
+                            depth--;
+                            if (depth == 0) {
+                                index = i + 1;
+                                return index - sourceStartIndex;
+                            }
+                            break;
+                        case STRING_START_TOKEN:
+                            for (i++; i < length; i++) {
+                                final char ch = data[i];
+                                if (ch == CONTROL_ESCAPE_TOKEN) {
+                                    i++;
+                                } else if (ch == STRING_END_TOKEN) {
+                                    break;
+                                }
+                            }
+                            break;
+                    }
+                }
+                throw new UnexpectedCharacterException("Skipping JSON value", "Unable to find closing for object or array", this);
+
+            default:
+                loop:
+                for (; i < length; i++) {
+                    switch (data[i]) {
+                        case NEW_LINE_WS:
+                        case CARRIAGE_RETURN_WS:
+                        case TAB_WS:
+                        case SPACE_WS:
+                        case ARRAY_SEP:
+                        case OBJECT_END_TOKEN:
+                        case ARRAY_END_TOKEN:
+                            break loop;
+                    }
+                }
+                index = i;
+                return index - sourceStartIndex;
+        }
+    }
+
     @Override
     public boolean findChar(char c) {
         int index = this.index;
@@ -196,7 +259,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
             }
         }
         this.index = index;
-        return data[index];
+        return index == endIndex ? (char) ETX : data[index];
     }
 
     @Override
@@ -204,6 +267,11 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
         return index - sourceStartIndex;
     }
 
+    @Override
+    public int length() {
+        return sourceEndIndex - sourceStartIndex;
+    }
+
     @Override
     public char getCurrentChar() {
         return data[index];
@@ -241,6 +309,11 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
         return array;
     }
 
+    @Override
+    public void copyChars(final int startIndex, final int endIndex, final char[] destination, final int offset) {
+        System.arraycopy(data, startIndex + sourceStartIndex, destination, offset, endIndex - startIndex);
+    }
+
     @Override
     public BigDecimal getBigDecimal(int startIndex, int endIndex) {
         return new BigDecimal(data, startIndex + sourceStartIndex, endIndex - startIndex);
@@ -248,7 +321,13 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
 
     @Override
     public BigInteger getBigInteger(int startIndex, int endIndex) {
-        return getBigDecimal(startIndex, endIndex).toBigInteger();
+        final int from = startIndex + sourceStartIndex;
+        final int to = endIndex + sourceStartIndex;
+        if (NumberTypes.isInteger(CharArrayUtils.classifyNumber(data, from, to))) {
+            return ParseInteger.parseBigInteger(data, from, to);
+        } else {
+            return getBigDecimal(startIndex, endIndex).toBigInteger();
+        }
     }
 
     @Override
@@ -268,6 +347,41 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
         }
     }
 
+    @Override
+    public void appendEncodedString(int start, int end, StringBuilder builder) {
+        CharArrayUtils.decodeJsonString(data, start + sourceStartIndex, end + sourceStartIndex, builder);
+    }
+
+    @Override
+    public int decodeEncodedString(int start, int end, char[] destination, int offset) {
+        return CharArrayUtils.decodeJsonString(data, start + sourceStartIndex, end + sourceStartIndex, destination, offset);
+    }
+
+    @Override
+    public boolean matchEncodedChars(int start, int end, CharSequence key) {
+        return CharArrayUtils.equalsDecoded(data, start + sourceStartIndex, end + sourceStartIndex, key);
+    }
+
+    @Override
+    public int compareEncodedChars(int start, int end, CharSequence other) {
+        return CharArrayUtils.compareDecoded(data, start + sourceStartIndex, end + sourceStartIndex, other);
+    }
+
+    @Override
+    public boolean startsWithEncodedChars(int start, int end, CharSequence prefix) {
+        return CharArrayUtils.startsWithDecoded(data, start + sourceStartIndex, end + sourceStartIndex, prefix);
+    }
+
+    @Override
+    public int hashCodeEncodedChars(int start, int end) {
+        return CharArrayUtils.hashCodeDecoded(data, start + sourceStartIndex, end + sourceStartIndex);
+    }
+
+    @Override
+    public boolean lastStringHadEscape() {
+        return lastStringHadEscape;
+    }
+
     @Override
     public String toString() {
         return new String(data, sourceStartIndex, length);
@@ -276,7 +390,8 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
     @Override
     public NumberParseResult findEndOfNumberFast() {
 
-
+        /* The number starts at the current char, or at the first char when nothing was read yet. */
+        final int startIndex = Math.max(index, sourceStartIndex);
         int i = index + 1;
         char ch = 0;
         final char[] data = this.data;
@@ -296,7 +411,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i - sourceStartIndex, false);
+                    return new NumberParseResult(i - sourceStartIndex, false, CharArrayUtils.classifyInteger(data, startIndex, i));
 
                 case NUM_0:
                 case NUM_1:
@@ -312,7 +427,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
 
                 case DECIMAL_POINT:
                     index = i;
-                    return findEndOfFloatFast();
+                    return findEndOfFloatFast(startIndex);
 
 
                 case EXPONENT_MARKER:
@@ -329,11 +444,11 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
         }
 
         index = i;
-        return new NumberParseResult(i - sourceStartIndex, false);
+        return new NumberParseResult(i - sourceStartIndex, false, CharArrayUtils.classifyInteger(data, startIndex, i));
 
     }
 
-    private NumberParseResult findEndOfFloatFast() {
+    private NumberParseResult findEndOfFloatFast(final int startIndex) {
 
 
         int i = index + 1;
@@ -354,7 +469,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i - sourceStartIndex, true);
+                    return new NumberParseResult(i - sourceStartIndex, true, CharArrayUtils.classifyDecimal(data, startIndex, i));
 
                 case NUM_0:
                 case NUM_1:
@@ -383,7 +498,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
 
 
         index = i;
-        return new NumberParseResult(i - sourceStartIndex, true);
+        return new NumberParseResult(i - sourceStartIndex, true, CharArrayUtils.classifyDecimal(data, startIndex, i));
 
     }
 
@@ -408,7 +523,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i - sourceStartIndex, true);
+                    return new NumberParseResult(i - sourceStartIndex, true, NumberTypes.FULL_FLOAT);
 
                 case MINUS:
                 case PLUS:
@@ -440,7 +555,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
 
 
         index = i;
-        return new NumberParseResult(i - sourceStartIndex, true);
+        return new NumberParseResult(i - sourceStartIndex, true, NumberTypes.FULL_FLOAT);
 
     }
 
@@ -450,15 +565,18 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
         final char[] data = this.data;
         final int end = sourceEndIndex;
         boolean controlChar = false;
+        boolean escape = false;
         for (; i < end; i++) {
             char ch = data[i];
             switch (ch) {
                 case CONTROL_ESCAPE_TOKEN:
                     controlChar = !controlChar;
+                    escape = true;
                     continue;
                 case STRING_END_TOKEN:
                     if (!controlChar) {
                         index = i + 1;
+                        lastStringHadEscape = escape;
                         return i;
                     }
                     controlChar = false;
@@ -506,14 +624,17 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
         final char[] data = this.data;
         final int length = data.length;
         char ch = 0;
+        boolean escape = false;
         for (; i < length; i++) {
             ch = data[i];
             switch (ch) {
                 case CONTROL_ESCAPE_TOKEN:
                     i = findEndOfStringControlEncode(i + 1);
+                    escape = true;
                     continue;
                 case STRING_END_TOKEN:
                     index = i + 1;
+                    lastStringHadEscape = escape;
                     return i;
                 default:
                     if (ch >= SPACE_WS) {
@@ -569,6 +690,23 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
         }
     }
 
+    @Override
+    public int findEndStringIfMatches(final CharSequence expected) {
+        final char[] data = this.data;
+        final int start = index + 1;
+        final int end = start + expected.length();
+        if (end >= sourceEndIndex || data[end] != STRING_END_TOKEN) {
+            return -1;
+        }
+        for (int i = start, k = 0; i < end; i++, k++) {
+            if (data[i] != expected.charAt(k)) {
+                return -1;
+            }
+        }
+        index = end;
+        return end;
+    }
+
     @Override
     public int findEndString() {
 
@@ -644,7 +782,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                         }
                     }
                     index = i;
-                    return findEndOfFloat();
+                    return findEndOfFloat(startIndex);
 
 
                 case EXPONENT_MARKER:
@@ -689,10 +827,10 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                         }
                 }
         }
-        return new NumberParseResult(i - this.sourceStartIndex, false);
+        return new NumberParseResult(i - this.sourceStartIndex, false, CharArrayUtils.classifyInteger(data, startIndex, i));
     }
 
-    private NumberParseResult findEndOfFloat() {
+    private NumberParseResult findEndOfFloat(final int startIndex) {
 
         int i = index + 1;
         char ch = (char) next();
@@ -717,7 +855,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i - sourceStartIndex, true);
+                    return new NumberParseResult(i - sourceStartIndex, true, CharArrayUtils.classifyDecimal(data, startIndex, i));
 
                 case NUM_0:
                 case NUM_1:
@@ -746,7 +884,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
 
 
         index = i;
-        return new NumberParseResult(i - sourceStartIndex, true);
+        return new NumberParseResult(i - sourceStartIndex, true, CharArrayUtils.classifyDecimal(data, startIndex, i));
 
     }
 
@@ -802,7 +940,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i - sourceStartIndex, true);
+                    return new NumberParseResult(i - sourceStartIndex, true, NumberTypes.FULL_FLOAT);
 
                 case NUM_0:
                 case NUM_1:
@@ -822,7 +960,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
             }
         }
         index = i;
-        return new NumberParseResult(i - sourceStartIndex, true);
+        return new NumberParseResult(i - sourceStartIndex, true, NumberTypes.FULL_FLOAT);
     }
 
     private boolean isNumberOrSign(char ch) {
@@ -1090,78 +1228,27 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
     @Override
     public double getDouble(final int startIndex, final int endIndex) {
 
-        return ParseDouble.parseDouble(data, startIndex + sourceStartIndex, endIndex + sourceStartIndex);
+        return EiselLemire.parseDouble(data, startIndex + sourceStartIndex, endIndex + sourceStartIndex);
+    }
+
+    @Override
+    public double getSimpleDecimal(final int startIndex, final int endIndex) {
+        return EiselLemire.parseSimpleDecimal(data, startIndex + sourceStartIndex, endIndex + sourceStartIndex);
     }
 
     @Override
     public float getFloat(int from, int to) {
-        return ParseFloat.parseFloat(data, from + sourceStartIndex, to + sourceStartIndex);
+        return EiselLemire.parseFloat(data, from + sourceStartIndex, to + sourceStartIndex);
     }
 
     @Override
     public int getInt(int startIndex, int endIndex) {
-
-        int from = startIndex + sourceStartIndex;
-        int to = endIndex + sourceStartIndex;
-
-        final char[] digitChars = data;
-
-        int num;
-        boolean negative = false;
-        char c = digitChars[from];
-        if (c == '-') {
-            from++;
-            negative = true;
-        } else if (c == '+') {
-            from++;
-            negative = false;
-        }
-
-        c = digitChars[from];
-        num = (c - '0');
-        from++;
-
-        int digit;
-
-        for (; from < to; from++) {
-            c = digitChars[from];
-            digit = (c - '0');
-            num = (num * 10) + digit;
-        }
-
-        return negative ? num * -1 : num;
-
+        return ParseInteger.parseInt(data, startIndex + sourceStartIndex, endIndex + sourceStartIndex);
     }
 
     @Override
     public long getLong(final int startIndex, final int endIndex) {
-        int from = startIndex + sourceStartIndex;
-        int to = endIndex + sourceStartIndex;
-
-        final char[] digitChars = data;
-
-        long num;
-        boolean negative = false;
-        char c = digitChars[from];
-        if (c == '-') {
-            from++;
-            negative = true;
-        }
-
-        c = digitChars[from];
-        num = (c - '0');
-        from++;
-
-        long digit;
-
-        for (; from < to; from++) {
-            c = digitChars[from];
-            digit = (c - '0');
-            num = (num * 10) + digit;
-        }
-
-        return negative ? num * -1 : num;
-
+        return ParseInteger.parseLong(data, startIndex + sourceStartIndex, endIndex + sourceStartIndex);
     }
 
     @Override
@@ -46,6 +46,14 @@ public interface CharSource {
      */
     int getIndex();
 
+    /**
+     * Returns the number of characters in the source. `next` returns ETX both at this index and for a `\u0003`
+     * character inside the source, so comparing `getIndex` with the length tells the two apart.
+     *
+     * @return The number of characters in the source
+     */
+    int length();
+
     /**
      * Returns the current character in the source.
      *
@@ -61,9 +69,10 @@ public interface CharSource {
     char getCurrentCharSafe();
 
     /**
-     * Skips over whitespace characters in the source and returns the next non-whitespace character.
+     * Skips over whitespace characters in the source, starting at the current character, and returns the next
+     * non-whitespace character.
      *
-     * @return The next non-whitespace character in the source
+     * @return The next non-whitespace character in the source, or `ETX` at the end of the source
      */
     char skipWhiteSpace();
 
@@ -93,6 +102,18 @@ public interface CharSource {
      */
     double getDouble(int startIndex, int endIndex);
 
+    /**
+     * Parses a double value from characters the scanner classified as `NumberTypes.SIMPLE_DECIMAL`,
+     * which allows a faster conversion than `getDouble`.
+     *
+     * @param startIndex The index of the first character to parse
+     * @param endIndex   The index of the last character to parse
+     * @return The double value parsed from the characters in the source between the given start and end indices
+     */
+    default double getSimpleDecimal(int startIndex, int endIndex) {
+        return getDouble(startIndex, endIndex);
+    }
+
     /**
      * Parses a float value from the characters in the source between the given start and end indices.
      *
@@ -108,6 +129,7 @@ public interface CharSource {
      * @param startIndex The index of the first character to parse
      * @param endIndex   The index of the last character to parse
      * @return The integer value parsed from the characters in the source between the given start and end indices
+     * @throws ArithmeticException if the value is outside the `int` range
      */
     int getInt(int startIndex, int endIndex);
 
@@ -117,6 +139,7 @@ public interface CharSource {
      * @param startIndex The index of the first character to parse
      * @param endIndex   The index of the last character to parse
      * @return The long value parsed from the characters in the source between the given start and end indices
+     * @throws ArithmeticException if the value is outside the `long` range
      */
     long getLong(int startIndex, int endIndex);
 
@@ -138,6 +161,17 @@ public interface CharSource {
      */
     char[] getArray(int startIndex, int endIndex);
 
+    /**
+     * Copies the characters from the source between the given start and end indices into a char array, as they
+     * appear in the source, without creating an intermediate array.
+     *
+     * @param startIndex  The index of the first character to copy
+     * @param endIndex    The index after the last character to copy
+     * @param destination The array to copy the characters to
+     * @param offset      The index in the array of the first copied character
+     */
+    void copyChars(int startIndex, int endIndex, char[] destination, int offset);
+
     /**
      * Returns an encoded string containing characters from the source between the given start and end indices.
      *
@@ -157,6 +191,80 @@ public interface CharSource {
      */
     String toEncodedStringIfNeeded(int start, int end);
 
+    /**
+     * Appends the decoded characters of an encoded string to a builder without creating a `String`.
+     *
+     * @param start   The index of the first character of the encoded string
+     * @param end     The index after the last character of the encoded string
+     * @param builder The builder to append the decoded characters to
+     */
+    void appendEncodedString(int start, int end, StringBuilder builder);
+
+    /**
+     * Copies the decoded characters of an encoded string into a char array without creating a `String`.
+     * The decoded string is never longer than `end - start`.
+     *
+     * @param start       The index of the first character of the encoded string
+     * @param end         The index after the last character of the encoded string
+     * @param destination The array to copy the decoded characters to
+     * @param offset      The index in the array of the first decoded character
+     * @return The number of decoded characters
+     */
+    int decodeEncodedString(int start, int end, char[] destination, int offset);
+
+    /**
+     * Checks whether the decoded characters of an encoded string equal a plain key, decoding escapes while comparing
+     * so nothing is allocated.
+     *
+     * @param start The index of the first character of the encoded string
+     * @param end   The index after the last character of the encoded string
+     * @param key   The plain characters to compare with
+     * @return `true` if the decoded string equals the key
+     */
+    boolean matchEncodedChars(int start, int end, CharSequence key);
+
+    /**
+     * Compares the decoded characters of an encoded string with plain characters, ordered like `String.compareTo`,
+     * without allocating.
+     *
+     * @param start The index of the first character of the encoded string
+     * @param end   The index after the last character of the encoded string
+     * @param other The plain characters to compare with
+     * @return a negative number, zero or a positive number as the decoded string is less than, equal to or greater
+     * than the other characters
+     */
+    int compareEncodedChars(int start, int end, CharSequence other);
+
+    /**
+     * Checks whether the decoded characters of an encoded string start with a plain prefix, without allocating.
+     *
+     * @param start  The index of the first character of the encoded string
+     * @param end    The index after the last character of the encoded string
+     * @param prefix The plain prefix
+     * @return `true` if the decoded string starts with the prefix
+     */
+    boolean startsWithEncodedChars(int start, int end, CharSequence prefix);
+
+    /**
+     * Calculates the hash code of the decoded characters of an encoded string without allocating; it equals the
+     * `String.hashCode` of the decoded string.
+     *
+     * @param start The index of the first character of the encoded string
+     * @param end   The index after the last character of the encoded string
+     * @return the hash code of the decoded string
+     */
+    int hashCodeEncodedChars(int start, int end);
+
+    /**
+     * Tells whether the string whose end was found last by `findEndOfEncodedString` or
+     * `findEndOfEncodedStringFast` contains an escape, so scanners can record it without a second scan.
+     *
+     * @return `true` if the string had a `\` escape, or if the source does not track escapes
+     */
+    default boolean lastStringHadEscape() {
+        return true;
+    }
+
     /**
      * Parses a BigDecimal value from the characters in the source between the given start and end indices.
      *
@@ -168,6 +276,7 @@ public interface CharSource {
 
     /**
      * Parses a BigInteger value from the characters in the source between the given start and end indices.
+     * Integers that fit in a `long` are converted without an intermediate `BigDecimal`.
      *
      * @param startIndex The index of the first character to parse
      * @param endIndex   The index of the last character to parse
@@ -189,6 +298,17 @@ public interface CharSource {
      */
     int findEndString();
 
+    /**
+     * Finds the end index of a string in the source, starting from the current index, if the string is exactly
+     * the expected characters. This lets a scanner that predicts the next key verify it with one comparison
+     * instead of searching for the closing quote.
+     *
+     * @param expected The characters the string is expected to hold, with no escapes
+     * @return The index of the closing quote as `findEndString` returns it, or -1 without moving if the string
+     * is not exactly the expected characters
+     */
+    int findEndStringIfMatches(CharSequence expected);
+
     /**
      * Parses a number from the source, starting from the current index.
      *
@@ -302,4 +422,14 @@ public interface CharSource {
      */
     int findAttributeEnd();
 
+    /**
+     * Skips over the JSON value that starts at the current index without tokenizing it.
+     * Strings are skipped with escape awareness and objects and arrays are skipped by tracking
+     * bracket depth, so nested values and brackets inside strings do not end the skip early.
+     * After the skip the current index is on the first character after the value.
+     *
+     * @return The index of the first character after the skipped value
+     */
+    int findEndOfValue();
+
 }
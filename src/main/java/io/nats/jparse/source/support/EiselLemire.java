@@ -0,0 +1,384 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.source.support;
+
+import java.math.BigInteger;
+
+/**
+ * Correctly rounded `double` and `float` parsing with the Eisel-Lemire algorithm.
+ * <p>
+ * The decimal digits are gathered into a 64-bit significand `w` and a decimal exponent `q`. Small exact values
+ * take Clinger's fast path (`w` and `10^q` are both exact in floating point). Everything else is computed as
+ * `w * 5^q * 2^q` by multiplying `w` with a 128-bit truncated `5^q` from a table, which gives the correctly rounded
+ * result for every `w` that holds all the digits. When a number has more than 19 significant digits the
+ * truncated significand and its successor are both converted, and only if they round differently does parsing
+ * fall back to `Double.parseDouble`/`Float.parseFloat`. Apart from that rare fallback nothing is allocated.
+ * <p>
+ * See Daniel Lemire, "Number Parsing at a Gigabyte per Second", Software: Practice and Experience 51 (8), 2021,
+ * and Noble Mushtak and Daniel Lemire, "Fast Number Parsing Without Fallback", 2023.
+ */
+public class EiselLemire {
+
+    private EiselLemire() {
+    }
+
+    private static final int SMALLEST_POWER_OF_FIVE = -342;
+    private static final int LARGEST_POWER_OF_FIVE = 308;
+
+    /**
+     * `5^q` for `q` in `[SMALLEST_POWER_OF_FIVE, LARGEST_POWER_OF_FIVE]`, normalized to 128 bits:
+     * high 64 bits at `2 * (q - SMALLEST_POWER_OF_FIVE)`, low 64 bits right after them.
+     */
+    private static final long[] POWERS_OF_FIVE = powersOfFive();
+
+    private static final double[] DOUBLE_POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7,
+            1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private static final float[] FLOAT_POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f,
+            1e8f, 1e9f, 1e10f};
+
+    private static final int MAX_DIGITS = 19;
+
+    /* Binary format parameters, see `toBits`. */
+    private static final int DOUBLE_MANTISSA_BITS = 52;
+    private static final int DOUBLE_MINIMUM_EXPONENT = -1023;
+    private static final int DOUBLE_INFINITE_POWER = 0x7FF;
+    private static final int DOUBLE_SMALLEST_POWER_OF_TEN = -342;
+    private static final int DOUBLE_LARGEST_POWER_OF_TEN = 308;
+    private static final int DOUBLE_MIN_EXPONENT_ROUND_TO_EVEN = -4;
+    private static final int DOUBLE_MAX_EXPONENT_ROUND_TO_EVEN = 23;
+    private static final int DOUBLE_MAX_EXPONENT_FAST_PATH = 22;
+    private static final long DOUBLE_MAX_MANTISSA_FAST_PATH = 1L << 53;
+
+    private static final int FLOAT_MANTISSA_BITS = 23;
+    private static final int FLOAT_MINIMUM_EXPONENT = -127;
+    private static final int FLOAT_INFINITE_POWER = 0xFF;
+    private static final int FLOAT_SMALLEST_POWER_OF_TEN = -65;
+    private static final int FLOAT_LARGEST_POWER_OF_TEN = 38;
+    private static final int FLOAT_MIN_EXPONENT_ROUND_TO_EVEN = -17;
+    private static final int FLOAT_MAX_EXPONENT_ROUND_TO_EVEN = 10;
+    private static final int FLOAT_MAX_EXPONENT_FAST_PATH = 10;
+    private static final long FLOAT_MAX_MANTISSA_FAST_PATH = 1L << 24;
+
+    /**
+     * Parse a double.
+     *
+     * @param chars      chars
+     * @param startIndex start index
+     * @param endIndex   end index
+     * @return the double closest to the decimal number, ties to even
+     */
+    public static double parseDouble(final char[] chars, final int startIndex, final int endIndex) {
+        return Double.longBitsToDouble(parse(chars, startIndex, endIndex, false));
+    }
+
+    /**
+     * Parse a number the scanner classified as `NumberTypes.SIMPLE_DECIMAL`: an optional sign, digits with
+     * one decimal point, no exponent and at most `NumberTypes.SIMPLE_DECIMAL_MAX_DIGITS` digits. The digits
+     * and the power of ten of the fraction are both exact doubles, so one division is correctly rounded.
+     *
+     * @param chars      chars
+     * @param startIndex start index
+     * @param endIndex   end index
+     * @return the double closest to the decimal number, ties to even
+     */
+    public static double parseSimpleDecimal(final char[] chars, final int startIndex, final int endIndex) {
+        int i = startIndex;
+        final boolean negative = chars[i] == '-';
+        if (negative || chars[i] == '+') {
+            i++;
+        }
+        long w = 0;
+        int point = endIndex - 1;
+        for (; i < endIndex; i++) {
+            final char ch = chars[i];
+            if (ch == '.') {
+                point = i;
+            } else {
+                w = w * 10 + (ch - '0');
+            }
+        }
+        final double value = (double) w / DOUBLE_POWERS_OF_TEN[endIndex - point - 1];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse a float.
+     *
+     * @param chars      chars
+     * @param startIndex start index
+     * @param endIndex   end index
+     * @return the float closest to the decimal number, ties to even
+     */
+    public static float parseFloat(final char[] chars, final int startIndex, final int endIndex) {
+        return Float.intBitsToFloat((int) parse(chars, startIndex, endIndex, true));
+    }
+
+    /**
+     * Parses a decimal number into the bits of a double, or of a float in the low 32 bits.
+     */
+    private static long parse(final char[] chars, final int startIndex, final int endIndex, final boolean toFloat) {
+        int i = startIndex;
+        boolean negative = false;
+        long w = 0;
+        int digits = 0;
+        int q = 0;
+        boolean truncated = false;
+        boolean sawDigit = false;
+
+        if (i < endIndex && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+
+        /* Keep the first 19 significant digits in w, drop the rest but remember whether they were all zero. */
+        char ch = 0;
+        for (; i < endIndex; i++) {
+            ch = chars[i];
+            if (ch < '0' || ch > '9') {
+                break;
+            }
+            sawDigit = true;
+            if (digits < MAX_DIGITS) {
+                if (w != 0 || ch != '0') {
+                    w = w * 10 + (ch - '0');
+                    digits++;
+                }
+            } else {
+                q++;
+                truncated |= ch != '0';
+            }
+        }
+
+        if (i < endIndex && ch == '.') {
+            for (i++; i < endIndex; i++) {
+                ch = chars[i];
+                if (ch < '0' || ch > '9') {
+                    break;
+                }
+                sawDigit = true;
+                if (digits < MAX_DIGITS) {
+                    if (w != 0 || ch != '0') {
+                        w = w * 10 + (ch - '0');
+                        digits++;
+                    }
+                    q--;
+                } else {
+                    truncated |= ch != '0';
+                }
+            }
+        }
+
+        if (!sawDigit) {
+            throw new UnexpectedCharacterException("parsing double", "Illegal character", i < endIndex ? chars[i] : ch, i);
+        }
+
+        if (i < endIndex && (ch == 'e' || ch == 'E')) {
+            i++;
+            boolean exponentNegative = false;
+            if (i < endIndex && (chars[i] == '-' || chars[i] == '+')) {
+                exponentNegative = chars[i] == '-';
+                i++;
+            }
+            if (i == endIndex) {
+                throw new UnexpectedCharacterException("parsing double exponent", "Missing exponent digits", ch, i);
+            }
+            int exponent = 0;
+            for (; i < endIndex; i++) {
+                ch = chars[i];
+                if (ch < '0' || ch > '9') {
+                    throw new UnexpectedCharacterException("parsing double exponent", "Illegal character", ch, i);
+                }
+                /* Anything this large is zero or infinity anyway, stop before the int overflows. */
+                if (exponent < 100_000) {
+                    exponent = exponent * 10 + (ch - '0');
+                }
+            }
+            q += exponentNegative ? -exponent : exponent;
+        }
+
+        if (i != endIndex) {
+            throw new UnexpectedCharacterException("parsing double", "Illegal character", chars[i], i);
+        }
+
+        if (toFloat) {
+            return negative ? floatBits(chars, startIndex, endIndex, w, q, truncated) | 0x80000000L
+                    : floatBits(chars, startIndex, endIndex, w, q, truncated);
+        } else {
+            return negative ? doubleBits(chars, startIndex, endIndex, w, q, truncated) | Long.MIN_VALUE
+                    : doubleBits(chars, startIndex, endIndex, w, q, truncated);
+        }
+    }
+
+    private static long doubleBits(final char[] chars, final int startIndex, final int endIndex,
+                                   final long w, final int q, final boolean truncated) {
+        if (w == 0) {
+            return 0;
+        }
+        if (!truncated && q >= -DOUBLE_MAX_EXPONENT_FAST_PATH && q <= DOUBLE_MAX_EXPONENT_FAST_PATH
+                && w >= 0 && w <= DOUBLE_MAX_MANTISSA_FAST_PATH) {
+            return Double.doubleToRawLongBits(q < 0 ? (double) w / DOUBLE_POWERS_OF_TEN[-q] : (double) w * DOUBLE_POWERS_OF_TEN[q]);
+        }
+        final long bits = toBits(w, q, DOUBLE_MANTISSA_BITS, DOUBLE_MINIMUM_EXPONENT, DOUBLE_INFINITE_POWER,
+                DOUBLE_SMALLEST_POWER_OF_TEN, DOUBLE_LARGEST_POWER_OF_TEN,
+                DOUBLE_MIN_EXPONENT_ROUND_TO_EVEN, DOUBLE_MAX_EXPONENT_ROUND_TO_EVEN);
+        if (truncated && bits != toBits(w + 1, q, DOUBLE_MANTISSA_BITS, DOUBLE_MINIMUM_EXPONENT, DOUBLE_INFINITE_POWER,
+                DOUBLE_SMALLEST_POWER_OF_TEN, DOUBLE_LARGEST_POWER_OF_TEN,
+                DOUBLE_MIN_EXPONENT_ROUND_TO_EVEN, DOUBLE_MAX_EXPONENT_ROUND_TO_EVEN)) {
+            /* The dropped digits decide the rounding. */
+            return Double.doubleToRawLongBits(Math.abs(Double.parseDouble(new String(chars, startIndex, endIndex - startIndex))));
+        }
+        return bits;
+    }
+
+    private static long floatBits(final char[] chars, final int startIndex, final int endIndex,
+                                  final long w, final int q, final boolean truncated) {
+        if (w == 0) {
+            return 0;
+        }
+        if (!truncated && q >= -FLOAT_MAX_EXPONENT_FAST_PATH && q <= FLOAT_MAX_EXPONENT_FAST_PATH
+                && w >= 0 && w <= FLOAT_MAX_MANTISSA_FAST_PATH) {
+            return Float.floatToRawIntBits(q < 0 ? (float) w / FLOAT_POWERS_OF_TEN[-q] : (float) w * FLOAT_POWERS_OF_TEN[q]);
+        }
+        final long bits = toBits(w, q, FLOAT_MANTISSA_BITS, FLOAT_MINIMUM_EXPONENT, FLOAT_INFINITE_POWER,
+                FLOAT_SMALLEST_POWER_OF_TEN, FLOAT_LARGEST_POWER_OF_TEN,
+                FLOAT_MIN_EXPONENT_ROUND_TO_EVEN, FLOAT_MAX_EXPONENT_ROUND_TO_EVEN);
+        if (truncated && bits != toBits(w + 1, q, FLOAT_MANTISSA_BITS, FLOAT_MINIMUM_EXPONENT, FLOAT_INFINITE_POWER,
+                FLOAT_SMALLEST_POWER_OF_TEN, FLOAT_LARGEST_POWER_OF_TEN,
+                FLOAT_MIN_EXPONENT_ROUND_TO_EVEN, FLOAT_MAX_EXPONENT_ROUND_TO_EVEN)) {
+            /* The dropped digits decide the rounding. */
+            return Float.floatToRawIntBits(Math.abs(Float.parseFloat(new String(chars, startIndex, endIndex - startIndex))));
+        }
+        return bits;
+    }
+
+    /**
+     * Computes the bits (without sign) of the binary floating point number closest to `w * 10^q`.
+     *
+     * @param w a non-zero unsigned significand
+     * @param q the decimal exponent
+     * @return the exponent and mantissa bits
+     */
+    private static long toBits(long w, final int q, final int mantissaBits, final int minimumExponent,
+                               final int infinitePower, final int smallestPowerOfTen, final int largestPowerOfTen,
+                               final int minExponentRoundToEven, final int maxExponentRoundToEven) {
+        if (q < smallestPowerOfTen) {
+            return 0;
+        }
+        if (q > largestPowerOfTen) {
+            return (long) infinitePower << mantissaBits;
+        }
+
+        final int leadingZeros = Long.numberOfLeadingZeros(w);
+        w <<= leadingZeros;
+
+        /* 128-bit product of w and 5^q, the second half of 5^q is only needed when the first half is inexact. */
+        final int index = 2 * (q - SMALLEST_POWER_OF_FIVE);
+        long high = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+        long low = w * POWERS_OF_FIVE[index];
+        final long precisionMask = -1L >>> (mantissaBits + 3);
+        if ((high & precisionMask) == precisionMask) {
+            final long secondHigh = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+            low += secondHigh;
+            if (Long.compareUnsigned(secondHigh, low) > 0) {
+                high++;
+            }
+        }
+
+        final int upperBit = (int) (high >>> 63);
+        final int shift = upperBit + 64 - mantissaBits - 3;
+        long mantissa = high >>> shift;
+        int power2 = power(q) + upperBit - leadingZeros - minimumExponent;
+
+        if (power2 <= 0) {
+            /* Subnormal, or zero when even the subnormal shift drops every bit. */
+            if (-power2 + 1 >= 64) {
+                return 0;
+            }
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            /* Rounding up can turn the largest subnormal into the smallest normal number. */
+            power2 = mantissa < (1L << mantissaBits) ? 0 : 1;
+            return ((long) power2 << mantissaBits) | (mantissa & ((1L << mantissaBits) - 1));
+        }
+
+        /* A product exactly halfway between two floats must round to even, not up. */
+        if (Long.compareUnsigned(low, 1) <= 0 && q >= minExponentRoundToEven && q <= maxExponentRoundToEven
+                && (mantissa & 3) == 1 && (mantissa << shift) == high) {
+            mantissa &= ~1L;
+        }
+
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= (2L << mantissaBits)) {
+            mantissa = 1L << mantissaBits;
+            power2++;
+        }
+        mantissa &= ~(1L << mantissaBits);
+        if (power2 >= infinitePower) {
+            return (long) infinitePower << mantissaBits;
+        }
+        return ((long) power2 << mantissaBits) | mantissa;
+    }
+
+    /**
+     * Returns `floor(log2(10^q)) + 63`.
+     */
+    private static int power(final int q) {
+        return (((152170 + 65536) * q) >> 16) + 63;
+    }
+
+    private static long unsignedMultiplyHigh(final long x, final long y) {
+        final long x0 = x & 0xFFFFFFFFL;
+        final long x1 = x >>> 32;
+        final long y0 = y & 0xFFFFFFFFL;
+        final long y1 = y >>> 32;
+        final long p11 = x1 * y1;
+        final long p01 = x0 * y1;
+        final long p10 = x1 * y0;
+        final long p00 = x0 * y0;
+        final long middle = p10 + (p00 >>> 32) + (p01 & 0xFFFFFFFFL);
+        return p11 + (middle >>> 32) + (p01 >>> 32);
+    }
+
+    private static long[] powersOfFive() {
+        final long[] table = new long[2 * (LARGEST_POWER_OF_FIVE - SMALLEST_POWER_OF_FIVE + 1)];
+        final BigInteger mask64 = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        final BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+        for (int q = SMALLEST_POWER_OF_FIVE; q <= LARGEST_POWER_OF_FIVE; q++) {
+            BigInteger value;
+            if (q >= 0) {
+                value = BigInteger.valueOf(5).pow(q);
+                final int bits = value.bitLength();
+                value = bits < 128 ? value.shiftLeft(128 - bits) : value.shiftRight(bits - 128);
+            } else {
+                /* Reciprocal rounded up, 2^b / 5^-q + 1 with b chosen so the result has at least 128 bits. */
+                final BigInteger power5 = BigInteger.valueOf(5).pow(-q);
+                final int z = power5.bitLength();
+                final int b = q >= -27 ? z + 127 : 2 * z + 128;
+                value = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+                while (value.compareTo(two128) >= 0) {
+                    value = value.shiftRight(1);
+                }
+            }
+            final int index = 2 * (q - SMALLEST_POWER_OF_FIVE);
+            table[index] = value.shiftRight(64).longValue();
+            table[index + 1] = value.and(mask64).longValue();
+        }
+        return table;
+    }
+}
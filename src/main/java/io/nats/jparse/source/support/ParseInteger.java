@@ -0,0 +1,221 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.source.support;
+
+import java.math.BigInteger;
+
+/**
+ * Integer parsing that converts eight digits at a time with SWAR (SIMD within a register) arithmetic.
+ * <p>
+ * Eight `char`s are packed into the bytes of one `long`, checked to be ASCII digits and combined into
+ * their value with three multiplications instead of eight dependent multiply-adds. Any remaining digits
+ * are converted one at a time. Overflow is detected exactly: up to 18 digits always fit a `long`,
+ * a 19 digit value is exact as an unsigned `long` and is range checked by its sign bit. Leading zeros do
+ * not count against the limits.
+ * <p>
+ * `parseBigInteger` only allocates a `BigInteger` from more than one `long` chunk when the value does not
+ * fit a `long`.
+ * <p>
+ * See Daniel Lemire, "Number Parsing at a Gigabyte per Second", Software: Practice and Experience 51 (8), 2021.
+ */
+public class ParseInteger {
+
+    private ParseInteger() {
+    }
+
+    private static final int SWAR_DIGITS = 8;
+    private static final int INT_DIGITS = 10;
+    private static final int LONG_DIGITS = 19;
+    private static final int CHUNK_DIGITS = 18;
+
+    private static final long HUNDRED_MILLION = 100_000_000L;
+    private static final BigInteger CHUNK_MULTIPLIER = BigInteger.valueOf(1_000_000_000_000_000_000L);
+
+    /* SWAR constants, the first digit is in the lowest byte. */
+    private static final long ZEROS = 0x3030303030303030L;
+    private static final long HIGH_NIBBLES = 0xF0F0F0F0F0F0F0F0L;
+    private static final long SIXES = 0x0606060606060606L;
+    private static final long THREES = 0x3333333333333333L;
+    private static final long PAIR_MASK = 0x000000FF000000FFL;
+    private static final long PAIR_MULTIPLIER_1 = 100L + (1_000_000L << 32);
+    private static final long PAIR_MULTIPLIER_2 = 1L + (10_000L << 32);
+
+    /**
+     * Parses an `int`.
+     *
+     * @param chars      chars
+     * @param startIndex start index, the number may start with `-` or `+`
+     * @param endIndex   end index
+     * @return the int value
+     * @throws UnexpectedCharacterException if the chars are not an integer
+     * @throws ArithmeticException          if the value is outside the `int` range
+     */
+    public static int parseInt(final char[] chars, final int startIndex, final int endIndex) {
+        final boolean negative = chars[startIndex] == '-';
+        final int index = digitsStart(chars, startIndex, endIndex, INT_DIGITS);
+        if (endIndex - index > INT_DIGITS) {
+            throw overflow(chars, startIndex, index, endIndex, "an int");
+        }
+        final long value = negative ? -digits(chars, index, endIndex) : digits(chars, index, endIndex);
+        if (value != (int) value) {
+            throw overflow(chars, startIndex, index, endIndex, "an int");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a `long`.
+     *
+     * @param chars      chars
+     * @param startIndex start index, the number may start with `-` or `+`
+     * @param endIndex   end index
+     * @return the long value
+     * @throws UnexpectedCharacterException if the chars are not an integer
+     * @throws ArithmeticException          if the value is outside the `long` range
+     */
+    public static long parseLong(final char[] chars, final int startIndex, final int endIndex) {
+        final boolean negative = chars[startIndex] == '-';
+        final int index = digitsStart(chars, startIndex, endIndex, LONG_DIGITS);
+        if (endIndex - index > LONG_DIGITS) {
+            throw overflow(chars, startIndex, index, endIndex, "a long");
+        }
+        final long value = digits(chars, index, endIndex);
+        if (value >= 0) {
+            return negative ? -value : value;
+        } else if (negative && value == Long.MIN_VALUE) {
+            return Long.MIN_VALUE;
+        }
+        throw overflow(chars, startIndex, index, endIndex, "a long");
+    }
+
+    /**
+     * Parses a `BigInteger`.
+     *
+     * @param chars      chars
+     * @param startIndex start index, the number may start with `-` or `+`
+     * @param endIndex   end index
+     * @return the BigInteger value
+     * @throws UnexpectedCharacterException if the chars are not an integer
+     */
+    public static BigInteger parseBigInteger(final char[] chars, final int startIndex, final int endIndex) {
+        final boolean negative = chars[startIndex] == '-';
+        int index = digitsStart(chars, startIndex, endIndex, 1);
+        final int digits = endIndex - index;
+
+        if (digits <= LONG_DIGITS) {
+            final long value = digits(chars, index, endIndex);
+            if (value >= 0) {
+                return BigInteger.valueOf(negative ? -value : value);
+            }
+        }
+
+        int chunkEnd = index + (digits % CHUNK_DIGITS == 0 ? CHUNK_DIGITS : digits % CHUNK_DIGITS);
+        BigInteger value = BigInteger.valueOf(digits(chars, index, chunkEnd));
+        for (index = chunkEnd; index < endIndex; index = chunkEnd) {
+            chunkEnd = index + CHUNK_DIGITS;
+            value = value.multiply(CHUNK_MULTIPLIER).add(BigInteger.valueOf(digits(chars, index, chunkEnd)));
+        }
+        return negative ? value.negate() : value;
+    }
+
+    /**
+     * Skips the sign, and the leading zeros when there are more than `maxDigits` digits.
+     *
+     * @return the index of the first significant digit
+     */
+    private static int digitsStart(final char[] chars, final int startIndex, final int endIndex, final int maxDigits) {
+        int index = startIndex;
+        final char sign = chars[index];
+        if (sign == '-' || sign == '+') {
+            index++;
+        }
+        if (index == endIndex) {
+            throw new UnexpectedCharacterException("parsing integer", "No digits", sign, index);
+        }
+        while (endIndex - index > maxDigits && chars[index] == '0') {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Converts at most 19 digits, the result is exact as an unsigned long.
+     */
+    private static long digits(final char[] chars, int index, final int endIndex) {
+        long value = 0;
+        while (endIndex - index >= SWAR_DIGITS) {
+            final long eightDigits = eightDigits(chars, index);
+            if (eightDigits < 0) {
+                /* Let the loop below report the illegal character. */
+                break;
+            }
+            value = value * HUNDRED_MILLION + eightDigits;
+            index += SWAR_DIGITS;
+        }
+        for (; index < endIndex; index++) {
+            final char ch = chars[index];
+            final int digit = ch - '0';
+            if (digit < 0 || digit > 9) {
+                throw new UnexpectedCharacterException("parsing integer", "Illegal character", ch, index);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Converts eight chars starting at `index`.
+     *
+     * @return the value of the eight digits, or `-1` if any of the chars is not a digit
+     */
+    private static long eightDigits(final char[] chars, final int index) {
+        final char c0 = chars[index];
+        final char c1 = chars[index + 1];
+        final char c2 = chars[index + 2];
+        final char c3 = chars[index + 3];
+        final char c4 = chars[index + 4];
+        final char c5 = chars[index + 5];
+        final char c6 = chars[index + 6];
+        final char c7 = chars[index + 7];
+        if (((c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) & 0xFF00) != 0) {
+            return -1;
+        }
+        final long packed = c0 | (long) c1 << 8 | (long) c2 << 16 | (long) c3 << 24
+                | (long) c4 << 32 | (long) c5 << 40 | (long) c6 << 48 | (long) c7 << 56;
+
+        /* Every byte is in 0x30..0x39: the high nibble is 3, and adding 6 does not carry into it. */
+        if (((packed & HIGH_NIBBLES) | (((packed + SIXES) & HIGH_NIBBLES) >>> 4)) != THREES) {
+            return -1;
+        }
+
+        long value = packed - ZEROS;
+        /* Combine adjacent digits into two digit values, then the four two digit values into the result. */
+        value = value * 10 + (value >>> 8);
+        return (((value & PAIR_MASK) * PAIR_MULTIPLIER_1) + (((value >>> 16) & PAIR_MASK) * PAIR_MULTIPLIER_2)) >>> 32;
+    }
+
+    private static ArithmeticException overflow(final char[] chars, final int startIndex, final int digitsStart,
+                                                final int endIndex, final String type) {
+        /* Report an illegal character rather than the overflow. */
+        for (int index = digitsStart; index < endIndex; index++) {
+            if (chars[index] < '0' || chars[index] > '9') {
+                throw new UnexpectedCharacterException("parsing integer", "Illegal character", chars[index], index);
+            }
+        }
+        return new ArithmeticException("Number " + new String(chars, startIndex, endIndex - startIndex)
+                + " does not fit in " + type);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.token;
+
+/**
+ * A `Token` for an `INT_TOKEN` or `FLOAT_TOKEN` that also records the class of the number (@see NumberTypes),
+ * as determined by the scanner while it found the end of the number.
+ * <p>
+ * The number class is derived from the characters of the token, so it does not take part in `equals` and
+ * `hashCode`: a `NumberToken` is equal to a `Token` with the same indices and type.
+ */
+public class NumberToken extends Token {
+
+    /**
+     * The class of the number (@see NumberTypes).
+     */
+    public final int numberType;
+
+    /**
+     * Creates a new NumberToken object with the specified start and end indices, type and number class.
+     *
+     * @param startIndex The start index of the token
+     * @param endIndex   The end index of the token
+     * @param type       The type of the token, `INT_TOKEN` or `FLOAT_TOKEN`
+     * @param numberType The class of the number
+     */
+    public NumberToken(int startIndex, int endIndex, int type, int numberType) {
+        super(startIndex, endIndex, type);
+        this.numberType = numberType;
+    }
+
+    /**
+     * Returns a string representation of the token that includes its start and end indices, type and number class.
+     *
+     * @return A string representation of the token
+     */
+    @Override
+    public String toString() {
+        return "NumberToken{" +
+                "startIndex=" + startIndex +
+                ", endIndex=" + endIndex +
+                ", type=" + TokenTypes.getTypeName(type) + " " + type +
+                ", numberType=" + NumberTypes.getTypeName(numberType) +
+                '}';
+    }
+}
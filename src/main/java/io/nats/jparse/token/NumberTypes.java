@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.token;
+
+/**
+ * The NumberTypes interface defines constants for the classes of numbers the scanner recognizes. Number tokens
+ * carry one of these classes (@see NumberToken) so a number node can pick its conversion without rescanning
+ * the digits. The class is decided from the digit count and whether the number has a fraction or an exponent.
+ */
+public interface NumberTypes {
+
+    /**
+     * The number has not been classified, for example because the token was not produced by a parser.
+     */
+    int UNCLASSIFIED = 0;
+
+    /**
+     * An integer that fits in an `int`.
+     */
+    int FITS_INT = 1;
+
+    /**
+     * An integer that does not fit in an `int` but fits in a `long`.
+     */
+    int FITS_LONG = 2;
+
+    /**
+     * An integer that does not fit in a `long`.
+     */
+    int BIG_INTEGER = 3;
+
+    /**
+     * A number with a fraction but no exponent and at most `SIMPLE_DECIMAL_MAX_DIGITS` digits,
+     * so its digits fit exactly in a `double` mantissa.
+     */
+    int SIMPLE_DECIMAL = 4;
+
+    /**
+     * A number with an exponent or too many digits for `SIMPLE_DECIMAL`, it needs a full floating point parse.
+     */
+    int FULL_FLOAT = 5;
+
+    /**
+     * The maximum number of digits of a `SIMPLE_DECIMAL`.
+     */
+    int SIMPLE_DECIMAL_MAX_DIGITS = 15;
+
+    /**
+     * Returns whether a number class denotes an integer.
+     *
+     * @param numberType The number class
+     * @return `true` for `FITS_INT`, `FITS_LONG` and `BIG_INTEGER`
+     */
+    static boolean isInteger(final int numberType) {
+        return numberType >= FITS_INT && numberType <= BIG_INTEGER;
+    }
+
+    /**
+     * Returns a human-readable name for a number class.
+     *
+     * @param numberType The number class to get the name for
+     * @return A human-readable name for the number class
+     */
+    static String getTypeName(final int numberType) {
+        switch (numberType) {
+            case UNCLASSIFIED:
+                return "Unclassified";
+            case FITS_INT:
+                return "Int";
+            case FITS_LONG:
+                return "Long";
+            case BIG_INTEGER:
+                return "Big Integer";
+            case SIMPLE_DECIMAL:
+                return "Simple Decimal";
+            case FULL_FLOAT:
+                return "Full Float";
+            default:
+                return String.valueOf(numberType);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.token;
+
+/**
+ * A `Token` for a `STRING_TOKEN` that also records whether the string contains a `\` escape,
+ * as determined by the scanner while it found the end of the string.
+ * <p>
+ * Nodes use the flag to return the raw chars of strings without escapes without scanning them again.
+ * Like the number class of a `NumberToken`, the flag is derived from the characters of the token, so it does not
+ * take part in `equals` and `hashCode`: a `StringToken` is equal to a `Token` with the same indices and type.
+ */
+public class StringToken extends Token {
+
+    /**
+     * Whether the string contains an escape and has to be decoded.
+     */
+    public final boolean hasEscapes;
+
+    /**
+     * Creates a new StringToken object with the specified start and end indices and escape flag.
+     *
+     * @param startIndex The start index of the string, after the opening quote
+     * @param endIndex   The end index of the string, at the closing quote
+     * @param hasEscapes Whether the string contains an escape
+     */
+    public StringToken(int startIndex, int endIndex, boolean hasEscapes) {
+        super(startIndex, endIndex, TokenTypes.STRING_TOKEN);
+        this.hasEscapes = hasEscapes;
+    }
+
+    /**
+     * Returns a string representation of the token that includes its start and end indices, type and escape flag.
+     *
+     * @return A string representation of the token
+     */
+    @Override
+    public String toString() {
+        return "StringToken{" +
+                "startIndex=" + startIndex +
+                ", endIndex=" + endIndex +
+                ", type=" + TokenTypes.getTypeName(type) + " " + type +
+                ", hasEscapes=" + hasEscapes +
+                '}';
+    }
+}
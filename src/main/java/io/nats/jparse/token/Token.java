@@ -109,7 +109,7 @@ public class Token {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Token)) return false;
         Token token = (Token) o;
         return startIndex == token.startIndex && endIndex == token.endIndex && type == token.type;
     }
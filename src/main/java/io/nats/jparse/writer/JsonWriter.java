@@ -0,0 +1,613 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.writer;
+
+import io.nats.jparse.node.Node;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * The `JsonWriter` class writes JSON text one token at a time into a char buffer.
+ * <p>
+ * A writer created without a target keeps the whole document in its buffer (which may be one the caller passes in
+ * to reuse), and hands it out with `buffer()`, `toCharArray()`, `toUtf8` or `toString()`. A writer created with an
+ * `Appendable`, an `OutputStream` or a `ByteBuffer` hands the buffer to that target whenever it fills up and on
+ * `flush()`; the two byte targets receive UTF-8.
+ * <p>
+ * Strings are escaped with a table lookup per char, ints and longs are written two digits at a time, and doubles are
+ * written as the shortest decimal that reads back as the same double (Schubfach). A parsed `Node` is written by
+ * copying its region of the source, so it is never decoded or re-encoded.
+ * <p>
+ * Commas and colons are placed automatically. Like `JsonFastParser`, the writer does not validate the structure:
+ * a value where a key is expected, or an unclosed object, is written as asked.
+ * <p>
+ * Errors from an `Appendable` or `OutputStream` target are rethrown as `UncheckedIOException`.
+ */
+public final class JsonWriter {
+
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final int TARGET_CAPACITY = 8192;
+    private static final int MIN_TARGET_CAPACITY = 64;
+
+    /* The longest escape, \u001F. */
+    private static final int ESCAPE_LENGTH = 6;
+
+    /* For each ASCII char, 0 if it is written as is, otherwise the char that follows the backslash. */
+    private static final char[] ESCAPES = new char[128];
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final char[] TRUE = "true".toCharArray();
+    private static final char[] FALSE = "false".toCharArray();
+    private static final char[] NULL = "null".toCharArray();
+
+    static {
+        for (int ch = 0; ch < 0x20; ch++) {
+            ESCAPES[ch] = 'u';
+        }
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+    }
+
+    private final Target target;
+    private char[] buffer;
+    private int position;
+    private boolean comma;
+
+    /**
+     * Create a new `JsonWriter` that keeps the document in a buffer that grows as needed.
+     */
+    public JsonWriter() {
+        this(new char[DEFAULT_CAPACITY]);
+    }
+
+    /**
+     * Create a new `JsonWriter` that writes into the given buffer, so one buffer can be reused for many documents.
+     * If the document does not fit, the writer continues in a larger copy, see `buffer()`.
+     *
+     * @param buffer the buffer to write into
+     */
+    public JsonWriter(final char[] buffer) {
+        this.target = null;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Create a new `JsonWriter` that appends to an `Appendable` such as a `StringBuilder` or a `Writer`.
+     *
+     * @param out the appendable to write to
+     */
+    public JsonWriter(final Appendable out) {
+        this(new AppendableTarget(out), TARGET_CAPACITY);
+    }
+
+    /**
+     * Create a new `JsonWriter` that writes UTF-8 to an `OutputStream`.
+     *
+     * @param out the stream to write to
+     */
+    public JsonWriter(final OutputStream out) {
+        this(new OutputStreamTarget(out, TARGET_CAPACITY), TARGET_CAPACITY);
+    }
+
+    /**
+     * Create a new `JsonWriter` that puts UTF-8 into a `ByteBuffer`. A buffer that runs out of space throws
+     * `BufferOverflowException`.
+     *
+     * @param out the buffer to write to
+     */
+    public JsonWriter(final ByteBuffer out) {
+        this(new ByteBufferTarget(out, TARGET_CAPACITY), TARGET_CAPACITY);
+    }
+
+    private JsonWriter(final Target target, final int capacity) {
+        this.target = target;
+        this.buffer = new char[Math.max(capacity, MIN_TARGET_CAPACITY)];
+    }
+
+    /**
+     * Writes the start of an object.
+     *
+     * @return this writer
+     */
+    public JsonWriter startObject() {
+        separator(1);
+        buffer[position++] = '{';
+        comma = false;
+        return this;
+    }
+
+    /**
+     * Writes the end of an object.
+     *
+     * @return this writer
+     */
+    public JsonWriter endObject() {
+        makeRoom(1);
+        buffer[position++] = '}';
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Writes the start of an array.
+     *
+     * @return this writer
+     */
+    public JsonWriter startArray() {
+        separator(1);
+        buffer[position++] = '[';
+        comma = false;
+        return this;
+    }
+
+    /**
+     * Writes the end of an array.
+     *
+     * @return this writer
+     */
+    public JsonWriter endArray() {
+        makeRoom(1);
+        buffer[position++] = ']';
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Writes an object key and the colon after it.
+     *
+     * @param key the key, escaped as needed
+     * @return this writer
+     */
+    public JsonWriter key(final CharSequence key) {
+        separator(1);
+        buffer[position++] = '"';
+        writeEscaped(key);
+        makeRoom(2);
+        buffer[position++] = '"';
+        buffer[position++] = ':';
+        comma = false;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or `null` if the value is null.
+     *
+     * @param value the string, escaped as needed
+     * @return this writer
+     */
+    public JsonWriter value(final CharSequence value) {
+        if (value == null) {
+            return nullValue();
+        }
+        separator(1);
+        buffer[position++] = '"';
+        writeEscaped(value);
+        makeRoom(1);
+        buffer[position++] = '"';
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param value the boolean
+     * @return this writer
+     */
+    public JsonWriter value(final boolean value) {
+        return literal(value ? TRUE : FALSE);
+    }
+
+    /**
+     * Writes `null`.
+     *
+     * @return this writer
+     */
+    public JsonWriter nullValue() {
+        return literal(NULL);
+    }
+
+    /**
+     * Writes an int value.
+     *
+     * @param value the int
+     * @return this writer
+     */
+    public JsonWriter value(final int value) {
+        separator(NumberWriter.MAX_LENGTH);
+        position = NumberWriter.writeInt(value, buffer, position);
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Writes a long value.
+     *
+     * @param value the long
+     * @return this writer
+     */
+    public JsonWriter value(final long value) {
+        separator(NumberWriter.MAX_LENGTH);
+        position = NumberWriter.writeLong(value, buffer, position);
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Writes a double value as the shortest decimal that reads back as the same double, laid out like
+     * `Double.toString` lays it out.
+     *
+     * @param value the double
+     * @return this writer
+     * @throws IllegalArgumentException if the value is NaN or infinite, which JSON cannot represent
+     */
+    public JsonWriter value(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("JSON cannot represent " + value);
+        }
+        separator(NumberWriter.MAX_LENGTH);
+        position = NumberWriter.writeDouble(value, buffer, position);
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Writes a parsed node by copying its region of the source as is, or `null` if the node is null.
+     *
+     * @param node the node, for example a value found with `Path.find`
+     * @return this writer
+     */
+    public JsonWriter value(final Node node) {
+        if (node == null) {
+            return nullValue();
+        }
+        final Token token = node.rootElementToken();
+        /* String tokens do not include the quotes. */
+        final boolean string = token.type == TokenTypes.STRING_TOKEN;
+        separator(1);
+        if (string) {
+            buffer[position++] = '"';
+        }
+        writeSource(node.charSource(), token.startIndex, token.endIndex);
+        if (string) {
+            makeRoom(1);
+            buffer[position++] = '"';
+        }
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Hands the buffered chars to the target and flushes it. Does nothing for a writer without a target.
+     */
+    public void flush() {
+        if (target != null) {
+            try {
+                flushBuffer(true);
+                target.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Discards the buffered chars so the writer can start a new document.
+     */
+    public void reset() {
+        position = 0;
+        comma = false;
+    }
+
+    /**
+     * Returns the number of buffered chars, for a writer without a target the length of the document.
+     *
+     * @return the number of buffered chars
+     */
+    public int length() {
+        return position;
+    }
+
+    /**
+     * Returns the buffer, which holds `length()` chars of the document. This is the buffer passed to the
+     * constructor unless the writer had to grow it.
+     *
+     * @return the buffer
+     */
+    public char[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns a copy of the buffered chars.
+     *
+     * @return the buffered chars
+     */
+    public char[] toCharArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    /**
+     * Returns the buffered chars encoded as UTF-8.
+     *
+     * @return the UTF-8 bytes
+     */
+    public byte[] toByteArray() {
+        final byte[] bytes = new byte[utf8Length(buffer, 0, position)];
+        encodeUtf8(buffer, 0, position, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Encodes the buffered chars as UTF-8 into a caller's byte array, which needs room for up to three bytes
+     * per buffered char.
+     *
+     * @param destination the array to write to
+     * @param offset      the index in the array of the first byte
+     * @return the number of bytes written
+     */
+    public int toUtf8(final byte[] destination, final int offset) {
+        return encodeUtf8(buffer, 0, position, destination, offset) - offset;
+    }
+
+    /**
+     * Returns the buffered chars as a string.
+     *
+     * @return the buffered chars
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, 0, position);
+    }
+
+    private JsonWriter literal(final char[] chars) {
+        separator(chars.length);
+        System.arraycopy(chars, 0, buffer, position, chars.length);
+        position += chars.length;
+        comma = true;
+        return this;
+    }
+
+    /* Makes room for a value of count chars and writes the comma before it if one is needed. */
+    private void separator(final int count) {
+        makeRoom(count + 1);
+        if (comma) {
+            buffer[position++] = ',';
+        }
+    }
+
+    /*
+     * Makes room for count chars and returns the room. A writer with a target always makes room for up to
+     * MIN_TARGET_CAPACITY - 1 chars and never grows, so callers copying longer runs loop on the room.
+     */
+    private int makeRoom(final int count) {
+        if (buffer.length - position < count) {
+            if (target != null) {
+                try {
+                    flushBuffer(false);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } else {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + count));
+            }
+        }
+        return buffer.length - position;
+    }
+
+    private void flushBuffer(final boolean last) throws IOException {
+        final int written = target.write(buffer, position, last);
+        final int left = position - written;
+        if (left > 0) {
+            System.arraycopy(buffer, written, buffer, 0, left);
+        }
+        position = left;
+    }
+
+    private void writeEscaped(final CharSequence chars) {
+        final int length = chars.length();
+        int index = 0;
+        while (index < length) {
+            final int room = makeRoom(ESCAPE_LENGTH);
+            final char[] buffer = this.buffer;
+            int position = this.position;
+            /* Each plain char takes one slot, so the run fits along with one escape, which ends the run. */
+            final int end = Math.min(length, index + room - ESCAPE_LENGTH + 1);
+            while (index < end) {
+                final char ch = chars.charAt(index++);
+                if (ch < ESCAPES.length && ESCAPES[ch] != 0) {
+                    final char escape = ESCAPES[ch];
+                    buffer[position++] = '\\';
+                    buffer[position++] = escape;
+                    if (escape == 'u') {
+                        buffer[position++] = '0';
+                        buffer[position++] = '0';
+                        buffer[position++] = HEX_DIGITS[ch >> 4];
+                        buffer[position++] = HEX_DIGITS[ch & 0xF];
+                    }
+                    break;
+                }
+                buffer[position++] = ch;
+            }
+            this.position = position;
+        }
+    }
+
+    private void writeSource(final CharSource source, int start, final int end) {
+        while (start < end) {
+            final int count = Math.min(end - start, makeRoom(end - start));
+            source.copyChars(start, start + count, buffer, position);
+            position += count;
+            start += count;
+        }
+    }
+
+    private static int utf8Length(final char[] chars, final int start, final int end) {
+        int length = end - start;
+        for (int index = start; index < end; index++) {
+            final char ch = chars[index];
+            if (ch >= 0x80) {
+                if (ch < 0x800) {
+                    length++;
+                } else if (Character.isHighSurrogate(ch) && index + 1 < end && Character.isLowSurrogate(chars[index + 1])) {
+                    length += 2;
+                    index++;
+                } else if (!Character.isSurrogate(ch)) {
+                    length += 2;
+                }
+            }
+        }
+        return length;
+    }
+
+    /* Encodes chars as UTF-8, an unpaired surrogate becomes '?' like it does in String.getBytes. */
+    private static int encodeUtf8(final char[] chars, final int start, final int end, final byte[] bytes, int offset) {
+        for (int index = start; index < end; index++) {
+            final char ch = chars[index];
+            if (ch < 0x80) {
+                bytes[offset++] = (byte) ch;
+            } else if (ch < 0x800) {
+                bytes[offset++] = (byte) (0xC0 | ch >> 6);
+                bytes[offset++] = (byte) (0x80 | ch & 0x3F);
+            } else if (Character.isSurrogate(ch)) {
+                if (Character.isHighSurrogate(ch) && index + 1 < end && Character.isLowSurrogate(chars[index + 1])) {
+                    final int codePoint = Character.toCodePoint(ch, chars[++index]);
+                    bytes[offset++] = (byte) (0xF0 | codePoint >> 18);
+                    bytes[offset++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    bytes[offset++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    bytes[offset++] = (byte) (0x80 | codePoint & 0x3F);
+                } else {
+                    bytes[offset++] = '?';
+                }
+            } else {
+                bytes[offset++] = (byte) (0xE0 | ch >> 12);
+                bytes[offset++] = (byte) (0x80 | ch >> 6 & 0x3F);
+                bytes[offset++] = (byte) (0x80 | ch & 0x3F);
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Where a writer with a target hands its buffer.
+     */
+    private abstract static class Target {
+
+        /**
+         * Writes buffered chars.
+         *
+         * @param last whether no more chars follow until the next write, so nothing may be held back
+         * @return the number of chars written, the rest stay buffered
+         */
+        abstract int write(char[] chars, int length, boolean last) throws IOException;
+
+        void flush() throws IOException {
+        }
+    }
+
+    private static final class AppendableTarget extends Target {
+        private final Appendable out;
+
+        AppendableTarget(final Appendable out) {
+            this.out = out;
+        }
+
+        @Override
+        int write(final char[] chars, final int length, final boolean last) throws IOException {
+            if (out instanceof StringBuilder) {
+                ((StringBuilder) out).append(chars, 0, length);
+            } else if (out instanceof Writer) {
+                ((Writer) out).write(chars, 0, length);
+            } else {
+                out.append(CharBuffer.wrap(chars, 0, length));
+            }
+            return length;
+        }
+
+        @Override
+        void flush() throws IOException {
+            if (out instanceof Flushable) {
+                ((Flushable) out).flush();
+            }
+        }
+    }
+
+    private abstract static class Utf8Target extends Target {
+        private final byte[] bytes;
+
+        Utf8Target(final int capacity) {
+            this.bytes = new byte[capacity * 3];
+        }
+
+        @Override
+        final int write(final char[] chars, final int length, final boolean last) throws IOException {
+            /* A high surrogate at the end waits for its low surrogate so the pair encodes as one code point; on the
+               last write nothing can follow, so it is a lone surrogate and encodes as '?'. */
+            final int count = !last && length > 0 && Character.isHighSurrogate(chars[length - 1]) ? length - 1 : length;
+            writeBytes(bytes, encodeUtf8(chars, 0, count, bytes, 0));
+            return count;
+        }
+
+        abstract void writeBytes(byte[] bytes, int length) throws IOException;
+    }
+
+    private static final class OutputStreamTarget extends Utf8Target {
+        private final OutputStream out;
+
+        OutputStreamTarget(final OutputStream out, final int capacity) {
+            super(capacity);
+            this.out = out;
+        }
+
+        @Override
+        void writeBytes(final byte[] bytes, final int length) throws IOException {
+            out.write(bytes, 0, length);
+        }
+
+        @Override
+        void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class ByteBufferTarget extends Utf8Target {
+        private final ByteBuffer out;
+
+        ByteBufferTarget(final ByteBuffer out, final int capacity) {
+            super(capacity);
+            this.out = out;
+        }
+
+        @Override
+        void writeBytes(final byte[] bytes, final int length) {
+            out.put(bytes, 0, length);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.writer;
+
+import java.math.BigInteger;
+
+/**
+ * Writes numbers as JSON text straight into a char array.
+ * <p>
+ * Integers are written two digits at a time from a table. Doubles are written with the Schubfach algorithm
+ * (Raffaello Giulietti, "The Schubfach way to render doubles"), which finds the shortest decimal that reads back
+ * as the same double. The digits are laid out like `Double.toString` lays them out: plain notation from `0.001`
+ * up to `10^7`, and `d.dddE+/-n` outside that range.
+ * <p>
+ * Callers make sure at least `MAX_LENGTH` chars are free at the write position.
+ */
+final class NumberWriter {
+
+    /**
+     * The most chars any number written by this class takes (`-2.2250738585072014E-308` takes 24).
+     */
+    static final int MAX_LENGTH = 32;
+
+    private static final char[] DIGIT_PAIRS = new char[200];
+    private static final char[] LONG_MIN = "-9223372036854775808".toCharArray();
+    private static final char[] INT_MIN = "-2147483648".toCharArray();
+
+    /* Schubfach constants for doubles. */
+    private static final int P = 53;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << (P - 1);
+    private static final long C_TINY = 3;
+    private static final int BQ_MASK = 0x7FF;
+    private static final long T_MASK = C_MIN - 1;
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+
+    /*
+     * For each k, 10^-k = beta 2^r with 2^125 <= beta < 2^126, and g = floor(beta) + 1 = g1 2^63 + g0.
+     * The table is computed once with BigInteger instead of being pasted in as 1234 hex literals.
+     */
+    private static final long[] G = new long[(K_MAX - K_MIN + 1) * 2];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[i * 2] = (char) ('0' + i / 10);
+            DIGIT_PAIRS[i * 2 + 1] = (char) ('0' + i % 10);
+        }
+        final BigInteger low = BigInteger.ONE.shiftLeft(125);
+        final BigInteger high = BigInteger.ONE.shiftLeft(126);
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            final BigInteger numerator = k <= 0 ? BigInteger.TEN.pow(-k) : BigInteger.ONE;
+            final BigInteger denominator = k <= 0 ? BigInteger.ONE : BigInteger.TEN.pow(k);
+            int r = numerator.bitLength() - denominator.bitLength() - 126;
+            BigInteger beta;
+            while (true) {
+                beta = r < 0 ? numerator.shiftLeft(-r).divide(denominator) : numerator.divide(denominator.shiftLeft(r));
+                if (beta.compareTo(high) >= 0) {
+                    r++;
+                } else if (beta.compareTo(low) < 0) {
+                    r--;
+                } else {
+                    break;
+                }
+            }
+            final BigInteger g = beta.add(BigInteger.ONE);
+            G[(k - K_MIN) * 2] = g.shiftRight(63).longValue();
+            G[(k - K_MIN) * 2 + 1] = g.longValue() & MASK_63;
+        }
+    }
+
+    private NumberWriter() {
+    }
+
+    /**
+     * Writes an int.
+     *
+     * @return the index after the last char written
+     */
+    static int writeInt(int value, final char[] buffer, int position) {
+        if (value < 0) {
+            if (value == Integer.MIN_VALUE) {
+                System.arraycopy(INT_MIN, 0, buffer, position, INT_MIN.length);
+                return position + INT_MIN.length;
+            }
+            buffer[position++] = '-';
+            value = -value;
+        }
+        final int end = position + digitCount(value);
+        int index = end;
+        while (value >= 100) {
+            final int quotient = value / 100;
+            final int pair = (value - quotient * 100) << 1;
+            value = quotient;
+            buffer[--index] = DIGIT_PAIRS[pair + 1];
+            buffer[--index] = DIGIT_PAIRS[pair];
+        }
+        if (value >= 10) {
+            buffer[--index] = DIGIT_PAIRS[(value << 1) + 1];
+            buffer[--index] = DIGIT_PAIRS[value << 1];
+        } else {
+            buffer[--index] = (char) ('0' + value);
+        }
+        return end;
+    }
+
+    /**
+     * Writes a long.
+     *
+     * @return the index after the last char written
+     */
+    static int writeLong(long value, final char[] buffer, int position) {
+        if (value == (int) value) {
+            return writeInt((int) value, buffer, position);
+        }
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                System.arraycopy(LONG_MIN, 0, buffer, position, LONG_MIN.length);
+                return position + LONG_MIN.length;
+            }
+            buffer[position++] = '-';
+            value = -value;
+        }
+        return writeDigits(value, buffer, position);
+    }
+
+    /**
+     * Writes a finite double as the shortest decimal that reads back as the same double.
+     *
+     * @return the index after the last char written
+     */
+    static int writeDouble(final double value, final char[] buffer, int position) {
+        final long bits = Double.doubleToRawLongBits(value);
+        final long t = bits & T_MASK;
+        final int bq = (int) (bits >>> (P - 1)) & BQ_MASK;
+        if (bits < 0) {
+            buffer[position++] = '-';
+        }
+        if (bq != 0) {
+            final int mq = -Q_MIN + 1 - bq;
+            final long c = C_MIN | t;
+            /* Integers below 2^53 need no search for digits. */
+            if (0 < mq & mq < P) {
+                final long f = c >> mq;
+                if (f << mq == c) {
+                    return writeDecimal(f, 0, buffer, position);
+                }
+            }
+            return toDecimal(-mq, c, 0, buffer, position);
+        }
+        if (t != 0) {
+            return t < C_TINY ? toDecimal(Q_MIN, 10 * t, -1, buffer, position) : toDecimal(Q_MIN, t, 0, buffer, position);
+        }
+        buffer[position] = '0';
+        buffer[position + 1] = '.';
+        buffer[position + 2] = '0';
+        return position + 3;
+    }
+
+    /* Finds the shortest decimal in the rounding interval of c 2^q, dk adjusts the exponent of subnormals. */
+    private static int toDecimal(final int q, final long c, final int dk, final char[] buffer, final int position) {
+        final int out = (int) c & 0x1;
+        final long cb = c << 2;
+        final long cbr = cb + 2;
+        final long cbl;
+        final int k;
+        if (c != C_MIN | q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        final int h = q + flog2pow10(-k) + 2;
+        final long g1 = G[(k - K_MIN) * 2];
+        final long g0 = G[(k - K_MIN) * 2 + 1];
+
+        final long vb = rop(g1, g0, cb << h);
+        final long vbl = rop(g1, g0, cbl << h);
+        final long vbr = rop(g1, g0, cbr << h);
+
+        final long s = vb >> 2;
+        if (s >= 100) {
+            /* sp10 = 10 floor(s / 10), the decimal with one digit less. */
+            final long sp10 = 10 * multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            final long tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= sp10 << 2;
+            final boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return writeDecimal(upin ? sp10 : tp10, k, buffer, position);
+            }
+        }
+        final long t = s + 1;
+        final boolean uin = vbl + out <= s << 2;
+        final boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return writeDecimal(uin ? s : t, k + dk, buffer, position);
+        }
+        final long cmp = vb - (s + t << 1);
+        return writeDecimal(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buffer, position);
+    }
+
+    /* Rounds g cp 2^-127 to odd. */
+    private static long rop(final long g1, final long g0, final long cp) {
+        final long x1 = multiplyHigh(g0, cp);
+        final long y0 = g1 * cp;
+        final long y1 = multiplyHigh(g1, cp);
+        final long z = (y0 >>> 1) + x1;
+        final long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    /* Math.multiplyHigh is Java 9. */
+    private static long multiplyHigh(final long x, final long y) {
+        final long x1 = x >> 32;
+        final long x2 = x & 0xFFFFFFFFL;
+        final long y1 = y >> 32;
+        final long y2 = y & 0xFFFFFFFFL;
+        final long z2 = x2 * y2;
+        final long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xFFFFFFFFL;
+        final long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    private static int flog10pow2(final int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    private static int flog10threeQuartersPow2(final int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    private static int flog2pow10(final int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    /* Lays out f 10^e like Double.toString does. */
+    private static int writeDecimal(long f, int e, final char[] buffer, final int position) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        final int length = digitCount(f);
+        final int exponent = e + length - 1;
+
+        if (exponent >= 0 && exponent < 7) {
+            final int integerDigits = exponent + 1;
+            if (length <= integerDigits) {
+                int end = writeDigits(f, buffer, position);
+                for (int i = length; i < integerDigits; i++) {
+                    buffer[end++] = '0';
+                }
+                buffer[end] = '.';
+                buffer[end + 1] = '0';
+                return end + 2;
+            }
+            final int end = writeDigits(f, buffer, position + 1);
+            System.arraycopy(buffer, position + 1, buffer, position, integerDigits);
+            buffer[position + integerDigits] = '.';
+            return end;
+        }
+
+        if (exponent < 0 && exponent >= -3) {
+            int index = position;
+            buffer[index++] = '0';
+            buffer[index++] = '.';
+            for (int i = -1; i > exponent; i--) {
+                buffer[index++] = '0';
+            }
+            return writeDigits(f, buffer, index);
+        }
+
+        int end = writeDigits(f, buffer, position + 1);
+        buffer[position] = buffer[position + 1];
+        buffer[position + 1] = '.';
+        if (length == 1) {
+            buffer[end++] = '0';
+        }
+        buffer[end++] = 'E';
+        return writeInt(exponent, buffer, end);
+    }
+
+    /* Writes a non-negative long. */
+    private static int writeDigits(long value, final char[] buffer, final int position) {
+        final int end = position + digitCount(value);
+        int index = end;
+        while (value > Integer.MAX_VALUE) {
+            final long quotient = value / 100;
+            final int pair = (int) (value - quotient * 100) << 1;
+            value = quotient;
+            buffer[--index] = DIGIT_PAIRS[pair + 1];
+            buffer[--index] = DIGIT_PAIRS[pair];
+        }
+        writeInt((int) value, buffer, position);
+        return end;
+    }
+
+    private static int digitCount(final int value) {
+        int limit = 10;
+        for (int count = 1; count < 10; count++) {
+            if (value < limit) {
+                return count;
+            }
+            limit *= 10;
+        }
+        return 10;
+    }
+
+    private static int digitCount(final long value) {
+        long limit = 10;
+        for (int count = 1; count < 19; count++) {
+            if (value < limit) {
+                return count;
+            }
+            limit *= 10;
+        }
+        return 19;
+    }
+}
@@ -2,18 +2,26 @@ package io.nats.jparse;
 
 import io.nats.jparse.node.ArrayNode;
 import io.nats.jparse.node.ObjectNode;
+import io.nats.jparse.parser.JsonParser;
 import io.nats.jparse.source.Sources;
 import io.nats.jparse.source.support.UnexpectedCharacterException;
 import io.nats.jparse.token.Token;
 import io.nats.jparse.token.TokenTypes;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class JsonTest {
@@ -142,4 +150,38 @@ class JsonTest {
         assertEquals(2, ((Number)result.get(1)).intValue());
         assertEquals(3, ((Number)result.get(2)).intValue());
     }
+
+    @Test
+    public void testParserIsSharedPerConfiguration() {
+        assertSame(Json.parser(), Json.parser(false, false));
+        assertSame(Json.parser(true, true), Json.parser(true, true));
+        assertNotSame(Json.parser(true, false), Json.parser(false, false));
+        assertNotSame(Json.parser(true, false), Json.parser(true, true));
+        assertNotSame(Json.parser(false, true), Json.parser(false, false));
+
+        assertThrows(UnexpectedCharacterException.class, () -> Json.parser(true, false).parse("[1,]"));
+        assertEquals(1, Json.parser(false, true).parse("{\"a\\n\": 1}").getObjectNode().size());
+    }
+
+    @Test
+    public void testSharedParserIsThreadSafe() throws Exception {
+        for (final boolean strict : new boolean[]{false, true}) {
+            final JsonParser parser = Json.parser(strict, false);
+            final String json = Sources.fileSource(new File("./src/test/resources/json/webxml.json")).toString();
+            final List<Token> expected = parser.scan(json);
+
+            final ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                final List<Future<List<Token>>> results = new ArrayList<>();
+                for (int i = 0; i < 64; i++) {
+                    results.add(executor.submit(() -> parser.scan(json)));
+                }
+                for (Future<List<Token>> result : results) {
+                    assertEquals(expected, result.get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
 }
@@ -22,8 +22,16 @@ import io.nats.jparse.source.Sources;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class PathTest {
 
@@ -110,4 +118,55 @@ class PathTest {
 
         System.out.println(value);
     }
+
+    @Test
+    void extract() {
+        assertEquals(false, Path.extract("['web-app'].servlet[0]['init-param'].useJSP", webXmlJson).asScalar().value());
+        assertEquals("cofaxEmail", Path.extract("['web-app'].servlet[1]['servlet-name']", webXmlJson).toString());
+        assertEquals(Path.atPath("['web-app'].taglib", webXmlJson).toString(),
+                Path.extract("['web-app'].taglib", webXmlJson).toString());
+        assertNull(Path.extract("['web-app'].servlet[9]", webXmlJson));
+        assertNull(Path.extract("['web-app'].missing", webXmlJson));
+        assertNull(Path.extract("['web-app'].servlet.x", webXmlJson));
+    }
+
+    @Test
+    void extractStopsAtTheValue() {
+        /* Nothing after the value is scanned, so not even broken JSON there is noticed. */
+        final StringBuilder json = new StringBuilder(Json.niceJson("{'id': 'abc', 'header': {'n': [1, 2]}, 'body': ["));
+        for (int i = 0; i < 100_000; i++) {
+            json.append("{\"x\": ").append(i).append("},");
+        }
+        json.append("not json at all");
+
+        assertEquals("abc", Path.extract("id", json.toString()).toString());
+        assertEquals(2, Path.extract("header.n[1]", json.toString()).asScalar().intValue());
+        assertEquals(3, Path.extract("body[3].x", json.toString()).asScalar().intValue());
+    }
+
+    @Test
+    void compiledPathCacheNeverExceedsItsSize() throws Exception {
+        final Object hot = Path.compile("hot[0]");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < Path.PATH_CACHE_SIZE * 2; i++) {
+                        Path.compile("hot[0]");
+                        Path.compile("p[" + thread + "][" + i + "]");
+                        assertTrue(Path.cachedPathCount() <= Path.PATH_CACHE_SIZE, "cached " + Path.cachedPathCount());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(Path.cachedPathCount() <= Path.PATH_CACHE_SIZE);
+        assertSame(hot, Path.compile("hot[0]"));
+    }
 }
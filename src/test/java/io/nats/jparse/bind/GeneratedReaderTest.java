@@ -0,0 +1,175 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.Path;
+import io.nats.jparse.examples.Department;
+import io.nats.jparse.examples.DepartmentJsonReader;
+import io.nats.jparse.examples.Employee;
+import io.nats.jparse.examples.EmployeeJsonReader;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.source.Sources;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the readers that `JsonReaderProcessor` generates for the `@JsonReadable` classes of the test sources.
+ */
+class GeneratedReaderTest {
+
+    public enum Side {BUY, SELL}
+
+    @JsonReadable
+    static class Quote {
+        String symbol;
+        int size;
+        long time;
+        double price;
+        float ratio;
+        boolean open;
+        Integer limit;
+        BigDecimal notional;
+        Side side;
+        int[] levels;
+        List<String> venues;
+        List<List<Integer>> matrix;
+        Quote previous;
+        StringBuilder trader = new StringBuilder();
+        CharSequenceView desk;
+        transient int ignored;
+        /* Keys that share their length and first character, told apart by matchChars. */
+        int bidA;
+        int bxdB;
+        private String note;
+        private transient boolean noteSet;
+
+        void setNote(final String note) {
+            this.note = note;
+            this.noteSet = true;
+        }
+    }
+
+    @JsonReadable
+    static final class FullName {
+        final String first;
+        final String last;
+
+        /* The parameters are matched to the fields by name, not by position. */
+        FullName(final String last, final String first) {
+            this.first = first;
+            this.last = last;
+        }
+    }
+
+    @Test
+    void readConstructorBoundClasses() {
+        final RootNode root = Json.toRootNode(Sources.fileSource(new File("./src/test/resources/json/depts.json")));
+
+        final Node employeesNode = Path.atPath("departments[0].employees", root);
+        final List<Employee> employees = EmployeeJsonReader.readList(employeesNode.tokens(), employeesNode.charSource(), 0);
+        assertEquals(JsonBinder.bindList(Employee.class, employeesNode), employees);
+
+        final Node departmentsNode = Path.atPath("departments", root);
+        final List<Department> departments = DepartmentJsonReader.readList(departmentsNode.tokens(), departmentsNode.charSource(), 0);
+        assertEquals(JsonBinder.bindList(Department.class, departmentsNode), departments);
+        assertEquals("Engineering", departments.get(0).name());
+
+        final Employee employee = EmployeeJsonReader.read(Path.atPath("departments[0].employees[2]", root));
+        assertEquals(new Employee("Cindy", "Torre-alto", "04/15/1993", true, 999, 111), employee);
+
+        final FullName name = GeneratedReaderTest_FullNameJsonReader.read("{\"first\": \"Ada\", \"last\": \"Lovelace\"}");
+        assertEquals("Ada", name.first);
+        assertEquals("Lovelace", name.last);
+    }
+
+    @Test
+    void readSetterBoundClass() {
+        final Quote quote = GeneratedReaderTest_QuoteJsonReader.read("{\"symbol\": \"NATS\", \"extra\": [1, {\"a\": 2}], " +
+                "\"size\": 100, \"time\": 1700000000123, \"price\": 10.25, \"ratio\": 0.5, \"open\": true, " +
+                "\"limit\": null, \"notional\": 1025.00, \"side\": \"SELL\", \"levels\": [1, 2, 3], " +
+                "\"venues\": [\"a\", \"b\\\"c\"], \"matrix\": [[1], [], [2, 3]], \"ignored\": 9, \"bidA\": 1, \"bxdB\": 2, " +
+                "\"note\": \"hi\", \"previous\": {\"symbol\": \"OLD\", \"previous\": null}}");
+
+        assertEquals("NATS", quote.symbol);
+        assertEquals(100, quote.size);
+        assertEquals(1700000000123L, quote.time);
+        assertEquals(10.25, quote.price);
+        assertEquals(0.5f, quote.ratio);
+        assertTrue(quote.open);
+        assertNull(quote.limit);
+        assertEquals(new BigDecimal("1025.00"), quote.notional);
+        assertEquals(Side.SELL, quote.side);
+        assertArrayEquals(new int[]{1, 2, 3}, quote.levels);
+        assertEquals("b\"c", quote.venues.get(1));
+        assertEquals(3, quote.matrix.size());
+        assertTrue(quote.matrix.get(1).isEmpty());
+        assertEquals(Integer.valueOf(3), quote.matrix.get(2).get(1));
+        assertEquals(0, quote.ignored);
+        assertEquals(1, quote.bidA);
+        assertEquals(2, quote.bxdB);
+        assertEquals("hi", quote.note);
+        assertTrue(quote.noteSet);
+        assertEquals("OLD", quote.previous.symbol);
+        assertNull(quote.previous.previous);
+        assertFalse(quote.previous.open);
+    }
+
+    @Test
+    void fillReusesTarget() {
+        final Quote quote = new Quote();
+        final StringBuilder trader = quote.trader;
+        quote.size = 7;
+        quote.previous = new Quote();
+        final Quote previous = quote.previous;
+
+        RootNode root = Json.toRootNode("{\"price\": 1.5, \"trader\": \"ann\", \"desk\": \"d1\", \"previous\": {\"size\": 3}}");
+        GeneratedReaderTest_QuoteJsonReader.fill(quote, root.tokens(), root.charSource(), 0);
+        final CharSequenceView desk = quote.desk;
+        assertEquals(7, quote.size);
+        assertEquals(1.5, quote.price);
+        assertEquals("ann", quote.trader.toString());
+        assertEquals("d1", quote.desk.toString());
+        assertSame(previous, quote.previous);
+        assertEquals(3, previous.size);
+
+        root = Json.toRootNode("{\"trader\": \"bo\\u0062\", \"desk\": \"d2\"}");
+        GeneratedReaderTest_QuoteJsonReader.fill(quote, root.tokens(), root.charSource(), 0);
+        assertSame(trader, quote.trader);
+        assertEquals("bob", quote.trader.toString());
+        assertSame(desk, quote.desk);
+        assertTrue(quote.desk.contentEquals("d2"));
+    }
+
+    @Test
+    void errors() {
+        assertThrows(BindException.class, () -> GeneratedReaderTest_QuoteJsonReader.read("{\"size\": \"big\"}"));
+        assertThrows(BindException.class, () -> GeneratedReaderTest_QuoteJsonReader.read("[1]"));
+        assertNull(GeneratedReaderTest_QuoteJsonReader.read("null"));
+    }
+}
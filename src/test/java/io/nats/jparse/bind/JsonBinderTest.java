@@ -0,0 +1,293 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.Path;
+import io.nats.jparse.examples.Department;
+import io.nats.jparse.examples.Employee;
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.token.StringToken;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+import org.junit.jupiter.api.Test;
+
+import java.beans.ConstructorProperties;
+import java.io.File;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonBinderTest {
+
+    public enum Level {LOW, HIGH}
+
+    public static class Reading {
+        private int count;
+        private long timestamp;
+        private double value;
+        private float ratio;
+        private boolean valid;
+        private Integer boxed;
+        private String name;
+        private Level level;
+        private BigInteger big;
+        private long[] samples;
+        private List<String> tags;
+        private Reading child;
+        private transient int ignored;
+        private int viaSetter;
+        private boolean setterCalled;
+
+        public void setViaSetter(int viaSetter) {
+            this.viaSetter = viaSetter;
+            this.setterCalled = true;
+        }
+    }
+
+    public static class Message {
+        private long sequence;
+        private StringBuilder subject = new StringBuilder();
+        private CharSequenceView reply;
+        private Header header = new Header();
+        private String note;
+    }
+
+    public static class Header {
+        private int size;
+        private StringBuilder type;
+    }
+
+    static final class Point {
+        private final int x;
+        private final int y;
+
+        Point(@JsonName("x") int x, @JsonName("y") int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    static final class Name {
+        private final String first;
+        private final String last;
+        private final short age;
+        private final char initial;
+
+        @ConstructorProperties({"last", "age", "first", "initial"})
+        Name(String last, short age, String first, char initial) {
+            this.first = first;
+            this.last = last;
+            this.age = age;
+            this.initial = initial;
+        }
+    }
+
+    static final class UnnamedParameters {
+        private final String first;
+        private final String last;
+
+        UnnamedParameters(String first, String last) {
+            this.first = first;
+            this.last = last;
+        }
+    }
+
+    public static class Small {
+        private short count;
+        private byte flags;
+        private char grade;
+        private Character boxed;
+    }
+
+    static final class NoUsableConstructor {
+        private final int x;
+
+        NoUsableConstructor(String x) {
+            this.x = x.length();
+        }
+    }
+
+    @Test
+    void bindEmployeesThroughTheirConstructor() {
+        final RootNode root = Json.toRootNode(Sources.fileSource(new File("./src/test/resources/json/depts.json")));
+
+        final List<Employee> employees = JsonBinder.bindList(Employee.class, Path.atPath("departments[0].employees", root));
+        assertEquals(3, employees.size());
+        assertEquals(new Employee("Cindy", "Torre-alto", "04/15/1993", true, 999, 111), employees.get(2));
+
+        final List<Department> departments = JsonBinder.bindList(Department.class, Path.atPath("departments", root));
+        assertEquals("Engineering", departments.get(0).name());
+        assertEquals(employees, departments.get(0).employees());
+        assertEquals(departments.get(1).employees().size(), Path.atPath("departments[1].employees", root).asCollection().asArray().size());
+    }
+
+    @Test
+    void bindWithSettersAndFields() {
+        final Reading reading = JsonBinder.bind(Reading.class, "{\"count\": 3, \"unknown\": {\"a\": [1, {\"b\": 2}]}, " +
+                "\"timestamp\": 1700000000123, \"value\": 1.5, \"ratio\": 0.25, \"valid\": true, \"boxed\": null, " +
+                "\"name\": \"a\\tb\", \"level\": \"HIGH\", \"big\": 12345678901234567890, \"samples\": [1, 2, 3], " +
+                "\"tags\": [\"x\", \"y\"], \"ignored\": 5, \"viaSetter\": 7, " +
+                "\"child\": {\"count\": 4, \"child\": null}}");
+
+        assertEquals(3, reading.count);
+        assertEquals(1700000000123L, reading.timestamp);
+        assertEquals(1.5, reading.value);
+        assertEquals(0.25f, reading.ratio);
+        assertTrue(reading.valid);
+        assertNull(reading.boxed);
+        assertEquals("a\tb", reading.name);
+        assertEquals(Level.HIGH, reading.level);
+        assertEquals(new BigInteger("12345678901234567890"), reading.big);
+        assertArrayEquals(new long[]{1, 2, 3}, reading.samples);
+        assertEquals(2, reading.tags.size());
+        assertEquals("y", reading.tags.get(1));
+        assertEquals(0, reading.ignored);
+        assertEquals(7, reading.viaSetter);
+        assertTrue(reading.setterCalled);
+        assertEquals(4, reading.child.count);
+        assertNull(reading.child.child);
+        assertFalse(reading.child.valid);
+    }
+
+    @Test
+    void bindThroughConstructorWithMissingKeys() {
+        final Point point = JsonBinder.bind(Point.class, "{\"y\": 2, \"z\": 9}");
+        assertEquals(0, point.x);
+        assertEquals(2, point.y);
+    }
+
+    @Test
+    void bindConstructorParametersByName() {
+        final Name name = JsonBinder.bind(Name.class, "{\"first\": \"Ada\", \"last\": \"Lovelace\", \"age\": 36, \"initial\": \"A\"}");
+        assertEquals("Ada", name.first);
+        assertEquals("Lovelace", name.last);
+        assertEquals(36, name.age);
+        assertEquals('A', name.initial);
+
+        final BindException ex = assertThrows(BindException.class, () -> JsonBinder.bind(UnnamedParameters.class, "{}"));
+        assertTrue(ex.getMessage().contains("same type"), ex.getMessage());
+    }
+
+    @Test
+    void bindShortByteAndChar() {
+        final Small small = JsonBinder.bind(Small.class, "{\"count\": -300, \"flags\": 7, \"grade\": \"B\", \"boxed\": null}");
+        assertEquals(-300, small.count);
+        assertEquals(7, small.flags);
+        assertEquals('B', small.grade);
+        assertNull(small.boxed);
+        assertThrows(BindException.class, () -> JsonBinder.bind(Small.class, "{\"flags\": 128}"));
+        assertThrows(BindException.class, () -> JsonBinder.bind(Small.class, "{\"count\": 40000}"));
+        assertThrows(BindException.class, () -> JsonBinder.bind(Small.class, "{\"grade\": \"AB\"}"));
+    }
+
+    @Test
+    void errors() {
+        assertThrows(BindException.class, () -> JsonBinder.bind(Reading.class, "{\"count\": \"three\"}"));
+        assertThrows(BindException.class, () -> JsonBinder.bind(Reading.class, "[1]"));
+        assertThrows(BindException.class, () -> JsonBinder.bind(NoUsableConstructor.class, "{}"));
+        assertThrows(BindException.class, () -> JsonBinder.bind(Runnable.class, "{}"));
+        assertThrows(ArithmeticException.class, () -> JsonBinder.bind(Point.class, "{\"x\": 2147483648}"));
+    }
+
+    @Test
+    void plansAreCachedAndShared() throws Exception {
+        assertSame(JsonBinder.plan(Employee.class), JsonBinder.plan(Employee.class));
+
+        final String json = Sources.fileSource(new File("./src/test/resources/json/depts.json")).toString();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<List<Department>>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> JsonBinder.bindList(Department.class, Path.atPath("departments", json))));
+            }
+            for (Future<List<Department>> future : futures) {
+                assertEquals(3, future.get().get(0).employees().size());
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void fillReusesTargetAndFields() {
+        final Message message = new Message();
+        final StringBuilder subject = message.subject;
+        final Header header = message.header;
+
+        JsonBinder.fill(message, Sources.stringSource("{\"sequence\": 1, \"subject\": \"orders.new\", " +
+                "\"reply\": \"_INBOX.1\", \"header\": {\"size\": 10, \"type\": \"a\"}, \"note\": \"n\"}"));
+        assertEquals(1, message.sequence);
+        assertEquals("orders.new", message.subject.toString());
+        assertEquals("_INBOX.1", message.reply.toString());
+        assertEquals(10, header.size);
+        final StringBuilder type = header.type;
+        final CharSequenceView reply = message.reply;
+
+        final RootNode root = Json.toRootNode("{\"sequence\": 2, \"subject\": \"orders.\\u0041\\tx\", " +
+                "\"reply\": \"_INBOX.\\\"2\\\"\", \"header\": {\"type\": \"bb\"}}");
+        assertSame(message, JsonBinder.fill(message, root));
+        assertEquals(2, message.sequence);
+        assertSame(subject, message.subject);
+        assertEquals("orders.A\tx", message.subject.toString());
+        assertSame(reply, message.reply);
+        assertTrue(message.reply.contentEquals("_INBOX.\"2\""));
+        assertEquals('"', message.reply.charAt(7));
+        assertSame(header, message.header);
+        assertSame(type, header.type);
+        assertEquals("bb", header.type.toString());
+        assertEquals(10, header.size);
+        assertEquals("n", message.note);
+
+        JsonBinder.fill(message, Json.toRootNode("{\"reply\": \"plain\", \"header\": null}"));
+        assertEquals("plain", message.reply.toString());
+        assertEquals(5, message.reply.length());
+        assertNull(message.header);
+
+        assertThrows(BindException.class, () -> JsonBinder.fill(new Point(1, 2), Json.toRootNode("{\"x\": 3}")));
+        assertThrows(BindException.class, () -> JsonBinder.fill(message, Json.toRootNode("{\"subject\": 3}")));
+    }
+
+    @Test
+    void charSequenceViewUsesTheTokenEscapeFlag() {
+        final CharSource source = Sources.stringSource("\"a\\nb\"");
+        final CharSequenceView view = new CharSequenceView();
+
+        /* A string token is trusted, so the string is not scanned for a backslash again. */
+        assertSame(view, TokenValues.charSequenceViewValue(new StringToken(1, 5, true), source, view));
+        assertEquals("a\nb", view.toString());
+        assertEquals("a\\nb", TokenValues.charSequenceViewValue(new StringToken(1, 5, false), source, view).toString());
+
+        /* A plain token has no flag, so the string is scanned. */
+        assertEquals("a\nb", TokenValues.charSequenceViewValue(new Token(1, 5, TokenTypes.STRING_TOKEN), source, view).toString());
+        assertEquals("a\nb", TokenValues.charSequenceViewValue(Json.builder().build().scan(source).get(0), source, null).toString());
+    }
+}
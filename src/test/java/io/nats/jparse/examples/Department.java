@@ -15,10 +15,15 @@
  */
 package io.nats.jparse.examples;
 
+import io.nats.jparse.bind.JsonName;
+import io.nats.jparse.bind.JsonReadable;
+
 import java.util.List;
 import java.util.Objects;
 
+@JsonReadable
 public final class Department {
+    @JsonName("departmentName")
     private final String name;
     private final List<Employee> employees;
 
@@ -32,6 +37,10 @@ public final class Department {
         return name;
     }
 
+    public List<Employee> employees() {
+        return employees;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == this) return true;
@@ -15,8 +15,12 @@
  */
 package io.nats.jparse.examples;
 
+import io.nats.jparse.bind.JsonReadable;
+
+import java.beans.ConstructorProperties;
 import java.util.Objects;
 
+@JsonReadable
 public final class Employee {
     private final String firstName;
     private final String lastName;
@@ -25,6 +29,7 @@ public final class Employee {
     private final int id;
     private final int managerId;
 
+    @ConstructorProperties({"firstName", "lastName", "dob", "manager", "id", "managerId"})
     public Employee(String firstName, String lastName,
              String dob, boolean manager,
              int id, int managerId) {
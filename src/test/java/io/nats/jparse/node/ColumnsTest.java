@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.node;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.Path;
+import io.nats.jparse.node.support.UnexpectedElementException;
+import io.nats.jparse.source.Sources;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnsTest {
+
+    @Test
+    void departmentEmployees() {
+        final RootNode root = Json.toRootNode(Sources.fileSource(new File("./src/test/resources/json/depts.json")));
+        final ArrayNode employees = Path.atPath("departments[0].employees", root).asCollection().asArray();
+
+        final Columns columns = employees.toColumns("firstName", "manager", "id", "managerId", "salary");
+        assertEquals(3, columns.rows());
+        assertEquals(5, columns.size());
+
+        final Column firstName = columns.column("firstName");
+        assertEquals(Column.Type.STRING, firstName.type());
+        assertArrayEquals(new CharSequence[]{"Bob", "Rick", "Cindy"}, firstName.strings());
+        assertEquals(0, firstName.nullCount());
+
+        assertArrayEquals(new boolean[]{true, false, true}, columns.column("manager").booleans());
+        assertArrayEquals(new int[]{111, 777, 999}, columns.column(2).ints());
+        assertArrayEquals(new int[]{-1, 111, 111}, columns.column("managerId").ints());
+
+        final Column salary = columns.column("salary");
+        assertEquals(Column.Type.NULL, salary.type());
+        assertEquals(3, salary.nullCount());
+        assertTrue(salary.isNull(2));
+        assertThrows(IllegalStateException.class, salary::ints);
+        assertThrows(IllegalArgumentException.class, () -> columns.column("lastname"));
+    }
+
+    @Test
+    void typesAreWidenedAndNullsMarked() {
+        final ArrayNode rows = Json.toArrayNode("[" +
+                "{\"a\": 1, \"b\": 1, \"c\": true, \"d\": \"x\", \"e\": {\"n\": [1, 2]}, \"f\": 1}," +
+                "{\"e\": null, \"a\": 2147483648, \"b\": 2.5, \"d\": 7, \"f\": 12345678901234567890}," +
+                "{\"a\": null, \"b\": 3, \"c\": false, \"d\": \"y\\n\", \"e\": [3], \"f\": -2}" +
+                "]");
+        final Columns columns = rows.toColumns("a", "b", "c", "d", "e", "f");
+
+        final Column a = columns.column("a");
+        assertEquals(Column.Type.LONG, a.type());
+        assertArrayEquals(new long[]{1, 2147483648L, 0}, a.longs());
+        assertFalse(a.isNull(1));
+        assertTrue(a.isNull(2));
+        assertEquals(4L, a.nullBitmap()[0]);
+
+        assertArrayEquals(new double[]{1, 2.5, 3}, columns.column("b").doubles());
+
+        final Column c = columns.column("c");
+        assertEquals(Column.Type.BOOLEAN, c.type());
+        assertTrue(c.isNull(1));
+        assertArrayEquals(new boolean[]{true, false, false}, c.booleans());
+
+        /* Mixed types are kept as JSON text, strings decoded. */
+        assertArrayEquals(new CharSequence[]{"x", "7", "y\n"}, columns.column("d").strings());
+        assertArrayEquals(new CharSequence[]{"{\"n\": [1, 2]}", null, "[3]"}, columns.column("e").strings());
+
+        final Column f = columns.column("f");
+        assertEquals(Column.Type.DOUBLE, f.type());
+        assertEquals(1.2345678901234567E19, f.doubles()[1]);
+    }
+
+    @Test
+    void manyRows() {
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"ts\":").append(1_700_000_000_000L + i)
+                    .append(i % 3 == 0 ? "" : ",\"v\":" + i).append('}');
+        }
+        final Columns columns = Json.toArrayNode(json.append(']').toString()).toColumns("ts", "v");
+        assertEquals(1000, columns.rows());
+        assertEquals(1_700_000_000_999L, columns.column("ts").longs()[999]);
+        final Column v = columns.column("v");
+        assertEquals(334, v.nullCount());
+        assertTrue(v.isNull(999));
+        assertEquals(998, v.ints()[998]);
+    }
+
+    @Test
+    void elementsMustBeObjects() {
+        final UnexpectedElementException error = assertThrows(UnexpectedElementException.class,
+                () -> Json.toArrayNode("[{\"a\": 1}, 2]").toColumns("a"));
+        assertEquals(1, error.elementIndex());
+        assertEquals(0, Json.toArrayNode("[]").toColumns("a").rows());
+    }
+
+    @Test
+    void encodedKeys() {
+        final RootNode root = Json.builder().setStrict(false).setObjectsKeysCanBeEncoded(true).build()
+                .parse("[{\"a\\u0062\": 1}, {\"ab\": 2}]");
+        assertArrayEquals(new int[]{1, 2}, root.getArrayNode().toColumns("ab").column(0).ints());
+    }
+}
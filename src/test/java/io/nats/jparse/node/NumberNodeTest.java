@@ -0,0 +1,141 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.node;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.token.NumberToken;
+import io.nats.jparse.token.NumberTypes;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NumberNodeTest {
+
+    private static final String[] NUMBERS = {
+            "0", "2147483647", "2147483648", "-2147483648", "-2147483649",
+            "9223372036854775807", "9223372036854775808", "-9223372036854775808", "-9223372036854775809",
+            "12345678901234567890", "1.5", "-12345678901234.6", "1234567890123456.7", "1e5", "-2.5E-3"
+    };
+
+    private static final int[] NUMBER_TYPES = {
+            NumberTypes.FITS_INT, NumberTypes.FITS_INT, NumberTypes.FITS_LONG, NumberTypes.FITS_INT, NumberTypes.FITS_LONG,
+            NumberTypes.FITS_LONG, NumberTypes.BIG_INTEGER, NumberTypes.FITS_LONG, NumberTypes.BIG_INTEGER,
+            NumberTypes.BIG_INTEGER, NumberTypes.SIMPLE_DECIMAL, NumberTypes.SIMPLE_DECIMAL, NumberTypes.FULL_FLOAT,
+            NumberTypes.FULL_FLOAT, NumberTypes.FULL_FLOAT
+    };
+
+    private static final List<JsonParser> PARSERS = Arrays.asList(
+            Json.builder().build(),
+            Json.builder().setStrict(true).build(),
+            Json.builder().setIterative(true).build());
+
+    @Test
+    void scannerClassifiesNumbers() {
+        final String json = "[" + String.join(", ", NUMBERS) + "]";
+        for (JsonParser parser : PARSERS) {
+            final ArrayNode array = parser.parse(json).getArrayNode();
+            for (int i = 0; i < NUMBERS.length; i++) {
+                final NumberNode number = array.getNumberNode(i);
+                assertTrue(number.rootElementToken() instanceof NumberToken, NUMBERS[i]);
+                assertEquals(NUMBER_TYPES[i], number.numberType(), NUMBERS[i]);
+            }
+        }
+    }
+
+    @Test
+    void offsetSourceClassifiesNumbers() {
+        final char[] chars = ("xx[" + String.join(",", NUMBERS) + "]").toCharArray();
+        final ArrayNode array = Json.toArrayNode(Sources.charSource(2, chars));
+        for (int i = 0; i < NUMBERS.length; i++) {
+            assertEquals(NUMBER_TYPES[i], array.getNumberNode(i).numberType(), NUMBERS[i]);
+        }
+    }
+
+    @Test
+    void unclassifiedTokenIsClassifiedOnUse() {
+        for (int i = 0; i < NUMBERS.length; i++) {
+            final CharSource source = Sources.stringSource(NUMBERS[i]);
+            final boolean isFloat = NUMBER_TYPES[i] >= NumberTypes.SIMPLE_DECIMAL;
+            final NumberNode number = new NumberNode(new Token(0, NUMBERS[i].length(),
+                    isFloat ? TokenTypes.FLOAT_TOKEN : TokenTypes.INT_TOKEN), source, isFloat ? NodeType.FLOAT : NodeType.INT);
+            assertEquals(NUMBER_TYPES[i], number.numberType(), NUMBERS[i]);
+        }
+    }
+
+    @Test
+    void valueUsesTheNumberClass() {
+        final ArrayNode array = Json.toArrayNode("[1, 2147483648, 9223372036854775808, 1.5]");
+        assertEquals(1, array.getNumberNode(0).value());
+        assertEquals(2147483648L, array.getNumberNode(1).value());
+        assertEquals(new BigInteger("9223372036854775808"), array.getNumberNode(2).value());
+        assertEquals(1.5, array.getNumberNode(3).value());
+
+        assertTrue(array.getNumberNode(0).isInteger());
+        assertTrue(array.getNumberNode(1).isLong());
+        assertFalse(array.getNumberNode(2).isLong());
+        assertTrue(array.getNumberNode(2).isBigInteger());
+        assertFalse(array.getNumberNode(3).isInteger());
+    }
+
+    @Test
+    void conversions() {
+        final ArrayNode array = Json.toArrayNode("[-9223372036854775808, 12345678901234567890, 2.75, -3000000000]");
+
+        assertEquals(Long.MIN_VALUE, array.getNumberNode(0).longValue());
+        assertEquals(BigInteger.valueOf(Long.MIN_VALUE), array.getNumberNode(0).bigIntegerValue());
+        assertEquals(-9.223372036854775808E18, array.getNumberNode(0).doubleValue());
+
+        assertEquals(new BigInteger("12345678901234567890"), array.getNumberNode(1).bigIntegerValue());
+        assertEquals(new BigInteger("12345678901234567890").longValue(), array.getNumberNode(1).longValue());
+        assertEquals(1.2345678901234567E19, array.getNumberNode(1).doubleValue());
+
+        assertEquals(2, array.getNumberNode(2).intValue());
+        assertEquals(2L, array.getNumberNode(2).longValue());
+        assertEquals(BigInteger.valueOf(2), array.getNumberNode(2).bigIntegerValue());
+
+        assertEquals((int) -3000000000L, array.getNumberNode(3).intValue());
+        assertEquals(-3000000000L, array.getNumberNode(3).longValue());
+    }
+
+    @Test
+    void getIntDoesNotOverflowSilently() {
+        final ObjectNode object = Json.toObjectNode("{\"int\": 2147483647, \"long\": 2147483648, \"big\": 9223372036854775808, \"float\": 1e10}");
+        assertEquals(Integer.MAX_VALUE, object.getInt("int"));
+        assertThrows(ArithmeticException.class, () -> object.getInt("long"));
+        assertThrows(ArithmeticException.class, () -> object.getInt("big"));
+        assertThrows(ArithmeticException.class, () -> object.getInt("float"));
+
+        assertEquals(2147483648L, object.getLong("long"));
+        assertEquals(10_000_000_000L, object.getLong("float"));
+        assertThrows(ArithmeticException.class, () -> object.getLong("big"));
+
+        assertThrows(ArithmeticException.class, () -> Json.toArrayNode("[2147483648]").getInt(0));
+        assertThrows(ArithmeticException.class, () -> Json.toRootNode("-2147483649").getInt());
+        assertEquals(Integer.MIN_VALUE, Json.toRootNode("-2147483648").getInt());
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.node;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.source.Sources;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static io.nats.jparse.Json.niceJson;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShapeCacheTest {
+
+    @Test
+    void sameKeysShareOneShape() {
+        final ShapeCache shapes = new ShapeCache();
+        final JsonParser parser = Json.builder().setShapeCache(shapes).build();
+
+        for (int i = 0; i < 3; i++) {
+            final ObjectNode node = parser.parse(niceJson("{'id': " + i + ", 'name': 'n" + i + "', 'tags': [{'k': 1}, {'k': 2}]}")).getObjectNode();
+            assertEquals(i, node.getInt("id"));
+            assertEquals("n" + i, node.getString("name"));
+            assertEquals(2, node.getArrayNode("tags").getObjectNode(1).getInt("k"));
+            assertNull(node.getNode("missing"));
+            assertFalse(node.containsKey("nam"));
+        }
+        /* The message shape and the shape of the array elements. */
+        assertEquals(2, shapes.size());
+    }
+
+    @Test
+    void otherKeyOrdersAndDuplicateKeys() {
+        final ShapeCache shapes = new ShapeCache();
+        final JsonParser parser = Json.builder().setShapeCache(shapes).build();
+
+        assertEquals(1, parser.parse(niceJson("{'a': 1, 'b': 2}")).getObjectNode().getInt("a"));
+        assertEquals(1, parser.parse(niceJson("{'b': 2, 'a': 1}")).getObjectNode().getInt("a"));
+        assertEquals(2, shapes.size());
+
+        final ObjectNode duplicates = parser.parse(niceJson("{'a': 1, 'a': 2}")).getObjectNode();
+        assertEquals(1, duplicates.getInt("a"));
+        assertEquals(Json.toObjectNode(niceJson("{'a': 1, 'a': 2}")).getInt("a"), duplicates.getInt("a"));
+
+        assertTrue(parser.parse("{}").getObjectNode().isEmpty());
+    }
+
+    @Test
+    void lookupWithAnyCharSequence() {
+        final ShapeCache shapes = new ShapeCache();
+        final JsonParser parser = Json.builder().setShapeCache(shapes).build();
+        final StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < 40; i++) {
+            json.append(i == 0 ? "" : ",").append("\"key").append(i).append("\":").append(i);
+        }
+        final String text = json.append("}").toString();
+
+        for (int round = 0; round < 2; round++) {
+            final ObjectNode node = parser.parse(text).getObjectNode();
+            for (int i = 0; i < 40; i++) {
+                assertEquals(i, node.getInt("key" + i));
+                assertEquals(i, node.getInt(new StringBuilder("key").append(i)));
+            }
+            assertNull(node.getNode(new StringBuilder("key40")));
+            assertFalse(node.containsKey("key"));
+        }
+        assertEquals(1, shapes.size());
+    }
+
+    @Test
+    void fullCacheFallsBackToKeyLookup() {
+        final ShapeCache shapes = new ShapeCache(1);
+        final JsonParser parser = Json.builder().setShapeCache(shapes).build();
+
+        assertEquals(1, parser.parse(niceJson("{'a': 1}")).getObjectNode().getInt("a"));
+        final ObjectNode other = parser.parse(niceJson("{'b': 2, 'c': {'d': 3}}")).getObjectNode();
+        assertEquals(2, other.getInt("b"));
+        assertEquals(3, other.getObjectNode("c").getInt("d"));
+        assertEquals(1, shapes.size());
+    }
+
+    @Test
+    void encodedKeysDoNotUseShapes() {
+        final ShapeCache shapes = new ShapeCache();
+        final JsonParser parser = Json.builder().setShapeCache(shapes).setObjectsKeysCanBeEncoded(true).build();
+
+        assertEquals(1, parser.parse(niceJson("{'a': 1, 'b`n': 2}")).getObjectNode().getInt("a"));
+        assertEquals(0, shapes.size());
+    }
+
+    @Test
+    void cloudEvents() {
+        final String json = Sources.fileSource(new File("./src/test/resources/cloudevents/glossaryEvent.json")).toString();
+        final ShapeCache shapes = new ShapeCache();
+        final JsonParser parser = Json.builder().setShapeCache(shapes).build();
+
+        int shapeCount = 0;
+        for (int i = 0; i < 2; i++) {
+            final ObjectNode event = parser.parse(json).getObjectNode();
+            final ObjectNode expected = Json.toObjectNode(json);
+            assertEquals("glossaryFeed", event.getString("subject"));
+            assertEquals(10, event.getInt("aNumber"));
+            assertEquals(expected, event);
+            assertEquals(expected.getObjectNode("data").toString(), event.getObjectNode("data").toString());
+            if (i == 0) {
+                shapeCount = shapes.size();
+            }
+        }
+        /* The second event reuses every shape recorded for the first one. */
+        assertEquals(7, shapeCount);
+        assertEquals(shapeCount, shapes.size());
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.node;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.token.StringToken;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StringNodeTest {
+
+    private static final String JSON = "[\"plain\", \"tab\\tquote\\\"\", \"\\u00e9t\\u00e9\", \"\", \"end\\\\\"]";
+    private static final String[] DECODED = {"plain", "tab\tquote\"", "été", "", "end\\"};
+    private static final boolean[] ESCAPES = {false, true, true, false, true};
+
+    private static final List<JsonParser> PARSERS = Arrays.asList(
+            Json.builder().build(),
+            Json.builder().setStrict(true).build(),
+            Json.builder().setIterative(true).build());
+
+    @Test
+    void scannerRecordsEscapes() {
+        for (JsonParser parser : PARSERS) {
+            final ArrayNode array = parser.parse(JSON).getArrayNode();
+            for (int i = 0; i < DECODED.length; i++) {
+                final StringNode string = array.getStringNode(i);
+                assertTrue(string.rootElementToken() instanceof StringToken, DECODED[i]);
+                assertEquals(ESCAPES[i], string.hasEscapes(), DECODED[i]);
+                assertEquals(DECODED[i], string.toString());
+            }
+        }
+    }
+
+    @Test
+    void offsetSourceRecordsEscapes() {
+        final ArrayNode array = Json.toArrayNode(Sources.charSource(3, ("abc" + JSON).toCharArray()));
+        for (int i = 0; i < DECODED.length; i++) {
+            assertEquals(ESCAPES[i], array.getStringNode(i).hasEscapes(), DECODED[i]);
+        }
+    }
+
+    @Test
+    void plainTokenIsScannedOnUse() {
+        final String json = "a\\nb";
+        final StringNode string = new StringNode(new Token(0, json.length(), TokenTypes.STRING_TOKEN), Sources.stringSource(json));
+        assertTrue(string.hasEscapes());
+        assertEquals("a\nb", string.toString());
+        assertFalse(new StringNode(new Token(0, 1, TokenTypes.STRING_TOKEN), Sources.stringSource("a")).hasEscapes());
+    }
+
+    @Test
+    void toStringIsCached() {
+        final StringNode string = Json.toArrayNode(JSON).getStringNode(1);
+        assertSame(string.toString(), string.toString());
+    }
+
+    @Test
+    void decodeTo() {
+        final ArrayNode array = Json.toArrayNode(JSON);
+        for (int i = 0; i < DECODED.length; i++) {
+            final StringNode string = array.getStringNode(i);
+            final char[] buffer = new char[string.length() + 2];
+            final int count = string.decodeTo(buffer, 2);
+            assertEquals(DECODED[i], new String(buffer, 2, count));
+            /* Decoding after the value is cached copies the cached value. */
+            string.toString();
+            assertEquals(count, string.decodeTo(buffer, 1));
+            assertEquals(DECODED[i], new String(buffer, 1, count));
+        }
+    }
+
+    @Test
+    void appendTo() throws IOException {
+        final ArrayNode array = Json.toArrayNode(JSON);
+        for (int i = 0; i < DECODED.length; i++) {
+            final StringNode string = array.getStringNode(i);
+            assertEquals(">" + DECODED[i], string.appendTo(new StringBuilder(">")).toString());
+            assertEquals(DECODED[i], string.appendTo(new StringWriter()).toString());
+            assertEquals(DECODED[i], string.appendTo(new StringBuffer()).toString());
+        }
+    }
+
+    @Test
+    void unencodedStrings() throws IOException {
+        final String json = "a\\tb";
+        final StringNode string = new StringNode(new StringToken(0, json.length(), true), Sources.stringSource(json), false);
+        assertEquals(json, string.toString());
+        final char[] buffer = new char[json.length()];
+        assertEquals(json.length(), string.decodeTo(buffer, 0));
+        assertEquals(json, new String(buffer));
+        assertEquals(json, string.appendTo(new StringBuilder()).toString());
+    }
+
+    @Test
+    void escapeAwareComparison() {
+        final ArrayNode array = Json.toArrayNode("[\"caf\\u00e9\", \"café\", \"caf\\\\u00e9\"]");
+        final StringNode escaped = array.getStringNode(0);
+        final StringNode plain = array.getStringNode(1);
+
+        assertEquals(escaped, "café");
+        assertEquals(escaped, plain);
+        assertEquals(plain, escaped);
+        assertEquals("café".hashCode(), escaped.hashCode());
+        assertEquals(plain.hashCode(), escaped.hashCode());
+        assertNotEquals(escaped, "caf\\u00e9");
+        assertNotEquals(escaped, array.getStringNode(2));
+        assertEquals("caf\\u00e9", array.getStringNode(2).toString());
+
+        assertTrue(escaped.startsWith("caf"));
+        assertTrue(escaped.startsWith("café"));
+        assertFalse(escaped.startsWith("café!"));
+        assertTrue(plain.startsWith(""));
+        assertFalse(plain.startsWith("cafe"));
+
+        assertEquals(0, escaped.compareTo("café"));
+        assertTrue(escaped.compareTo("cafe") > 0);
+        assertTrue(plain.compareTo("cafés") < 0);
+        assertEquals(0, plain.compareTo("café"));
+    }
+
+    @Test
+    void encodedKeysMatchDecodedKeys() {
+        final String json = "{\"caf\\u00e9\": 1, \"tab\\there\": 2, \"plain\": 3}";
+        final ObjectNode object = Json.builder().setObjectsKeysCanBeEncoded(true).build().parse(json).getObjectNode();
+        assertEquals(1, object.getInt("café"));
+        assertEquals(2, object.getInt("tab\there"));
+        assertEquals(3, object.getInt("plain"));
+        assertFalse(object.containsKey("caf"));
+        assertFalse(object.containsKey("caf\\u00e9"));
+    }
+
+    @Test
+    void encodedKeyNodesLookUpDecodedKeys() {
+        final String json = "{\"caf\\u00e9\": 1, \"plain\": 2}";
+        final ObjectNode object = Json.builder().setObjectsKeysCanBeEncoded(true).build().parse(json).getObjectNode();
+        final ObjectNode other = Json.builder().setObjectsKeysCanBeEncoded(true).build().parse(json).getObjectNode();
+        assertEquals(1, other.getInt("café"));
+        for (CharSequence key : object.getKeys()) {
+            assertEquals(object.getNode(key.toString()), object.getNode(key));
+            assertEquals(object.getNode(key), other.getNode(key));
+        }
+        assertEquals(object, other);
+        assertEquals(other, object);
+    }
+}
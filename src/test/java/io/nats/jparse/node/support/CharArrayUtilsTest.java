@@ -19,6 +19,8 @@ import org.junit.jupiter.api.Test;
 
 import static io.nats.jparse.Json.niceJson;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class CharArrayUtilsTest {
 
@@ -31,4 +33,47 @@ class CharArrayUtilsTest {
         assertEquals(expectedCount, result.length());
         assertEquals("hello \b \n \b \u1234 ", result);
     }
+
+    @Test
+    void decodeJsonStringIntoBuilder() {
+        final String encodedString = niceJson("xhello `b `n `b `u1234 `` end`\"x");
+        final StringBuilder builder = new StringBuilder("kept:");
+        CharArrayUtils.decodeJsonString(encodedString.toCharArray(), 1, encodedString.length() - 1, builder);
+        assertEquals("kept:hello \b \n \b \u1234 \\ end\"", builder.toString());
+        assertEquals(CharArrayUtils.decodeJsonString(encodedString.toCharArray(), 1, encodedString.length() - 1),
+                builder.substring(5));
+
+        builder.setLength(0);
+        CharArrayUtils.decodeJsonString("plain".toCharArray(), 0, 5, builder);
+        assertEquals("plain", builder.toString());
+    }
+
+    @Test
+    void decodeJsonStringIntoArray() {
+        final char[] encoded = niceJson("hello `b `n `u00e9 `` end").toCharArray();
+        final char[] decoded = new char[encoded.length + 1];
+        final int count = CharArrayUtils.decodeJsonString(encoded, 0, encoded.length, decoded, 1);
+        assertEquals(CharArrayUtils.decodeJsonString(encoded, 0, encoded.length), new String(decoded, 1, count));
+        assertEquals(5, CharArrayUtils.decodeJsonString("plain".toCharArray(), 0, 5, decoded, 0));
+    }
+
+    @Test
+    void compareDecoded() {
+        final char[] encoded = niceJson("caf`u00e9 `t`\"x`\"").toCharArray();
+        final String decoded = CharArrayUtils.decodeJsonString(encoded, 0, encoded.length);
+        assertEquals("café \t\"x\"", decoded);
+
+        assertTrue(CharArrayUtils.equalsDecoded(encoded, 0, encoded.length, decoded));
+        assertFalse(CharArrayUtils.equalsDecoded(encoded, 0, encoded.length, "café \t\"x"));
+        assertFalse(CharArrayUtils.equalsDecoded(encoded, 0, encoded.length, decoded + "!"));
+        assertFalse(CharArrayUtils.equalsDecoded(encoded, 0, encoded.length, new String(encoded)));
+
+        for (String other : new String[]{"", "caf", "café", "cafz", "café \t\"x\"", "café \t\"x\"!", "d"}) {
+            assertEquals(Integer.signum(decoded.compareTo(other)),
+                    Integer.signum(CharArrayUtils.compareDecoded(encoded, 0, encoded.length, other)), other);
+            assertEquals(decoded.startsWith(other), CharArrayUtils.startsWithDecoded(encoded, 0, encoded.length, other), other);
+        }
+        assertEquals(decoded.hashCode(), CharArrayUtils.hashCodeDecoded(encoded, 0, encoded.length));
+        assertEquals("plain".hashCode(), CharArrayUtils.hashCodeDecoded("plain".toCharArray(), 0, 5));
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.node.support;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.node.ArrayNode;
+import io.nats.jparse.node.NodeType;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.token.Token;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NumberArrayCopyTest {
+
+    @Test
+    void copyIntoArraysWithOffsetAndLength() {
+        final ArrayNode array = Json.toArrayNode("[1, 2, 3, 4, 5]");
+
+        final int[] ints = new int[4];
+        assertEquals(3, array.copyInts(1, ints, 1, 3));
+        assertArrayEquals(new int[]{0, 2, 3, 4}, ints);
+
+        final long[] longs = new long[10];
+        assertEquals(2, array.copyLongs(3, longs, 0, 10));
+        assertArrayEquals(new long[]{4, 5}, Arrays.copyOf(longs, 2));
+
+        final double[] doubles = new double[5];
+        assertEquals(5, array.copyDoubles(0, doubles, 0, 5));
+        assertArrayEquals(new double[]{1, 2, 3, 4, 5}, doubles);
+
+        assertEquals(0, array.copyInts(5, ints, 0, 4));
+        assertEquals(0, array.copyInts(9, ints, 0, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> array.copyInts(0, ints, 2, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> array.copyInts(-1, ints, 0, 1));
+    }
+
+    @Test
+    void copyIntoBuffers() {
+        final ArrayNode array = Json.toArrayNode("[1700000000000, 2, -3]");
+
+        final LongBuffer longs = ByteBuffer.allocateDirect(8 * 8).asLongBuffer();
+        longs.position(1);
+        assertEquals(3, array.copyLongs(0, longs));
+        assertEquals(4, longs.position());
+        assertEquals(1700000000000L, longs.get(1));
+        assertEquals(-3L, longs.get(3));
+
+        final IntBuffer ints = IntBuffer.allocate(1);
+        assertEquals(1, array.copyInts(1, ints));
+        assertEquals(2, ints.get(0));
+        assertEquals(0, ints.remaining());
+
+        final DoubleBuffer doubles = ByteBuffer.allocateDirect(8 * 2).asDoubleBuffer();
+        assertEquals(2, Json.toArrayNode("[1.5, -2e3, 7]").copyDoubles(0, doubles));
+        assertEquals(1.5, doubles.get(0));
+        assertEquals(-2000.0, doubles.get(1));
+    }
+
+    @Test
+    void nonNumericElements() {
+        final ArrayNode array = Json.toArrayNode("[1, 2.5, \"three\", [4], {\"five\":5}]");
+
+        UnexpectedElementException error = assertThrows(UnexpectedElementException.class, () -> array.getIntArray());
+        assertEquals(1, error.elementIndex());
+        assertEquals(NodeType.FLOAT, error.nodeType());
+
+        error = assertThrows(UnexpectedElementException.class, () -> array.getDoubleArray());
+        assertEquals(2, error.elementIndex());
+        assertEquals(NodeType.STRING, error.nodeType());
+
+        final double[] doubles = new double[2];
+        assertEquals(2, array.copyDoubles(0, doubles, 0, 2));
+        assertArrayEquals(new double[]{1, 2.5}, doubles);
+
+        error = assertThrows(UnexpectedElementException.class, () -> array.copyDoubles(3, new double[1], 0, 1));
+        assertEquals(2, error.elementIndex());
+
+        error = assertThrows(UnexpectedElementException.class, () -> Json.toArrayNode("[[1, 2], [3]]").getLongArray());
+        assertEquals(0, error.elementIndex());
+        assertEquals(NodeType.ARRAY, error.nodeType());
+
+        assertThrows(ArithmeticException.class, () -> Json.toArrayNode("[1, 2147483648]").getIntArray());
+    }
+
+    @Test
+    void copyLargeArrayInParallel() {
+        final int size = NumberArrayCopy.PARALLEL_THRESHOLD * 3 + 7;
+        final long[] expected = new long[size];
+        final Random random = new Random(34);
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            expected[i] = random.nextLong();
+            json.append(i == 0 ? "" : ",").append(expected[i]);
+        }
+        final ArrayNode array = Json.toArrayNode(json.append(']').toString());
+
+        assertArrayEquals(expected, array.getLongArray());
+
+        final LongBuffer buffer = ByteBuffer.allocateDirect(8 * size).asLongBuffer();
+        assertEquals(size, array.copyLongs(0, buffer));
+        for (int i = 0; i < size; i++) {
+            assertEquals(expected[i], buffer.get(i));
+        }
+
+        final double[] doubles = new double[size];
+        assertEquals(size - 5, array.copyDoubles(5, doubles, 0, size));
+        assertEquals((double) expected[size - 1], doubles[size - 6]);
+
+        assertThrows(ArithmeticException.class, () -> array.getIntArray());
+    }
+
+    @Test
+    void copyOnlyAcceptsNumberTargets() {
+        final CharSource source = Sources.charSeqSource("[1.5, 2, -3]");
+        final List<Token> tokens = Json.builder().build().scan(source);
+
+        final float[] floats = new float[3];
+        assertEquals(3, NumberArrayCopy.copy(tokens, source, 0, floats, 0, 3));
+        assertArrayEquals(new float[]{1.5f, 2, -3}, floats);
+
+        final FloatBuffer buffer = FloatBuffer.allocate(4);
+        buffer.position(1);
+        assertEquals(2, NumberArrayCopy.copy(tokens, source, 1, buffer, buffer.position(), buffer.remaining()));
+        assertEquals(3, buffer.position());
+        assertEquals(-3f, buffer.get(2));
+
+        for (Method method : NumberArrayCopy.class.getMethods()) {
+            if (method.getName().equals("copy")) {
+                final Class<?> target = method.getParameterTypes()[3];
+                assertFalse(target == Object.class || target == java.nio.Buffer.class, method.toString());
+            }
+        }
+    }
+}
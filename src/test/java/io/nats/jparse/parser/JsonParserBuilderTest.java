@@ -5,6 +5,7 @@ import io.nats.jparse.node.ObjectNode;
 import io.nats.jparse.parser.JsonParser;
 import io.nats.jparse.parser.JsonParserBuilder;
 import io.nats.jparse.parser.indexoverlay.JsonFastParser;
+import io.nats.jparse.parser.indexoverlay.JsonIterativeParser;
 import io.nats.jparse.parser.indexoverlay.JsonStrictParser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -74,6 +75,17 @@ class JsonParserBuilderTest {
         assertTrue(parser3 instanceof JsonFastParser);
     }
 
+    @Test
+    void testConflictingParserOptions() {
+        assertThrows(IllegalStateException.class, () -> new JsonParserBuilder().setStrict(true).setIterative(true).build());
+        assertThrows(IllegalStateException.class, () -> new JsonParserBuilder().setIterative(true).setProjectionPaths("a").build());
+        assertThrows(IllegalStateException.class, () -> new JsonParserBuilder().setStrict(true).setProjectionPaths("a").build());
+
+        builder.setStrict(true).setIterative(true);
+        builder.setStrict(false);
+        assertTrue(builder.build() instanceof JsonIterativeParser);
+    }
+
     @Test
     public void testObjectsKeysCanBeEncodedPropagation() {
         JsonParserBuilder builder = new JsonParserBuilder().setObjectsKeysCanBeEncoded(true);
@@ -0,0 +1,83 @@
+package io.nats.jparse.parser;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.source.Sources;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonValidatorTest {
+
+    @Test
+    void validationCorpus() {
+        final JsonParser parser = Json.builder().build();
+        final File[] files = new File("./src/test/resources/validation").listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            final long result = parser.validate(Sources.fileSource(file));
+            if (file.getName().startsWith("y_")) {
+                assertTrue(JsonValidator.isValid(result), file.getName());
+            } else if (file.getName().startsWith("n_")) {
+                assertFalse(JsonValidator.isValid(result), file.getName());
+            }
+        }
+    }
+
+    @Test
+    void validDocuments() {
+        final JsonParser parser = Json.builder().build();
+        assertEquals(JsonValidator.VALID, parser.validate(Json.niceJson("{'a':[1,-2.5e+3,true,false,null,'\\u00e9\\n'], 'b':{}}")));
+        assertEquals(JsonValidator.VALID, parser.validate(" 0 "));
+        assertEquals(JsonValidator.VALID, parser.validate("[[],[{}]]"));
+        assertEquals(-1, JsonValidator.errorIndex(JsonValidator.VALID));
+        assertEquals(JsonValidator.ERROR_NONE, JsonValidator.errorCode(JsonValidator.VALID));
+    }
+
+    @Test
+    void errorCodeAndIndex() {
+        final JsonParser parser = Json.builder().build();
+        assertError(parser.validate("[1,2,]"), JsonValidator.ERROR_TRAILING_COMMA, 5);
+        assertError(parser.validate("{\"a\" 1}"), JsonValidator.ERROR_MISSING_COLON, 5);
+        assertError(parser.validate("{1:1}"), JsonValidator.ERROR_INVALID_KEY, 1);
+        assertError(parser.validate("[01]"), JsonValidator.ERROR_INVALID_NUMBER, 2);
+        assertError(parser.validate("[1.]"), JsonValidator.ERROR_INVALID_NUMBER, 3);
+        assertError(parser.validate("[tru]"), JsonValidator.ERROR_INVALID_LITERAL, 4);
+        assertError(parser.validate("[\"\\x\"]"), JsonValidator.ERROR_INVALID_ESCAPE, 3);
+        assertError(parser.validate("[\"\t\"]"), JsonValidator.ERROR_CONTROL_CHARACTER, 2);
+        assertError(parser.validate("[1] x"), JsonValidator.ERROR_TRAILING_CHARACTERS, 4);
+        assertError(parser.validate("[1, 2"), JsonValidator.ERROR_UNEXPECTED_END, 5);
+        assertError(parser.validate(""), JsonValidator.ERROR_UNEXPECTED_END, 0);
+        assertError(parser.validate("[1 2]"), JsonValidator.ERROR_UNEXPECTED_CHARACTER, 3);
+    }
+
+    @Test
+    void embeddedEtxIsNotTheEnd() {
+        final JsonParser parser = Json.builder().build();
+        assertError(parser.validate("1\u0003junk"), JsonValidator.ERROR_UNEXPECTED_CHARACTER, 1);
+        assertError(parser.validate("{\"a\":1}\u0003]]]"), JsonValidator.ERROR_UNEXPECTED_CHARACTER, 7);
+        assertError(parser.validate("[1, \u0003]"), JsonValidator.ERROR_UNEXPECTED_CHARACTER, 4);
+        assertError(parser.validate("[\"a\u0003\"]"), JsonValidator.ERROR_UNEXPECTED_CHARACTER, 3);
+        assertFalse(JsonValidator.isValid(parser.validate(Sources.charSource(0, "[1]\u0003]".toCharArray()))));
+        assertEquals(JsonValidator.VALID, parser.validate(Sources.charSource(1, "x[1] ".toCharArray())));
+    }
+
+    @Test
+    void nestingTooDeep() {
+        final JsonParser parser = Json.builder().build();
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            builder.append('[');
+        }
+        final long result = parser.validate(builder.toString());
+        assertEquals(JsonValidator.ERROR_NESTING_TOO_DEEP, JsonValidator.errorCode(result));
+        assertEquals("Nesting too deep", JsonValidator.errorName(JsonValidator.errorCode(result)));
+    }
+
+    private static void assertError(final long result, final int errorCode, final int errorIndex) {
+        assertFalse(JsonValidator.isValid(result));
+        assertEquals(JsonValidator.errorName(errorCode), JsonValidator.errorName(JsonValidator.errorCode(result)));
+        assertEquals(errorIndex, JsonValidator.errorIndex(result));
+    }
+}
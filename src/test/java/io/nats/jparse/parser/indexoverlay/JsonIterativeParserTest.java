@@ -0,0 +1,93 @@
+package io.nats.jparse.parser.indexoverlay;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonIterativeParserTest {
+
+    @Test
+    void builderReturnsIterativeParser() {
+        assertTrue(Json.builder().setIterative(true).build() instanceof JsonIterativeParser);
+        assertEquals(10, Json.builder().setMaxDepth(10).maxDepth());
+    }
+
+    @Test
+    void sameTokensAsFastParser() {
+        final JsonParser fastParser = Json.builder().build();
+        final JsonParser iterativeParser = Json.builder().setIterative(true).build();
+        final File[] files = new File("./src/test/resources/json").listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            assertEquals(fastParser.scan(Sources.fileSource(file)), iterativeParser.scan(Sources.fileSource(file)), file.getName());
+        }
+        final String json = Json.niceJson("{ 'a' : [ ] , 'b':{ }, 'c' : [ 1 , 2.5 , [true], {'d':null} ] ,'e':'f' } ");
+        assertEquals(fastParser.scan(json), iterativeParser.scan(json));
+    }
+
+    @Test
+    void validationCorpus() {
+        final JsonParser parser = Json.builder().setIterative(true).build();
+        final File[] files = new File("./src/test/resources/validation").listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            if (file.getName().startsWith("y_")) {
+                assertNotNull(parser.parse(Sources.fileSource(file)), file.getName());
+            }
+        }
+    }
+
+    @Test
+    void deepNestingDoesNotOverflowStack() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            builder.append("[{\"a\":");
+        }
+        builder.append("1");
+        for (int i = 0; i < 100_000; i++) {
+            builder.append("}]");
+        }
+        final RootNode rootNode = Json.builder().setIterative(true).setMaxDepth(200_000).build().parse(builder.toString());
+        assertEquals(500_001, rootNode.tokens().size());
+    }
+
+    @Test
+    void sameTokensAcrossRecursionLimit() {
+        final StringBuilder builder = new StringBuilder();
+        final int levels = JsonIterativeParser.RECURSION_LIMIT * 3;
+        for (int i = 0; i < levels; i++) {
+            builder.append(i % 3 == 0 ? "{\"a\": [1, " : i % 3 == 1 ? "[{}, " : "{\"b\": true, \"c\": ");
+        }
+        builder.append("null");
+        for (int i = levels - 1; i >= 0; i--) {
+            builder.append(i % 3 == 0 ? ", 2], \"d\": \"e\"}" : i % 3 == 1 ? ", []]" : "}");
+        }
+        final String json = builder.toString();
+        assertEquals(Json.builder().build().scan(json), Json.builder().setIterative(true).build().scan(json));
+    }
+
+    @Test
+    void maxDepthIsEnforced() {
+        final JsonParser parser = Json.builder().setIterative(true).build();
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            builder.append('[');
+        }
+        try {
+            parser.parse(builder.toString());
+            assertTrue(false);
+        } catch (UnexpectedCharacterException ex) {
+            assertEquals("Too many levels 2001", ex.getMessage());
+        }
+
+        assertNotNull(Json.builder().setIterative(true).setMaxDepth(3).build().parse("[[[1]]]"));
+        assertThrows(UnexpectedCharacterException.class, () -> Json.builder().setIterative(true).setMaxDepth(3).build().parse("[[[{}]]]"));
+    }
+}
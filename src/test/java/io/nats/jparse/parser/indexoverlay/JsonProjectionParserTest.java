@@ -0,0 +1,126 @@
+package io.nats.jparse.parser.indexoverlay;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.Path;
+import io.nats.jparse.node.ArrayNode;
+import io.nats.jparse.node.ObjectNode;
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.parser.JsonParserBuilder;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.token.StringToken;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonProjectionParserTest {
+
+    @Test
+    void builderReturnsProjectionParser() {
+        final JsonParser parser = JsonParserBuilder.builder().setProjectionPaths("a.b").build();
+        assertTrue(parser instanceof JsonProjectionParser);
+    }
+
+    @Test
+    void onlyRequestedKeysAreTokenized() {
+        final JsonParser parser = JsonParserBuilder.builder().setProjectionPaths("b").build();
+        final String json = Json.niceJson("{'a':{'x':[1,2,3]},'b':'hi','c':[true,false]}");
+        final List<Token> tokens = parser.scan(json);
+
+        assertEquals(5, tokens.size());
+        assertEquals(TokenTypes.OBJECT_TOKEN, tokens.get(0).type);
+        assertEquals(TokenTypes.ATTRIBUTE_KEY_TOKEN, tokens.get(1).type);
+        assertEquals(TokenTypes.STRING_TOKEN, tokens.get(4).type);
+        assertEquals("hi", Path.atPath("b", parser.parse(json).getNode()).toString());
+    }
+
+    @Test
+    void nestedPathsOnGlossary() {
+        final CharSource source = Sources.fileSource(new File("./src/test/resources/json/glossary.json"));
+        final RootNode fullRoot = Json.toRootNode(source);
+        final JsonParser parser = JsonParserBuilder.builder().setProjectionPaths(
+                "glossary.title",
+                "glossary.GlossDiv.GlossList.GlossEntry.GlossDef.GlossSeeAlso[1]",
+                "glossary.GlossDiv.GlossList.GlossEntry.GlossDef.lines").build();
+
+        final RootNode root = parser.parse(Sources.fileSource(new File("./src/test/resources/json/glossary.json")));
+
+        assertTrue(root.tokens().size() < fullRoot.tokens().size());
+        assertEquals("example glossary", Path.atPath("glossary.title", root.getNode()).toString());
+        assertEquals("XML", Path.atPath("glossary.GlossDiv.GlossList.GlossEntry.GlossDef.GlossSeeAlso[1]", root.getNode()).toString());
+        assertEquals(100, Path.atPath("glossary.GlossDiv.GlossList.GlossEntry.GlossDef.lines", root.getNode()).asScalar().intValue());
+    }
+
+    @Test
+    void wholeSubtreeIsTokenizedForLeafPath() {
+        final JsonParser parser = JsonParserBuilder.builder().setProjectionPaths("departments[1]").build();
+        final RootNode root = parser.parse(Sources.fileSource(new File("./src/test/resources/json/depts.json")));
+        final RootNode fullRoot = Json.toRootNode(Sources.fileSource(new File("./src/test/resources/json/depts.json")));
+
+        final ObjectNode expected = Path.atPath("departments[1]", fullRoot.getNode()).asCollection().asObject();
+        final ObjectNode department = Path.atPath("departments[1]", root.getNode()).asCollection().asObject();
+        assertEquals(expected.getString("departmentName"), department.getString("departmentName"));
+        assertEquals(expected.getArrayNode("employees").size(), department.getArrayNode("employees").size());
+    }
+
+    @Test
+    void arrayPositionsAreKept() {
+        final JsonParser parser = JsonParserBuilder.builder().setProjectionPaths("[2].a", "[4]").build();
+        final String json = Json.niceJson("[{'a':1},[1,[2]],{'a':'x', 'b':[1,2]},'s',7,{'a':9},[1]]");
+        final RootNode root = parser.parse(json);
+
+        assertEquals("x", Path.atPath("[2].a", root.getNode()).toString());
+        assertEquals(7, Path.atPath("[4]", root.getNode()).asScalar().intValue());
+        final ArrayNode arrayNode = root.getArrayNode();
+        assertEquals(5, arrayNode.size());
+    }
+
+    @Test
+    void scanningStopsWhenAllPathsResolved() {
+        final JsonParser parser = JsonParserBuilder.builder().setProjectionPaths("id").build();
+        /* The rest of the document is not even well-formed, it must never be read. */
+        final String json = "{\"id\": 42, \"rest\": [1, 2, {\"x\": ";
+        final RootNode root = parser.parse(json);
+
+        assertEquals(42, Path.atPath("id", root.getNode()).asScalar().intValue());
+    }
+
+    @Test
+    void missingPathsAreIgnored() {
+        final JsonParser parser = JsonParserBuilder.builder().setProjectionPaths("a.b.c", "z", "d").build();
+        final RootNode root = parser.parse(Json.niceJson("{'a':{'b':[1,2]},'d':'yes','e':{'f':'}]'}}"));
+
+        assertEquals("yes", Path.atPath("d", root.getNode()).toString());
+        assertNull(Path.atPath("z", root.getNode()));
+        assertEquals(2, root.getObjectNode().size());
+    }
+
+    @Test
+    void encodedKeysCarryTheirEscapeFlag() {
+        final JsonParser parser = JsonParserBuilder.builder().setObjectsKeysCanBeEncoded(true)
+                .setProjectionPaths("ab", "plain").build();
+        final String json = "{\"a\\u0062\": 1, \"plain\": 2}";
+        final List<Token> tokens = parser.scan(json);
+
+        assertTrue(((StringToken) tokens.get(2)).hasEscapes);
+        assertFalse(((StringToken) tokens.get(6)).hasEscapes);
+        final ObjectNode object = parser.parse(json).getObjectNode();
+        assertEquals(1, object.getInt("ab"));
+        assertEquals(2, object.getInt("plain"));
+    }
+
+    @Test
+    void findEndOfValueSkipsNestedValues() {
+        final String json = "{\"a\":\"x]}\\\\\\\"\", \"b\":[{\"c\":\"}\"}]} ,";
+        final CharSource source = Sources.stringSource(json);
+        source.nextSkipWhiteSpace();
+        assertEquals(json.lastIndexOf('}') + 1, source.findEndOfValue());
+        assertEquals(',', source.skipWhiteSpace());
+    }
+}
@@ -0,0 +1,96 @@
+package io.nats.jparse.parser.indexoverlay;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonStrictParserTest {
+
+    @Test
+    void sameTokensAsFastParser() {
+        final JsonParser fastParser = Json.builder().build();
+        final JsonParser strictParser = Json.builder().setStrict(true).build();
+        final File[] files = new File("./src/test/resources/json").listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            assertEquals(fastParser.scan(Sources.fileSource(file)), strictParser.scan(Sources.fileSource(file)), file.getName());
+        }
+        final String json = Json.niceJson(" { 'a' : [ ] , 'b':{ }, 'c' : [ 1 , 2.5e3 , [true], {'d':null} ] ,'e':'f' } \n");
+        assertEquals(fastParser.scan(json), strictParser.scan(json));
+    }
+
+    @Test
+    void sameTokensDeeplyNested() {
+        final StringBuilder builder = new StringBuilder();
+        final int levels = 192;
+        for (int i = 0; i < levels; i++) {
+            builder.append(i % 3 == 0 ? "{\"a\": [1, " : i % 3 == 1 ? "[{}, " : "{\"b\": true, \"c\": ");
+        }
+        builder.append("null");
+        for (int i = levels - 1; i >= 0; i--) {
+            builder.append(i % 3 == 0 ? ", 2], \"d\": \"e\"}" : i % 3 == 1 ? ", []]" : "}");
+        }
+        final String json = builder.toString();
+        assertEquals(Json.builder().build().scan(json), Json.builder().setStrict(true).build().scan(json));
+    }
+
+    @Test
+    void encodedKeys() {
+        final JsonParser parser = Json.builder().setStrict(true).setObjectsKeysCanBeEncoded(true).build();
+        final String json = "{\"a\\n\\\"\" : \"b\"}";
+        assertEquals(Json.builder().setObjectsKeysCanBeEncoded(true).build().scan(json), parser.scan(json));
+        assertThrows(UnexpectedCharacterException.class, () -> parser.scan("{\"a\\x\" : \"b\"}"));
+    }
+
+    @Test
+    void nestLevelIsDepthNotContainerCount() {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 5_000; i++) {
+            builder.append(i == 0 ? "" : ",").append("{\"a\":[1]}");
+        }
+        builder.append("]");
+        assertEquals(5_000, Json.builder().setStrict(true).build().parse(builder.toString()).getArrayNode().size());
+    }
+
+    @Test
+    void deepNestingDoesNotOverflowStack() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            builder.append('[');
+        }
+        for (int i = 0; i < 100_000; i++) {
+            builder.append(']');
+        }
+        final String json = builder.toString();
+        assertEquals(100_000, Json.builder().setStrict(true).setMaxDepth(100_000).build().scan(json).size());
+        assertThrows(UnexpectedCharacterException.class, () -> Json.builder().setStrict(true).build().scan(json));
+    }
+
+    @Test
+    void errors() {
+        final JsonParser parser = Json.builder().setStrict(true).build();
+        assertEquals("Trailing comma", message(parser, "[1,2,]"));
+        assertEquals("Trailing comma", message(parser, "{\"a\":1,}"));
+        assertEquals("Unexpected end of JSON", message(parser, "{\"a\":1"));
+        assertEquals("Unexpected character", message(parser, "{\"a\" 1}"));
+        assertEquals("Unexpected character", message(parser, "[1] x"));
+        assertEquals("Unexpected character", message(parser, "[1 2]"));
+        assertEquals("Unexpected character", message(parser, "{\"a\" x : 1}"));
+        assertEquals("Unexpected character", message(parser, "{\"a\" \"b\": 1}"));
+    }
+
+    private static String message(final JsonParser parser, final String json) {
+        try {
+            parser.parse(json);
+        } catch (UnexpectedCharacterException ex) {
+            return ex.getMessage();
+        }
+        return null;
+    }
+}
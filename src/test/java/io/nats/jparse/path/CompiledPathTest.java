@@ -0,0 +1,170 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.path;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.Path;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.node.ShapeCache;
+import io.nats.jparse.source.Sources;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledPathTest {
+
+    @Test
+    void stepsAreResolved() {
+        final CompiledPath path = CompiledPath.compile("['web-app'].servlet[0]['init-param'].useJSP");
+
+        assertEquals(5, path.size());
+        assertEquals("web-app", path.key(0));
+        assertEquals("servlet", path.key(1));
+        assertTrue(path.isIndex(2));
+        assertEquals(0, path.index(2));
+        assertNull(path.key(2));
+        assertEquals(-1, path.index(3));
+        assertEquals("init-param", path.key(3));
+        assertEquals("useJSP", path.value(4));
+        assertEquals("['web-app'].servlet[0]['init-param'].useJSP", path.toString());
+    }
+
+    @Test
+    void sameResultAsPathNode() {
+        final Node root = Json.toRootNode(Sources.fileSource(new File("./src/test/resources/json/webxml.json"))).getNode();
+        final String[] paths = {"['web-app'].servlet[0]['init-param'].useJSP", "['web-app'].servlet[4]['servlet-name']",
+                "['web-app']['taglib']['taglib-uri']", "['web-app'].servlet"};
+        for (String path : paths) {
+            assertEquals(Path.atPath(Path.toPath(path), root), Path.atPath(CompiledPath.compile(path), root));
+        }
+    }
+
+    @Test
+    void compileIsCached() {
+        final CompiledPath path = Path.compile("a.b[1]");
+        assertSame(path, Path.compile("a.b[1]"));
+        assertEquals(CompiledPath.compile("a.b[1]"), path);
+        assertEquals(CompiledPath.compile("a.b[1]").hashCode(), path.hashCode());
+        assertNotEquals(CompiledPath.compile("a.b[2]"), path);
+
+        /* The least recently used paths are evicted once the cache is full. */
+        for (int i = 0; i < Path.PATH_CACHE_SIZE; i++) {
+            Path.compile("c.d[" + i + "]");
+        }
+        assertNotSame(path, Path.compile("a.b[1]"));
+    }
+
+    @Test
+    void compileFromManyThreads() throws Exception {
+        final Node root = Json.toRootNode(Json.niceJson("{'a': [10, 11, 12, 13, 14, 15, 16, 17]}")).getNode();
+        final CompiledPath hot = Path.compile("a[7]");
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < Path.PATH_CACHE_SIZE; i++) {
+                        /* Shared paths, paths only this thread compiles, and enough of them to force evictions. */
+                        assertEquals(10 + i % 8, Path.atPath(Path.compile("a[" + i % 8 + "]"), root).asScalar().intValue());
+                        final String path = "e[" + thread + "][" + i + "]";
+                        assertEquals(CompiledPath.compile(path), Path.compile(path));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        /* Used all along, so not evicted. */
+        assertSame(hot, Path.compile("a[7]"));
+        for (int i = 0; i < Path.PATH_CACHE_SIZE; i++) {
+            Path.compile("f[" + i + "]");
+        }
+        assertNotSame(hot, Path.compile("a[7]"));
+    }
+
+    @Test
+    void missingPaths() {
+        final Node root = Json.toRootNode(Json.niceJson("{'a': [1, {'b': 2}]}")).getNode();
+
+        assertEquals(2, Path.atPath("a[1].b", root).asScalar().intValue());
+        assertNull(Path.atPath("c", root));
+        assertThrows(IllegalStateException.class, () -> Path.atPath("c.d", root));
+        assertThrows(IllegalStateException.class, () -> Path.atPath("a.b", root));
+        assertThrows(IllegalStateException.class, () -> Path.atPath("a[0].b", root));
+        assertThrows(IllegalStateException.class, () -> Path.atPath("[0]", root));
+    }
+
+    @Test
+    void findAndExists() {
+        final Node root = Json.toRootNode(Json.niceJson("{'a': [1, {'b': 2, '': 'empty'}], 'c': {'d': null}, 'e': 's'}"));
+
+        assertEquals(2, Path.find(Path.compile("a[1].b"), root).asScalar().intValue());
+        assertEquals("empty", Path.find(Path.compile("a[1]['']"), root).toString());
+        assertEquals("s", Path.find(Path.compile("e"), root).toString());
+        assertEquals(Path.atPath("c", root), Path.find(Path.compile("c"), root));
+        assertEquals(Path.atPath("a", root), Path.find(Path.compile("a"), root));
+        assertTrue(Path.exists(Path.compile("c.d"), root));
+        assertTrue(Path.find(Path.compile("c.d"), root).type() == io.nats.jparse.node.NodeType.NULL);
+
+        final String[] missing = {"x", "x.y", "a.b", "a[2]", "a[0].b", "a[1].bb", "c[0]", "c.d.e", "e.f", "[0]", "a[1].b.c"};
+        for (String path : missing) {
+            assertNull(Path.find(Path.compile(path), root), path);
+            assertFalse(Path.exists(Path.compile(path), root), path);
+        }
+    }
+
+    @Test
+    void findKeepsKeyEncodingAndShapes() {
+        final String json = "{\"o\": {\"a\\u0062\": 1}, \"list\": [{\"x\": 1}, {\"x\": 2}]}";
+        final Node encoded = Json.builder().setObjectsKeysCanBeEncoded(true).build().parse(json);
+        final Node found = Path.find(Path.compile("o"), encoded);
+        assertEquals(1, found.asCollection().getNode("ab").asScalar().intValue());
+        assertEquals(Path.atPath("o", encoded), found);
+
+        final ShapeCache shapes = new ShapeCache();
+        final Node shaped = Json.builder().setShapeCache(shapes).build().parse(json);
+        final Node list = Path.find(Path.compile("list"), shaped);
+        assertEquals(2, list.asCollection().asArray().getObjectNode(1).getInt("x"));
+        assertEquals(1, shapes.size());
+    }
+
+    @Test
+    void findOnNestedNodesAndProjections() {
+        final Node root = Json.toRootNode(Sources.fileSource(new File("./src/test/resources/json/webxml.json"))).getNode();
+        final Node servlet = Path.atPath("['web-app'].servlet[0]", root);
+        assertFalse(Path.find(Path.compile("['init-param'].useJSP"), servlet).asScalar().booleanValue());
+        assertEquals(Path.atPath("['web-app'].servlet[0]['init-param'].useJSP", root),
+                Path.find(Path.compile("['web-app'].servlet[0]['init-param'].useJSP"), root));
+
+        final Node projected = Json.builder().setProjectionPaths("['web-app'].servlet[1]['servlet-name']").build()
+                .parse(Sources.fileSource(new File("./src/test/resources/json/webxml.json"))).getNode();
+        assertEquals("cofaxEmail", Path.find(Path.compile("['web-app'].servlet[1]['servlet-name']"), projected).toString());
+        assertFalse(Path.exists(Path.compile("['web-app'].servlet[0]['servlet-name']"), projected));
+        assertFalse(Path.exists(Path.compile("['web-app'].taglib"), projected));
+    }
+}
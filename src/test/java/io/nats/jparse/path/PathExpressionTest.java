@@ -0,0 +1,140 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.path;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.Path;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathExpressionTest {
+
+    private static final Node DEPTS = Json.toRootNode(Sources.fileSource(new File("./src/test/resources/json/depts.json")));
+
+    private static List<String> strings(final List<Node> nodes) {
+        final List<String> strings = new ArrayList<>();
+        for (Node node : nodes) {
+            strings.add(node.toString());
+        }
+        return strings;
+    }
+
+    private static List<String> select(final String expression, final String json) {
+        return strings(PathExpression.compile(expression).select(Json.toRootNode(Json.niceJson(json))));
+    }
+
+    @Test
+    void keysAndIndexes() {
+        assertEquals("[Engineering]", strings(PathExpression.compile("$.departments[0].departmentName").select(DEPTS)).toString());
+        assertEquals("[Engineering]", strings(PathExpression.compile("departments[0]['departmentName']").select(DEPTS)).toString());
+        assertEquals("[3]", select("$.a[-1]", "{'a': [1, 2, 3]}").toString());
+        assertEquals("[1, 3]", select("$.a[0,2,7]", "{'a': [1, 2, 3]}").toString());
+        assertEquals("[1, 2]", select("$['a','b']", "{'a': 1, 'b': 2, 'c': 3}").toString());
+        assertEquals("[]", select("$.x.y", "{'a': 1}").toString());
+    }
+
+    @Test
+    void root() {
+        final List<Node> nodes = PathExpression.compile("$").select(DEPTS);
+        assertEquals(1, nodes.size());
+        assertSame(DEPTS, nodes.get(0));
+    }
+
+    @Test
+    void wildcards() {
+        assertEquals("[1, 2]", select("$.*", "{'a': 1, 'b': 2}").toString());
+        assertEquals("[1, 2]", select("$.a[*]", "{'a': [1, 2]}").toString());
+        assertEquals("[Bob, Rick, Cindy, Sarah, Sam, Suzy]",
+                strings(PathExpression.compile("$.departments[*].employees[*].firstName").select(DEPTS)).toString());
+    }
+
+    @Test
+    void recursiveDescent() {
+        assertEquals("[Bob, Rick, Cindy, Sarah, Sam, Suzy]",
+                strings(PathExpression.compile("$..firstName").select(DEPTS)).toString());
+        assertEquals("[1, 2, 3]", select("$..x", "{'x': 1, 'a': {'x': 2, 'b': [{'x': 3}]}}").toString());
+        assertEquals("[3]", select("$..[1]", "{'a': [{'b': [2, 3]}]}").toString());
+        assertEquals(8, select("$..*", "{'a': {'b': [1, 2]}, 'c': [true, {'d': null}]}").size());
+    }
+
+    @Test
+    void slices() {
+        final String json = "{'a': [0, 1, 2, 3, 4, 5]}";
+        assertEquals("[1, 2]", select("$.a[1:3]", json).toString());
+        assertEquals("[0, 1]", select("$.a[:2]", json).toString());
+        assertEquals("[4, 5]", select("$.a[-2:]", json).toString());
+        assertEquals("[0, 2, 4]", select("$.a[::2]", json).toString());
+        assertEquals("[1, 4]", select("$.a[1:100:3]", json).toString());
+        assertEquals("[]", select("$.a[4:2]", json).toString());
+    }
+
+    @Test
+    void filters() {
+        assertEquals("[Bob, Cindy, Sarah, Sam, Suzy]",
+                strings(PathExpression.compile("$..employees[?(@.manager == true)].firstName").select(DEPTS)).toString());
+        assertEquals("[Rick]",
+                strings(PathExpression.compile("$..employees[?(@.manager != true)].firstName").select(DEPTS)).toString());
+        assertEquals("[Rick]",
+                strings(PathExpression.compile("$..employees[?(@.lastName == 'Hightower')].firstName").select(DEPTS)).toString());
+        assertEquals("[Cindy]",
+                strings(PathExpression.compile("$..employees[?(@.id > 777)].firstName").select(DEPTS)).toString());
+
+        final String json = "{'a': [{'n': 1}, {'n': 2.5}, {'n': 'x'}, {'m': 1}, {'n': null}, 3]}";
+        assertEquals("[{\"n\": 2.5}]", select("$.a[?(@.n >= 2)]", json).toString());
+        assertEquals("[{\"n\": 1}, {\"n\": 2.5}]", select("$.a[?(@.n < 3)]", json).toString());
+        assertEquals(4, select("$.a[?(@.n)]", json).size());
+        assertEquals(3, select("$.a[?(@.n != 1)]", json).size());
+        assertEquals("[{\"n\": null}]", select("$.a[?(@.n == null)]", json).toString());
+        assertEquals("[3]", select("$.a[?(@ == 3)]", json).toString());
+        assertEquals("[{\"n\": 1}]", select("$.a[0][?(@.n == 1)]", json).toString());
+        assertEquals("[b]", select("$.a[?(@['x-y'][-1] == 2)].n", "{'a': [{'x-y': [2, 1], 'n': 'a'}, {'x-y': [1, 2], 'n': 'b'}]}").toString());
+    }
+
+    @Test
+    void descendantFilters() {
+        /* An item matches once, though it is reached from its array and by itself. */
+        assertEquals("[{\"m\": true}]", select("$..[?(@.m == true)]", "{'d': [{'m': true}, {'m': false}]}").toString());
+        assertEquals(2, select("$..[?(@.m == true)]", "{'d': [{'m': true, 'c': [{'m': true}]}], 'm': false}").size());
+        assertEquals("[true, true]", select("$..[?(@.m == true)].m", "{'d': [{'m': true}], 'e': {'m': true}}").toString());
+        assertEquals(4, select("$..[?(@.n)]", "{'a': [{'n': 1}, {'n': 2}], 'b': {'n': [{'n': 3}]}}").size());
+    }
+
+    @Test
+    void selectedNodesAreUsable() {
+        final List<Node> employees = Path.select("$.departments[0].employees[?(@.id == 999)]", DEPTS);
+        assertEquals(1, employees.size());
+        assertEquals("Torre-alto", employees.get(0).asCollection().asObject().getString("lastName"));
+        assertSame(employees.get(0), employees.get(0));
+    }
+
+    @Test
+    void invalidExpressions() {
+        assertThrows(UnexpectedCharacterException.class, () -> PathExpression.compile("$.a["));
+        assertThrows(UnexpectedCharacterException.class, () -> PathExpression.compile("$.a['b"));
+        assertThrows(UnexpectedCharacterException.class, () -> PathExpression.compile("$.a[::0]"));
+        assertThrows(UnexpectedCharacterException.class, () -> PathExpression.compile("$.a[?(@.b == )]"));
+        assertThrows(UnexpectedCharacterException.class, () -> PathExpression.compile("$a"));
+        assertEquals("$..a[1:2]", PathExpression.compile("$..a[1:2]").toString());
+    }
+}
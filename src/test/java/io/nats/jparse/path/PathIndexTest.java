@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.path;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.Path;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.source.Sources;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathIndexTest {
+
+    @Test
+    void sameResultsAsFind() {
+        final Node root = Json.toRootNode(Sources.fileSource(new File("./src/test/resources/json/webxml.json")));
+        final PathIndex index = PathIndex.of(root);
+        final String[] paths = {"['web-app']", "['web-app'].servlet", "['web-app'].servlet[0]['servlet-name']",
+                "['web-app'].servlet[0]['init-param'].useJSP", "['web-app'].servlet[4]['init-param'].logLocation",
+                "['web-app']['servlet-mapping'].cofaxCDS", "['web-app'].taglib['taglib-location']",
+                "['web-app'].servlet[5]", "['web-app'].servlet.x", "['web-app'].missing", "missing"};
+        for (String path : paths) {
+            final CompiledPath compiled = Path.compile(path);
+            assertEquals(Path.find(compiled, root), index.find(compiled), path);
+            assertEquals(Path.exists(compiled, root), index.exists(compiled), path);
+            assertEquals(compiled.locate(root.tokens(), root.charSource(), 0), index.tokenIndex(compiled), path);
+        }
+        assertEquals("cofaxCDS", index.find("['web-app'].servlet[0]['servlet-name']").toString());
+        assertNull(index.find("['web-app'].servlet[5]"));
+    }
+
+    @Test
+    void containersKeepKeyEncoding() {
+        final String json = "{\"o\": {\"a\\u0062\": 1}, \"list\": [{\"c\\u0064\": 2}]}";
+        final Node root = Json.builder().setObjectsKeysCanBeEncoded(true).build().parse(json);
+        assertEquals(1, PathIndex.of(root).find("o").asCollection().getNode("ab").asScalar().intValue());
+        assertEquals(2, PathExpression.compile("$.list[0]").select(root).get(0).asCollection().getNode("cd")
+                .asScalar().intValue());
+    }
+
+    @Test
+    void rootAndArrays() {
+        final Node root = Json.toRootNode(Json.niceJson("[1, [2, 3], {'a': [4]}, []]"));
+        final PathIndex index = PathIndex.of(root);
+        assertEquals(9, index.size());
+        assertSame(root, index.find(CompiledPath.compile("")));
+        assertEquals("3", index.find("[1][1]").toString());
+        assertEquals("4", index.find("[2].a[0]").toString());
+        assertEquals("[4]", index.find("[2].a").toString());
+        assertEquals(0, index.find("[3]").asCollection().asArray().size());
+        assertNull(index.find("[2].b"));
+        assertNull(index.find("[0][0]"));
+    }
+
+    @Test
+    void keysDoNotCollideWithIndexes() {
+        final Node root = Json.toRootNode(Json.niceJson("{'0': 'key', 'a': {'b': {'c': 1}}, 'ab': {'c': 2}}"));
+        final PathIndex index = PathIndex.of(root);
+        assertEquals("key", index.find("['0']").toString());
+        assertNull(index.find("[0]"));
+        assertEquals("1", index.find("a.b.c").toString());
+        assertEquals("2", index.find("ab.c").toString());
+        assertNull(index.find("a.bc"));
+    }
+
+    @Test
+    void firstDuplicateKeyWins() {
+        final Node root = Json.toRootNode(Json.niceJson("{'a': {'x': 1}, 'a': {'y': 2}}"));
+        final PathIndex index = PathIndex.of(root);
+        assertEquals("1", index.find("a.x").toString());
+        assertNull(index.find("a.y"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void memory() {
+        final Node root = Json.toRootNode(Json.niceJson("{'a': 1, 'b': [true, false], 'c': null}"));
+        final PathIndex index = PathIndex.of(root);
+        assertEquals(6, index.size());
+        assertTrue(index.memoryBytes() >= 24L * 2 * index.size());
+        assertTrue(index.memoryBytes() <= 24L * 4 * index.size() + 80);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.path;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.Path;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.node.ShapeCache;
+import io.nats.jparse.source.Sources;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathSetTest {
+
+    @Test
+    void sameResultsAsFind() {
+        final Node root = Json.toRootNode(Sources.fileSource(new File("./src/test/resources/cloudevents/glossaryEvent.json")));
+        final String[] paths = {"id", "data.glossary.title", "data.glossary.GlossDiv.title",
+                "data.glossary.GlossDiv.GlossList.GlossEntry.GlossDef.para",
+                "data.glossary.GlossDiv.GlossList.GlossEntry.GlossDef.GlossSeeAlso[1]",
+                "data.glossary.GlossDiv.GlossList.GlossEntry.GlossDef.GlossSeeAlso",
+                "data.glossary.GlossDiv.GlossList.GlossEntry.GlossDef.lines",
+                "data.glossary.GlossDiv.GlossList.GlossEntry.GlossDef.GlossSeeAlso[2]",
+                "data.glossary.missing", "aNumber", "aNumber.x", "id", "data"};
+        final PathSet pathSet = PathSet.of(paths);
+        final Node[] results = pathSet.find(root);
+
+        assertEquals(paths.length, pathSet.size());
+        for (int id = 0; id < paths.length; id++) {
+            assertEquals(Path.find(Path.compile(paths[id]), root), results[id], paths[id]);
+            assertEquals(CompiledPath.compile(paths[id]), pathSet.path(id));
+        }
+        assertEquals("example glossary", results[1].toString());
+        assertEquals("XML", results[4].toString());
+        assertNull(results[7]);
+        assertNull(results[8]);
+        assertNull(results[10]);
+        assertEquals(results[0], results[11]);
+    }
+
+    @Test
+    void reusedResults() {
+        final PathSet pathSet = PathSet.of(Arrays.asList(CompiledPath.compile("[0].a"), CompiledPath.compile("[2]"),
+                CompiledPath.compile("[1][0]")));
+        final Node[] results = new Node[3];
+
+        assertEquals(3, pathSet.find(Json.toRootNode(Json.niceJson("[{'a': 1}, [true], 'x']")), results));
+        assertEquals(1, results[0].asScalar().intValue());
+        assertEquals("x", results[1].toString());
+        assertTrue(results[2].asScalar().booleanValue());
+
+        assertEquals(2, pathSet.find(Json.toRootNode(Json.niceJson("[{'b': 1}, ['y'], 'z']")), results));
+        assertNull(results[0]);
+        assertEquals("z", results[1].toString());
+        assertEquals("y", results[2].toString());
+
+        assertEquals(1, pathSet.find(Json.toRootNode(Json.niceJson("[{'a': {}}, 'not an array']")), results));
+        assertNull(results[1]);
+        assertNull(results[2]);
+
+        assertEquals(0, pathSet.find(Json.toRootNode(Json.niceJson("{'a': 1}")), results));
+        assertArrayEquals(new Node[3], results);
+    }
+
+    @Test
+    void emptyPathAndDuplicateKeys() {
+        final Node root = Json.toRootNode(Json.niceJson("{'a': 1, 'a': 2, 'b': {'c': 3}}"));
+        final Node[] results = PathSet.of("a", "b.c", "b").find(root);
+
+        assertEquals(1, results[0].asScalar().intValue());
+        assertEquals(3, results[1].asScalar().intValue());
+        assertEquals(Path.atPath("b", root), results[2]);
+    }
+
+    @Test
+    void containersKeepKeyEncodingAndShapes() {
+        final String json = "{\"o\": {\"a\\u0062\": 1}, \"list\": [{\"x\": 1}, {\"x\": 2}]}";
+        final Node encoded = Json.builder().setObjectsKeysCanBeEncoded(true).build().parse(json);
+        final Node[] results = PathSet.of("o", "list", "o").find(encoded);
+        assertEquals(1, results[0].asCollection().getNode("ab").asScalar().intValue());
+        assertSame(results[0], results[2]);
+
+        final ShapeCache shapes = new ShapeCache();
+        final Node shaped = Json.builder().setShapeCache(shapes).build().parse(json);
+        assertEquals(2, PathSet.of("list").find(shaped)[0].asCollection().asArray().getObjectNode(1).getInt("x"));
+        assertEquals(1, shapes.size());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.path;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PredicateIndexTest {
+
+    private static int[] match(final PredicateIndex.Matcher matcher, final String json) {
+        final Node root = Json.toRootNode(Json.niceJson(json));
+        final int[] ids = Arrays.copyOf(matcher.matches(), matcher.match(root));
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    @Test
+    void equalityAndIn() {
+        final PredicateIndex.Builder builder = PredicateIndex.builder();
+        assertEquals(0, builder.add("type == 'order.created'"));
+        assertEquals(1, builder.add("type == 'order.created' && payload.region in ['eu', 'us']"));
+        assertEquals(2, builder.add("payload.region == \"apac\""));
+        assertEquals(3, builder.add("type == 'order.deleted' && payload.region == 'eu'"));
+        final PredicateIndex index = builder.build();
+        assertEquals(4, index.size());
+        assertEquals(2, index.pathCount());
+
+        final PredicateIndex.Matcher matcher = index.matcher();
+        assertArrayEquals(new int[]{0, 1}, match(matcher, "{'type': 'order.created', 'payload': {'region': 'eu'}}"));
+        assertArrayEquals(new int[]{0, 2}, match(matcher, "{'type': 'order.created', 'payload': {'region': 'apac'}}"));
+        assertArrayEquals(new int[]{0}, match(matcher, "{'type': 'order.created'}"));
+        assertArrayEquals(new int[]{3}, match(matcher, "{'type': 'order.deleted', 'payload': {'region': 'eu'}}"));
+        assertArrayEquals(new int[]{}, match(matcher, "{'type': 'order.deleted', 'payload': {'region': 'us'}}"));
+        assertArrayEquals(new int[]{}, match(matcher, "{'type': {'order.created': 1}, 'payload': []}"));
+    }
+
+    @Test
+    void literalKinds() {
+        final PredicateIndex.Builder builder = PredicateIndex.builder();
+        builder.add("a == 1");
+        builder.add("a == '1'");
+        builder.add("a in [true, null]");
+        builder.add("a == 2.5 && b[1] == false");
+        final PredicateIndex.Matcher matcher = builder.build().matcher();
+        assertArrayEquals(new int[]{0}, match(matcher, "{'a': 1}"));
+        assertArrayEquals(new int[]{1}, match(matcher, "{'a': '1'}"));
+        assertArrayEquals(new int[]{2}, match(matcher, "{'a': true}"));
+        assertArrayEquals(new int[]{2}, match(matcher, "{'a': null}"));
+        assertArrayEquals(new int[]{}, match(matcher, "{'a': false}"));
+        assertArrayEquals(new int[]{3}, match(matcher, "{'a': 2.5, 'b': [true, false]}"));
+        assertArrayEquals(new int[]{}, match(matcher, "{'a': 2.50, 'b': [true, false]}"));
+    }
+
+    @Test
+    void clausesOnOnePathAreIntersected() {
+        final PredicateIndex.Builder builder = PredicateIndex.builder();
+        builder.add("a in [1, 2, 3] && a in [2, 3, 4] && a == 3");
+        builder.add("a == 1 && a == 2");
+        final PredicateIndex.Matcher matcher = builder.build().matcher();
+        assertArrayEquals(new int[]{0}, match(matcher, "{'a': 3}"));
+        assertArrayEquals(new int[]{}, match(matcher, "{'a': 2}"));
+        assertArrayEquals(new int[]{}, match(matcher, "{'a': 1}"));
+    }
+
+    @Test
+    void manyPredicates() {
+        final PredicateIndex.Builder builder = PredicateIndex.builder();
+        for (int i = 0; i < 1000; i++) {
+            builder.add("type == 'order.created' && payload.region == 'r" + (i % 10) + "' && payload.customer == 'c" + i + "'");
+        }
+        final PredicateIndex index = builder.build();
+        assertEquals(3, index.pathCount());
+        final PredicateIndex.Matcher matcher = index.matcher();
+        for (int i = 0; i < 1000; i += 97) {
+            assertArrayEquals(new int[]{i}, match(matcher,
+                    "{'type': 'order.created', 'payload': {'customer': 'c" + i + "', 'region': 'r" + (i % 10) + "'}}"));
+        }
+        assertArrayEquals(new int[]{}, match(matcher, "{'type': 'order.created', 'payload': {'customer': 'c1', 'region': 'r2'}}"));
+    }
+
+    @Test
+    void invalidPredicates() {
+        final PredicateIndex.Builder builder = PredicateIndex.builder();
+        assertThrows(UnexpectedCharacterException.class, () -> builder.add(""));
+        assertThrows(UnexpectedCharacterException.class, () -> builder.add("a = 1"));
+        assertThrows(UnexpectedCharacterException.class, () -> builder.add("a == 'x"));
+        assertThrows(UnexpectedCharacterException.class, () -> builder.add("a in [1, 2"));
+        assertThrows(UnexpectedCharacterException.class, () -> builder.add("a == x"));
+        assertThrows(UnexpectedCharacterException.class, () -> builder.add("a == 1 || b == 2"));
+        assertEquals(0, builder.build().size());
+    }
+}
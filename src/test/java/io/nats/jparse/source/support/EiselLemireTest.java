@@ -0,0 +1,142 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.source.support;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.node.ArrayNode;
+import io.nats.jparse.token.NumberTypes;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EiselLemireTest {
+
+    private static final String[] HARD_CASES = {
+            "0", "-0", "0.0", "-0.0e10", "1", "-1", "0.1", "0.2", "0.3", "123.456", "-1.23e-4", "1.7e+9",
+            "1e308", "1.7976931348623157e308", "1.7976931348623158e308", "1.7976931348623159e308", "2e308",
+            "4.9e-324", "2.4703282292062327e-324", "2.4703282292062328e-324", "1e-400",
+            "2.2250738585072011e-308", "2.2250738585072014e-308",
+            "9007199254740993", "9007199254740992.5", "9007199254740993.0000000000000000001",
+            "123456789012345678901234567890", "0.000000000000000000000000000000000001", "1e23",
+            "8.988465674311579e307", "3.4028235e38", "3.4028236e38", "1.4e-45", "1e-45",
+            "7.006492321624085e-46", "7.006492321624086e-46", "1.17549435e-38",
+            "1.00000005960464477550", "1.000000059604644775390625", "1.0000000596046447753906250000000001",
+            "16777217", "33554435", "1E5", "12345678901234567890e-10", "1e99999999999"
+    };
+
+    private static void assertSameAsJdk(final String number) {
+        final char[] chars = number.toCharArray();
+        assertEquals(Double.doubleToRawLongBits(Double.parseDouble(number)),
+                Double.doubleToRawLongBits(EiselLemire.parseDouble(chars, 0, chars.length)), number);
+        assertEquals(Float.floatToRawIntBits(Float.parseFloat(number)),
+                Float.floatToRawIntBits(EiselLemire.parseFloat(chars, 0, chars.length)), number);
+    }
+
+    @Test
+    void hardCases() {
+        for (String number : HARD_CASES) {
+            assertSameAsJdk(number);
+        }
+    }
+
+    @Test
+    void randomDoubles() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            final double value = Double.longBitsToDouble(random.nextLong() & 0x7FEFFFFFFFFFFFFFL);
+            assertSameAsJdk(Double.toString(value));
+            if (!Float.isInfinite((float) value)) {
+                assertSameAsJdk(Float.toString((float) value));
+            }
+        }
+    }
+
+    @Test
+    void halfwayBetweenDoubles() {
+        final Random random = new Random(7);
+        final BigDecimal two = BigDecimal.valueOf(2);
+        for (int i = 0; i < 10_000; i++) {
+            final double value = Double.longBitsToDouble(random.nextLong() & 0x7FEFFFFFFFFFFFFFL);
+            final BigDecimal halfway = new BigDecimal(value).add(new BigDecimal(Math.nextUp(value))).divide(two);
+            assertSameAsJdk(halfway.toString());
+        }
+    }
+
+    @Test
+    void randomDigits() {
+        final Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            final StringBuilder number = new StringBuilder();
+            final int digits = 1 + random.nextInt(25);
+            for (int d = 0; d < digits; d++) {
+                number.append((char) ('0' + random.nextInt(10)));
+            }
+            number.insert(random.nextInt(digits) + 1, '.');
+            if (random.nextBoolean()) {
+                number.append('e').append(random.nextInt(700) - 350);
+            }
+            assertSameAsJdk(number.toString());
+        }
+    }
+
+    @Test
+    void simpleDecimals() {
+        final Random random = new Random(13);
+        for (int i = 0; i < 100_000; i++) {
+            final StringBuilder number = new StringBuilder(random.nextBoolean() ? "-" : "");
+            final int digits = 1 + random.nextInt(NumberTypes.SIMPLE_DECIMAL_MAX_DIGITS);
+            for (int d = 0; d < digits; d++) {
+                number.append((char) ('0' + random.nextInt(10)));
+            }
+            number.insert(number.length() - random.nextInt(digits), '.');
+            final char[] chars = ("[" + number + "]").toCharArray();
+            assertEquals(Double.parseDouble(number.toString()), EiselLemire.parseSimpleDecimal(chars, 1, chars.length - 1),
+                    number.toString());
+        }
+        assertEquals(-0.0, EiselLemire.parseSimpleDecimal("-0.0".toCharArray(), 0, 4));
+    }
+
+    @Test
+    void subRange() {
+        final char[] chars = "[1.5,-2.25e3]".toCharArray();
+        assertEquals(1.5, EiselLemire.parseDouble(chars, 1, 4));
+        assertEquals(-2250.0, EiselLemire.parseDouble(chars, 5, 12));
+        assertEquals(-2250.0f, EiselLemire.parseFloat(chars, 5, 12));
+    }
+
+    @Test
+    void invalidInput() {
+        for (String number : new String[]{"123a.456", "123..456", "1.23e4.5", "-", "1e", "1e+", "."}) {
+            final char[] chars = number.toCharArray();
+            assertThrows(UnexpectedCharacterException.class, () -> EiselLemire.parseDouble(chars, 0, chars.length), number);
+        }
+    }
+
+    @Test
+    void nodesAreCorrectlyRounded() {
+        final ArrayNode array = Json.toArrayNode("[0.1, 0.3, 2.2250738585072011e-308, 123456789.123456789, 1.7e+200]");
+        assertEquals(0.1, array.getDouble(0));
+        assertEquals(0.3, array.getDouble(1));
+        assertEquals(2.2250738585072011e-308, array.getDouble(2));
+        assertEquals(123456789.123456789, array.getDouble(3));
+        assertEquals(1.7e+200, array.getDouble(4));
+        assertEquals(0.3f, array.getFloat(1));
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.source.support;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.node.ObjectNode;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParseIntegerTest {
+
+    private static final String[] LONGS = {
+            "0", "-0", "+0", "7", "-7", "12345678", "-12345678", "123456789", "1234567890123456",
+            "99999999", "100000000", "1700000000000", "-1700000000000", "9007199254740993",
+            "999999999999999999", "1000000000000000000", "9223372036854775807", "-9223372036854775808",
+            "2147483647", "-2147483648", "2147483648", "-2147483649", "00000000000000000000000042", "-0000000000000000000001"
+    };
+
+    private static long parseLong(final String string) {
+        return ParseInteger.parseLong(string.toCharArray(), 0, string.length());
+    }
+
+    private static int parseInt(final String string) {
+        return ParseInteger.parseInt(string.toCharArray(), 0, string.length());
+    }
+
+    private static BigInteger parseBigInteger(final String string) {
+        return ParseInteger.parseBigInteger(string.toCharArray(), 0, string.length());
+    }
+
+    @Test
+    void parseLongMatchesJdk() {
+        for (String string : LONGS) {
+            assertEquals(Long.parseLong(string), parseLong(string), string);
+        }
+    }
+
+    @Test
+    void parseIntMatchesJdk() {
+        for (String string : LONGS) {
+            final long expected = Long.parseLong(string);
+            if (expected == (int) expected) {
+                assertEquals(expected, parseInt(string), string);
+            } else {
+                assertThrows(ArithmeticException.class, () -> parseInt(string), string);
+            }
+        }
+    }
+
+    @Test
+    void parseRandom() {
+        final Random random = new Random(33);
+        for (int i = 0; i < 100_000; i++) {
+            final long value = random.nextLong() >> random.nextInt(64);
+            final String string = Long.toString(value);
+            assertEquals(value, parseLong(string), string);
+            assertEquals(BigInteger.valueOf(value), parseBigInteger(string), string);
+            if (value == (int) value) {
+                assertEquals((int) value, parseInt(string), string);
+            }
+        }
+    }
+
+    @Test
+    void overflowIsExact() {
+        assertThrows(ArithmeticException.class, () -> parseLong("9223372036854775808"));
+        assertThrows(ArithmeticException.class, () -> parseLong("-9223372036854775809"));
+        assertThrows(ArithmeticException.class, () -> parseLong("9999999999999999999"));
+        assertThrows(ArithmeticException.class, () -> parseLong("18446744073709551616"));
+        assertThrows(ArithmeticException.class, () -> parseLong("123456789012345678901234567890"));
+        assertThrows(ArithmeticException.class, () -> parseInt("2147483648"));
+        assertThrows(ArithmeticException.class, () -> parseInt("-2147483649"));
+        assertThrows(ArithmeticException.class, () -> parseInt("9999999999"));
+        assertThrows(ArithmeticException.class, () -> parseInt("10000000000"));
+    }
+
+    @Test
+    void parseBigInteger() {
+        final String[] strings = {"9223372036854775808", "-9223372036854775809", "9999999999999999999",
+                "-18446744073709551616", "123456789012345678901234567890123456789012345678901234567890",
+                "-100000000000000000000000000000000000", "000000000000000000000000000000000000007",
+                "9223372036854775807", "-9223372036854775808", "0"};
+        for (String string : strings) {
+            assertEquals(new BigInteger(string), parseBigInteger(string), string);
+        }
+    }
+
+    @Test
+    void illegalCharacters() {
+        assertThrows(UnexpectedCharacterException.class, () -> parseLong("-"));
+        assertThrows(UnexpectedCharacterException.class, () -> parseLong("12345a78"));
+        assertThrows(UnexpectedCharacterException.class, () -> parseLong("1234567/9012"));
+        assertThrows(UnexpectedCharacterException.class, () -> parseLong("123456789:"));
+        assertThrows(UnexpectedCharacterException.class, () -> parseLong("1.5"));
+        /* Chars whose low byte is an ASCII digit. */
+        assertThrows(UnexpectedCharacterException.class, () -> parseLong("1234İ56789"));
+        assertThrows(UnexpectedCharacterException.class, () -> parseInt("ı"));
+        assertThrows(UnexpectedCharacterException.class, () -> parseLong("12345678901234567890x"));
+        assertThrows(UnexpectedCharacterException.class, () -> parseBigInteger("1234567890123456789012345x"));
+    }
+
+    @Test
+    void subRange() {
+        final char[] chars = "[1700000000000,-42]".toCharArray();
+        assertEquals(1700000000000L, ParseInteger.parseLong(chars, 1, 14));
+        assertEquals(-42, ParseInteger.parseInt(chars, 15, 18));
+    }
+
+    @Test
+    void everyCharSource() {
+        final String json = "xx[1700000000000,9223372036854775807,9223372036854775808,-12,1.5]";
+        final CharSource[] sources = {
+                Sources.charSource(json.substring(2).toCharArray()),
+                Sources.charSource(2, json.toCharArray()),
+        };
+        for (CharSource source : sources) {
+            assertEquals(1700000000000L, source.getLong(1, 14));
+            assertEquals(Long.MAX_VALUE, source.getLong(15, 34));
+            assertThrows(ArithmeticException.class, () -> source.getLong(35, 54));
+            assertEquals(new BigInteger("9223372036854775808"), source.getBigInteger(35, 54));
+            assertEquals(-12, source.getInt(55, 58));
+            assertThrows(ArithmeticException.class, () -> source.getInt(1, 14));
+            assertEquals(BigInteger.ONE, source.getBigInteger(59, 62));
+        }
+    }
+
+    @Test
+    void nodes() {
+        final ObjectNode event = Json.toRootNode("{\"ts\":1700000000123,\"id\":1234567890123456789,"
+                + "\"big\":12345678901234567890}").getObjectNode();
+        assertEquals(1700000000123L, event.getLong("ts"));
+        assertEquals(1234567890123456789L, event.getLong("id"));
+        assertEquals(new BigInteger("12345678901234567890"), event.getBigInteger("big"));
+        assertEquals(new BigInteger("12345678901234567890"), event.getNumberNode("big").value());
+    }
+}
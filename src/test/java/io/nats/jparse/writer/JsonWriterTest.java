@@ -0,0 +1,212 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.writer;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.Path;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.node.NodeType;
+import io.nats.jparse.node.ObjectNode;
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.source.Sources;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonWriterTest {
+
+    @Test
+    void writeDocument() {
+        final JsonWriter writer = new JsonWriter();
+        writer.startObject()
+                .key("id").value(42)
+                .key("big").value(-9_000_000_000L)
+                .key("price").value(12.5)
+                .key("ok").value(true)
+                .key("none").nullValue()
+                .key("tags").startArray().value("a").value("b").startObject().endObject().startArray().endArray().endArray()
+                .key("empty").startObject().endObject()
+                .endObject();
+        final String json = "{\"id\":42,\"big\":-9000000000,\"price\":12.5,\"ok\":true,\"none\":null," +
+                "\"tags\":[\"a\",\"b\",{},[]],\"empty\":{}}";
+        assertEquals(json, writer.toString());
+        assertEquals(json.length(), writer.length());
+        assertEquals(12.5, Json.toRootNode(writer.toString()).getObjectNode().getDouble("price"));
+
+        writer.reset();
+        writer.startArray().value(1).endArray();
+        assertEquals("[1]", writer.toString());
+    }
+
+    @Test
+    void escapeStrings() {
+        final JsonWriter writer = new JsonWriter();
+        writer.startObject().key("a\"b").value("tab\tquote\" slash\\ nl\n \u0001 \u001f / café 😀").endObject();
+        assertEquals("{\"a\\\"b\":\"tab\\tquote\\\" slash\\\\ nl\\n \\u0001 \\u001f / café 😀\"}", writer.toString());
+        assertEquals("tab\tquote\" slash\\ nl\n \u0001 \u001f / café 😀",
+                Json.parser(true, true).parse(writer.toString()).getObjectNode().getString("a\"b"));
+
+        final StringBuilder builder = new StringBuilder();
+        for (int ch = 0; ch < 0x800; ch++) {
+            builder.append((char) ch);
+        }
+        writer.reset();
+        writer.value(builder);
+        assertEquals(builder.toString(), Json.toRootNode(writer.toString()).getStringNode().toString());
+        writer.reset();
+        writer.value((String) null);
+        assertEquals("null", writer.toString());
+    }
+
+    @Test
+    void writeIntegers() {
+        final JsonWriter writer = new JsonWriter();
+        final long[] values = {0, 1, -1, 9, 10, 99, 100, 999_999_999, 1_000_000_000, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                Integer.MAX_VALUE + 1L, 3_000_000_005L, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1};
+        final Random random = new Random(7);
+        for (long value : values) {
+            writer.reset();
+            assertEquals(Long.toString(value), writer.value(value).toString());
+        }
+        for (int i = 0; i < 10_000; i++) {
+            final long value = random.nextLong() >> random.nextInt(64);
+            writer.reset();
+            assertEquals(Long.toString(value), writer.value(value).toString());
+            writer.reset();
+            assertEquals(Integer.toString((int) value), writer.value((int) value).toString());
+        }
+    }
+
+    @Test
+    void writeShortestDoubles() {
+        final JsonWriter writer = new JsonWriter();
+        final String[][] expected = {{"0", "0.0"}, {"-0", "-0.0"}, {"1", "1.0"}, {"0.1", "0.1"}, {"0.3", "0.3"},
+                {"100", "100.0"}, {"1234567", "1234567.0"}, {"1e7", "1.0E7"}, {"12345678", "1.2345678E7"},
+                {"0.001", "0.001"}, {"0.0001", "1.0E-4"}, {"123.456", "123.456"}, {"-2.5e-5", "-2.5E-5"},
+                {"1e23", "1.0E23"}, {"2e23", "2.0E23"}, {"4.9e-324", "4.9E-324"},
+                {"2.2250738585072014E-308", "2.2250738585072014E-308"}, {"1.7976931348623157E308", "1.7976931348623157E308"},
+                {"9007199254740993", "9.007199254740992E15"}};
+        for (String[] pair : expected) {
+            writer.reset();
+            assertEquals(pair[1], writer.value(Double.parseDouble(pair[0])).toString(), pair[0]);
+        }
+
+        final Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            final double value = i % 2 == 0 ? Double.longBitsToDouble(random.nextLong()) : random.nextInt(1_000_000) / 1000.0;
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                continue;
+            }
+            writer.reset();
+            final String written = writer.value(value).toString();
+            assertEquals(value, Double.parseDouble(written), written);
+            assertTrue(significantDigits(written) <= significantDigits(Double.toString(value)), written);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> writer.value(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> writer.value(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void embedNodes() {
+        final RootNode root = Json.toRootNode(Sources.fileSource(new File("./src/test/resources/json/webxml.json")));
+        final Node servlet = Path.atPath("['web-app'].servlet[0]", root);
+        final Node name = Path.atPath("['web-app'].servlet[0]['servlet-name']", root);
+        final Node maxUrl = Path.atPath("['web-app'].servlet[0]['init-param'].maxUrlLength", root);
+
+        final JsonWriter writer = new JsonWriter(new char[8]);
+        writer.startObject().key("servlet").value(servlet).key("name").value(name).key("max").value(maxUrl)
+                .key("missing").value((Node) null).endObject();
+        final ObjectNode copy = Json.toRootNode(writer.toString()).getObjectNode();
+        assertEquals(servlet, copy.getNode("servlet"));
+        assertEquals("cofaxCDS", copy.getString("name"));
+        assertEquals(500, copy.getInt("max"));
+        assertEquals(NodeType.NULL, copy.getNode("missing").type());
+        assertTrue(writer.buffer().length >= writer.length());
+
+        writer.reset();
+        writer.value(Json.toRootNode("\"a\\\"b\""));
+        assertEquals("\"a\\\"b\"", writer.toString());
+    }
+
+    @Test
+    void writeToTargets() {
+        final RootNode root = Json.toRootNode(Sources.fileSource(new File("./src/test/resources/json/webxml.json")));
+        final String expected = write(new JsonWriter(), root).toString();
+
+        final StringBuilder builder = new StringBuilder();
+        write(new JsonWriter(builder), root).flush();
+        assertEquals(expected, builder.toString());
+
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        write(new JsonWriter(stream), root).flush();
+        assertEquals(expected, new String(stream.toByteArray(), StandardCharsets.UTF_8));
+
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(expected.length() * 4);
+        write(new JsonWriter(byteBuffer), root).flush();
+        assertEquals(expected, new String(byteBuffer.array(), 0, byteBuffer.position(), StandardCharsets.UTF_8));
+
+        final JsonWriter writer = write(new JsonWriter(), root);
+        final byte[] utf8 = expected.getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(utf8, writer.toByteArray());
+        final byte[] bytes = new byte[writer.length() * 3 + 2];
+        assertEquals(utf8.length, writer.toUtf8(bytes, 2));
+        assertArrayEquals(utf8, Arrays.copyOfRange(bytes, 2, 2 + utf8.length));
+        assertArrayEquals(expected.toCharArray(), writer.toCharArray());
+    }
+
+    @Test
+    void loneSurrogatesBecomeQuestionMarks() {
+        /* A lone high surrogate at every offset, so one lands at the end of the buffer when it is flushed. */
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            text.append(i % 7 == 0 ? '\uD83D' : 'x');
+        }
+        final JsonWriter writer = new JsonWriter().startArray().value(text).value("\uD83D").value("\uDE00 \uD83D").endArray();
+        final byte[] expected = writer.toString().getBytes(StandardCharsets.UTF_8);
+
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        new JsonWriter(stream).startArray().value(text).value("\uD83D").value("\uDE00 \uD83D").endArray().flush();
+        assertArrayEquals(expected, stream.toByteArray());
+        assertArrayEquals(expected, writer.toByteArray());
+    }
+
+    /* Writes enough to flush a target buffer several times, with a surrogate pair likely to straddle a flush. */
+    private static JsonWriter write(final JsonWriter writer, final Node node) {
+        writer.startArray();
+        for (int i = 0; i < 20; i++) {
+            writer.value(node).value("😀 é €").value(i * 1.1).value(i);
+        }
+        return writer.endArray();
+    }
+
+    private static int significantDigits(final String number) {
+        String digits = number.startsWith("-") ? number.substring(1) : number;
+        final int exponent = digits.indexOf('E');
+        if (exponent >= 0) {
+            digits = digits.substring(0, exponent);
+        }
+        digits = digits.replace(".", "").replaceAll("^0+", "").replaceAll("0+$", "");
+        return Math.max(1, digits.length());
+    }
+}